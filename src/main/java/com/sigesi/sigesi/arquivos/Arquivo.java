@@ -6,6 +6,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -28,15 +29,19 @@ import lombok.NoArgsConstructor;
 public class Arquivo {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "arquivos_seq")
+  @SequenceGenerator(name = "arquivos_seq", sequenceName = "arquivos_seq", allocationSize = 50)
   private Long id;
 
   @NotBlank
   @Column(nullable = false)
   private String nomeOriginal;
 
+  /**
+   * Object key in MinIO; shared by every Arquivo with the same content.
+   */
   @NotBlank
-  @Column(nullable = false, unique = true)
+  @Column(nullable = false)
   private String storageKey;
 
   @NotBlank
@@ -49,6 +54,9 @@ public class Arquivo {
 
   private String categoria;
 
+  @Column(length = 64)
+  private String checksum;
+
   @NotNull
   @Column(nullable = false)
   private LocalDateTime uploadedAt;
@@ -56,6 +64,12 @@ public class Arquivo {
   @Builder.Default
   private Boolean ativo = true;
 
+  /**
+   * When StorageReconciler found the object at storageKey missing; null while it exists.
+   * Independent of ativo, which is the soft delete.
+   */
+  private LocalDateTime blobAusenteEm;
+
   @PrePersist
   protected void onCreate() {
     uploadedAt = LocalDateTime.now();
@@ -0,0 +1,53 @@
+package com.sigesi.sigesi.arquivos;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Unique stored content, addressed by its SHA-256.
+ * Each Arquivo with the same checksum counts as one reference.
+ */
+@Entity
+@Table(name = "arquivo_blobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArquivoBlob {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "arquivo_blobs_seq")
+  @SequenceGenerator(name = "arquivo_blobs_seq", sequenceName = "arquivo_blobs_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(nullable = false, unique = true, length = 64)
+  private String sha256;
+
+  @Column(nullable = false, unique = true)
+  private String storageKey;
+
+  @Column(nullable = false)
+  private Long tamanho;
+
+  @Column(nullable = false)
+  private int referencias;
+
+  @Column(nullable = false)
+  private LocalDateTime createdAt;
+
+  @PrePersist
+  protected void onCreate() {
+    createdAt = LocalDateTime.now();
+  }
+}
@@ -0,0 +1,45 @@
+package com.sigesi.sigesi.arquivos;
+
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for ArquivoBlob.
+ */
+@Repository
+public interface ArquivoBlobRepository extends JpaRepository<ArquivoBlob, Long> {
+
+  /**
+   * Locks the blob row so concurrent uploads and deletes update the reference count in turn.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select b from ArquivoBlob b where b.sha256 = :sha256")
+  Optional<ArquivoBlob> findBySha256ForUpdate(@Param("sha256") String sha256);
+
+  boolean existsBySha256(String sha256);
+
+  /**
+   * Inserts the blob with one reference unless its hash is already there, and returns the
+   * rows inserted. A concurrent insert of the same hash makes this wait for it and insert
+   * nothing instead of failing on the unique constraint. PostgreSQL only.
+   */
+  @Modifying
+  @Query(value = """
+      INSERT INTO arquivo_blobs (id, sha256, storage_key, tamanho, referencias, created_at)
+      VALUES (nextval('arquivo_blobs_seq'), :sha256, :storageKey, :tamanho, 1, LOCALTIMESTAMP)
+      ON CONFLICT DO NOTHING
+      """, nativeQuery = true)
+  int insertIfAbsent(@Param("sha256") String sha256, @Param("storageKey") String storageKey,
+      @Param("tamanho") long tamanho);
+
+  @Query("select b.storageKey from ArquivoBlob b where b.storageKey in :keys")
+  List<String> findStorageKeysIn(@Param("keys") Collection<String> keys);
+}
@@ -2,9 +2,22 @@ package com.sigesi.sigesi.arquivos;
 
 import com.sigesi.sigesi.arquivos.dtos.ArquivoResponseDTO;
 import com.sigesi.sigesi.arquivos.dtos.FileUrlResponseDTO;
+import com.sigesi.sigesi.arquivos.dtos.PresignedUploadConfirmDTO;
+import com.sigesi.sigesi.arquivos.dtos.PresignedUploadRequestDTO;
+import com.sigesi.sigesi.arquivos.dtos.PresignedUploadResponseDTO;
+import com.sigesi.sigesi.storage.ObjectStat;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -12,10 +25,14 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller for file operations.
@@ -25,9 +42,14 @@ import org.springframework.web.multipart.MultipartFile;
 @Tag(name = "arquivos")
 public class ArquivoController {
 
+  private static final Duration THUMBNAIL_MAX_AGE = Duration.ofDays(1);
+
   @Autowired
   private ArquivoService arquivoService;
 
+  @Autowired
+  private ThumbnailService thumbnailService;
+
   /**
    * Upload a file.
    */
@@ -40,6 +62,50 @@ public class ArquivoController {
     return ResponseEntity.status(HttpStatus.CREATED).body(result);
   }
 
+  /**
+   * Upload a file sent as the raw request body, streamed straight to storage.
+   * The Content-Type header must be the file's type (e.g. image/jpeg).
+   */
+  @PostMapping("/upload/stream")
+  public ResponseEntity<ArquivoResponseDTO> uploadStream(
+      @RequestParam("filename") String filename,
+      @RequestParam(value = "categoria", required = false) String categoria,
+      HttpServletRequest request) throws IOException {
+
+    ArquivoResponseDTO result = arquivoService.uploadStream(request.getInputStream(),
+        request.getContentLengthLong(), filename, baseContentType(request.getContentType()), categoria);
+    return ResponseEntity.status(HttpStatus.CREATED).body(result);
+  }
+
+  /**
+   * Sign a form for uploading the file straight to MinIO (multipart POST to {@code url}
+   * with {@code fields} followed by the file). The policy pins the key, type and size.
+   */
+  @PostMapping("/upload/presigned")
+  public ResponseEntity<PresignedUploadResponseDTO> createPresignedUpload(
+      @Valid @RequestBody PresignedUploadRequestDTO request) {
+    return ResponseEntity.ok(arquivoService.createPresignedUpload(request));
+  }
+
+  /**
+   * Record a file uploaded with {@link #createPresignedUpload}, after checking the stored object.
+   */
+  @PostMapping("/upload/presigned/confirm")
+  public ResponseEntity<ArquivoResponseDTO> confirmPresignedUpload(
+      @Valid @RequestBody PresignedUploadConfirmDTO confirm) {
+    ArquivoResponseDTO result = arquivoService.confirmPresignedUpload(confirm);
+    return ResponseEntity.status(HttpStatus.CREATED).body(result);
+  }
+
+  private String baseContentType(String header) {
+    if (header == null) {
+      return null;
+    }
+    // Drop parameters such as charset so the type matches the allowed list
+    MediaType type = MediaType.parseMediaType(header);
+    return type.getType() + "/" + type.getSubtype();
+  }
+
   /**
    * Get all files.
    */
@@ -68,21 +134,93 @@ public class ArquivoController {
   }
 
   /**
-   * Download file content via proxy.
+   * Download file content via proxy, written to the response off the request thread.
+   *
+   * <p>The ETag is the MinIO object ETag: a matching If-None-Match gets 304. A single
+   * byte range (Range, honoured only when If-Range matches the ETag) gets 206 with only
+   * those bytes, so interrupted downloads can resume. Several ranges or an invalid Range
+   * header get the whole file; a range past the end gets 416.
    */
   @GetMapping("/{id}/download")
-  public ResponseEntity<org.springframework.core.io.Resource> downloadFile(@PathVariable Long id) {
-    ArquivoResponseDTO metadata = arquivoService.getFileMetadata(id);
-    java.io.InputStream inputStream = arquivoService.downloadFile(id);
+  public ResponseEntity<StreamingResponseBody> downloadFile(@PathVariable Long id,
+      @RequestHeader HttpHeaders headers, WebRequest request) {
+    Arquivo arquivo = arquivoService.getArquivoEntityById(id);
+    ObjectStat stat = arquivoService.statContent(arquivo);
+    String etag = "\"" + stat.etag() + "\"";
+
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
 
-    org.springframework.core.io.InputStreamResource resource = new org.springframework.core.io.InputStreamResource(
-        inputStream);
+    long size = stat.size();
+    long start = 0;
+    long end = size - 1;
+    HttpRange range = requestedRange(headers, etag);
+    if (range != null) {
+      start = range.getRangeStart(size);
+      end = range.getRangeEnd(size);
+      if (start > end) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+            .build();
+      }
+    }
+
+    long offset = start;
+    long length = end - start + 1;
+    StreamingResponseBody body = out -> arquivoService.writeContent(arquivo, offset, length, out);
+    ResponseEntity.BodyBuilder response = range == null
+        ? ResponseEntity.ok()
+        : ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+            .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+    return response
+        .contentType(MediaType.parseMediaType(arquivo.getContentType()))
+        .contentLength(length)
+        .eTag(etag)
+        .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename(arquivo.getNomeOriginal(), StandardCharsets.UTF_8).build().toString())
+        .body(body);
+  }
 
+  /**
+   * Preview of an image: JPEG with the largest side limited to {@code size} pixels (one
+   * of the configured sizes), or with {@code size=original} the full image without
+   * metadata. Derivatives never change for a given file, so clients may cache them.
+   */
+  @GetMapping("/{id}/thumbnail")
+  public ResponseEntity<StreamingResponseBody> getThumbnail(@PathVariable Long id,
+      @RequestParam(defaultValue = "320") String size, WebRequest request) {
+    Arquivo arquivo = arquivoService.getArquivoEntityById(id);
+    ObjectStat stat = thumbnailService.statVariant(arquivo, size);
+    String etag = "\"" + stat.etag() + "\"";
+    CacheControl cacheControl = CacheControl.maxAge(THUMBNAIL_MAX_AGE).cachePrivate();
+
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+    }
     return ResponseEntity.ok()
-        .contentType(MediaType.parseMediaType(metadata.getContentType()))
-        .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION,
-            "attachment; filename=\"" + metadata.getNomeOriginal() + "\"")
-        .body(resource);
+        .contentType(MediaType.parseMediaType(thumbnailService.variantContentType(arquivo, size)))
+        .contentLength(stat.size())
+        .eTag(etag)
+        .cacheControl(cacheControl)
+        .body(out -> thumbnailService.writeVariant(arquivo, size, out));
+  }
+
+  /**
+   * The single range to send, or null for the whole file.
+   */
+  private static HttpRange requestedRange(HttpHeaders headers, String etag) {
+    String ifRange = headers.getFirst(HttpHeaders.IF_RANGE);
+    if (ifRange != null && !ifRange.equals(etag)) {
+      return null;
+    }
+    try {
+      List<HttpRange> ranges = headers.getRange();
+      return ranges.size() == 1 ? ranges.get(0) : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
   }
 
   /**
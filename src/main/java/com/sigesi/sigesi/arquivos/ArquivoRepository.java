@@ -1,7 +1,11 @@
 package com.sigesi.sigesi.arquivos;
 
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,4 +17,20 @@ public interface ArquivoRepository extends JpaRepository<Arquivo, Long> {
   List<Arquivo> findByAtivoTrueOrderByUploadedAtDesc();
 
   List<Arquivo> findByCategoriaOrderByUploadedAtDesc(String categoria);
+
+  boolean existsByStorageKey(String storageKey);
+
+  List<Arquivo> findByStorageKeyAndBlobAusenteEmIsNull(String storageKey);
+
+  List<Arquivo> findByStorageKeyInAndBlobAusenteEmIsNotNull(Collection<String> storageKeys);
+
+  /**
+   * Distinct storage keys after {@code after}, in byte order (the column uses the C
+   * collation, V13), read from idx_arquivos_storage_key.
+   */
+  @Query("select distinct a.storageKey from Arquivo a where a.storageKey > :after order by a.storageKey")
+  List<String> findStorageKeysAfter(@Param("after") String after, Limit limit);
+
+  @Query("select distinct a.storageKey from Arquivo a where a.storageKey in :keys")
+  List<String> findStorageKeysIn(@Param("keys") Collection<String> keys);
 }
@@ -2,14 +2,40 @@ package com.sigesi.sigesi.arquivos;
 
 import com.sigesi.sigesi.arquivos.dtos.ArquivoResponseDTO;
 import com.sigesi.sigesi.arquivos.dtos.FileUrlResponseDTO;
+import com.sigesi.sigesi.arquivos.dtos.PresignedUploadConfirmDTO;
+import com.sigesi.sigesi.arquivos.dtos.PresignedUploadRequestDTO;
+import com.sigesi.sigesi.arquivos.dtos.PresignedUploadResponseDTO;
 import com.sigesi.sigesi.arquivos.util.StorageKeyGenerator;
 import com.sigesi.sigesi.arquivos.validation.FileValidator;
+import com.sigesi.sigesi.arquivos.validation.InvalidFileException;
+import com.sigesi.sigesi.arquivos.validation.ValidatingInputStream;
+import com.sigesi.sigesi.config.ConflictException;
+import com.sigesi.sigesi.config.ConstraintViolations;
 import com.sigesi.sigesi.config.NotFoundException;
 import com.sigesi.sigesi.storage.MinioService;
+import com.sigesi.sigesi.storage.ObjectStat;
+import com.sigesi.sigesi.storage.PresignedPost;
+import com.sigesi.sigesi.storage.PresignedUrl;
+import com.sigesi.sigesi.storage.PresignedUrlCache;
+import com.sigesi.sigesi.storage.StorageException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
@@ -18,62 +44,328 @@ import org.springframework.web.multipart.MultipartFile;
 @Service
 public class ArquivoService {
 
+  private static final int HASH_BUFFER_SIZE = 8192;
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+  private static final String UPLOAD_KEY_INDEX = "uk_arquivos_upload_storage_key";
+
   @Autowired
   private ArquivoRepository arquivoRepository;
 
   @Autowired
   private ArquivoMapper arquivoMapper;
 
+  @Autowired
+  private ArquivoBlobRepository arquivoBlobRepository;
+
   @Autowired
   private MinioService minioService;
 
+  @Autowired
+  private ThumbnailService thumbnailService;
+
+  @Autowired
+  private PresignedUrlCache presignedUrlCache;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${app.arquivos.presigned-upload.expiry-minutes:15}")
+  private int presignedUploadExpiryMinutes;
+
   /**
    * Upload file to MinIO and save metadata.
+   * Content already stored (same SHA-256) is not sent again; only a reference is added.
    */
   @Transactional
   public ArquivoResponseDTO uploadFile(MultipartFile file, String categoria) {
     // Validate file
     FileValidator.validateFile(file);
 
-    // Generate unique storage key
-    String storageKey;
-    if (categoria != null && !categoria.isEmpty()) {
-      storageKey = StorageKeyGenerator.generateCategoryKey(categoria, file.getOriginalFilename());
+    String checksum = sha256(file);
+    String storageKey = acquireBlob(checksum, file.getSize(), file.getContentType(), key -> {
+      try {
+        minioService.uploadFile(file, key);
+      } catch (Exception e) {
+        throw new RuntimeException("Não foi possível enviar o arquivo para o armazenamento", e);
+      }
+    });
+
+    Arquivo arquivo = Arquivo.builder()
+        .nomeOriginal(file.getOriginalFilename())
+        .storageKey(storageKey)
+        .contentType(file.getContentType())
+        .tamanho(file.getSize())
+        .checksum(checksum)
+        .categoria(categoria)
+        .ativo(true)
+        .build();
+
+    return arquivoMapper.toDto(saveMetadata(arquivo));
+  }
+
+  /**
+   * Upload a raw request body straight to MinIO, validating magic bytes, size and
+   * checksum while the content flows through, without staging it in memory or on disk.
+   * The body lands on a temporary key and is promoted to its content key (or dropped
+   * as a duplicate) once the hash is known.
+   *
+   * <p>Not transactional, so no database connection is held while the body streams: the
+   * blob reference and the metadata are written in a short transaction at the end. The
+   * temporary object is deleted whatever the outcome; a content object left without
+   * references by a failed transaction goes to the storage reconciler, since a concurrent
+   * upload of the same content may already point at it.
+   *
+   * @param contentLength declared length, or -1 when the body is chunked
+   */
+  public ArquivoResponseDTO uploadStream(InputStream body, long contentLength,
+      String filename, String contentType, String categoria) {
+    FileValidator.validateStreamMetadata(filename, contentType, contentLength);
+
+    String tempKey = StorageKeyGenerator.generateTempKey(filename);
+    ValidatingInputStream content =
+        new ValidatingInputStream(body, contentType, FileValidator.MAX_STREAM_FILE_SIZE);
+
+    try {
+      try {
+        minioService.uploadStream(content, contentLength, contentType, tempKey);
+      } catch (Exception e) {
+        if (content.getViolation() != null) {
+          throw content.getViolation();
+        }
+        throw new RuntimeException("Não foi possível enviar o arquivo para o armazenamento", e);
+      }
+
+      String checksum = content.getChecksum();
+      // New content is copied before the transaction; a duplicate is not copied at all
+      boolean promoted = !arquivoBlobRepository.existsBySha256(checksum);
+      if (promoted) {
+        minioService.copyFile(tempKey, StorageKeyGenerator.generateContentKey(checksum));
+      }
+
+      Arquivo saved = new TransactionTemplate(transactionManager).execute(status -> {
+        String storageKey = acquireBlob(checksum, content.getBytesRead(), contentType, key -> {
+          if (!promoted) {
+            // The blob was released after the check above
+            minioService.copyFile(tempKey, key);
+          }
+        });
+        return saveMetadata(Arquivo.builder()
+            .nomeOriginal(filename)
+            .storageKey(storageKey)
+            .contentType(contentType)
+            .tamanho(content.getBytesRead())
+            .checksum(checksum)
+            .categoria(categoria)
+            .ativo(true)
+            .build());
+      });
+      return arquivoMapper.toDto(saved);
+    } finally {
+      deleteObjectQuietly(tempKey);
+    }
+  }
+
+  /**
+   * Sign a form for the client to upload the file straight to MinIO. Nothing is recorded
+   * until {@link #confirmPresignedUpload} is called with the returned key.
+   */
+  public PresignedUploadResponseDTO createPresignedUpload(PresignedUploadRequestDTO request) {
+    FileValidator.validateStreamMetadata(request.getFilename(), request.getContentType(), request.getTamanho());
+
+    String storageKey = StorageKeyGenerator.generateUploadKey(request.getFilename());
+    PresignedPost post = minioService.presignPost(storageKey, request.getContentType(),
+        request.getTamanho(), presignedUploadExpiryMinutes);
+
+    return PresignedUploadResponseDTO.builder()
+        .storageKey(storageKey)
+        .url(post.url())
+        .fields(post.fields())
+        .expiresInSeconds(presignedUploadExpiryMinutes * 60L)
+        .build();
+  }
+
+  /**
+   * Record a file uploaded straight to MinIO. The object is checked in storage (type,
+   * size and magic bytes, read with a HEAD and a ranged GET, not the whole content) and
+   * removed when it does not pass. The content hash is not known, so the file owns its
+   * object like files stored before content addressing.
+   *
+   * <p>Not transactional: the storage checks run before the short transaction that
+   * inserts the row. Two confirmations of the same key racing past the existence check
+   * are told apart by the unique index on upload keys, and the loser gets a conflict.
+   */
+  public ArquivoResponseDTO confirmPresignedUpload(PresignedUploadConfirmDTO confirm) {
+    String storageKey = confirm.getStorageKey();
+    if (!StorageKeyGenerator.isUploadKey(storageKey)) {
+      throw new InvalidFileException("Chave de envio inválida");
+    }
+    FileValidator.validateFilename(confirm.getFilename());
+    FileValidator.validateFileExtension(confirm.getFilename());
+    if (arquivoRepository.existsByStorageKey(storageKey)) {
+      throw new ConflictException("Envio já confirmado");
+    }
+
+    ObjectStat stat;
+    try {
+      stat = minioService.statFile(storageKey);
+    } catch (StorageException e) {
+      throw new NotFoundException("Envio não encontrado no armazenamento");
+    }
+    try {
+      validateUploadedObject(storageKey, stat);
+    } catch (InvalidFileException e) {
+      deleteObjectQuietly(storageKey);
+      throw e;
+    }
+
+    Arquivo arquivo = Arquivo.builder()
+        .nomeOriginal(confirm.getFilename())
+        .storageKey(storageKey)
+        .contentType(stat.contentType())
+        .tamanho(stat.size())
+        .categoria(confirm.getCategoria())
+        .ativo(true)
+        .build();
+
+    Arquivo saved = saveUpload(arquivo);
+    thumbnailService.generateAfterCommit(storageKey, stat.contentType());
+    return arquivoMapper.toDto(saved);
+  }
+
+  /**
+   * Inserts the row of a presigned upload in its own transaction, flushing so a
+   * concurrent confirmation of the same key shows up here as a unique violation.
+   */
+  private Arquivo saveUpload(Arquivo arquivo) {
+    try {
+      return new TransactionTemplate(transactionManager).execute(status -> arquivoRepository.saveAndFlush(arquivo));
+    } catch (DataIntegrityViolationException e) {
+      if (ConstraintViolations.isViolationOf(e, UPLOAD_KEY_INDEX)) {
+        throw new ConflictException("Envio já confirmado", e);
+      }
+      throw e;
+    }
+  }
+
+  private void validateUploadedObject(String storageKey, ObjectStat stat) {
+    FileValidator.validateContentType(stat.contentType());
+    if (stat.size() <= 0) {
+      throw new InvalidFileException("O arquivo está vazio");
+    }
+    if (stat.size() > FileValidator.MAX_STREAM_FILE_SIZE) {
+      throw new InvalidFileException(FileValidator.streamSizeMessage());
+    }
+    int length = (int) Math.min(stat.size(), FileValidator.SIGNATURE_LENGTH);
+    byte[] header;
+    try (InputStream in = minioService.downloadFile(storageKey, 0, length)) {
+      header = in.readNBytes(length);
+    } catch (IOException e) {
+      throw new StorageException("Não foi possível baixar o arquivo", e);
+    }
+    if (!FileValidator.matchesSignature(stat.contentType(), header, header.length)) {
+      throw new InvalidFileException("O conteúdo do arquivo não corresponde ao tipo informado");
+    }
+  }
+
+  /**
+   * Adds a reference to the blob with this hash, storing the content through
+   * {@code storeNew} (and queueing its image derivatives) only when the hash is not
+   * known yet. Returns the blob key. When two uploads of new content race, both store the
+   * same object under the same key; the one whose insert loses adds its reference to the
+   * row the other committed.
+   */
+  private String acquireBlob(String checksum, long tamanho, String contentType, Consumer<String> storeNew) {
+    Optional<ArquivoBlob> existing = arquivoBlobRepository.findBySha256ForUpdate(checksum);
+    if (existing.isEmpty()) {
+      String storageKey = StorageKeyGenerator.generateContentKey(checksum);
+      storeNew.accept(storageKey);
+      if (arquivoBlobRepository.insertIfAbsent(checksum, storageKey, tamanho) > 0) {
+        thumbnailService.generateAfterCommit(storageKey, contentType);
+        return storageKey;
+      }
+      existing = arquivoBlobRepository.findBySha256ForUpdate(checksum);
+    }
+
+    ArquivoBlob blob = existing
+        .orElseThrow(() -> new IllegalStateException("Blob " + checksum + " sumiu durante o envio"));
+    blob.setReferencias(blob.getReferencias() + 1);
+    arquivoBlobRepository.save(blob);
+    return blob.getStorageKey();
+  }
+
+  /**
+   * Removes one reference and returns the object key to delete, or null for content
+   * addressed objects. Files stored before content addressing and presigned uploads (no
+   * blob row) own their object. A blob's object outlives its last reference: an upload of
+   * the same content may be storing it again at this moment, before its row exists, so
+   * the storage reconciler removes it once it is past the grace period and unreferenced.
+   */
+  private String releaseBlob(Arquivo arquivo) {
+    Optional<ArquivoBlob> existing = arquivo.getChecksum() == null
+        ? Optional.empty()
+        : arquivoBlobRepository.findBySha256ForUpdate(arquivo.getChecksum());
+    if (existing.isEmpty()) {
+      return arquivo.getStorageKey();
+    }
+
+    ArquivoBlob blob = existing.get();
+    blob.setReferencias(blob.getReferencias() - 1);
+    if (blob.getReferencias() > 0) {
+      arquivoBlobRepository.save(blob);
     } else {
-      storageKey = StorageKeyGenerator.generateKey(file.getOriginalFilename());
+      arquivoBlobRepository.delete(blob);
     }
+    return null;
+  }
 
-    // Upload to MinIO first
+  private Arquivo saveMetadata(Arquivo arquivo) {
+    // A failed save rolls back the blob reference too; an object left without
+    // references is harmless (same content reuses it) and is not deleted here
+    // because a concurrent upload may already point at it.
     try {
-      minioService.uploadFile(file, storageKey);
+      return arquivoRepository.save(arquivo);
     } catch (Exception e) {
-      throw new RuntimeException("Não foi possível enviar o arquivo para o armazenamento", e);
+      throw new RuntimeException("Não foi possível salvar os dados do arquivo", e);
     }
+  }
 
-    // Save metadata
-    Arquivo arquivo;
+  private String sha256(MultipartFile file) {
+    try (InputStream in = file.getInputStream()) {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] buffer = new byte[HASH_BUFFER_SIZE];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (IOException | NoSuchAlgorithmException e) {
+      throw new RuntimeException("Não foi possível ler o arquivo enviado", e);
+    }
+  }
+
+  private void deleteObjectQuietly(String storageKey) {
     try {
-      arquivo = Arquivo.builder()
-          .nomeOriginal(file.getOriginalFilename())
-          .storageKey(storageKey)
-          .contentType(file.getContentType())
-          .tamanho(file.getSize())
-          .categoria(categoria)
-          .ativo(true)
-          .build();
-
-      arquivo = arquivoRepository.save(arquivo);
+      minioService.deleteFile(storageKey);
     } catch (Exception e) {
-      // Rollback: delete file from MinIO if DB save fails
-      try {
-        minioService.deleteFile(storageKey);
-      } catch (Exception cleanupEx) {
-        // Log cleanup failure
-      }
-      throw new RuntimeException("Não foi possível salvar os dados do arquivo", e);
+      // Log cleanup failure
     }
+  }
 
-    return arquivoMapper.toDto(arquivo);
+  /**
+   * Deletes the object only after the transaction commits, so a rollback never
+   * leaves metadata pointing at a removed object.
+   */
+  private void deleteObjectAfterCommit(String storageKey) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      deleteObjectQuietly(storageKey);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        deleteObjectQuietly(storageKey);
+      }
+    });
   }
 
   /**
@@ -96,52 +388,68 @@ public class ArquivoService {
   }
 
   /**
-   * Generate presigned download URL.
+   * Generate presigned download URL, reusing a cached one while it stays valid long enough.
    */
   @Transactional(readOnly = true)
   public FileUrlResponseDTO generateDownloadUrl(Long id) {
     Arquivo arquivo = arquivoRepository.findById(id)
         .orElseThrow(() -> new NotFoundException("Arquivo não encontrado com id " + id));
 
-    // Generate URL valid for 1 hour
-    String url = minioService.getPresignedUrl(arquivo.getStorageKey(), 60);
+    PresignedUrl url = presignedUrlCache.get(arquivo.getStorageKey());
 
     return FileUrlResponseDTO.builder()
         .fileId(id)
-        .url(url)
-        .expiresInSeconds(3600L)
+        .url(url.url())
+        .expiresInSeconds(url.expiresInSeconds(System.currentTimeMillis()))
         .nomeOriginal(arquivo.getNomeOriginal())
         .build();
   }
 
   /**
-   * Download file content.
+   * ETag and size of the stored content, read from storage.
    */
-  @Transactional(readOnly = true)
-  public java.io.InputStream downloadFile(Long id) {
-    Arquivo arquivo = arquivoRepository.findById(id)
-        .orElseThrow(() -> new NotFoundException("Arquivo não encontrado com id " + id));
+  public ObjectStat statContent(Arquivo arquivo) {
+    return minioService.statFile(arquivo.getStorageKey());
+  }
 
-    return minioService.downloadFile(arquivo.getStorageKey());
+  /**
+   * Copy {@code length} bytes of the file content, starting at {@code offset}, to
+   * {@code out} through a fixed buffer. Not transactional, so no database connection is
+   * held while the content flows. The output stream is not closed.
+   */
+  public void writeContent(Arquivo arquivo, long offset, long length, OutputStream out) throws IOException {
+    if (length == 0) {
+      return;
+    }
+    try (InputStream in = minioService.downloadFile(arquivo.getStorageKey(), offset, length)) {
+      byte[] buffer = new byte[COPY_BUFFER_SIZE];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+    }
   }
 
   /**
-   * Delete file (metadata and storage).
+   * Delete file metadata; an object the file owns goes away with its derivatives after commit.
    */
   @Transactional
   public void deleteFile(Long id) {
     Arquivo arquivo = arquivoRepository.findById(id)
         .orElseThrow(() -> new NotFoundException("Arquivo não encontrado com id " + id));
 
-    // Delete from MinIO
-    try {
-      minioService.deleteFile(arquivo.getStorageKey());
-    } catch (Exception e) {
-      // Log error but continue with metadata deletion
-    }
+    String orphanKey = releaseBlob(arquivo);
 
     // Delete metadata
     arquivoRepository.delete(arquivo);
+
+    if (orphanKey != null) {
+      presignedUrlCache.invalidate(orphanKey);
+      deleteObjectAfterCommit(orphanKey);
+      if (thumbnailService.supports(arquivo.getContentType())) {
+        thumbnailService.derivativeKeys(orphanKey).forEach(this::deleteObjectAfterCommit);
+      }
+    }
   }
 
   /**
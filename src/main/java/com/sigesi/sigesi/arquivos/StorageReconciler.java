@@ -0,0 +1,399 @@
+package com.sigesi.sigesi.arquivos;
+
+import com.sigesi.sigesi.storage.MinioService;
+import com.sigesi.sigesi.storage.StoredObject;
+import jakarta.annotation.PostConstruct;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Background job that reconciles the bucket with the arquivos table.
+ *
+ * <p>Content whose last reference is deleted is left for this job (an upload of the same
+ * content may be storing it again at that moment). Object deletes run after commit and
+ * swallow MinIO failures, and an upload that fails after storing its content leaves the
+ * object behind, as do presigned uploads that are never confirmed. Each run walks the
+ * bucket listing and the distinct arquivos.storage_key values side by side, both in key
+ * order and one page at a time, so neither side is loaded whole (a merge join):
+ * <ul>
+ *   <li>an object no row points at is deleted once it is older than the grace period,
+ *   which covers uploads whose row is not committed yet; a derivative belongs to the row
+ *   of its content;</li>
+ *   <li>a key without an object sets blobAusenteEm on its rows. They keep their ativo
+ *   flag (the soft delete) and are not deleted, because documents and solicitacoes
+ *   reference them; the mark is cleared once the object is listed again.</li>
+ * </ul>
+ * Every finding is checked again (row lookup, HEAD on the object) right before acting.
+ *
+ * <p>The walk is paced to {@code objects-per-second} so it does not compete with live
+ * traffic, and a run stops acting after {@code max-actions} deletes and flags: that many
+ * points to a wrong bucket or database more likely than to garbage. On PostgreSQL a
+ * session advisory lock, held on its own connection for the run, keeps a second instance
+ * from running at the same time.
+ */
+@Component
+@ConditionalOnProperty(name = "app.arquivos.gc.enabled", havingValue = "true", matchIfMissing = true)
+public class StorageReconciler {
+
+  static final long LOCK_KEY = 0x5349474553490002L;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StorageReconciler.class);
+
+  @Autowired
+  private MinioService minioService;
+
+  @Autowired
+  private ThumbnailService thumbnailService;
+
+  @Autowired
+  private ArquivoRepository arquivoRepository;
+
+  @Autowired
+  private ArquivoBlobRepository arquivoBlobRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Value("${app.arquivos.gc.grace-hours:24}")
+  private long graceHours;
+
+  @Value("${app.arquivos.gc.page-size:1000}")
+  private int pageSize;
+
+  @Value("${app.arquivos.gc.objects-per-second:500}")
+  private int objectsPerSecond;
+
+  @Value("${app.arquivos.gc.max-actions:1000}")
+  private int maxActions;
+
+  @Value("${app.arquivos.gc.dry-run:false}")
+  private boolean dryRun;
+
+  private boolean advisoryLock;
+
+  @PostConstruct
+  void detectDatabase() {
+    advisoryLock = isPostgres();
+    if (!advisoryLock) {
+      LOGGER.info("Storage reconciler running without leader lock (not PostgreSQL)");
+    }
+  }
+
+  /**
+   * Scheduled entry point; failures are logged and the next run starts over.
+   */
+  @Scheduled(cron = "${app.arquivos.gc.cron:0 30 4 * * *}")
+  public void scheduledRun() {
+    try {
+      Report report = reconcile();
+      if (report == null) {
+        LOGGER.debug("Storage reconciliation skipped: another instance holds the lock");
+      } else {
+        LOGGER.info("Storage reconciliation{}: {} objects, {} orphans deleted, {} files without object",
+            dryRun ? " (dry run)" : "", report.objects(), report.deleted(), report.flagged());
+      }
+    } catch (RuntimeException e) {
+      LOGGER.warn("Storage reconciliation failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Runs one pass, or returns null when another instance is running one.
+   */
+  Report reconcile() {
+    if (!advisoryLock) {
+      return new Pass().run();
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      if (!advisoryLock(connection, "pg_try_advisory_lock")) {
+        return null;
+      }
+      try {
+        return new Pass().run();
+      } finally {
+        advisoryLock(connection, "pg_advisory_unlock");
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Could not take the reconciler lock", e);
+    }
+  }
+
+  private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(?)")) {
+      statement.setLong(1, LOCK_KEY);
+      try (ResultSet result = statement.executeQuery()) {
+        return result.next() && result.getBoolean(1);
+      }
+    }
+  }
+
+  private boolean isPostgres() {
+    try {
+      String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+      return "PostgreSQL".equals(product);
+    } catch (MetaDataAccessException e) {
+      LOGGER.warn("Could not identify the database: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Totals of one run.
+   *
+   * @param objects Objects listed
+   * @param deleted Orphan objects deleted (or that would be, in a dry run)
+   * @param flagged Rows marked as missing their object
+   */
+  record Report(long objects, int deleted, int flagged) {
+  }
+
+  /**
+   * State of one run: the row cursor, the findings of the current page and the totals.
+   */
+  private final class Pass {
+
+    private final Instant cutoff = Instant.now().minus(Duration.ofHours(graceHours));
+
+    private final TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+    private final Deque<String> rows = new ArrayDeque<>();
+
+    private String rowsAfter = "";
+
+    private boolean rowsExhausted;
+
+    /** Last row key that had its object, so the derivatives after it count as referenced. */
+    private String lastMatched;
+
+    private final List<StoredObject> orphans = new ArrayList<>();
+
+    private final List<String> missing = new ArrayList<>();
+
+    /** Row keys whose object was listed, to clear an earlier missing mark. */
+    private final List<String> present = new ArrayList<>();
+
+    private long objects;
+
+    private int deleted;
+
+    private int flagged;
+
+    /** Objects deleted plus keys flagged, against max-actions. */
+    private int actions;
+
+    Report run() {
+      String after = null;
+      List<StoredObject> page;
+      do {
+        long started = System.nanoTime();
+        page = minioService.listObjects(after, pageSize);
+        page.forEach(this::visit);
+        objects += page.size();
+        flush();
+        if (!page.isEmpty()) {
+          after = page.get(page.size() - 1).key();
+        }
+        pace(page.size(), started);
+      } while (page.size() == pageSize && !Thread.currentThread().isInterrupted());
+
+      if (Thread.currentThread().isInterrupted()) {
+        LOGGER.info("Storage reconciliation interrupted after {} objects", objects);
+      } else if (objects == 0) {
+        // An empty bucket is far more likely a wrong bucket than every object lost
+        LOGGER.warn("Storage reconciliation found no objects; rows left as they are");
+      } else {
+        // Keys after the last object have no object either
+        while (nextRow() != null) {
+          missing.add(rows.poll());
+          if (missing.size() >= pageSize) {
+            flush();
+          }
+        }
+        flush();
+      }
+      return new Report(objects, deleted, flagged);
+    }
+
+    /**
+     * Moves the row cursor up to the object's key: rows passed over have no object.
+     */
+    private void visit(StoredObject object) {
+      String content = thumbnailService.contentKey(object.key());
+      String key = content != null ? content : object.key();
+      String row = nextRow();
+      while (row != null && row.compareTo(key) < 0) {
+        missing.add(rows.poll());
+        row = nextRow();
+      }
+      // A derivative of content whose own object is missing leaves the row for the next key
+      boolean referenced = key.equals(lastMatched) || key.equals(row);
+      if (content == null && key.equals(row)) {
+        lastMatched = rows.poll();
+        present.add(lastMatched);
+      }
+      if (!referenced && object.lastModified().isBefore(cutoff)) {
+        orphans.add(object);
+      }
+    }
+
+    private String nextRow() {
+      if (rows.isEmpty() && !rowsExhausted) {
+        List<String> page = arquivoRepository.findStorageKeysAfter(rowsAfter, Limit.of(pageSize));
+        rows.addAll(page);
+        rowsExhausted = page.size() < pageSize;
+        if (!page.isEmpty()) {
+          rowsAfter = page.get(page.size() - 1);
+        }
+      }
+      return rows.peek();
+    }
+
+    private void flush() {
+      deleteOrphans();
+      flagMissing();
+      clearRestored();
+    }
+
+    private void deleteOrphans() {
+      if (orphans.isEmpty()) {
+        return;
+      }
+      Set<String> keys = new HashSet<>();
+      orphans.forEach(orphan -> keys.add(ownerKey(orphan)));
+      // Rows committed since the page was read, and blobs of uploads still in flight
+      Set<String> referenced = new HashSet<>(arquivoRepository.findStorageKeysIn(keys));
+      referenced.addAll(arquivoBlobRepository.findStorageKeysIn(keys));
+      for (StoredObject orphan : orphans) {
+        if (!referenced.contains(ownerKey(orphan)) && stillOld(orphan) && withinBudget()) {
+          delete(orphan);
+        }
+      }
+      orphans.clear();
+    }
+
+    private String ownerKey(StoredObject object) {
+      String content = thumbnailService.contentKey(object.key());
+      return content != null ? content : object.key();
+    }
+
+    /**
+     * False when the object was written again since it was listed (the same content
+     * uploaded anew) or is already gone.
+     */
+    private boolean stillOld(StoredObject orphan) {
+      return minioService.findObject(orphan.key())
+          .map(current -> current.lastModified().isBefore(cutoff))
+          .orElse(false);
+    }
+
+    private void delete(StoredObject orphan) {
+      if (dryRun) {
+        LOGGER.info("Would delete orphan object {} ({} bytes, {})", orphan.key(), orphan.size(), orphan.lastModified());
+      } else {
+        minioService.deleteFile(orphan.key());
+        LOGGER.debug("Deleted orphan object {}", orphan.key());
+      }
+      deleted++;
+      actions++;
+    }
+
+    private void flagMissing() {
+      for (String key : missing) {
+        List<Arquivo> unmarked = arquivoRepository.findByStorageKeyAndBlobAusenteEmIsNull(key);
+        if (!unmarked.isEmpty() && minioService.findObject(key).isEmpty() && withinBudget()) {
+          flag(key, unmarked);
+        }
+      }
+      missing.clear();
+    }
+
+    private void flag(String key, List<Arquivo> unmarked) {
+      LOGGER.warn("Files {} point at missing object {}{}", ids(unmarked), key, dryRun ? " (dry run, not marked)" : "");
+      if (!dryRun) {
+        LocalDateTime now = LocalDateTime.now();
+        tx.executeWithoutResult(status -> {
+          unmarked.forEach(arquivo -> arquivo.setBlobAusenteEm(now));
+          arquivoRepository.saveAll(unmarked);
+        });
+      }
+      flagged += unmarked.size();
+      actions++;
+    }
+
+    /**
+     * Clears the mark of rows whose object is there again (the same content uploaded anew).
+     */
+    private void clearRestored() {
+      List<Arquivo> restored = present.isEmpty()
+          ? List.of()
+          : arquivoRepository.findByStorageKeyInAndBlobAusenteEmIsNotNull(present);
+      present.clear();
+      if (!restored.isEmpty()) {
+        LOGGER.info("Files {} have their object again{}", ids(restored), dryRun ? " (dry run, mark kept)" : "");
+        if (!dryRun) {
+          tx.executeWithoutResult(status -> {
+            restored.forEach(arquivo -> arquivo.setBlobAusenteEm(null));
+            arquivoRepository.saveAll(restored);
+          });
+        }
+      }
+    }
+
+    private List<Long> ids(List<Arquivo> arquivos) {
+      return arquivos.stream().map(Arquivo::getId).toList();
+    }
+
+    private boolean withinBudget() {
+      if (actions == maxActions) {
+        LOGGER.warn("Storage reconciliation reached {} actions; the rest waits for the next run", maxActions);
+        // Logged once
+        actions++;
+      }
+      return actions < maxActions;
+    }
+
+    /**
+     * Sleeps so the run handles at most {@code objects-per-second} objects a second.
+     */
+    private void pace(int handled, long started) {
+      long wait = TimeUnit.SECONDS.toNanos(handled) / objectsPerSecond - (System.nanoTime() - started);
+      if (wait <= 0) {
+        return;
+      }
+      try {
+        TimeUnit.NANOSECONDS.sleep(wait);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
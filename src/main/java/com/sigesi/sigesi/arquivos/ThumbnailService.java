@@ -0,0 +1,240 @@
+package com.sigesi.sigesi.arquivos;
+
+import com.sigesi.sigesi.arquivos.util.ImageDerivatives;
+import com.sigesi.sigesi.arquivos.util.StorageKeyGenerator;
+import com.sigesi.sigesi.config.NotFoundException;
+import com.sigesi.sigesi.storage.MinioService;
+import com.sigesi.sigesi.storage.ObjectStat;
+import com.sigesi.sigesi.storage.StorageException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Derivatives of uploaded photos: downscaled JPEG previews and a copy without metadata,
+ * stored in MinIO next to the content key.
+ *
+ * <p>They are made once per stored content (Arquivo rows with the same checksum share
+ * them) on a small dedicated pool after the upload commits, so the upload does not wait
+ * for the decoding. A variant asked for before it exists (files uploaded earlier, or the
+ * job still running) is made on the same pool while the request waits; concurrent
+ * requests for the same content share one job.
+ */
+@Service
+public class ThumbnailService {
+
+  /** Variant holding the full image without metadata. */
+  public static final String ORIGINAL = "original";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ThumbnailService.class);
+
+  @Autowired
+  private MinioService minioService;
+
+  @Value("${app.arquivos.thumbnails.sizes:160,320,640}")
+  private int[] sizes;
+
+  @Value("${app.arquivos.thumbnails.threads:2}")
+  private int threads;
+
+  private ExecutorService executor;
+
+  private final ConcurrentMap<String, Future<Void>> running = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  void startPool() {
+    AtomicInteger counter = new AtomicInteger();
+    executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "thumbnail-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  void stopPool() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Whether derivatives are made for this content type (JPEG and PNG).
+   */
+  public boolean supports(String contentType) {
+    return ImageDerivatives.supports(contentType);
+  }
+
+  /**
+   * Keys of every derivative of the content stored under {@code storageKey}.
+   */
+  public List<String> derivativeKeys(String storageKey) {
+    List<String> keys = new ArrayList<>();
+    for (int size : sizes) {
+      keys.add(StorageKeyGenerator.generateDerivativeKey(storageKey, String.valueOf(size)));
+    }
+    keys.add(StorageKeyGenerator.generateDerivativeKey(storageKey, ORIGINAL));
+    return keys;
+  }
+
+  /**
+   * Key of the content a derivative was made from, or null when {@code objectName} is not
+   * a derivative key.
+   */
+  public String contentKey(String objectName) {
+    int dash = objectName.lastIndexOf('-');
+    return dash > 0 && isVariant(objectName.substring(dash + 1)) ? objectName.substring(0, dash) : null;
+  }
+
+  /**
+   * Makes the derivatives of newly stored content once the transaction commits, so a
+   * rolled back upload does not leave them behind. Content types without derivatives
+   * are ignored.
+   */
+  public void generateAfterCommit(String storageKey, String contentType) {
+    if (!supports(contentType)) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          submit(storageKey, contentType);
+        }
+      });
+    } else {
+      submit(storageKey, contentType);
+    }
+  }
+
+  /**
+   * ETag and size of a variant of the file, making the derivatives first when they do
+   * not exist yet.
+   *
+   * @param variant one of the configured sizes, or {@value #ORIGINAL}
+   */
+  public ObjectStat statVariant(Arquivo arquivo, String variant) {
+    if (!isVariant(variant)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tamanho de miniatura inválido: " + variant);
+    }
+    if (!supports(arquivo.getContentType())) {
+      throw new NotFoundException("Arquivo sem miniatura: " + arquivo.getId());
+    }
+    String key = StorageKeyGenerator.generateDerivativeKey(arquivo.getStorageKey(), variant);
+    try {
+      return minioService.statFile(key);
+    } catch (StorageException e) {
+      // Not made yet
+    }
+    await(submit(arquivo.getStorageKey(), arquivo.getContentType()), arquivo);
+    return minioService.statFile(key);
+  }
+
+  /**
+   * Content type of a variant: previews are JPEG, the stripped copy keeps the file's type.
+   */
+  public String variantContentType(Arquivo arquivo, String variant) {
+    return ORIGINAL.equals(variant) ? arquivo.getContentType() : ImageDerivatives.JPEG;
+  }
+
+  /**
+   * Copy a variant to {@code out}. The output stream is not closed.
+   */
+  public void writeVariant(Arquivo arquivo, String variant, OutputStream out) throws IOException {
+    String key = StorageKeyGenerator.generateDerivativeKey(arquivo.getStorageKey(), variant);
+    try (InputStream in = minioService.downloadFile(key)) {
+      in.transferTo(out);
+    }
+  }
+
+  /**
+   * Reads the content and stores every derivative.
+   */
+  void generate(String storageKey, String contentType) throws IOException {
+    byte[] content;
+    try (InputStream in = minioService.downloadFile(storageKey)) {
+      content = in.readAllBytes();
+    }
+    int orientation = ImageDerivatives.JPEG.equals(contentType) ? ImageDerivatives.exifOrientation(content) : 1;
+    byte[][] previews = ImageDerivatives.previews(content, orientation, sizes);
+    for (int i = 0; i < sizes.length; i++) {
+      store(storageKey, String.valueOf(sizes[i]), previews[i], ImageDerivatives.JPEG);
+    }
+    store(storageKey, ORIGINAL, ImageDerivatives.stripMetadata(content, contentType), contentType);
+  }
+
+  private void store(String storageKey, String variant, byte[] data, String contentType) {
+    minioService.uploadStream(new ByteArrayInputStream(data), data.length, contentType,
+        StorageKeyGenerator.generateDerivativeKey(storageKey, variant));
+  }
+
+  private boolean isVariant(String variant) {
+    if (ORIGINAL.equals(variant)) {
+      return true;
+    }
+    for (int size : sizes) {
+      if (String.valueOf(size).equals(variant)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Queues the job for this content, or returns the one already queued or running.
+   */
+  private Future<Void> submit(String storageKey, String contentType) {
+    FutureTask<Void> task = new FutureTask<>(() -> {
+      try {
+        generate(storageKey, contentType);
+        return null;
+      } catch (IOException | RuntimeException e) {
+        LOGGER.warn("Could not make derivatives of {}: {}", storageKey, e.getMessage());
+        throw e;
+      } finally {
+        running.remove(storageKey);
+      }
+    });
+    Future<Void> current = running.putIfAbsent(storageKey, task);
+    if (current != null) {
+      return current;
+    }
+    executor.execute(task);
+    return task;
+  }
+
+  private void await(Future<Void> job, Arquivo arquivo) {
+    try {
+      job.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new StorageException("Não foi possível gerar a miniatura", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      // Content the decoder does not understand (CMYK JPEG, corrupt file)
+      throw new NotFoundException("Miniatura indisponível para o arquivo com id " + arquivo.getId());
+    }
+  }
+}
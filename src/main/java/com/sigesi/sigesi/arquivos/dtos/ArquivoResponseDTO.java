@@ -21,6 +21,8 @@ public class ArquivoResponseDTO {
   private String contentType;
   private Long tamanho;
   private String categoria;
+  private String checksum;
   private LocalDateTime uploadedAt;
   private Boolean ativo;
+  private LocalDateTime blobAusenteEm;
 }
@@ -0,0 +1,25 @@
+package com.sigesi.sigesi.arquivos.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO confirming a direct upload once the file is in storage.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUploadConfirmDTO {
+
+  @NotBlank(message = "Chave do envio é obrigatória")
+  private String storageKey;
+
+  @NotBlank(message = "Nome do arquivo é obrigatório")
+  private String filename;
+
+  private String categoria;
+}
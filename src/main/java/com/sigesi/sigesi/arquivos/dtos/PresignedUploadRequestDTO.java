@@ -0,0 +1,29 @@
+package com.sigesi.sigesi.arquivos.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for a direct upload to storage: the file the client is about to send.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUploadRequestDTO {
+
+  @NotBlank(message = "Nome do arquivo é obrigatório")
+  private String filename;
+
+  @NotBlank(message = "Tipo do arquivo é obrigatório")
+  private String contentType;
+
+  @NotNull(message = "Tamanho do arquivo é obrigatório")
+  @Positive(message = "Tamanho do arquivo deve ser positivo")
+  private Long tamanho;
+}
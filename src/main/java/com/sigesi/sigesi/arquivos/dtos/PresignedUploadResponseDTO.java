@@ -0,0 +1,23 @@
+package com.sigesi.sigesi.arquivos.dtos;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for a direct upload: where and how to post the file, and the key to
+ * confirm afterwards.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUploadResponseDTO {
+
+  private String storageKey;
+  private String url;
+  private Map<String, String> fields;
+  private Long expiresInSeconds;
+}
@@ -0,0 +1,342 @@
+package com.sigesi.sigesi.arquivos.util;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Set;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+/**
+ * Image helpers for the derivatives of uploaded photos: metadata stripping and
+ * downscaled JPEG previews.
+ *
+ * <p>Stripping works on the encoded bytes, without decoding the picture, so the
+ * stripped copy keeps the original quality. Previews are decoded with source
+ * subsampling, so a 12 MP photo is never held in memory at full resolution.
+ */
+public final class ImageDerivatives {
+
+  public static final String JPEG = "image/jpeg";
+  public static final String PNG = "image/png";
+
+  /** Pictures above this many pixels are not decoded. */
+  private static final long MAX_PIXELS = 100_000_000L;
+  private static final float JPEG_QUALITY = 0.85f;
+
+  private static final int MARKER_TEM = 0x01;
+  private static final int MARKER_RST0 = 0xD0;
+  private static final int MARKER_RST7 = 0xD7;
+  private static final int MARKER_SOS = 0xDA;
+  private static final int MARKER_EOI = 0xD9;
+  private static final int MARKER_APP0 = 0xE0;
+  private static final int MARKER_APP1 = 0xE1;
+  private static final int MARKER_APP13 = 0xED;
+  private static final int MARKER_COM = 0xFE;
+  private static final int TAG_ORIENTATION = 0x0112;
+  private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+  private static final Set<String> PNG_METADATA_CHUNKS = Set.of("eXIf", "tEXt", "zTXt", "iTXt", "tIME");
+
+  private ImageDerivatives() {
+    // Utility class
+  }
+
+  /**
+   * Whether previews and a stripped copy can be made for this content type.
+   */
+  public static boolean supports(String contentType) {
+    return JPEG.equals(contentType) || PNG.equals(contentType);
+  }
+
+  /**
+   * Copy of the image without EXIF/XMP/IPTC metadata and comments (GPS position,
+   * device, timestamps). JPEG keeps a minimal EXIF block with only the orientation, so
+   * phone photos still display upright; colour profiles are kept.
+   */
+  public static byte[] stripMetadata(byte[] content, String contentType) throws IOException {
+    return PNG.equals(contentType) ? stripPng(content) : stripJpeg(content);
+  }
+
+  /**
+   * EXIF orientation (1 to 8) of a JPEG, or 1 when absent or unreadable.
+   */
+  public static int exifOrientation(byte[] jpeg) {
+    int pos = 2;
+    while (pos + 4 <= jpeg.length && (jpeg[pos] & 0xFF) == 0xFF) {
+      int marker = jpeg[pos + 1] & 0xFF;
+      int length = readUnsignedShort(jpeg, pos + 2, ByteOrder.BIG_ENDIAN);
+      if (marker == MARKER_SOS || length < 2 || pos + 2 + length > jpeg.length) {
+        return 1;
+      }
+      if (marker == MARKER_APP1 && startsWith(jpeg, pos + 4, EXIF_HEADER)) {
+        return readOrientation(jpeg, pos + 4 + EXIF_HEADER.length, pos + 2 + length);
+      }
+      pos += 2 + length;
+    }
+    return 1;
+  }
+
+  /**
+   * Encodes one JPEG preview per size, largest side limited to that many pixels and
+   * turned according to {@code orientation}. Pictures already smaller are not enlarged.
+   * The result has one entry per size, in the same order.
+   */
+  public static byte[][] previews(byte[] content, int orientation, int... sizes) throws IOException {
+    int largest = 0;
+    for (int size : sizes) {
+      largest = Math.max(largest, size);
+    }
+    BufferedImage source = decode(content, largest);
+    byte[][] result = new byte[sizes.length][];
+    for (int i = 0; i < sizes.length; i++) {
+      result[i] = encodeJpeg(orient(scale(source, sizes[i]), orientation));
+    }
+    return result;
+  }
+
+  private static byte[] stripJpeg(byte[] jpeg) throws IOException {
+    if (jpeg.length < 4 || (jpeg[0] & 0xFF) != 0xFF || (jpeg[1] & 0xFF) != 0xD8) {
+      throw new IOException("Not a JPEG file");
+    }
+    int orientation = exifOrientation(jpeg);
+    ByteArrayOutputStream out = new ByteArrayOutputStream(jpeg.length);
+    out.write(jpeg, 0, 2);
+
+    int pos = 2;
+    while (pos + 4 <= jpeg.length) {
+      if ((jpeg[pos] & 0xFF) != 0xFF) {
+        throw new IOException("Malformed JPEG segment");
+      }
+      int marker = jpeg[pos + 1] & 0xFF;
+      if (marker == 0xFF) {
+        pos++;
+        continue;
+      }
+      // The orientation goes right after JFIF (APP0), which must stay first
+      if (orientation != 1 && marker != MARKER_APP0) {
+        out.write(orientationSegment(orientation));
+        orientation = 1;
+      }
+      if (marker == MARKER_SOS || marker == MARKER_EOI) {
+        break;
+      }
+      if (marker == MARKER_TEM || (marker >= MARKER_RST0 && marker <= MARKER_RST7)) {
+        out.write(jpeg, pos, 2);
+        pos += 2;
+        continue;
+      }
+      int end = pos + 2 + readUnsignedShort(jpeg, pos + 2, ByteOrder.BIG_ENDIAN);
+      if (end > jpeg.length) {
+        throw new IOException("Truncated JPEG segment");
+      }
+      if (marker != MARKER_APP1 && marker != MARKER_APP13 && marker != MARKER_COM) {
+        out.write(jpeg, pos, end - pos);
+      }
+      pos = end;
+    }
+    // Scan data and everything after it is copied as is
+    out.write(jpeg, pos, jpeg.length - pos);
+    return out.toByteArray();
+  }
+
+  private static byte[] stripPng(byte[] png) throws IOException {
+    if (!startsWith(png, 0, PNG_SIGNATURE)) {
+      throw new IOException("Not a PNG file");
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream(png.length);
+    out.write(png, 0, PNG_SIGNATURE.length);
+    int pos = PNG_SIGNATURE.length;
+    while (pos + 8 <= png.length) {
+      long dataLength = ByteBuffer.wrap(png, pos, 4).getInt() & 0xFFFFFFFFL;
+      long end = pos + 12 + dataLength;
+      if (end > png.length) {
+        throw new IOException("Truncated PNG chunk");
+      }
+      String type = new String(png, pos + 4, 4, StandardCharsets.US_ASCII);
+      if (!PNG_METADATA_CHUNKS.contains(type)) {
+        out.write(png, pos, (int) end - pos);
+      }
+      pos = (int) end;
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * APP1 segment holding an EXIF block whose only entry is the orientation.
+   */
+  private static byte[] orientationSegment(int orientation) {
+    ByteBuffer segment = ByteBuffer.allocate(36).order(ByteOrder.BIG_ENDIAN);
+    segment.put((byte) 0xFF).put((byte) MARKER_APP1).putShort((short) 34);
+    segment.put(EXIF_HEADER);
+    // TIFF header: big endian, magic 42, first IFD right after the header
+    segment.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+    // IFD0 with one SHORT entry and no next IFD
+    segment.putShort((short) 1);
+    segment.putShort((short) TAG_ORIENTATION).putShort((short) 3).putInt(1);
+    segment.putShort((short) orientation).putShort((short) 0);
+    segment.putInt(0);
+    return segment.array();
+  }
+
+  private static int readOrientation(byte[] data, int tiff, int end) {
+    int orientation = 1;
+    if (tiff + 8 <= end) {
+      ByteOrder order = data[tiff] == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+      int ifd = tiff + ByteBuffer.wrap(data, tiff + 4, 4).order(order).getInt();
+      int entries = ifd >= tiff && ifd + 2 <= end ? readUnsignedShort(data, ifd, order) : 0;
+      for (int i = 0; i < entries && ifd + 14 + i * 12 <= end; i++) {
+        int entry = ifd + 2 + i * 12;
+        if (readUnsignedShort(data, entry, order) == TAG_ORIENTATION) {
+          int value = readUnsignedShort(data, entry + 8, order);
+          orientation = value >= 1 && value <= 8 ? value : 1;
+          break;
+        }
+      }
+    }
+    return orientation;
+  }
+
+  private static BufferedImage decode(byte[] content, int largest) throws IOException {
+    try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(content))) {
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+      if (!readers.hasNext()) {
+        throw new IOException("Unsupported image format");
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if ((long) width * height > MAX_PIXELS) {
+          throw new IOException("Image too large: " + width + "x" + height);
+        }
+        // Keep at least twice the largest preview so the final downscale stays smooth
+        int step = Math.max(1, Math.max(width, height) / (largest * 2));
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(step, step, 0, 0);
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  /**
+   * Downscales by halves until close to the target, then once more to the exact
+   * size; a single bilinear step from a much larger picture would alias.
+   */
+  private static BufferedImage scale(BufferedImage source, int size) {
+    int longest = Math.max(source.getWidth(), source.getHeight());
+    double ratio = Math.min(1.0, (double) size / longest);
+    int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+    int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+    BufferedImage current = source;
+    do {
+      int width = Math.max(targetWidth, current.getWidth() / 2);
+      int height = Math.max(targetHeight, current.getHeight() / 2);
+      current = draw(current, width, height, new AffineTransform());
+    } while (current.getWidth() > targetWidth || current.getHeight() > targetHeight);
+    return current;
+  }
+
+  /**
+   * Applies the EXIF orientation, so the preview displays upright without metadata.
+   */
+  private static BufferedImage orient(BufferedImage image, int orientation) {
+    // Linear part {m00, m10, m01, m11} of each orientation, from the EXIF specification
+    double[] m = switch (orientation) {
+      case 2 -> new double[] {-1, 0, 0, 1};
+      case 3 -> new double[] {-1, 0, 0, -1};
+      case 4 -> new double[] {1, 0, 0, -1};
+      case 5 -> new double[] {0, 1, 1, 0};
+      case 6 -> new double[] {0, 1, -1, 0};
+      case 7 -> new double[] {0, -1, -1, 0};
+      case 8 -> new double[] {0, -1, 1, 0};
+      default -> null;
+    };
+    if (m == null) {
+      return image;
+    }
+    AffineTransform transform = new AffineTransform(m[0], m[1], m[2], m[3], 0, 0);
+    // Move the turned picture back to the origin
+    Rectangle bounds = transform.createTransformedShape(
+        new Rectangle(0, 0, image.getWidth(), image.getHeight())).getBounds();
+    AffineTransform placed = AffineTransform.getTranslateInstance(-bounds.x, -bounds.y);
+    placed.concatenate(transform);
+    return draw(image, bounds.width, bounds.height, placed);
+  }
+
+  /**
+   * Draws onto an opaque RGB canvas (white behind PNG transparency, as JPEG has none).
+   */
+  private static BufferedImage draw(BufferedImage source, int width, int height, AffineTransform transform) {
+    BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = target.createGraphics();
+    try {
+      g.setColor(Color.WHITE);
+      g.fillRect(0, 0, width, height);
+      g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      if (transform.isIdentity()) {
+        g.drawImage(source, 0, 0, width, height, null);
+      } else {
+        g.drawImage(source, transform, null);
+      }
+    } finally {
+      g.dispose();
+    }
+    return target;
+  }
+
+  private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+    ImageWriter writer = ImageIO.getImageWritersByMIMEType(JPEG).next();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+      writer.setOutput(output);
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(JPEG_QUALITY);
+      param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+    return out.toByteArray();
+  }
+
+  private static int readUnsignedShort(byte[] data, int pos, ByteOrder order) {
+    return ByteBuffer.wrap(data, pos, 2).order(order).getShort() & 0xFFFF;
+  }
+
+  private static boolean startsWith(byte[] data, int pos, byte[] prefix) {
+    if (pos + prefix.length > data.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (data[pos + i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -3,6 +3,7 @@ package com.sigesi.sigesi.arquivos.util;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 /**
  * Utility for generating unique storage keys.
@@ -12,6 +13,11 @@ public final class StorageKeyGenerator {
   private static final DateTimeFormatter DATE_FORMATTER =
       DateTimeFormatter.ofPattern("yyyy/MM/dd");
 
+  private static final String UPLOAD_PREFIX = "uploads/";
+
+  private static final Pattern UPLOAD_KEY = Pattern.compile(
+      "uploads/\\d{4}/\\d{2}/\\d{2}/[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}(\\.[a-z0-9]+)?");
+
   private StorageKeyGenerator() {
     // Utility class
   }
@@ -40,6 +46,45 @@ public final class StorageKeyGenerator {
         extension.isEmpty() ? "" : "." + extension);
   }
 
+  /**
+   * Generate content-addressed key from the SHA-256 hex digest.
+   * Example: "blobs/ab/cd/abcd1234..."
+   */
+  public static String generateContentKey(String sha256) {
+    return String.format("blobs/%s/%s/%s", sha256.substring(0, 2), sha256.substring(2, 4), sha256);
+  }
+
+  /**
+   * Generate key for content still being received, before its hash is known.
+   * Example: "tmp/2024/12/29/uuid.pdf"
+   */
+  public static String generateTempKey(String originalFilename) {
+    return "tmp/" + generateKey(originalFilename);
+  }
+
+  /**
+   * Generate key for a derivative (preview, stripped copy) stored next to the content key.
+   * Example: "blobs/ab/cd/abcd1234...-320"
+   */
+  public static String generateDerivativeKey(String storageKey, String variant) {
+    return storageKey + "-" + variant;
+  }
+
+  /**
+   * Generate key for a file the client uploads straight to storage.
+   * Example: "uploads/2024/12/29/uuid.pdf"
+   */
+  public static String generateUploadKey(String originalFilename) {
+    return UPLOAD_PREFIX + generateKey(originalFilename);
+  }
+
+  /**
+   * Whether the key has the shape of one made by {@link #generateUploadKey}.
+   */
+  public static boolean isUploadKey(String key) {
+    return key != null && UPLOAD_KEY.matcher(key).matches();
+  }
+
   private static String getFileExtension(String filename) {
     if (filename == null || filename.isEmpty()) {
       return "";
@@ -1,5 +1,8 @@
 package com.sigesi.sigesi.arquivos.validation;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Set;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -22,6 +25,23 @@ public final class FileValidator {
   );
 
   private static final long MAX_FILE_SIZE = 5L * 1024 * 1024; // 5 MiB
+  public static final long MAX_STREAM_FILE_SIZE = 50L * 1024 * 1024; // 50 MiB
+
+  /**
+   * Magic bytes expected for each allowed type (RIFF/WEBP is checked separately).
+   */
+  private static final Map<String, byte[]> SIGNATURES = Map.of(
+      "image/jpeg", new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF},
+      "image/png", new byte[] {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A},
+      "application/pdf", "%PDF-".getBytes(StandardCharsets.US_ASCII),
+      "application/msword", new byte[] {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0,
+          (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1},
+      "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+      new byte[] {'P', 'K', 0x03, 0x04}
+  );
+  private static final byte[] RIFF = "RIFF".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] WEBP = "WEBP".getBytes(StandardCharsets.US_ASCII);
+  public static final int SIGNATURE_LENGTH = 12;
   private static final int MAX_FILENAME_LENGTH = 255;
 
   private FileValidator() {
@@ -44,7 +64,13 @@ public final class FileValidator {
    * Validate content type.
    */
   public static void validateContentType(MultipartFile file) {
-    String contentType = file.getContentType();
+    validateContentType(file.getContentType());
+  }
+
+  /**
+   * Validate content type informed for a streamed upload.
+   */
+  public static void validateContentType(String contentType) {
     if (contentType == null || !ALLOWED_CONTENT_TYPES.contains(contentType)) {
       throw new InvalidFileException("Tipo de arquivo não permitido: " + contentType);
     }
@@ -97,6 +123,39 @@ public final class FileValidator {
     validateFileExtension(file.getOriginalFilename());
   }
 
+  /**
+   * Validate name, type and extension before a streamed upload starts.
+   */
+  public static void validateStreamMetadata(String filename, String contentType, long declaredSize) {
+    validateFilename(filename);
+    validateContentType(contentType);
+    validateFileExtension(filename);
+    if (declaredSize > MAX_STREAM_FILE_SIZE) {
+      throw new InvalidFileException(streamSizeMessage());
+    }
+  }
+
+  /**
+   * Check the first bytes of the content against the declared content type.
+   */
+  public static boolean matchesSignature(String contentType, byte[] header, int length) {
+    if ("image/webp".equals(contentType)) {
+      return length >= SIGNATURE_LENGTH
+          && startsWith(header, 0, RIFF)
+          && startsWith(header, 8, WEBP);
+    }
+    byte[] signature = SIGNATURES.get(contentType);
+    return signature != null && length >= signature.length && startsWith(header, 0, signature);
+  }
+
+  public static String streamSizeMessage() {
+    return "O arquivo excede o limite máximo de " + MAX_STREAM_FILE_SIZE / (1024 * 1024) + " MB";
+  }
+
+  private static boolean startsWith(byte[] data, int offset, byte[] prefix) {
+    return Arrays.equals(data, offset, offset + prefix.length, prefix, 0, prefix.length);
+  }
+
   private static String getFileExtension(String filename) {
     int lastDotIndex = filename.lastIndexOf('.');
     if (lastDotIndex == -1) {
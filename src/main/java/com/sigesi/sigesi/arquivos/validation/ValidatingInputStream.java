@@ -0,0 +1,151 @@
+package com.sigesi.sigesi.arquivos.validation;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Stream that validates an upload while it is read.
+ *
+ * <p>Checks the magic bytes against the declared content type as soon as the
+ * header arrives, enforces the maximum size and computes the SHA-256 checksum,
+ * without buffering the content. The first violation is kept in
+ * {@link #getViolation()} because storage clients usually wrap the exception
+ * thrown from {@code read}.
+ */
+public class ValidatingInputStream extends FilterInputStream {
+
+  private static final int SKIP_BUFFER_SIZE = 8192;
+
+  private final String contentType;
+  private final long maxSize;
+  private final MessageDigest digest;
+  private final byte[] header = new byte[FileValidator.SIGNATURE_LENGTH];
+
+  private long bytesRead;
+  private boolean headerChecked;
+  private InvalidFileException violation;
+  private String checksum;
+
+  /**
+   * Wraps the request body of a streamed upload.
+   */
+  public ValidatingInputStream(InputStream in, String contentType, long maxSize) {
+    super(in);
+    this.contentType = contentType;
+    this.maxSize = maxSize;
+    try {
+      this.digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 indisponível", e);
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    int b = super.read();
+    if (b == -1) {
+      onEndOfStream();
+    } else {
+      onData(new byte[] {(byte) b}, 0, 1);
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    int n = super.read(b, off, len);
+    if (n == -1) {
+      onEndOfStream();
+    } else if (n > 0) {
+      onData(b, off, n);
+    }
+    return n;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    // Read instead of skipping so every byte goes through the digest and the size check
+    byte[] buffer = new byte[(int) Math.min(Math.max(n, 0), SKIP_BUFFER_SIZE)];
+    long skipped = 0;
+    while (skipped < n) {
+      int r = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+      if (r < 0) {
+        break;
+      }
+      skipped += r;
+    }
+    return skipped;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  public long getBytesRead() {
+    return bytesRead;
+  }
+
+  public InvalidFileException getViolation() {
+    return violation;
+  }
+
+  /**
+   * Hex SHA-256 of everything read so far; call after the stream is consumed.
+   */
+  public String getChecksum() {
+    if (checksum == null) {
+      checksum = HexFormat.of().formatHex(digest.digest());
+    }
+    return checksum;
+  }
+
+  private void onData(byte[] b, int off, int n) {
+    failIfViolated();
+    if (bytesRead < header.length) {
+      System.arraycopy(b, off, header, (int) bytesRead, (int) Math.min(n, header.length - bytesRead));
+    }
+    bytesRead += n;
+    digest.update(b, off, n);
+
+    if (bytesRead > maxSize) {
+      fail(FileValidator.streamSizeMessage());
+    }
+    if (!headerChecked && bytesRead >= header.length) {
+      checkHeader();
+    }
+  }
+
+  private void onEndOfStream() {
+    failIfViolated();
+    if (bytesRead == 0) {
+      fail("O arquivo está vazio");
+    }
+    if (!headerChecked) {
+      checkHeader();
+    }
+  }
+
+  private void checkHeader() {
+    headerChecked = true;
+    int length = (int) Math.min(bytesRead, header.length);
+    if (!FileValidator.matchesSignature(contentType, header, length)) {
+      fail("O conteúdo do arquivo não corresponde ao tipo " + contentType);
+    }
+  }
+
+  private void failIfViolated() {
+    if (violation != null) {
+      throw violation;
+    }
+  }
+
+  private void fail(String message) {
+    violation = new InvalidFileException(message);
+    throw violation;
+  }
+}
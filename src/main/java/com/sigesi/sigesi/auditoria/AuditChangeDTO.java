@@ -0,0 +1,9 @@
+package com.sigesi.sigesi.auditoria;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record AuditChangeDTO(
+    String field,
+    @JsonProperty("old") Object oldValue,
+    @JsonProperty("new") Object newValue) {
+}
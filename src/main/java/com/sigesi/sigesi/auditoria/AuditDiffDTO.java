@@ -0,0 +1,13 @@
+package com.sigesi.sigesi.auditoria;
+
+import java.util.List;
+
+public record AuditDiffDTO(
+    Long revision,
+    Object entityId,
+    String usuarioNome,
+    String usuarioEmail,
+    Long timestamp,
+    String action,
+    List<AuditChangeDTO> changes) {
+}
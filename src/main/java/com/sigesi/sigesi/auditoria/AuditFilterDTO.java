@@ -0,0 +1,35 @@
+package com.sigesi.sigesi.auditoria;
+
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filtros opcionais da consulta de revisoes; todos sao aplicados na AuditQuery.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AuditFilterDTO {
+
+  @Schema(description = "ID do registro auditado", example = "1")
+  private Long id;
+
+  @Schema(description = "ID do usuário autor da revisão", example = "1")
+  private Long usuarioId;
+
+  @Schema(description = "Início do período (inclusivo)", example = "2025-01-01T00:00:00")
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime de;
+
+  @Schema(description = "Fim do período (inclusivo)", example = "2025-12-31T23:59:59")
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime ate;
+}
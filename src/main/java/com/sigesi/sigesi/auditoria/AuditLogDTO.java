@@ -3,6 +3,7 @@ package com.sigesi.sigesi.auditoria;
 import java.util.Map;
 
 public record AuditLogDTO(
+    Long revision,
     Map<String, Object> entity,
     String usuarioNome,
     String usuarioEmail,
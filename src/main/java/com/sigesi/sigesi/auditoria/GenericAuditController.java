@@ -1,15 +1,21 @@
 package com.sigesi.sigesi.auditoria;
 
+import com.sigesi.sigesi.config.CursorPageDTO;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/audit")
@@ -19,13 +25,73 @@ public class GenericAuditController {
   @Autowired
   private GenericAuditService auditService;
 
+  @Value("${app.audit.legacy-list-enabled:true}")
+  private boolean legacyListEnabled;
+
+  /**
+   * Lista revisoes paginadas por cursor, da mais recente para a mais antiga.
+   */
+  @GetMapping(value = "/revisions", params = "paged=true")
+  public CursorPageDTO<AuditLogDTO> getRevisionPage(
+      @RequestParam AuditableEntity entity,
+      @ParameterObject AuditFilterDTO filter,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    return auditService.getRevisions(resolveEntityClass(entity), filter, cursor, size);
+  }
+
+  /**
+   * Lista todas as revisoes, sem paginacao.
+   *
+   * @deprecated use {@code GET /api/audit/revisions?paged=true}.
+   */
+  @Deprecated
   @GetMapping("/revisions")
   public List<AuditLogDTO> getRevisions(
       @RequestParam AuditableEntity entity,
-      @RequestParam(required = false) Long id) {
+      @ParameterObject AuditFilterDTO filter) {
+    if (!legacyListEnabled) {
+      throw new ResponseStatusException(
+          HttpStatus.GONE,
+          "Listagem sem paginação desativada. Use GET /api/audit/revisions?paged=true");
+    }
+    return auditService.getAllRevisions(resolveEntityClass(entity), filter);
+  }
+
+  /**
+   * Lista revisoes com apenas os campos alterados em cada uma ({field, old, new}).
+   */
+  @GetMapping("/revisions/diff")
+  public CursorPageDTO<AuditDiffDTO> getRevisionDiffs(
+      @RequestParam AuditableEntity entity,
+      @ParameterObject AuditFilterDTO filter,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    return auditService.getRevisionDiffs(resolveEntityClass(entity), filter, cursor, size);
+  }
+
+  /**
+   * Exporta todas as revisoes filtradas em NDJSON (uma revisao por linha), via streaming.
+   * Com {@code diff=true} cada linha traz apenas os campos alterados.
+   */
+  @GetMapping(value = "/revisions/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> exportRevisions(
+      @RequestParam AuditableEntity entity,
+      @ParameterObject AuditFilterDTO filter,
+      @RequestParam(defaultValue = "false") boolean diff) {
+    Class<?> entityClass = resolveEntityClass(entity);
+
+    StreamingResponseBody body = out -> auditService.exportRevisions(entityClass, filter, diff, out);
+    String filename = "auditoria_" + entity.name().toLowerCase() + ".ndjson";
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(body);
+  }
+
+  private Class<?> resolveEntityClass(AuditableEntity entity) {
     try {
-      Class<?> entityClass = Class.forName(entity.getFullPath());
-      return auditService.getRevisions(entityClass, id);
+      return Class.forName(entity.getFullPath());
     } catch (ClassNotFoundException e) {
       throw new ResponseStatusException(
           HttpStatus.BAD_REQUEST,
@@ -6,26 +6,54 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
 import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sigesi.sigesi.config.CursorCodec;
+import com.sigesi.sigesi.config.CursorPageDTO;
 import com.sigesi.sigesi.config.UsuarioRevisionEntity;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.AuditReaderFactory;
 import org.hibernate.envers.RevisionType;
 import org.hibernate.envers.query.AuditEntity;
 import org.hibernate.envers.query.AuditQuery;
+import org.hibernate.envers.query.criteria.AuditDisjunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class GenericAuditService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    static final int EXPORT_BATCH_SIZE = 500;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenericAuditService.class);
+    private static final byte[] NEWLINE = {'\n'};
+
     @PersistenceContext
     private EntityManager em;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private final ObjectMapper objectMapper = new ObjectMapper()
             .registerModule(new JavaTimeModule())
             .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
@@ -40,37 +68,283 @@ public class GenericAuditService {
                 }
             });
 
-    public List<AuditLogDTO> getRevisions(Class<?> entityClass, Long id) {
-        AuditReader reader = AuditReaderFactory.get(em);
+    /**
+     * Lista revisoes da mais recente para a mais antiga, paginadas por cursor
+     * (revisao, id). Filtros, ordenacao e limite vao para a AuditQuery.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AuditLogDTO> getRevisions(
+            Class<?> entityClass, AuditFilterDTO filter, String cursor, Integer size) {
+        Pagina<Object[]> rows = fetchRows(
+                entityClass, filter, CursorCodec.decodePair(cursor), normalizePageSize(size));
+        return toCursorPage(rows.items().stream().map(this::toDto).toList(), rows.nextKey());
+    }
+
+    /**
+     * Todas as revisoes filtradas, no formato antigo (lista sem envelope), lidas em lotes
+     * da exportacao.
+     *
+     * @deprecated use {@link #getRevisions}; mantida por compatibilidade.
+     */
+    @Deprecated
+    @Transactional(readOnly = true)
+    public List<AuditLogDTO> getAllRevisions(Class<?> entityClass, AuditFilterDTO filter) {
+        List<AuditLogDTO> revisions = new ArrayList<>();
+        long[] after = null;
+        do {
+            Pagina<Object[]> rows = fetchRows(entityClass, filter, after, EXPORT_BATCH_SIZE);
+            rows.items().forEach(row -> revisions.add(toDto(row)));
+            after = rows.nextKey();
+        } while (after != null);
+        return revisions;
+    }
+
+    /**
+     * Mesma paginacao de {@link #getRevisions}, mas cada revisao traz apenas os campos
+     * alterados em relacao a revisao anterior do mesmo registro.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AuditDiffDTO> getRevisionDiffs(
+            Class<?> entityClass, AuditFilterDTO filter, String cursor, Integer size) {
+        Pagina<Object[]> rows = fetchRows(
+                entityClass, filter, CursorCodec.decodePair(cursor), normalizePageSize(size));
+        return toCursorPage(toDiffs(entityClass, rows.items()), rows.nextKey());
+    }
 
-        AuditQuery query = reader.createQuery()
+    /**
+     * Escreve todas as revisoes filtradas em NDJSON, uma por linha, completas ou
+     * apenas com os campos alterados ({@code diff}). Le em lotes, cada um em sua
+     * propria transacao, entao a memoria nao cresce com o total de revisoes.
+     * O stream nao e fechado.
+     */
+    public void exportRevisions(Class<?> entityClass, AuditFilterDTO filter, boolean diff, OutputStream out)
+            throws IOException {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+
+        long[] after = null;
+        do {
+            long[] current = after;
+            Pagina<?> pagina = tx.execute(status -> {
+                Pagina<Object[]> rows = fetchRows(entityClass, filter, current, EXPORT_BATCH_SIZE);
+                List<?> items = diff
+                        ? toDiffs(entityClass, rows.items())
+                        : rows.items().stream().map(this::toDto).toList();
+                return new Pagina<>(items, rows.nextKey());
+            });
+            for (Object item : pagina.items()) {
+                out.write(objectMapper.writeValueAsBytes(item));
+                out.write(NEWLINE);
+            }
+            out.flush();
+            after = pagina.nextKey();
+        } while (after != null);
+    }
+
+    private Pagina<Object[]> fetchRows(Class<?> entityClass, AuditFilterDTO filter, long[] after, int pageSize) {
+        AuditQuery query = AuditReaderFactory.get(em).createQuery()
                 .forRevisionsOfEntity(entityClass, false, true)
-                .addOrder(AuditEntity.revisionNumber().desc());
+                .addOrder(AuditEntity.revisionNumber().desc())
+                .addOrder(AuditEntity.id().desc())
+                .setMaxResults(pageSize + 1);
+
+        applyFilter(query, filter);
+        if (after != null) {
+            query.add(AuditEntity.or(
+                    AuditEntity.revisionNumber().lt(after[0]),
+                    AuditEntity.and(
+                            AuditEntity.revisionNumber().eq(after[0]),
+                            AuditEntity.id().lt(after[1]))));
+        }
+
+        List<?> rows = query.getResultList();
+        boolean hasNext = rows.size() > pageSize;
+        List<Object[]> page = (hasNext ? rows.subList(0, pageSize) : rows).stream()
+                .map(this::asRow)
+                .toList();
 
-        if (id != null) {
-            query.add(AuditEntity.id().eq(id));
+        long[] nextKey = null;
+        if (hasNext) {
+            Object[] last = page.get(page.size() - 1);
+            nextKey = new long[]{revisionOf(last).getId(), ((Number) idOf(last[0])).longValue()};
         }
+        return new Pagina<>(page, nextKey);
+    }
 
-        List<?> results = query.getResultList();
+    private <T> CursorPageDTO<T> toCursorPage(List<T> items, long[] nextKey) {
+        return CursorPageDTO.<T>builder()
+                .items(items)
+                .nextCursor(nextKey != null ? CursorCodec.encodePair(nextKey[0], nextKey[1]) : null)
+                .hasNext(nextKey != null)
+                .build();
+    }
 
-        return results.stream()
-                .map(r -> {
-                    Object[] arr = (r instanceof Object[] o) ? o 
-                            : new Object[]{r};
+    private void applyFilter(AuditQuery query, AuditFilterDTO filter) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getId() != null) {
+            query.add(AuditEntity.id().eq(filter.getId()));
+        }
+        if (filter.getUsuarioId() != null) {
+            query.add(AuditEntity.revisionProperty("usuarioId").eq(filter.getUsuarioId()));
+        }
+        if (filter.getDe() != null) {
+            query.add(AuditEntity.revisionProperty("timestamp").ge(toEpochMilli(filter.getDe())));
+        }
+        if (filter.getAte() != null) {
+            query.add(AuditEntity.revisionProperty("timestamp").le(toEpochMilli(filter.getAte())));
+        }
+    }
 
-                    Object entity = arr[0];
-                    UsuarioRevisionEntity rev = (UsuarioRevisionEntity) arr[1];
-                    RevisionType rt = (arr.length > 2) 
-                            ? (RevisionType) arr[2] : null;
+    private Object[] asRow(Object r) {
+        return (r instanceof Object[] o) ? o : new Object[]{r};
+    }
 
-                    return new AuditLogDTO(
-                            toMap(entity),
-                            rev.getUsuarioNome(),
-                            rev.getUsuarioEmail(),
-                            rev.getTimestamp(),
-                            mapAction(rt));
-                })
-                .collect(Collectors.toList());
+    private AuditLogDTO toDto(Object[] arr) {
+        UsuarioRevisionEntity rev = revisionOf(arr);
+        return new AuditLogDTO(
+                rev.getId(),
+                toMap(arr[0]),
+                rev.getUsuarioNome(),
+                rev.getUsuarioEmail(),
+                rev.getTimestamp(),
+                mapAction(actionOf(arr)));
+    }
+
+    /**
+     * Compara cada revisao com a anterior do mesmo registro.
+     */
+    private List<AuditDiffDTO> toDiffs(Class<?> entityClass, List<Object[]> rows) {
+        Map<Integer, Object> previous = findPrevious(entityClass, rows);
+        List<AuditDiffDTO> diffs = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            RevisionType action = actionOf(row);
+
+            List<AuditChangeDTO> changes = List.of();
+            if (action != RevisionType.DEL) {
+                Object before = previous.get(i);
+                changes = diff(before == null ? Map.of() : toMap(before), toMap(row[0]));
+            }
+
+            UsuarioRevisionEntity rev = revisionOf(row);
+            diffs.add(new AuditDiffDTO(
+                    rev.getId(),
+                    idOf(row[0]),
+                    rev.getUsuarioNome(),
+                    rev.getUsuarioEmail(),
+                    rev.getTimestamp(),
+                    mapAction(action),
+                    changes));
+        }
+        return diffs;
+    }
+
+    /**
+     * Revisao anterior do mesmo registro para cada alteracao, pelo indice da linha. A
+     * anterior costuma estar na propria pagina (linhas mais abaixo); as que faltam, no
+     * maximo uma por registro (a da sua linha mais antiga), vem juntas numa consulta.
+     */
+    private Map<Integer, Object> findPrevious(Class<?> entityClass, List<Object[]> rows) {
+        Map<Integer, Object> previous = new HashMap<>();
+        Map<Object, Integer> below = new HashMap<>();
+        Map<Object, Integer> missing = new LinkedHashMap<>();
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            Object id = idOf(rows.get(i)[0]);
+            RevisionType action = actionOf(rows.get(i));
+            if (action != RevisionType.ADD && action != RevisionType.DEL) {
+                Integer lower = below.get(id);
+                if (lower != null) {
+                    previous.put(i, rows.get(lower)[0]);
+                } else {
+                    missing.put(id, i);
+                }
+            }
+            below.put(id, i);
+        }
+        if (!missing.isEmpty()) {
+            Map<Object, Object> found = new HashMap<>();
+            for (Object entity : findLatestBefore(entityClass, rows, missing)) {
+                found.put(idOf(entity), entity);
+            }
+            missing.forEach((id, index) -> {
+                if (found.containsKey(id)) {
+                    previous.put(index, found.get(id));
+                }
+            });
+        }
+        return previous;
+    }
+
+    /**
+     * Ultima revisao de cada registro antes da revisao da sua linha: o maximo e calculado
+     * por registro, entao revisoes fora do filtro da pagina tambem contam.
+     */
+    private List<?> findLatestBefore(Class<?> entityClass, List<Object[]> rows, Map<Object, Integer> missing) {
+        AuditDisjunction rowsOf = AuditEntity.disjunction();
+        AuditDisjunction latestOf = AuditEntity.disjunction();
+        missing.forEach((id, index) -> {
+            Long bound = revisionOf(rows.get(index)).getId();
+            rowsOf.add(AuditEntity.and(AuditEntity.id().eq(id), AuditEntity.revisionNumber().lt(bound)));
+            latestOf.add(AuditEntity.and(AuditEntity.id().eq(id), AuditEntity.revisionNumber().lt(bound)));
+        });
+        return AuditReaderFactory.get(em).createQuery()
+                .forRevisionsOfEntity(entityClass, true, true)
+                .add(rowsOf)
+                .add(AuditEntity.revisionNumber().maximize().computeAggregationInInstanceContext().add(latestOf))
+                .getResultList();
+    }
+
+    static List<AuditChangeDTO> diff(Map<String, Object> before, Map<String, Object> after) {
+        Set<String> fields = new LinkedHashSet<>(after.keySet());
+        fields.addAll(before.keySet());
+
+        List<AuditChangeDTO> changes = new ArrayList<>();
+        for (String field : fields) {
+            Object oldValue = compact(before.get(field));
+            Object newValue = compact(after.get(field));
+            if (!Objects.equals(oldValue, newValue)) {
+                changes.add(new AuditChangeDTO(field, oldValue, newValue));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Referencias a outras entidades viram apenas o id, para nao repetir o objeto inteiro.
+     */
+    private static Object compact(Object value) {
+        if (value instanceof Map<?, ?> map && map.containsKey("id")) {
+            return map.get("id");
+        }
+        if (value instanceof Collection<?> collection) {
+            return collection.stream().map(GenericAuditService::compact).toList();
+        }
+        return value;
+    }
+
+    private UsuarioRevisionEntity revisionOf(Object[] arr) {
+        return (UsuarioRevisionEntity) arr[1];
+    }
+
+    private RevisionType actionOf(Object[] arr) {
+        return (arr.length > 2) ? (RevisionType) arr[2] : null;
+    }
+
+    private Object idOf(Object entity) {
+        return em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+    }
+
+    private int normalizePageSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
     private String mapAction(RevisionType rt) {
@@ -88,8 +362,11 @@ public class GenericAuditService {
         try {
             return objectMapper.convertValue(entity, Map.class);
         } catch (Exception e) {
-            System.err.println("Erro ao serializar: " + e.getMessage());
+            LOGGER.warn("Erro ao serializar revisao: {}", e.getMessage());
             return Map.of("error", "Erro na serialização");
         }
     }
+
+    private record Pagina<T>(List<T> items, long[] nextKey) {
+    }
 }
@@ -5,31 +5,71 @@ import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 
 import com.sigesi.sigesi.usuarios.Usuario;
+import com.sigesi.sigesi.usuarios.enums.Role;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
-public class CustomOAuth2User implements OidcUser {
+/**
+ * Principal da sessao.
+ *
+ * <p>Na serializacao (sessao JDBC) vao apenas o login OIDC, o id, a role, o nome e a
+ * versao do usuario; a entidade {@link Usuario} e o grafo de Pessoa ficam de fora. Depois
+ * de lido de outra instancia, {@link #getUser()} e nulo ate o
+ * {@link UsuarioSessionRefreshFilter} religar o usuario a partir do UsuarioCache.
+ */
+public class CustomOAuth2User implements OidcUser, Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   private final OidcUser oidcUser;
-  private final Usuario user;
+  private final transient Usuario user;
+  private final Long usuarioId;
+  private final Role role;
+  private final String name;
+  private final long versao;
 
-  public CustomOAuth2User(OidcUser oidcUser, Usuario user) {
+  public CustomOAuth2User(OidcUser oidcUser, Usuario user, long versao) {
     this.oidcUser = oidcUser;
     this.user = user;
+    this.usuarioId = user.getId();
+    this.role = user.getRole();
+    this.name = user.getName();
+    this.versao = versao;
   }
 
   public Usuario getUser() {
     return user;
   }
 
+  public Long getUsuarioId() {
+    return usuarioId;
+  }
+
+  /**
+   * Versao do usuario no UsuarioCache quando este principal foi montado.
+   */
+  public long getVersao() {
+    return versao;
+  }
+
+  /**
+   * Mesmo login OIDC com o estado atual do usuario.
+   */
+  public CustomOAuth2User withUser(Usuario atual, long versaoAtual) {
+    return new CustomOAuth2User(oidcUser, atual, versaoAtual);
+  }
+
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
-    return List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+    return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
   }
 
   @Override
@@ -39,7 +79,7 @@ public class CustomOAuth2User implements OidcUser {
 
   @Override
   public String getName() {
-    return user.getName();
+    return name;
   }
 
   @Override
@@ -8,6 +8,7 @@ import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Service;
 
 import com.sigesi.sigesi.usuarios.Usuario;
+import com.sigesi.sigesi.usuarios.UsuarioCache;
 import com.sigesi.sigesi.usuarios.UsuarioService;
 
 @Service
@@ -16,6 +17,9 @@ public class CustomOidcUserService extends OidcUserService {
   @Autowired
   private UsuarioService usuarioService;
 
+  @Autowired
+  private UsuarioCache usuarioCache;
+
   @Override
   public OidcUser loadUser(OidcUserRequest userRequest)
       throws OAuth2AuthenticationException {
@@ -29,6 +33,6 @@ public class CustomOidcUserService extends OidcUserService {
           "Usuário inativo. Aguardando liberação.");
     }
 
-    return new CustomOAuth2User(oidcUser, user);
+    return new CustomOAuth2User(oidcUser, user, usuarioCache.put(user).versao());
   }
 }
@@ -0,0 +1,89 @@
+package com.sigesi.sigesi.authentication;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.sigesi.sigesi.usuarios.UsuarioCache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Mantem o usuario da sessao em dia com o UsuarioCache.
+ *
+ * <p>Quando a versao do cache difere da guardada no principal, a autenticacao e
+ * refeita com o estado atual (novas authorities valem nesta mesma requisicao). Usuario
+ * inativo ou removido tem a sessao encerrada e segue como anonimo.
+ *
+ * <p>Principal lido de uma sessao serializada chega sem a entidade Usuario; na mesma
+ * versao ela e religada so para a requisicao, sem regravar a sessao.
+ */
+public class UsuarioSessionRefreshFilter extends OncePerRequestFilter {
+
+  private final UsuarioCache usuarioCache;
+  private final SecurityContextRepository securityContextRepository =
+      new HttpSessionSecurityContextRepository();
+
+  public UsuarioSessionRefreshFilter(UsuarioCache usuarioCache) {
+    this.usuarioCache = usuarioCache;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+    if (auth instanceof OAuth2AuthenticationToken token
+        && token.getPrincipal() instanceof CustomOAuth2User principal) {
+      Optional<UsuarioCache.Snapshot> atual = usuarioCache.get(principal.getUsuarioId());
+
+      if (atual.isEmpty() || !Boolean.TRUE.equals(atual.get().usuario().getAtivo())) {
+        encerrarSessao(request);
+      } else if (atual.get().versao() != principal.getVersao()) {
+        atualizarAutenticacao(token, principal, atual.get(), request, response);
+      } else if (principal.getUser() == null) {
+        SecurityContextHolder.setContext(contexto(token, principal, atual.get()));
+      }
+    }
+
+    filterChain.doFilter(request, response);
+  }
+
+  private void atualizarAutenticacao(OAuth2AuthenticationToken token, CustomOAuth2User principal,
+      UsuarioCache.Snapshot atual, HttpServletRequest request, HttpServletResponse response) {
+    SecurityContext context = contexto(token, principal, atual);
+    SecurityContextHolder.setContext(context);
+    securityContextRepository.saveContext(context, request, response);
+  }
+
+  private SecurityContext contexto(OAuth2AuthenticationToken token, CustomOAuth2User principal,
+      UsuarioCache.Snapshot atual) {
+    CustomOAuth2User novo = principal.withUser(atual.usuario(), atual.versao());
+    OAuth2AuthenticationToken novoToken = new OAuth2AuthenticationToken(
+        novo, novo.getAuthorities(), token.getAuthorizedClientRegistrationId());
+    novoToken.setDetails(token.getDetails());
+
+    SecurityContext context = SecurityContextHolder.createEmptyContext();
+    context.setAuthentication(novoToken);
+    return context;
+  }
+
+  private void encerrarSessao(HttpServletRequest request) {
+    SecurityContextHolder.clearContext();
+    HttpSession session = request.getSession(false);
+    if (session != null) {
+      session.invalidate();
+    }
+  }
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -26,7 +27,8 @@ import lombok.NoArgsConstructor;
 @Builder
 public class Cemiterio {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cemiterio_seq")
+  @SequenceGenerator(name = "cemiterio_seq", sequenceName = "cemiterio_seq", allocationSize = 50)
   private Long id;
 
   @NotBlank(message = "Nome é obrigatório")
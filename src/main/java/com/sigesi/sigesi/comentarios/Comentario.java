@@ -13,6 +13,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -31,7 +32,8 @@ import lombok.NoArgsConstructor;
 public class Comentario {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comentario_seq")
+  @SequenceGenerator(name = "comentario_seq", sequenceName = "comentario_seq", allocationSize = 50)
   private Long id;
 
   @NotNull(message = "Demanda é obrigatória")
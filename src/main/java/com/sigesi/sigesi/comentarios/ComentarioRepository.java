@@ -3,6 +3,8 @@ package com.sigesi.sigesi.comentarios;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,7 +15,8 @@ public interface ComentarioRepository extends JpaRepository<Comentario, Long> {
 
   List<Comentario> findAllByOrderByIdAsc();
 
-  List<Comentario> findByDemandaIdOrderByCriadoEmAsc(Long demandaId);
+  @Query("select c from Comentario c where c.demanda.id = :demandaId order by c.criadoEm")
+  List<Comentario> findByDemandaIdOrderByCriadoEmAsc(@Param("demandaId") Long demandaId);
 
   List<Comentario> findByAutorIdOrderByCriadoEmDesc(Long autorId);
 }
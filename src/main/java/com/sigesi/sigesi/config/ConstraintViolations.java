@@ -0,0 +1,28 @@
+package com.sigesi.sigesi.config;
+
+import java.util.Locale;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Identifica a restricao do banco por tras de uma DataIntegrityViolationException.
+ */
+public final class ConstraintViolations {
+
+  private ConstraintViolations() {
+    // Utility class
+  }
+
+  /**
+   * Indica se a violacao e da restricao ou indice unico informado. O nome vem do driver:
+   * o PostgreSQL devolve o nome como foi criado, o H2 em maiusculas e com o schema.
+   */
+  public static boolean isViolationOf(DataIntegrityViolationException e, String constraint) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+        return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(constraint.toLowerCase(Locale.ROOT));
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,76 @@
+package com.sigesi.sigesi.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Codifica e decodifica cursores opacos usados na paginacao por chave (keyset).
+ */
+public final class CursorCodec {
+
+  private static final String PREFIX = "k1:";
+  private static final String PAIR_PREFIX = "k2:";
+
+  private CursorCodec() {
+    // Utility class
+  }
+
+  /**
+   * Gera o token opaco a partir do ultimo ID retornado.
+   */
+  public static String encode(Long lastId) {
+    if (lastId == null) {
+      return null;
+    }
+    byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+  }
+
+  /**
+   * Recupera o ultimo ID a partir do token. Retorna null quando nao ha cursor.
+   */
+  public static Long decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (!raw.startsWith(PREFIX)) {
+        throw new IllegalArgumentException("Prefixo desconhecido");
+      }
+      return Long.valueOf(raw.substring(PREFIX.length()));
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+    }
+  }
+
+  /**
+   * Gera o token a partir de uma chave composta de dois valores (ex.: revisao e id).
+   */
+  public static String encodePair(long first, long second) {
+    byte[] raw = (PAIR_PREFIX + first + ":" + second).getBytes(StandardCharsets.UTF_8);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+  }
+
+  /**
+   * Recupera a chave composta a partir do token. Retorna null quando nao ha cursor.
+   */
+  public static long[] decodePair(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = raw.startsWith(PAIR_PREFIX) ? raw.substring(PAIR_PREFIX.length()).split(":") : new String[0];
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Formato desconhecido");
+      }
+      return new long[] {Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.sigesi.sigesi.config;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pagina de resultados paginada por cursor.
+ * {@code nextCursor} e nulo quando nao ha mais registros.
+ *
+ * @param <T> tipo dos itens da pagina
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+
+  private List<T> items;
+  private String nextCursor;
+  private boolean hasNext;
+}
@@ -1,16 +1,33 @@
 package com.sigesi.sigesi.config;
 
 import io.minio.MinioClient;
+import io.minio.http.HttpUtils;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 /**
  * MinIO client configuration.
+ *
+ * <p>The client sends every request through OkHttp's async dispatcher, which by default
+ * runs at most 5 requests per host at a time; concurrent downloads beyond that wait in
+ * the dispatcher queue. The limits and the idle connection pool are configurable so they
+ * can follow the number of request threads.
+ *
+ * <p>URLs handed to browsers are signed by a second client. The signature covers the
+ * host, so when browsers reach MinIO under another address ({@code minio.public-endpoint})
+ * the URLs must be signed for that address.
  */
 @Configuration
 public class MinioConfig {
 
+  private static final long DEFAULT_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+
   @Value("${minio.endpoint}")
   private String endpoint;
 
@@ -20,11 +37,56 @@ public class MinioConfig {
   @Value("${minio.secret-key}")
   private String secretKey;
 
+  @Value("${minio.public-endpoint:}")
+  private String publicEndpoint;
+
+  @Value("${minio.region:us-east-1}")
+  private String region;
+
+  @Value("${minio.http.max-requests:256}")
+  private int maxRequests;
+
+  @Value("${minio.http.max-idle-connections:64}")
+  private int maxIdleConnections;
+
+  @Value("${minio.http.keep-alive-seconds:300}")
+  private long keepAliveSeconds;
+
   @Bean
+  @Primary
   public MinioClient minioClient() {
     return MinioClient.builder()
         .endpoint(endpoint)
         .credentials(accessKey, secretKey)
+        .httpClient(httpClient(), true)
+        .build();
+  }
+
+  /**
+   * Client for presigned URLs and upload forms. Signing is local; the region is fixed so
+   * this client never has to reach the public address to look it up.
+   */
+  @Bean
+  public MinioClient presignMinioClient() {
+    if (publicEndpoint.isBlank()) {
+      return minioClient();
+    }
+    return MinioClient.builder()
+        .endpoint(publicEndpoint)
+        .credentials(accessKey, secretKey)
+        .region(region)
+        .build();
+  }
+
+  private OkHttpClient httpClient() {
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(maxRequests);
+    dispatcher.setMaxRequestsPerHost(maxRequests);
+
+    return HttpUtils.newDefaultHttpClient(DEFAULT_TIMEOUT_MS, DEFAULT_TIMEOUT_MS, DEFAULT_TIMEOUT_MS)
+        .newBuilder()
+        .dispatcher(dispatcher)
+        .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
         .build();
   }
 }
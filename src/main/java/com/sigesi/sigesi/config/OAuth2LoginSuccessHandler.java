@@ -2,14 +2,11 @@ package com.sigesi.sigesi.config;
 
 import java.io.IOException;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
 
-import com.sigesi.sigesi.usuarios.UsuarioService;
-
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -17,25 +14,15 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
 
-  private final UsuarioService usuarioService;
-
   @Value("${app.oauth2.success-redirect}")
   private String successRedirect;
 
-  @Autowired
-  public OAuth2LoginSuccessHandler(UsuarioService usuarioService) {
-    this.usuarioService = usuarioService;
-  }
-
   @Override
   public void onAuthenticationSuccess(HttpServletRequest request,
       HttpServletResponse response,
       Authentication authentication)
       throws IOException, ServletException {
-
-    usuarioService.processOAuthPostLogin(
-        (org.springframework.security.oauth2.core.user.OAuth2User) authentication.getPrincipal());
-
+    // O usuario ja foi sincronizado em CustomOidcUserService.loadUser
     response.sendRedirect(successRedirect);
   }
 }
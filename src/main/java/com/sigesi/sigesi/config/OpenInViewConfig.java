@@ -0,0 +1,39 @@
+package com.sigesi.sigesi.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open-in-view (EntityManager aberto durante a requisicao) em todas as rotas, menos no
+ * download de arquivos e de miniaturas.
+ *
+ * <p>Substitui o interceptor que o Spring Boot registraria para todas as rotas. Com o
+ * EntityManager aberto, a conexao usada na primeira consulta so volta ao pool no fim da
+ * requisicao; no download isso seguraria uma conexao durante toda a transferencia.
+ * {@code spring.jpa.open-in-view=false} continua desligando tudo.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.open-in-view", havingValue = "true", matchIfMissing = true)
+public class OpenInViewConfig {
+
+  static final String[] ROTAS_SEM_OPEN_IN_VIEW = {"/api/arquivos/*/download", "/api/arquivos/*/thumbnail"};
+
+  @Bean
+  public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+    return new OpenEntityManagerInViewInterceptor();
+  }
+
+  @Bean
+  public WebMvcConfigurer openEntityManagerInViewConfigurer(OpenEntityManagerInViewInterceptor interceptor) {
+    return new WebMvcConfigurer() {
+      @Override
+      public void addInterceptors(InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(interceptor).excludePathPatterns(ROTAS_SEM_OPEN_IN_VIEW);
+      }
+    };
+  }
+}
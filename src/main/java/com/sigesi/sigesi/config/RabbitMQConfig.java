@@ -20,6 +20,8 @@ public class RabbitMQConfig {
     public static final String QUEUE_NAME = "sigesi_notifications";
     public static final String ROUTING_KEY_ASSIGNED = "demand.assigned";
     public static final String ROUTING_KEY_STATUS_CHANGED = "demand.status_changed";
+    public static final String ROUTING_KEY_DUE_SOON = "demand.due_soon";
+    public static final String ROUTING_KEY_OVERDUE = "demand.overdue";
 
     /**
      * Topic exchange for routing events.
@@ -67,8 +69,35 @@ public class RabbitMQConfig {
             .with(ROUTING_KEY_STATUS_CHANGED);
     }
 
+    /**
+     * Binding for demand.due_soon events.
+     *
+     * @return Binding bean
+     */
+    @Bean
+    public Binding bindingDemandDueSoon() {
+        return BindingBuilder
+            .bind(notificationsQueue())
+            .to(sigesiEventsExchange())
+            .with(ROUTING_KEY_DUE_SOON);
+    }
+
+    /**
+     * Binding for demand.overdue events.
+     *
+     * @return Binding bean
+     */
+    @Bean
+    public Binding bindingDemandOverdue() {
+        return BindingBuilder
+            .bind(notificationsQueue())
+            .to(sigesiEventsExchange())
+            .with(ROUTING_KEY_OVERDUE);
+    }
+
     /**
      * RabbitTemplate with JSON message converter.
+     * Mandatory so unroutable messages are returned to the outbox relay instead of dropped.
      *
      * @param connectionFactory Connection factory
      * @return RabbitTemplate bean
@@ -77,6 +106,7 @@ public class RabbitMQConfig {
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(jsonMessageConverter());
+        template.setMandatory(true);
         return template;
     }
 
@@ -0,0 +1,12 @@
+package com.sigesi.sigesi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita tarefas agendadas (@Scheduled), como o relay do outbox de notificacoes.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
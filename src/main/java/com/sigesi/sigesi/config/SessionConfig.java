@@ -0,0 +1,31 @@
+package com.sigesi.sigesi.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+/**
+ * Repositorio das sessoes HTTP, escolhido por {@code app.session.store}.
+ *
+ * <p>{@code jdbc} (padrao): o Spring Boot configura o JdbcIndexedSessionRepository no
+ * PostgreSQL e qualquer instancia atende qualquer sessao, sem sticky session.
+ * {@code memory}: sessoes em um mapa local, apenas para uma unica instancia.
+ */
+@Configuration
+public class SessionConfig {
+
+  @Configuration
+  @EnableSpringHttpSession
+  @ConditionalOnProperty(name = "app.session.store", havingValue = "memory")
+  static class MemorySessionConfig {
+
+    @Bean
+    MapSessionRepository sessionRepository() {
+      return new MapSessionRepository(new ConcurrentHashMap<>());
+    }
+  }
+}
@@ -7,9 +7,12 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.logout.HttpStatusReturningLogoutSuccessHandler;
 
 import com.sigesi.sigesi.authentication.CustomOidcUserService;
+import com.sigesi.sigesi.authentication.UsuarioSessionRefreshFilter;
+import com.sigesi.sigesi.usuarios.UsuarioCache;
 
 @Configuration
 public class SpringConfig {
@@ -20,6 +23,9 @@ public class SpringConfig {
   @Autowired
   private CustomOidcUserService customOidcUserService;
 
+  @Autowired
+  private UsuarioCache usuarioCache;
+
   @Value("${app.oauth2.failure-redirect}")
   private String failureRedirect;
 
@@ -34,10 +40,14 @@ public class SpringConfig {
             .requestMatchers("/api/jazigos/**").hasAnyRole("OPERADOR", "ADMIN")
             .requestMatchers("/api/gavetas/**").hasAnyRole("OPERADOR", "ADMIN")
             .requestMatchers("/api/documentos/**").hasAnyRole("OPERADOR", "ADMIN")
+            .requestMatchers("/api/dashboard/**", "/api/dashboard").hasAnyRole("OPERADOR", "ADMIN")
+            .requestMatchers("/api/materiais/consumo/**", "/api/materiais/consumo").hasAnyRole("OPERADOR", "ADMIN")
+            .requestMatchers("/api/pessoas/import/**", "/api/pessoas/import").hasAnyRole("OPERADOR", "ADMIN")
             .requestMatchers("/api/enderecos/**").hasAnyRole("CIDADAO", "AGENTE", "OPERADOR", "ADMIN")
             .requestMatchers("/api/usuarios/me/**", "/api/usuarios/me").authenticated()
             .requestMatchers("/api/usuarios/**").hasRole("ADMIN")
             .anyRequest().authenticated())
+        .addFilterBefore(new UsuarioSessionRefreshFilter(usuarioCache), AuthorizationFilter.class)
         .logout(logout -> logout
             .logoutUrl("/api/auth/logout")
             .invalidateHttpSession(true)
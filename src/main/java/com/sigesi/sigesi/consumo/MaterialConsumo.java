@@ -0,0 +1,69 @@
+package com.sigesi.sigesi.consumo;
+
+import java.time.LocalDate;
+
+import com.sigesi.sigesi.materiais.Material;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
+import jakarta.persistence.Entity;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Linha do resumo de consumo de materiais: quantidade e custo (quantidade x preco atual)
+ * de um material em um mes, por assunto da solicitacao e bairro do local.
+ *
+ * <p>Tabela derivada de DemandaMaterial, mantida pelo {@link MaterialConsumoService};
+ * nao deve ser alterada diretamente.
+ */
+@Entity
+@Table(name = "material_consumo", uniqueConstraints = @UniqueConstraint(
+    name = "uk_material_consumo", columnNames = {"material_id", "mes", "assunto", "bairro"}))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MaterialConsumo {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "material_consumo_seq")
+  @SequenceGenerator(name = "material_consumo_seq", sequenceName = "material_consumo_seq", allocationSize = 50)
+  private Long id;
+
+  @ManyToOne
+  @JoinColumn(name = "material_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+  private Material material;
+
+  /**
+   * Primeiro dia do mes do prazo das demandas.
+   */
+  @Column(nullable = false)
+  private LocalDate mes;
+
+  /**
+   * Nome do assunto, ou {@link MaterialConsumoService#NAO_INFORMADO}.
+   */
+  @Column(nullable = false, length = 30)
+  private String assunto;
+
+  @Column(nullable = false)
+  private String bairro;
+
+  @Column(nullable = false)
+  private Long quantidade;
+
+  @Column(nullable = false)
+  private Double custo;
+}
@@ -0,0 +1,52 @@
+package com.sigesi.sigesi.consumo;
+
+import java.util.List;
+
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.sigesi.sigesi.consumo.dtos.MaterialConsumoDTO;
+import com.sigesi.sigesi.consumo.dtos.MaterialConsumoFilterDTO;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controller REST do relatorio de consumo e custo de materiais.
+ */
+@RestController
+@RequestMapping("/api/materiais/consumo")
+@Tag(name = "materiais")
+public class MaterialConsumoController {
+
+  @Autowired
+  private MaterialConsumoRelatorioService relatorioService;
+
+  /**
+   * Quantidade e custo somados pelas dimensoes em {@code agrupar}.
+   */
+  @GetMapping
+  public ResponseEntity<List<MaterialConsumoDTO>> consultar(@ParameterObject MaterialConsumoFilterDTO filter) {
+    return ResponseEntity.ok(relatorioService.consultar(filter));
+  }
+
+  /**
+   * Mesmo relatorio em CSV, escrito na resposta a medida que e lido do banco.
+   */
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> exportar(@ParameterObject MaterialConsumoFilterDTO filter) {
+    relatorioService.validarFiltro(filter);
+
+    StreamingResponseBody body = out -> relatorioService.exportarCsv(filter, out);
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"consumo_materiais.csv\"")
+        .contentType(MediaType.parseMediaType("text/csv"))
+        .body(body);
+  }
+}
@@ -0,0 +1,11 @@
+package com.sigesi.sigesi.consumo;
+
+/**
+ * Colunas pelas quais o relatorio de consumo pode ser agrupado.
+ */
+public enum MaterialConsumoDimensao {
+  MATERIAL,
+  MES,
+  ASSUNTO,
+  BAIRRO
+}
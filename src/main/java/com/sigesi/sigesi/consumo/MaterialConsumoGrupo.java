@@ -0,0 +1,19 @@
+package com.sigesi.sigesi.consumo;
+
+import java.time.LocalDate;
+
+/**
+ * Material e mes, a unidade em que o resumo de consumo e recalculado.
+ *
+ * @param materialId id do material
+ * @param mes primeiro dia do mes
+ */
+public record MaterialConsumoGrupo(Long materialId, LocalDate mes) {
+
+  /**
+   * Grupo do material em uma demanda com o prazo informado.
+   */
+  public static MaterialConsumoGrupo of(Long materialId, LocalDate prazo) {
+    return new MaterialConsumoGrupo(materialId, prazo.withDayOfMonth(1));
+  }
+}
@@ -0,0 +1,40 @@
+package com.sigesi.sigesi.consumo;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Material e mes cujo resumo de consumo precisa ser recalculado.
+ * Gravado na mesma transacao da alteracao que o afetou.
+ */
+@Entity
+@Table(name = "material_consumo_pendente")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MaterialConsumoPendente {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "material_consumo_pendente_seq")
+  @SequenceGenerator(name = "material_consumo_pendente_seq", sequenceName = "material_consumo_pendente_seq",
+      allocationSize = 50)
+  private Long id;
+
+  @Column(name = "material_id", nullable = false)
+  private Long materialId;
+
+  @Column(nullable = false)
+  private LocalDate mes;
+}
@@ -0,0 +1,16 @@
+package com.sigesi.sigesi.consumo;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository dos grupos de consumo pendentes de recalculo.
+ */
+@Repository
+public interface MaterialConsumoPendenteRepository extends JpaRepository<MaterialConsumoPendente, Long> {
+
+  List<MaterialConsumoPendente> findByOrderByIdAsc(Limit limit);
+}
@@ -0,0 +1,240 @@
+package com.sigesi.sigesi.consumo;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.sigesi.sigesi.consumo.dtos.MaterialConsumoDTO;
+import com.sigesi.sigesi.consumo.dtos.MaterialConsumoFilterDTO;
+import com.sigesi.sigesi.materiais.Material;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Relatorio de consumo de materiais, lido do resumo material_consumo.
+ *
+ * <p>As somas sao feitas no banco, agrupadas pelas dimensoes pedidas. A exportacao CSV
+ * le o resultado com cursor e escreve cada linha na resposta, sem montar a lista em memoria.
+ */
+@Service
+public class MaterialConsumoRelatorioService {
+
+  static final int EXPORT_FETCH_SIZE = 500;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @PersistenceContext
+  private EntityManager em;
+
+  /**
+   * Rejeita periodo invertido com 400.
+   */
+  public void validarFiltro(MaterialConsumoFilterDTO filter) {
+    if (filter != null && filter.getMesDe() != null && filter.getMesAte() != null
+        && filter.getMesDe().isAfter(filter.getMesAte())) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "mesDe deve ser anterior ou igual a mesAte");
+    }
+  }
+
+  @Transactional(readOnly = true)
+  public List<MaterialConsumoDTO> consultar(MaterialConsumoFilterDTO filter) {
+    validarFiltro(filter);
+    Set<MaterialConsumoDimensao> dimensoes = dimensoes(filter);
+    return em.createQuery(query(filter, dimensoes)).getResultList().stream()
+        .map(tupla -> toDto(tupla, dimensoes))
+        .toList();
+  }
+
+  /**
+   * Escreve o relatorio em CSV (UTF-8), com as colunas das dimensoes pedidas seguidas de
+   * quantidade e custo. O stream nao e fechado.
+   */
+  public void exportarCsv(MaterialConsumoFilterDTO filter, OutputStream out) throws IOException {
+    Set<MaterialConsumoDimensao> dimensoes = dimensoes(filter);
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    writer.write(cabecalho(dimensoes));
+
+    TransactionTemplate tx = new TransactionTemplate(transactionManager);
+    tx.setReadOnly(true);
+    try {
+      tx.executeWithoutResult(status -> {
+        try (Stream<Tuple> tuplas = em.createQuery(query(filter, dimensoes))
+            .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+            .getResultStream()) {
+          Iterator<Tuple> it = tuplas.iterator();
+          while (it.hasNext()) {
+            writer.write(linha(toDto(it.next(), dimensoes), dimensoes));
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writer.flush();
+  }
+
+  private static Set<MaterialConsumoDimensao> dimensoes(MaterialConsumoFilterDTO filter) {
+    if (filter == null || filter.getAgrupar() == null || filter.getAgrupar().isEmpty()) {
+      return EnumSet.allOf(MaterialConsumoDimensao.class);
+    }
+    return EnumSet.copyOf(filter.getAgrupar());
+  }
+
+  private CriteriaQuery<Tuple> query(MaterialConsumoFilterDTO filter, Set<MaterialConsumoDimensao> dimensoes) {
+    CriteriaBuilder cb = em.getCriteriaBuilder();
+    CriteriaQuery<Tuple> q = cb.createTupleQuery();
+    Root<MaterialConsumo> c = q.from(MaterialConsumo.class);
+
+    List<Selection<?>> colunas = new ArrayList<>();
+    List<Expression<?>> grupos = new ArrayList<>();
+    for (MaterialConsumoDimensao dimensao : dimensoes) {
+      if (dimensao == MaterialConsumoDimensao.MATERIAL) {
+        Join<MaterialConsumo, Material> m = c.join("material");
+        agrupar(m.get("id"), "materialId", colunas, grupos);
+        agrupar(m.get("nome"), "material", colunas, grupos);
+      } else {
+        String atributo = dimensao.name().toLowerCase(Locale.ROOT);
+        agrupar(c.get(atributo), atributo, colunas, grupos);
+      }
+    }
+    colunas.add(cb.sum(c.<Long>get("quantidade")).alias("quantidade"));
+    colunas.add(cb.sum(c.<Double>get("custo")).alias("custo"));
+
+    return q.multiselect(colunas)
+        .where(filtros(cb, c, filter).toArray(Predicate[]::new))
+        .groupBy(grupos)
+        .orderBy(grupos.stream().map(cb::asc).toList());
+  }
+
+  private static void agrupar(Expression<?> expressao, String alias, List<Selection<?>> colunas,
+      List<Expression<?>> grupos) {
+    colunas.add(expressao.alias(alias));
+    grupos.add(expressao);
+  }
+
+  private static List<Predicate> filtros(CriteriaBuilder cb, Root<MaterialConsumo> c, MaterialConsumoFilterDTO filter) {
+    List<Predicate> predicados = new ArrayList<>();
+    if (filter == null) {
+      return predicados;
+    }
+    if (filter.getMesDe() != null) {
+      predicados.add(cb.greaterThanOrEqualTo(c.<LocalDate>get("mes"), filter.getMesDe().atDay(1)));
+    }
+    if (filter.getMesAte() != null) {
+      predicados.add(cb.lessThanOrEqualTo(c.<LocalDate>get("mes"), filter.getMesAte().atDay(1)));
+    }
+    if (filter.getMaterialId() != null) {
+      predicados.add(cb.equal(c.get("material").get("id"), filter.getMaterialId()));
+    }
+    if (filter.getAssunto() != null) {
+      predicados.add(cb.equal(c.get("assunto"), filter.getAssunto()));
+    }
+    if (filter.getBairro() != null) {
+      predicados.add(cb.equal(c.get("bairro"), filter.getBairro()));
+    }
+    return predicados;
+  }
+
+  private static MaterialConsumoDTO toDto(Tuple tupla, Set<MaterialConsumoDimensao> dimensoes) {
+    MaterialConsumoDTO dto = new MaterialConsumoDTO();
+    if (dimensoes.contains(MaterialConsumoDimensao.MATERIAL)) {
+      dto.setMaterialId(tupla.get("materialId", Long.class));
+      dto.setMaterial(tupla.get("material", String.class));
+    }
+    if (dimensoes.contains(MaterialConsumoDimensao.MES)) {
+      dto.setMes(YearMonth.from(tupla.get("mes", LocalDate.class)));
+    }
+    if (dimensoes.contains(MaterialConsumoDimensao.ASSUNTO)) {
+      dto.setAssunto(tupla.get("assunto", String.class));
+    }
+    if (dimensoes.contains(MaterialConsumoDimensao.BAIRRO)) {
+      dto.setBairro(tupla.get("bairro", String.class));
+    }
+    Long quantidade = tupla.get("quantidade", Long.class);
+    Double custo = tupla.get("custo", Double.class);
+    dto.setQuantidade(quantidade == null ? 0 : quantidade);
+    dto.setCusto(custo == null ? 0 : custo);
+    return dto;
+  }
+
+  private static String cabecalho(Set<MaterialConsumoDimensao> dimensoes) {
+    List<String> colunas = new ArrayList<>();
+    if (dimensoes.contains(MaterialConsumoDimensao.MATERIAL)) {
+      colunas.add("material_id");
+      colunas.add("material");
+    }
+    dimensoes.stream()
+        .filter(dimensao -> dimensao != MaterialConsumoDimensao.MATERIAL)
+        .forEach(dimensao -> colunas.add(dimensao.name().toLowerCase(Locale.ROOT)));
+    colunas.add("quantidade");
+    colunas.add("custo");
+    return String.join(",", colunas) + "\n";
+  }
+
+  private static String linha(MaterialConsumoDTO dto, Set<MaterialConsumoDimensao> dimensoes) {
+    List<String> campos = new ArrayList<>();
+    if (dimensoes.contains(MaterialConsumoDimensao.MATERIAL)) {
+      campos.add(String.valueOf(dto.getMaterialId()));
+      campos.add(csv(dto.getMaterial()));
+    }
+    if (dimensoes.contains(MaterialConsumoDimensao.MES)) {
+      campos.add(dto.getMes().toString());
+    }
+    if (dimensoes.contains(MaterialConsumoDimensao.ASSUNTO)) {
+      campos.add(csv(dto.getAssunto()));
+    }
+    if (dimensoes.contains(MaterialConsumoDimensao.BAIRRO)) {
+      campos.add(csv(dto.getBairro()));
+    }
+    campos.add(String.valueOf(dto.getQuantidade()));
+    campos.add(String.format(Locale.ROOT, "%.2f", dto.getCusto()));
+    return String.join(",", campos) + "\n";
+  }
+
+  /**
+   * Coloca o valor entre aspas quando tem virgula, aspas ou quebra de linha (RFC 4180).
+   */
+  static String csv(String valor) {
+    if (valor == null) {
+      return "";
+    }
+    if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+      return valor;
+    }
+    return "\"" + valor.replace("\"", "\"\"") + "\"";
+  }
+}
@@ -0,0 +1,67 @@
+package com.sigesi.sigesi.consumo;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sigesi.sigesi.demandas.DemandaStatus;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoAssunto;
+
+/**
+ * Repository do resumo de consumo de materiais.
+ * Tambem le DemandaMaterial para recalcular o resumo e achar os grupos afetados por uma alteracao.
+ */
+@Repository
+public interface MaterialConsumoRepository extends JpaRepository<MaterialConsumo, Long> {
+
+  @Modifying
+  @Query("delete from MaterialConsumo c where c.material.id = :materialId and c.mes = :mes")
+  int deleteByMaterialIdAndMes(@Param("materialId") Long materialId, @Param("mes") LocalDate mes);
+
+  /**
+   * Consumo do material nas demandas com prazo em [inicio, fim), exceto as do status
+   * informado, por assunto e bairro.
+   */
+  @Query("select s.assunto as assunto, l.bairro as bairro, sum(dm.quantidade) as quantidade,"
+      + " sum(dm.quantidade * m.preco) as custo"
+      + " from DemandaMaterial dm join dm.material m join dm.demanda d join d.solicitacao s join s.local l"
+      + " where m.id = :materialId and d.prazo >= :inicio and d.prazo < :fim and d.status <> :excluido"
+      + " group by s.assunto, l.bairro")
+  List<Consumo> sumConsumo(@Param("materialId") Long materialId, @Param("inicio") LocalDate inicio,
+      @Param("fim") LocalDate fim, @Param("excluido") DemandaStatus excluido);
+
+  @Query("select distinct dm.material.id as materialId, d.prazo as prazo"
+      + " from DemandaMaterial dm join dm.demanda d join d.solicitacao s where s.local.id = :enderecoId")
+  List<MaterialPrazo> findMaterialPrazoByEnderecoId(@Param("enderecoId") Long enderecoId);
+
+  @Query("select distinct dm.material.id as materialId, d.prazo as prazo"
+      + " from DemandaMaterial dm join dm.demanda d where dm.material.id = :materialId")
+  List<MaterialPrazo> findMaterialPrazoByMaterialId(@Param("materialId") Long materialId);
+
+  /**
+   * Linha de {@link #sumConsumo}.
+   */
+  interface Consumo {
+    SolicitacaoAssunto getAssunto();
+
+    String getBairro();
+
+    long getQuantidade();
+
+    double getCusto();
+  }
+
+  /**
+   * Material usado em uma demanda e o prazo dela.
+   */
+  interface MaterialPrazo {
+    Long getMaterialId();
+
+    LocalDate getPrazo();
+  }
+}
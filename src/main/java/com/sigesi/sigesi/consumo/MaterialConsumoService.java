@@ -0,0 +1,142 @@
+package com.sigesi.sigesi.consumo;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sigesi.sigesi.demandas.Demanda;
+import com.sigesi.sigesi.demandas.DemandaStatus;
+import com.sigesi.sigesi.materiais.Material;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Mantem o resumo de consumo de materiais (tabela material_consumo).
+ *
+ * <p>Quem altera demandas ou seus materiais, o bairro de um endereco ou o preco de um
+ * material chama {@code marcar*} na mesma transacao,
+ * gravando os pares material/mes afetados. Em segundo plano, {@link #atualizarPendentes()}
+ * recalcula so esses grupos a partir de DemandaMaterial. O recalculo substitui o grupo
+ * inteiro, entao repeti-lo (por exemplo em duas instancias ao mesmo tempo) nao acumula erro.
+ * Demandas canceladas nao entram no consumo.
+ */
+@Service
+public class MaterialConsumoService {
+
+  public static final String NAO_INFORMADO = "NAO_INFORMADO";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MaterialConsumoService.class);
+
+  @Autowired
+  private MaterialConsumoRepository consumoRepository;
+
+  @Autowired
+  private MaterialConsumoPendenteRepository pendenteRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @PersistenceContext
+  private EntityManager em;
+
+  @Value("${app.materiais.consumo.batch-size:200}")
+  private int batchSize;
+
+  /**
+   * Grupos de consumo da demanda no estado atual; chamar antes e depois de altera-la.
+   */
+  public Set<MaterialConsumoGrupo> grupos(Demanda demanda) {
+    if (demanda.getPrazo() == null) {
+      return Set.of();
+    }
+    return demanda.getMateriais().stream()
+        .map(item -> MaterialConsumoGrupo.of(item.getMaterial().getId(), demanda.getPrazo()))
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Registra os grupos para recalculo na transacao atual.
+   */
+  public void marcar(Collection<MaterialConsumoGrupo> grupos) {
+    Set<MaterialConsumoGrupo> distintos = new LinkedHashSet<>(grupos);
+    if (distintos.isEmpty()) {
+      return;
+    }
+    pendenteRepository.saveAll(distintos.stream()
+        .map(grupo -> MaterialConsumoPendente.builder().materialId(grupo.materialId()).mes(grupo.mes()).build())
+        .toList());
+  }
+
+  /**
+   * Marca os grupos das demandas cujas solicitacoes ficam no endereco (bairro alterado).
+   */
+  public void marcarEndereco(Long enderecoId) {
+    marcarPrazos(consumoRepository.findMaterialPrazoByEnderecoId(enderecoId));
+  }
+
+  /**
+   * Marca todos os meses em que o material foi usado (preco alterado).
+   */
+  public void marcarMaterial(Long materialId) {
+    marcarPrazos(consumoRepository.findMaterialPrazoByMaterialId(materialId));
+  }
+
+  private void marcarPrazos(List<MaterialConsumoRepository.MaterialPrazo> linhas) {
+    marcar(linhas.stream()
+        .map(linha -> MaterialConsumoGrupo.of(linha.getMaterialId(), linha.getPrazo()))
+        .toList());
+  }
+
+  /**
+   * Recalcula os grupos pendentes, em lotes de {@code batch-size} marcacoes por transacao.
+   */
+  @Scheduled(fixedDelayString = "${app.materiais.consumo.refresh-interval-ms:5000}")
+  public void atualizarPendentes() {
+    TransactionTemplate tx = new TransactionTemplate(transactionManager);
+    try {
+      Integer processados = tx.execute(status -> atualizarLote());
+      while (processados != null && processados == batchSize) {
+        processados = tx.execute(status -> atualizarLote());
+      }
+    } catch (RuntimeException e) {
+      LOGGER.warn("Falha ao atualizar o resumo de consumo de materiais: {}", e.getMessage());
+    }
+  }
+
+  private int atualizarLote() {
+    List<MaterialConsumoPendente> pendentes = pendenteRepository.findByOrderByIdAsc(Limit.of(batchSize));
+    pendentes.stream()
+        .map(pendente -> new MaterialConsumoGrupo(pendente.getMaterialId(), pendente.getMes()))
+        .distinct()
+        .forEach(this::recalcular);
+    pendenteRepository.deleteAllInBatch(pendentes);
+    return pendentes.size();
+  }
+
+  private void recalcular(MaterialConsumoGrupo grupo) {
+    consumoRepository.deleteByMaterialIdAndMes(grupo.materialId(), grupo.mes());
+    Material material = em.getReference(Material.class, grupo.materialId());
+    consumoRepository.sumConsumo(grupo.materialId(), grupo.mes(), grupo.mes().plusMonths(1), DemandaStatus.CANCELADA)
+        .forEach(linha -> em.persist(MaterialConsumo.builder()
+            .material(material)
+            .mes(grupo.mes())
+            .assunto(linha.getAssunto() == null ? NAO_INFORMADO : linha.getAssunto().name())
+            .bairro(linha.getBairro())
+            .quantidade(linha.getQuantidade())
+            .custo(linha.getCusto())
+            .build()));
+  }
+}
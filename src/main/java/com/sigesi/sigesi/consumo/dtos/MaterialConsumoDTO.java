@@ -0,0 +1,31 @@
+package com.sigesi.sigesi.consumo.dtos;
+
+import java.time.YearMonth;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Linha do relatorio de consumo de materiais.
+ * Colunas fora do agrupamento pedido ficam nulas.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MaterialConsumoDTO {
+
+  private Long materialId;
+  private String material;
+  private YearMonth mes;
+  private String assunto;
+  private String bairro;
+  private long quantidade;
+
+  /**
+   * Soma de quantidade x preco atual do material.
+   */
+  private double custo;
+}
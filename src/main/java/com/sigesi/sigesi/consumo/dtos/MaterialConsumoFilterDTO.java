@@ -0,0 +1,44 @@
+package com.sigesi.sigesi.consumo.dtos;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.sigesi.sigesi.consumo.MaterialConsumoDimensao;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filtros e agrupamento do relatorio de consumo de materiais.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MaterialConsumoFilterDTO {
+
+  @Schema(description = "Mes inicial (inclusivo), pelo prazo da demanda", example = "2025-01")
+  @DateTimeFormat(pattern = "yyyy-MM")
+  private YearMonth mesDe;
+
+  @Schema(description = "Mes final (inclusivo), pelo prazo da demanda", example = "2025-12")
+  @DateTimeFormat(pattern = "yyyy-MM")
+  private YearMonth mesAte;
+
+  @Schema(description = "ID do material", example = "1")
+  private Long materialId;
+
+  @Schema(description = "Assunto da solicitacao, ou NAO_INFORMADO", example = "BURACO")
+  private String assunto;
+
+  @Schema(description = "Bairro do local da solicitacao", example = "Centro")
+  private String bairro;
+
+  @Schema(description = "Colunas do agrupamento; sem valor agrupa por todas", example = "MATERIAL,MES")
+  private List<MaterialConsumoDimensao> agrupar;
+}
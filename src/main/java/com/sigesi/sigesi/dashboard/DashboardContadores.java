@@ -0,0 +1,158 @@
+package com.sigesi.sigesi.dashboard;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sigesi.sigesi.dashboard.dtos.CargaResponsavelDTO;
+import com.sigesi.sigesi.dashboard.dtos.DashboardDTO;
+import com.sigesi.sigesi.demandas.DemandaStatus;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoAssunto;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoStatus;
+
+/**
+ * Contadores do dashboard para um dia de referencia.
+ *
+ * <p>Sao carregados pelas consultas agregadas e depois ajustados a cada escrita:
+ * {@link #remover} tira a contribuicao do estado anterior e {@link #adicionar} soma
+ * a do novo. Guarda somas e quantidades, nao medias, para que os ajustes sejam exatos.
+ * Nao e thread-safe; o {@link DashboardService} sincroniza o acesso.
+ */
+class DashboardContadores {
+
+  static final String NAO_INFORMADO = "NAO_INFORMADO";
+
+  private final LocalDate hoje;
+  private final LocalDateTime calculadoEm;
+  private final Map<DemandaStatus, Long> demandasPorStatus = new EnumMap<>(DemandaStatus.class);
+  private final Map<SolicitacaoStatus, Long> solicitacoesPorStatus = new HashMap<>();
+  private final Map<SolicitacaoAssunto, Long> solicitacoesPorAssunto = new HashMap<>();
+  private final Map<Long, Carga> cargaPorResponsavel = new HashMap<>();
+  private long demandasAtrasadas;
+  private long demandasSemResponsavel;
+  private long concluidas;
+  private double segundosResolucao;
+
+  DashboardContadores(LocalDate hoje, LocalDateTime calculadoEm) {
+    this.hoje = hoje;
+    this.calculadoEm = calculadoEm;
+  }
+
+  LocalDate getHoje() {
+    return hoje;
+  }
+
+  void somarDemandas(DemandaStatus status, long total) {
+    demandasPorStatus.merge(status, total, Long::sum);
+  }
+
+  void somarSolicitacoes(SolicitacaoStatus status, SolicitacaoAssunto assunto, long total) {
+    solicitacoesPorStatus.merge(status, total, Long::sum);
+    solicitacoesPorAssunto.merge(assunto, total, Long::sum);
+  }
+
+  /**
+   * Soma demandas abertas de um responsavel; {@code responsavelId} nulo conta as sem responsavel.
+   */
+  void somarCarga(Long responsavelId, String nome, long abertas, long atrasadas) {
+    demandasAtrasadas += atrasadas;
+    if (responsavelId == null) {
+      demandasSemResponsavel += abertas;
+      return;
+    }
+    Carga carga = cargaPorResponsavel.computeIfAbsent(responsavelId, id -> new Carga());
+    carga.nome = nome;
+    carga.abertas += abertas;
+    carga.atrasadas += atrasadas;
+    if (carga.abertas <= 0) {
+      cargaPorResponsavel.remove(responsavelId);
+    }
+  }
+
+  void somarResolucao(long quantidade, double segundos) {
+    concluidas += quantidade;
+    segundosResolucao += segundos;
+  }
+
+  void adicionar(DemandaResumo demanda) {
+    aplicar(demanda, 1);
+  }
+
+  void remover(DemandaResumo demanda) {
+    aplicar(demanda, -1);
+  }
+
+  void adicionar(SolicitacaoResumo solicitacao) {
+    if (solicitacao != null) {
+      somarSolicitacoes(solicitacao.status(), solicitacao.assunto(), 1);
+    }
+  }
+
+  void remover(SolicitacaoResumo solicitacao) {
+    if (solicitacao != null) {
+      somarSolicitacoes(solicitacao.status(), solicitacao.assunto(), -1);
+    }
+  }
+
+  private void aplicar(DemandaResumo demanda, int sinal) {
+    if (demanda == null || demanda.status() == null) {
+      return;
+    }
+    somarDemandas(demanda.status(), sinal);
+    if (demanda.aberta()) {
+      somarCarga(demanda.responsavelId(), demanda.responsavelNome(), sinal, demanda.atrasada(hoje) ? sinal : 0);
+    }
+    Long segundos = demanda.segundosResolucao();
+    if (segundos != null) {
+      somarResolucao(sinal, (double) sinal * segundos);
+    }
+  }
+
+  DashboardDTO toDto() {
+    List<CargaResponsavelDTO> carga = cargaPorResponsavel.entrySet().stream()
+        .map(entrada -> CargaResponsavelDTO.builder()
+            .responsavelId(entrada.getKey())
+            .nome(entrada.getValue().nome)
+            .abertas(entrada.getValue().abertas)
+            .atrasadas(entrada.getValue().atrasadas)
+            .build())
+        .sorted(Comparator.comparingLong(CargaResponsavelDTO::getAbertas).reversed()
+            .thenComparing(CargaResponsavelDTO::getResponsavelId))
+        .toList();
+
+    return DashboardDTO.builder()
+        .demandasPorStatus(porNome(DemandaStatus.values(), demandasPorStatus))
+        .solicitacoesPorStatus(porNome(SolicitacaoStatus.values(), solicitacoesPorStatus))
+        .solicitacoesPorAssunto(porNome(SolicitacaoAssunto.values(), solicitacoesPorAssunto))
+        .demandasAtrasadas(demandasAtrasadas)
+        .demandasSemResponsavel(demandasSemResponsavel)
+        .cargaPorResponsavel(carga)
+        .tempoMedioResolucaoHoras(concluidas > 0 ? segundosResolucao / concluidas / 3600 : null)
+        .referencia(hoje)
+        .calculadoEm(calculadoEm)
+        .build();
+  }
+
+  private static <E extends Enum<E>> Map<String, Long> porNome(E[] valores, Map<E, Long> totais) {
+    Map<String, Long> resultado = new LinkedHashMap<>();
+    for (E valor : valores) {
+      resultado.put(valor.name(), totais.getOrDefault(valor, 0L));
+    }
+    long semValor = totais.getOrDefault(null, 0L);
+    if (semValor > 0) {
+      resultado.put(NAO_INFORMADO, semValor);
+    }
+    return resultado;
+  }
+
+  private static final class Carga {
+    private String nome;
+    private long abertas;
+    private long atrasadas;
+  }
+}
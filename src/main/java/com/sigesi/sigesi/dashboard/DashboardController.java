@@ -0,0 +1,31 @@
+package com.sigesi.sigesi.dashboard;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sigesi.sigesi.dashboard.dtos.DashboardDTO;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controller REST do dashboard de demandas e solicitacoes.
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+@Tag(name = "dashboard")
+public class DashboardController {
+
+  @Autowired
+  private DashboardService dashboardService;
+
+  /**
+   * Totais por status e assunto, demandas atrasadas, carga por responsavel e tempo medio de resolucao.
+   */
+  @GetMapping
+  public ResponseEntity<DashboardDTO> getDashboard() {
+    return ResponseEntity.ok(dashboardService.getDashboard());
+  }
+}
@@ -0,0 +1,152 @@
+package com.sigesi.sigesi.dashboard;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sigesi.sigesi.dashboard.dtos.DashboardDTO;
+import com.sigesi.sigesi.demandas.DemandaRepository;
+import com.sigesi.sigesi.demandas.DemandaStatus;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoRepository;
+
+/**
+ * Totais do dashboard, calculados no banco com GROUP BY e mantidos em memoria.
+ *
+ * <p>Os contadores valem ate o TTL ou a virada do dia (que muda as demandas atrasadas).
+ * Nesse intervalo, DemandaService e SolicitacaoService informam cada escrita com o estado
+ * anterior e o novo, e a diferenca e aplicada apos o commit, sem nova consulta. Uma
+ * carga que corre junto com uma escrita nao e guardada, para nao contar a escrita duas
+ * vezes. Escritas feitas em outra instancia aparecem apos o TTL.
+ */
+@Service
+public class DashboardService {
+
+  static final EnumSet<DemandaStatus> STATUS_ABERTOS = EnumSet.of(DemandaStatus.PENDENTE, DemandaStatus.EM_ANDAMENTO);
+
+  @Autowired
+  private DemandaRepository demandaRepository;
+
+  @Autowired
+  private SolicitacaoRepository solicitacaoRepository;
+
+  @Value("${app.dashboard.cache-ttl-seconds:30}")
+  private long ttlSeconds;
+
+  private final Object lock = new Object();
+  private DashboardContadores contadores;
+  private long carregadoEm;
+
+  /**
+   * Conta as escritas aplicadas; uma carga so e guardada se nenhuma ocorreu durante ela.
+   */
+  private long versao;
+
+  /**
+   * Escritas em transacoes ainda nao concluidas.
+   */
+  private int pendentes;
+
+  /**
+   * Retorna os totais, consultando o banco apenas quando o cache expirou.
+   */
+  public DashboardDTO getDashboard() {
+    LocalDate hoje = LocalDate.now();
+    long versaoInicial;
+    boolean semPendentes;
+    synchronized (lock) {
+      if (contadores != null && contadores.getHoje().equals(hoje)
+          && System.currentTimeMillis() - carregadoEm < ttlSeconds * 1000) {
+        return contadores.toDto();
+      }
+      versaoInicial = versao;
+      semPendentes = pendentes == 0;
+    }
+
+    DashboardContadores carregados = carregar(hoje);
+    synchronized (lock) {
+      if (semPendentes && pendentes == 0 && versao == versaoInicial) {
+        contadores = carregados;
+        carregadoEm = System.currentTimeMillis();
+      }
+    }
+    return carregados.toDto();
+  }
+
+  /**
+   * Registra a escrita de uma demanda; {@code antes} nulo para criacao e {@code depois}
+   * nulo para exclusao.
+   */
+  public void demandaAlterada(DemandaResumo antes, DemandaResumo depois) {
+    registrar(c -> {
+      c.remover(antes);
+      c.adicionar(depois);
+    });
+  }
+
+  /**
+   * Registra a escrita de uma solicitacao; {@code antes} nulo para criacao e {@code depois}
+   * nulo para exclusao.
+   */
+  public void solicitacaoAlterada(SolicitacaoResumo antes, SolicitacaoResumo depois) {
+    registrar(c -> {
+      c.remover(antes);
+      c.adicionar(depois);
+    });
+  }
+
+  private DashboardContadores carregar(LocalDate hoje) {
+    DashboardContadores novos = new DashboardContadores(hoje, LocalDateTime.now());
+    demandaRepository.countGroupByStatus()
+        .forEach(linha -> novos.somarDemandas(linha.getStatus(), linha.getTotal()));
+    demandaRepository.countCargaPorResponsavel(STATUS_ABERTOS, hoje)
+        .forEach(linha -> novos.somarCarga(linha.getResponsavelId(), linha.getResponsavelNome(),
+            linha.getTotal(), linha.getAtrasadas()));
+    DemandaRepository.TempoResolucao resolucao = demandaRepository.sumTempoResolucao(DemandaStatus.CONCLUIDA);
+    if (resolucao != null && resolucao.getSegundos() != null) {
+      novos.somarResolucao(resolucao.getQuantidade(), resolucao.getSegundos());
+    }
+    solicitacaoRepository.countGroupByStatusAndAssunto()
+        .forEach(linha -> novos.somarSolicitacoes(linha.getStatus(), linha.getAssunto(), linha.getTotal()));
+    return novos;
+  }
+
+  /**
+   * Aplica a diferenca apos o commit da transacao atual, ou ja, fora de transacao.
+   */
+  private void registrar(Consumer<DashboardContadores> diferenca) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      aplicar(diferenca);
+      return;
+    }
+    synchronized (lock) {
+      pendentes++;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        synchronized (lock) {
+          pendentes--;
+          if (status == STATUS_COMMITTED) {
+            aplicar(diferenca);
+          }
+        }
+      }
+    });
+  }
+
+  private void aplicar(Consumer<DashboardContadores> diferenca) {
+    synchronized (lock) {
+      versao++;
+      if (contadores != null) {
+        diferenca.accept(contadores);
+      }
+    }
+  }
+}
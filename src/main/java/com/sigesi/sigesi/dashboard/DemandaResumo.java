@@ -0,0 +1,53 @@
+package com.sigesi.sigesi.dashboard;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.sigesi.sigesi.demandas.Demanda;
+import com.sigesi.sigesi.demandas.DemandaStatus;
+
+/**
+ * Campos de uma demanda que entram no dashboard, copiados antes e depois de uma escrita.
+ *
+ * @param status status da demanda
+ * @param prazo prazo da demanda
+ * @param responsavelId id do responsavel, ou null
+ * @param responsavelNome nome do responsavel, ou null
+ * @param criadaEm data de criacao, ou null em registros antigos
+ * @param concluidaEm data de conclusao, ou null
+ */
+public record DemandaResumo(DemandaStatus status, LocalDate prazo, Long responsavelId, String responsavelNome,
+    LocalDateTime criadaEm, LocalDateTime concluidaEm) {
+
+  /**
+   * Copia o estado atual da demanda.
+   */
+  public static DemandaResumo of(Demanda demanda) {
+    return new DemandaResumo(
+        demanda.getStatus(),
+        demanda.getPrazo(),
+        demanda.getResponsavel() == null ? null : demanda.getResponsavel().getId(),
+        demanda.getResponsavel() == null ? null : demanda.getResponsavel().getName(),
+        demanda.getCriadaEm(),
+        demanda.getConcluidaEm());
+  }
+
+  boolean aberta() {
+    return status == DemandaStatus.PENDENTE || status == DemandaStatus.EM_ANDAMENTO;
+  }
+
+  boolean atrasada(LocalDate hoje) {
+    return aberta() && prazo != null && prazo.isBefore(hoje);
+  }
+
+  /**
+   * Tempo de resolucao em segundos, para demandas concluidas com as duas datas.
+   */
+  Long segundosResolucao() {
+    if (status != DemandaStatus.CONCLUIDA || criadaEm == null || concluidaEm == null) {
+      return null;
+    }
+    return Duration.between(criadaEm, concluidaEm).toSeconds();
+  }
+}
@@ -0,0 +1,21 @@
+package com.sigesi.sigesi.dashboard;
+
+import com.sigesi.sigesi.solicitacoes.Solicitacao;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoAssunto;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoStatus;
+
+/**
+ * Campos de uma solicitacao que entram no dashboard, copiados antes e depois de uma escrita.
+ *
+ * @param status status da solicitacao, ou null
+ * @param assunto assunto da solicitacao, ou null
+ */
+public record SolicitacaoResumo(SolicitacaoStatus status, SolicitacaoAssunto assunto) {
+
+  /**
+   * Copia o estado atual da solicitacao.
+   */
+  public static SolicitacaoResumo of(Solicitacao solicitacao) {
+    return new SolicitacaoResumo(solicitacao.getStatus(), solicitacao.getAssunto());
+  }
+}
@@ -0,0 +1,21 @@
+package com.sigesi.sigesi.dashboard.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Demandas pendentes ou em andamento de um responsavel.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CargaResponsavelDTO {
+
+  private Long responsavelId;
+  private String nome;
+  private long abertas;
+  private long atrasadas;
+}
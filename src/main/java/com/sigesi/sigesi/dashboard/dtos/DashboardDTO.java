@@ -0,0 +1,45 @@
+package com.sigesi.sigesi.dashboard.dtos;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Visao geral de demandas e solicitacoes para a tela inicial.
+ * Os mapas trazem todos os valores do enum, com zero quando nao ha registros;
+ * {@code NAO_INFORMADO} aparece so quando ha registros sem o campo.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DashboardDTO {
+
+  private Map<String, Long> demandasPorStatus;
+  private Map<String, Long> solicitacoesPorStatus;
+  private Map<String, Long> solicitacoesPorAssunto;
+
+  /**
+   * Demandas pendentes ou em andamento com prazo anterior a {@code referencia}.
+   */
+  private long demandasAtrasadas;
+  private long demandasSemResponsavel;
+  private List<CargaResponsavelDTO> cargaPorResponsavel;
+
+  /**
+   * Media, em horas, entre a criacao e a conclusao das demandas concluidas; nula sem dados.
+   */
+  private Double tempoMedioResolucaoHoras;
+  private LocalDate referencia;
+
+  /**
+   * Ultima consulta ao banco; as escritas seguintes ja estao refletidas nos totais.
+   */
+  private LocalDateTime calculadoEm;
+}
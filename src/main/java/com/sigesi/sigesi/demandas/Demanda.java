@@ -1,6 +1,7 @@
 package com.sigesi.sigesi.demandas;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -21,6 +22,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -42,7 +44,8 @@ import lombok.ToString;
 public class Demanda {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "demanda_seq")
+  @SequenceGenerator(name = "demanda_seq", sequenceName = "demanda_seq", allocationSize = 50)
   @EqualsAndHashCode.Include
   private Long id;
 
@@ -62,6 +65,15 @@ public class Demanda {
   @Column(name = "status", nullable = false)
   private DemandaStatus status;
 
+  @Column(name = "criada_em", updatable = false)
+  private LocalDateTime criadaEm;
+
+  /**
+   * Momento em que a demanda passou a CONCLUIDA; nulo enquanto nao concluida.
+   */
+  @Column(name = "concluida_em")
+  private LocalDateTime concluidaEm;
+
   @Builder.Default
   @OneToMany(mappedBy = "demanda",
       cascade = CascadeType.ALL,
@@ -71,13 +83,16 @@ public class Demanda {
   private Set<DemandaMaterial> materiais = new HashSet<>();
 
   /**
-   * Define status padrao antes de persistir.
+   * Define status padrao e data de criacao antes de persistir.
    */
   @PrePersist
   protected void onCreate() {
     if (this.status == null) {
       this.status = DemandaStatus.PENDENTE;
     }
+    if (this.criadaEm == null) {
+      this.criadaEm = LocalDateTime.now();
+    }
   }
 
   /**
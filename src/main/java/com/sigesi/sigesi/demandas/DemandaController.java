@@ -2,7 +2,9 @@ package com.sigesi.sigesi.demandas;
 
 import java.util.List;
 
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,8 +16,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.sigesi.sigesi.config.CursorPageDTO;
 import com.sigesi.sigesi.demandas.dtos.DemandaCreateDTO;
+import com.sigesi.sigesi.demandas.dtos.DemandaFilterDTO;
 import com.sigesi.sigesi.demandas.dtos.DemandaResponseDTO;
 import com.sigesi.sigesi.demandas.dtos.DemandaUpdateDTO;
 
@@ -33,11 +38,30 @@ public class DemandaController {
   @Autowired
   private DemandaService demandaService;
 
+  @Value("${app.demandas.legacy-list-enabled:true}")
+  private boolean legacyListEnabled;
+
+  /**
+   * Lista demandas com filtros e paginacao por cursor.
+   */
+  @GetMapping
+  public ResponseEntity<CursorPageDTO<DemandaResponseDTO>> listPage(
+      @ParameterObject DemandaFilterDTO filter,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    CursorPageDTO<DemandaResponseDTO> page = demandaService.listPage(filter, cursor, size);
+    return ResponseEntity.ok(page);
+  }
+
   /**
    * Lista todas as demandas.
+   *
+   * @deprecated use a listagem paginada em {@code GET /api/demandas}.
    */
+  @Deprecated
   @GetMapping("/")
   public ResponseEntity<List<DemandaResponseDTO>> listAll() {
+    checkLegacyListEnabled();
     List<DemandaResponseDTO> demandas = demandaService.getAll();
     return ResponseEntity.ok(demandas);
   }
@@ -64,10 +88,14 @@ public class DemandaController {
 
   /**
    * Busca demandas por responsavel.
+   *
+   * @deprecated use {@code GET /api/demandas?responsavelId=}.
    */
+  @Deprecated
   @GetMapping("/responsavel")
   public ResponseEntity<List<DemandaResponseDTO>> getDemandasByResponsavel(
       @RequestParam Long responsavelId) {
+    checkLegacyListEnabled();
     List<DemandaResponseDTO> demandas = demandaService
         .getDemandasByResponsavel(responsavelId);
     return ResponseEntity.ok(demandas);
@@ -102,4 +130,12 @@ public class DemandaController {
     demandaService.deleteDemanda(id);
     return ResponseEntity.noContent().build();
   }
+
+  private void checkLegacyListEnabled() {
+    if (!legacyListEnabled) {
+      throw new ResponseStatusException(
+          HttpStatus.GONE,
+          "Listagem sem paginação desativada. Use GET /api/demandas");
+    }
+  }
 }
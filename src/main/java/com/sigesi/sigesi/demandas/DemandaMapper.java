@@ -25,6 +25,8 @@ public interface DemandaMapper {
   @Mapping(target = "responsavel", ignore = true)
   @Mapping(target = "materiais", ignore = true)
   @Mapping(target = "status", ignore = true)
+  @Mapping(target = "criadaEm", ignore = true)
+  @Mapping(target = "concluidaEm", ignore = true)
   Demanda toEntity(DemandaCreateDTO dto);
 
   DemandaResponseDTO toDto(Demanda entity);
@@ -35,5 +37,7 @@ public interface DemandaMapper {
   @Mapping(target = "solicitacao", ignore = true)
   @Mapping(target = "responsavel", ignore = true)
   @Mapping(target = "materiais", ignore = true)
+  @Mapping(target = "criadaEm", ignore = true)
+  @Mapping(target = "concluidaEm", ignore = true)
   void updateFromDto(DemandaUpdateDTO dto, @MappingTarget Demanda entity);
 }
@@ -1,21 +1,103 @@
 package com.sigesi.sigesi.demandas;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repository para Demanda.
+ * As consultas de listagem carregam as associacoes lidas pelo DemandaMapper
+ * via entity graph; as colecoes (materiais, anexos) usam batch fetch.
+ * Filtros por associacao usam @Query sobre a chave estrangeira: a consulta derivada
+ * juntaria a tabela associada so para comparar o id, sem usar os indices da V8.
  */
 @Repository
-public interface DemandaRepository extends JpaRepository<Demanda, Long> {
+public interface DemandaRepository
+    extends JpaRepository<Demanda, Long>, JpaSpecificationExecutor<Demanda> {
 
+  /**
+   * Caminhos do grafo de listagem, para consultas que nao aceitam @EntityGraph
+   * (ex.: findBy com Specification). Deve acompanhar os @EntityGraph abaixo.
+   */
+  List<String> LISTAGEM_GRAPH = List.of(
+      "responsavel", "solicitacao", "solicitacao.autor", "solicitacao.solicitante", "solicitacao.local");
+
+  @EntityGraph(attributePaths = {
+      "responsavel", "solicitacao", "solicitacao.autor", "solicitacao.solicitante", "solicitacao.local"})
   List<Demanda> findAllByOrderByIdAsc();
 
-  List<Demanda> findBySolicitacaoIdOrderByPrazoAsc(Long solicitacaoId);
+  @EntityGraph(attributePaths = {
+      "responsavel", "solicitacao", "solicitacao.autor", "solicitacao.solicitante", "solicitacao.local"})
+  @Query("select d from Demanda d where d.solicitacao.id = :solicitacaoId order by d.prazo")
+  List<Demanda> findBySolicitacaoIdOrderByPrazoAsc(@Param("solicitacaoId") Long solicitacaoId);
 
-  List<Demanda> findByResponsavelIdOrderByPrazoAsc(Long responsavelId);
+  @EntityGraph(attributePaths = {
+      "responsavel", "solicitacao", "solicitacao.autor", "solicitacao.solicitante", "solicitacao.local"})
+  @Query("select d from Demanda d where d.responsavel.id = :responsavelId order by d.prazo")
+  List<Demanda> findByResponsavelIdOrderByPrazoAsc(@Param("responsavelId") Long responsavelId);
 
   List<Demanda> findByStatusOrderByPrazoAsc(DemandaStatus status);
+
+  /**
+   * Total de demandas por status, para o dashboard.
+   */
+  @Query("select d.status as status, count(d) as total from Demanda d group by d.status")
+  List<TotalPorStatus> countGroupByStatus();
+
+  /**
+   * Demandas com os status informados por responsavel (id nulo para as sem responsavel),
+   * com quantas tem prazo anterior a {@code hoje}.
+   */
+  @Query("select r.id as responsavelId, r.name as responsavelNome, count(d) as total,"
+      + " sum(case when d.prazo < :hoje then 1 else 0 end) as atrasadas"
+      + " from Demanda d left join d.responsavel r"
+      + " where d.status in :status group by r.id, r.name")
+  List<CargaPorResponsavel> countCargaPorResponsavel(
+      @Param("status") Collection<DemandaStatus> status, @Param("hoje") LocalDate hoje);
+
+  /**
+   * Quantidade e soma dos tempos de resolucao (em segundos) das demandas concluidas
+   * com data de criacao e de conclusao.
+   */
+  @Query("select count(d) as quantidade, sum((d.concluidaEm - d.criadaEm) by second) as segundos"
+      + " from Demanda d where d.status = :status and d.criadaEm is not null and d.concluidaEm is not null")
+  TempoResolucao sumTempoResolucao(@Param("status") DemandaStatus status);
+
+  /**
+   * Linha de {@link #countGroupByStatus()}.
+   */
+  interface TotalPorStatus {
+    DemandaStatus getStatus();
+
+    long getTotal();
+  }
+
+  /**
+   * Linha de {@link #countCargaPorResponsavel(Collection, LocalDate)}.
+   */
+  interface CargaPorResponsavel {
+    Long getResponsavelId();
+
+    String getResponsavelNome();
+
+    long getTotal();
+
+    long getAtrasadas();
+  }
+
+  /**
+   * Resultado de {@link #sumTempoResolucao(DemandaStatus)}; segundos e nulo sem demandas.
+   */
+  interface TempoResolucao {
+    long getQuantidade();
+
+    Double getSegundos();
+  }
 }
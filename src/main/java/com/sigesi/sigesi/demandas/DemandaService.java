@@ -1,18 +1,29 @@
 package com.sigesi.sigesi.demandas;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.sigesi.sigesi.config.CursorCodec;
+import com.sigesi.sigesi.config.CursorPageDTO;
 import com.sigesi.sigesi.config.NotFoundException;
+import com.sigesi.sigesi.consumo.MaterialConsumoGrupo;
+import com.sigesi.sigesi.consumo.MaterialConsumoService;
+import com.sigesi.sigesi.dashboard.DashboardService;
+import com.sigesi.sigesi.dashboard.DemandaResumo;
+import com.sigesi.sigesi.dashboard.SolicitacaoResumo;
 import com.sigesi.sigesi.demandas.dtos.DemandaCreateDTO;
+import com.sigesi.sigesi.demandas.dtos.DemandaFilterDTO;
 import com.sigesi.sigesi.demandas.dtos.DemandaMaterialCreateDTO;
 import com.sigesi.sigesi.demandas.dtos.DemandaResponseDTO;
 import com.sigesi.sigesi.demandas.dtos.DemandaUpdateDTO;
@@ -31,6 +42,9 @@ import com.sigesi.sigesi.usuarios.UsuarioService;
 @Service
 public class DemandaService {
 
+  static final int DEFAULT_PAGE_SIZE = 20;
+  static final int MAX_PAGE_SIZE = 100;
+
   @Autowired
   private DemandaRepository demandaRepository;
 
@@ -49,6 +63,12 @@ public class DemandaService {
   @Autowired
   private NotificationPublisher notificationPublisher;
 
+  @Autowired
+  private DashboardService dashboardService;
+
+  @Autowired
+  private MaterialConsumoService materialConsumoService;
+
   /**
    * Lista todas as demandas.
    */
@@ -59,6 +79,40 @@ public class DemandaService {
         .collect(Collectors.toList());
   }
 
+  /**
+   * Lista demandas filtradas com paginacao por cursor (keyset sobre o id).
+   * Busca um registro a mais que o tamanho da pagina para saber se ha proxima.
+   */
+  @Transactional(readOnly = true)
+  public CursorPageDTO<DemandaResponseDTO> listPage(
+      DemandaFilterDTO filter, String cursor, Integer size) {
+    int pageSize = normalizePageSize(size);
+    Specification<Demanda> spec = DemandaSpecifications.filter(filter, CursorCodec.decode(cursor));
+
+    List<Demanda> rows = demandaRepository.findBy(spec, q -> q
+        .sortBy(Sort.by(Sort.Direction.ASC, "id"))
+        .project(DemandaRepository.LISTAGEM_GRAPH)
+        .limit(pageSize + 1)
+        .all());
+
+    boolean hasNext = rows.size() > pageSize;
+    List<Demanda> page = hasNext ? rows.subList(0, pageSize) : rows;
+    String nextCursor = hasNext ? CursorCodec.encode(page.get(page.size() - 1).getId()) : null;
+
+    return CursorPageDTO.<DemandaResponseDTO>builder()
+        .items(page.stream().map(demandaMapper::toDto).collect(Collectors.toList()))
+        .nextCursor(nextCursor)
+        .hasNext(hasNext)
+        .build();
+  }
+
+  private int normalizePageSize(Integer size) {
+    if (size == null || size < 1) {
+      return DEFAULT_PAGE_SIZE;
+    }
+    return Math.min(size, MAX_PAGE_SIZE);
+  }
+
   /**
    * Busca demanda por ID.
    */
@@ -94,6 +148,7 @@ public class DemandaService {
   public DemandaResponseDTO createDemanda(DemandaCreateDTO dto) {
     Solicitacao solicitacao = solicitacaoService
         .getSolicitacaoEntityById(dto.getSolicitacaoId());
+    SolicitacaoResumo solicitacaoAntes = SolicitacaoResumo.of(solicitacao);
     prepareSolicitacaoForDemanda(solicitacao);
 
     Demanda demanda = demandaMapper.toEntity(dto);
@@ -107,6 +162,9 @@ public class DemandaService {
     resolveMateriais(dto.getMateriais(), demanda);
 
     Demanda saved = demandaRepository.save(demanda);
+    dashboardService.demandaAlterada(null, DemandaResumo.of(saved));
+    dashboardService.solicitacaoAlterada(solicitacaoAntes, SolicitacaoResumo.of(solicitacao));
+    materialConsumoService.marcar(materialConsumoService.grupos(saved));
 
     // Publish notification event if demand was assigned to a user
     if (saved.getResponsavel() != null) {
@@ -136,6 +194,9 @@ public class DemandaService {
 
     // Store old status for notification
     DemandaStatus oldStatus = demanda.getStatus();
+    DemandaResumo antes = DemandaResumo.of(demanda);
+    SolicitacaoResumo solicitacaoAntes = SolicitacaoResumo.of(demanda.getSolicitacao());
+    Set<MaterialConsumoGrupo> grupos = new HashSet<>(materialConsumoService.grupos(demanda));
 
     demandaMapper.updateFromDto(dto, demanda);
 
@@ -152,8 +213,13 @@ public class DemandaService {
     if (dto.getStatus() == DemandaStatus.CONCLUIDA) {
       demanda.getSolicitacao().setStatus(SolicitacaoStatus.ENCERRADA);
     }
+    registrarConclusao(demanda, oldStatus);
 
     Demanda updated = demandaRepository.save(demanda);
+    dashboardService.demandaAlterada(antes, DemandaResumo.of(updated));
+    dashboardService.solicitacaoAlterada(solicitacaoAntes, SolicitacaoResumo.of(updated.getSolicitacao()));
+    grupos.addAll(materialConsumoService.grupos(updated));
+    materialConsumoService.marcar(grupos);
 
     // Publish notification event if status changed
     if (oldStatus != updated.getStatus() && updated.getResponsavel() != null) {
@@ -168,12 +234,27 @@ public class DemandaService {
     return demandaMapper.toDto(updated);
   }
 
+  /**
+   * Marca o momento da conclusao; limpa a data se a demanda deixou de estar concluida.
+   */
+  private void registrarConclusao(Demanda demanda, DemandaStatus oldStatus) {
+    if (demanda.getStatus() != DemandaStatus.CONCLUIDA) {
+      demanda.setConcluidaEm(null);
+    } else if (oldStatus != DemandaStatus.CONCLUIDA) {
+      demanda.setConcluidaEm(LocalDateTime.now());
+    }
+  }
+
   /**
    * Deleta demanda.
    */
+  @Transactional
   public void deleteDemanda(Long id) {
     Demanda demanda = this.getDemandaEntityById(id);
+    Set<MaterialConsumoGrupo> grupos = materialConsumoService.grupos(demanda);
     demandaRepository.delete(demanda);
+    dashboardService.demandaAlterada(DemandaResumo.of(demanda), null);
+    materialConsumoService.marcar(grupos);
   }
 
   /**
@@ -0,0 +1,50 @@
+package com.sigesi.sigesi.demandas;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.sigesi.sigesi.demandas.dtos.DemandaFilterDTO;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Specifications para consultas filtradas de Demanda.
+ */
+public final class DemandaSpecifications {
+
+  private DemandaSpecifications() {
+    // Utility class
+  }
+
+  /**
+   * Aplica os filtros informados e posiciona a consulta apos o cursor (id > afterId).
+   */
+  public static Specification<Demanda> filter(DemandaFilterDTO filter, Long afterId) {
+    return (root, query, cb) -> {
+      Predicate p = cb.conjunction();
+
+      if (afterId != null) {
+        p = cb.and(p, cb.greaterThan(root.get("id"), afterId));
+      }
+      if (filter == null) {
+        return p;
+      }
+      if (filter.getStatus() != null) {
+        p = cb.and(p, cb.equal(root.get("status"), filter.getStatus()));
+      }
+      if (filter.getResponsavelId() != null) {
+        p = cb.and(p, cb.equal(root.get("responsavel").get("id"), filter.getResponsavelId()));
+      }
+      if (filter.getPrazoDe() != null) {
+        p = cb.and(p, cb.greaterThanOrEqualTo(root.get("prazo"), filter.getPrazoDe()));
+      }
+      if (filter.getPrazoAte() != null) {
+        p = cb.and(p, cb.lessThanOrEqualTo(root.get("prazo"), filter.getPrazoAte()));
+      }
+      if (filter.getAssunto() != null) {
+        p = cb.and(p, cb.equal(root.get("solicitacao").get("assunto"), filter.getAssunto()));
+      }
+
+      return p;
+    };
+  }
+}
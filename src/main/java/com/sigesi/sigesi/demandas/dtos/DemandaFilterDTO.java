@@ -0,0 +1,41 @@
+package com.sigesi.sigesi.demandas.dtos;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.sigesi.sigesi.demandas.DemandaStatus;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoAssunto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filtros opcionais para a listagem paginada de Demanda.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DemandaFilterDTO {
+
+  @Schema(description = "Status da demanda", example = "PENDENTE")
+  private DemandaStatus status;
+
+  @Schema(description = "ID do responsável (agente)", example = "1")
+  private Long responsavelId;
+
+  @Schema(description = "Prazo inicial (inclusivo)", example = "2025-01-01")
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+  private LocalDate prazoDe;
+
+  @Schema(description = "Prazo final (inclusivo)", example = "2025-12-31")
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+  private LocalDate prazoAte;
+
+  @Schema(description = "Assunto da solicitação", example = "BURACO")
+  private SolicitacaoAssunto assunto;
+}
@@ -9,8 +9,11 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import org.hibernate.envers.Audited;
 
@@ -31,7 +34,8 @@ import lombok.NoArgsConstructor;
 public class Documento {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "documento_seq")
+  @SequenceGenerator(name = "documento_seq", sequenceName = "documento_seq", allocationSize = 50)
   private Long id;
 
   private String numero;
@@ -73,10 +77,25 @@ public class Documento {
 // @formatter:on
   private java.util.List<Arquivo> anexos;
 
+  /**
+   * Incrementada a cada alteracao; compoe a chave do cache de PDF e o ETag.
+   */
+  private Long versao;
+
+  private LocalDateTime atualizadoEm;
+
   @PrePersist
   protected void onCreate() {
     if (this.data == null) {
       this.data = LocalDate.now();
     }
+    this.versao = 0L;
+    this.atualizadoEm = LocalDateTime.now();
+  }
+
+  @PreUpdate
+  protected void onUpdate() {
+    this.versao = (this.versao == null ? 0L : this.versao) + 1;
+    this.atualizadoEm = LocalDateTime.now();
   }
 }
@@ -1,8 +1,13 @@
 package com.sigesi.sigesi.documentos;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZoneId;
 import java.util.List;
 
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -15,8 +20,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.sigesi.sigesi.documentos.dtos.DocumentoCreateDTO;
+import com.sigesi.sigesi.documentos.dtos.DocumentoFilterDTO;
 import com.sigesi.sigesi.documentos.dtos.DocumentoResponseDTO;
 import com.sigesi.sigesi.documentos.dtos.DocumentoUpdateDTO;
 
@@ -37,12 +45,33 @@ public class DocumentoController {
   @Autowired
   private DocumentoPdfService documentoPdfService;
 
+  @Autowired
+  private DocumentoPdfCache documentoPdfCache;
+
+  @Autowired
+  private DocumentoExportService documentoExportService;
+
   @GetMapping("/")
   public ResponseEntity<List<DocumentoResponseDTO>> listAll() {
     List<DocumentoResponseDTO> documentos = documentoService.getAll();
     return ResponseEntity.ok(documentos);
   }
 
+  /**
+   * Exporta os PDFs dos documentos filtrados em um ZIP, escrito na resposta a medida
+   * que os PDFs ficam prontos.
+   */
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> exportar(@ParameterObject DocumentoFilterDTO filter) {
+    documentoExportService.validarFiltro(filter);
+
+    StreamingResponseBody body = out -> documentoExportService.exportar(filter, out);
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"documentos.zip\"")
+        .contentType(MediaType.parseMediaType("application/zip"))
+        .body(body);
+  }
+
   @GetMapping("/{id}")
   public ResponseEntity<DocumentoResponseDTO> getDocumentoById(@PathVariable Long id) {
     DocumentoResponseDTO documento = documentoService.getDocumentoById(id);
@@ -69,16 +98,49 @@ public class DocumentoController {
     return ResponseEntity.noContent().build();
   }
 
+  /**
+   * Baixa o PDF do documento. Responde 304 quando o cliente ja tem a versao atual
+   * (If-None-Match/If-Modified-Since), sem renderizar nada. Caso contrario o PDF
+   * e renderizado inteiro antes da resposta comecar, entao uma falha vira erro 500
+   * em vez de um PDF truncado com status 200.
+   */
   @GetMapping("/{id}/pdf")
-  public ResponseEntity<byte[]> baixarPdf(@PathVariable Long id) {
+  public ResponseEntity<byte[]> baixarPdf(@PathVariable Long id, WebRequest request) {
     Documento doc = documentoService.getDocumentoEntityById(id);
-    byte[] pdf = documentoPdfService.gerarPdfDocumento(doc);
 
+    String etag = pdfEtag(doc);
+    long lastModified = doc.getAtualizadoEm() != null
+        ? doc.getAtualizadoEm().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+        : -1;
+    if (request.checkNotModified(etag, lastModified)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(etag)
+          .cacheControl(CacheControl.noCache().cachePrivate())
+          .build();
+    }
+
+    byte[] pdf;
+    try {
+      pdf = documentoPdfCache.render(doc, documentoPdfService::gerarPdfDocumento);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Não foi possível gerar o PDF", e);
+    }
     String filename = "documento_" + doc.getNumero() + ".pdf";
 
-    return ResponseEntity.ok()
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
         .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
         .contentType(MediaType.APPLICATION_PDF)
-        .body(pdf);
+        .contentLength(pdf.length)
+        .eTag(etag)
+        .cacheControl(CacheControl.noCache().cachePrivate());
+    if (lastModified > 0) {
+      response.lastModified(lastModified);
+    }
+    return response.body(pdf);
+  }
+
+  private String pdfEtag(Documento doc) {
+    return "W/\"doc-" + doc.getId() + "-v" + DocumentoPdfCache.versaoDe(doc)
+        + "-l" + DocumentoPdfService.LAYOUT_VERSION + "\"";
   }
 }
@@ -0,0 +1,177 @@
+package com.sigesi.sigesi.documentos;
+
+import com.sigesi.sigesi.documentos.dtos.DocumentoFilterDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Exporta os PDFs de varios Documentos em um unico ZIP.
+ *
+ * <p>Os documentos sao lidos em lotes pelo id e renderizados em um pool de threads
+ * limitado, compartilhado entre as exportacoes. No maximo {@code threads * 2} PDFs
+ * ficam em memoria ao mesmo tempo; cada um e gravado no ZIP assim que termina, entao
+ * o consumo de memoria nao depende da quantidade de documentos.
+ */
+@Service
+public class DocumentoExportService {
+
+  static final String ERROS_ENTRY = "erros.txt";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DocumentoExportService.class);
+
+  @Autowired
+  private DocumentoRepository documentoRepository;
+
+  @Autowired
+  private DocumentoPdfService documentoPdfService;
+
+  @Value("${app.documentos.export.threads:4}")
+  private int threads;
+
+  @Value("${app.documentos.export.batch-size:50}")
+  private int batchSize;
+
+  private ExecutorService executor;
+
+  @PostConstruct
+  void startPool() {
+    AtomicInteger counter = new AtomicInteger();
+    executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "documento-export-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  void stopPool() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Valida o filtro antes de a resposta comecar a ser escrita.
+   */
+  public void validarFiltro(DocumentoFilterDTO filter) {
+    if (filter != null && filter.getDataDe() != null && filter.getDataAte() != null
+        && filter.getDataDe().isAfter(filter.getDataAte())) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "dataDe deve ser anterior ou igual a dataAte");
+    }
+  }
+
+  /**
+   * Escreve no stream um ZIP com o PDF de cada documento que atende ao filtro, na ordem
+   * em que terminam de ser renderizados. Falhas individuais nao interrompem a exportacao
+   * e sao listadas em {@value #ERROS_ENTRY}. O stream nao e fechado.
+   */
+  public void exportar(DocumentoFilterDTO filter, OutputStream out) throws IOException {
+    ZipOutputStream zip = new ZipOutputStream(out);
+    CompletionService<Renderizado> pending = new ExecutorCompletionService<>(executor);
+    int maxInFlight = threads * 2;
+    int inFlight = 0;
+    List<String> erros = new ArrayList<>();
+
+    Long afterId = null;
+    List<Documento> lote;
+    do {
+      lote = proximoLote(filter, afterId);
+      for (Documento doc : lote) {
+        if (inFlight == maxInFlight) {
+          gravarProximo(pending, zip, erros);
+          inFlight--;
+        }
+        pending.submit(() -> renderizar(doc));
+        inFlight++;
+      }
+      if (!lote.isEmpty()) {
+        afterId = lote.get(lote.size() - 1).getId();
+      }
+    } while (lote.size() == batchSize);
+
+    for (; inFlight > 0; inFlight--) {
+      gravarProximo(pending, zip, erros);
+    }
+    if (!erros.isEmpty()) {
+      zip.putNextEntry(new ZipEntry(ERROS_ENTRY));
+      zip.write(String.join("\n", erros).getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+    }
+    zip.finish();
+  }
+
+  private List<Documento> proximoLote(DocumentoFilterDTO filter, Long afterId) {
+    return documentoRepository.findBy(DocumentoSpecifications.filter(filter, afterId), q -> q
+        .sortBy(Sort.by(Sort.Direction.ASC, "id"))
+        .limit(batchSize)
+        .all());
+  }
+
+  private Renderizado renderizar(Documento doc) {
+    try {
+      ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+      documentoPdfService.gerarPdfDocumento(doc, pdf);
+      return new Renderizado(doc, pdf.toByteArray(), null);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Falha ao exportar PDF do documento {}: {}", doc.getId(), e.getMessage());
+      return new Renderizado(doc, null, e.getMessage());
+    }
+  }
+
+  private void gravarProximo(CompletionService<Renderizado> pending, ZipOutputStream zip,
+      List<String> erros) throws IOException {
+    Renderizado renderizado;
+    try {
+      renderizado = pending.take().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Exportacao interrompida");
+    } catch (ExecutionException e) {
+      throw new IOException("Falha inesperada ao renderizar PDF", e.getCause());
+    }
+
+    Documento doc = renderizado.doc();
+    if (renderizado.pdf() == null) {
+      erros.add("Documento " + doc.getId() + " (" + doc.getNumero() + "): " + renderizado.erro());
+      return;
+    }
+    zip.putNextEntry(new ZipEntry(nomeEntrada(doc)));
+    zip.write(renderizado.pdf());
+    zip.closeEntry();
+  }
+
+  /**
+   * Nome unico e seguro para a entrada: o numero pode conter barras ("001/2025").
+   */
+  static String nomeEntrada(Documento doc) {
+    String tipo = doc.getTipo() == null ? "documento" : doc.getTipo().name().toLowerCase(Locale.ROOT);
+    String numero = doc.getNumero() == null ? "sem-numero" : doc.getNumero().replaceAll("[^A-Za-z0-9._-]", "-");
+    return tipo + "_" + numero + "_" + doc.getId() + ".pdf";
+  }
+
+  private record Renderizado(Documento doc, byte[] pdf, String erro) {
+  }
+}
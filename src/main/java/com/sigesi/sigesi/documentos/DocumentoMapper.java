@@ -20,6 +20,8 @@ public interface DocumentoMapper {
   @Mapping(target = "id", ignore = true)
   @Mapping(target = "data", ignore = true)
   @Mapping(target = "anexos", source = "anexoIds", qualifiedByName = "mapAnexos")
+  @Mapping(target = "versao", ignore = true)
+  @Mapping(target = "atualizadoEm", ignore = true)
   Documento toEntity(DocumentoCreateDTO dto);
 
   DocumentoResponseDTO toDto(Documento entity);
@@ -29,6 +31,8 @@ public interface DocumentoMapper {
   @Mapping(target = "id", ignore = true)
   @Mapping(target = "data", ignore = true)
   @Mapping(target = "anexos", ignore = true)
+  @Mapping(target = "versao", ignore = true)
+  @Mapping(target = "atualizadoEm", ignore = true)
   void updateFromDto(DocumentoUpdateDTO dto, @MappingTarget Documento documento);
 
   @Named("mapAnexos")
@@ -0,0 +1,95 @@
+package com.sigesi.sigesi.documentos;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache em memoria dos PDFs renderizados, por id e versao do documento.
+ * Limitado pelo total de bytes; remove os menos usados recentemente (LRU).
+ */
+@Component
+public class DocumentoPdfCache {
+
+  private final Map<Long, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+  private long totalBytes;
+
+  @Value("${app.documentos.pdf-cache.max-bytes:33554432}")
+  private long maxBytes;
+
+  /**
+   * Retorna o PDF da versao atual do documento. Na falta, renderiza em memoria e so
+   * entao guarda no cache: uma falha na renderizacao e propagada antes de qualquer byte
+   * chegar ao cliente, e nada incompleto fica em cache.
+   */
+  public byte[] render(Documento doc, Renderizador renderer) throws IOException {
+    long versao = versaoDe(doc);
+    byte[] cached = get(doc.getId(), versao);
+    if (cached != null) {
+      return cached;
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    renderer.renderizar(doc, out);
+    byte[] pdf = out.toByteArray();
+    if (pdf.length > 0) {
+      put(doc.getId(), versao, pdf);
+    }
+    return pdf;
+  }
+
+  /**
+   * Descarta o PDF em cache do documento.
+   */
+  public synchronized void evict(Long id) {
+    Entrada removida = entradas.remove(id);
+    if (removida != null) {
+      totalBytes -= removida.pdf().length;
+    }
+  }
+
+  static long versaoDe(Documento doc) {
+    return doc.getVersao() == null ? 0L : doc.getVersao();
+  }
+
+  synchronized long getTotalBytes() {
+    return totalBytes;
+  }
+
+  private synchronized byte[] get(Long id, long versao) {
+    Entrada entrada = entradas.get(id);
+    return entrada != null && entrada.versao() == versao ? entrada.pdf() : null;
+  }
+
+  private synchronized void put(Long id, long versao, byte[] pdf) {
+    if (pdf.length > maxBytes) {
+      return;
+    }
+    evict(id);
+    entradas.put(id, new Entrada(versao, pdf));
+    totalBytes += pdf.length;
+
+    Iterator<Entrada> it = entradas.values().iterator();
+    while (totalBytes > maxBytes && it.hasNext()) {
+      totalBytes -= it.next().pdf().length;
+      it.remove();
+    }
+  }
+
+  private record Entrada(long versao, byte[] pdf) {
+  }
+
+  /**
+   * Renderizador que escreve o PDF diretamente em um stream.
+   */
+  @FunctionalInterface
+  public interface Renderizador {
+    void renderizar(Documento doc, OutputStream out) throws IOException;
+  }
+}
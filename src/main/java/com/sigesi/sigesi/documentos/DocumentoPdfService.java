@@ -1,6 +1,7 @@
 package com.sigesi.sigesi.documentos;
 
 import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
 import com.lowagie.text.Element;
 import com.lowagie.text.Font;
 import com.lowagie.text.FontFactory;
@@ -15,66 +16,90 @@ import com.lowagie.text.pdf.PdfWriter;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
 
+/**
+ * Renderiza Documentos em PDF.
+ * A imagem de fundo e as fontes sao carregadas uma unica vez e compartilhadas
+ * entre as renderizacoes; nada e alterado nelas depois da construcao.
+ */
 @Service
 public class DocumentoPdfService {
 
-  public byte[] gerarPdfDocumento(Documento doc) {
-    ByteArrayOutputStream out = new ByteArrayOutputStream();
+  /**
+   * Incrementar ao mudar o layout, para invalidar PDFs em cache nos clientes (ETag).
+   */
+  public static final int LAYOUT_VERSION = 1;
+
+  static final String BACKGROUND_PATH = "static/images/backgroundimage.jpeg";
+
+  private static final Font FONT_BOLD = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+  private static final Font FONT_NORMAL = FontFactory.getFont(FontFactory.HELVETICA, 10);
+
+  private static final DateTimeFormatter DATA_OFICIO = DateTimeFormatter.ofPattern(
+      "'Pau dos Ferros/RN, 'dd 'de' MMMM 'de' yyyy", Locale.of("pt", "BR"));
+  private static final DateTimeFormatter DATA_MEMORANDO = DateTimeFormatter.ofPattern(
+      "dd 'de' MMMM 'de' yyyy", Locale.of("pt", "BR"));
+
+  private final Image background;
+
+  public DocumentoPdfService() {
+    this.background = carregarBackground();
+  }
+
+  /**
+   * Gera o PDF escrevendo diretamente no stream informado, sem buffer intermediario.
+   * O stream nao e fechado.
+   */
+  public void gerarPdfDocumento(Documento doc, OutputStream out) throws IOException {
     Document document = new Document(PageSize.A4, 75, 60, 145, 80);
 
     try {
       PdfWriter writer = PdfWriter.getInstance(document, out);
+      writer.setCloseStream(false);
       document.open();
 
       adicionarBackground(writer);
 
-      Font fontBold = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
-      Font fontNormal = FontFactory.getFont(FontFactory.HELVETICA, 10);
-
       if (DocumentoTipo.OFICIO.equals(doc.getTipo())) {
-        montarLayoutOficio(document, doc, fontBold, fontNormal);
+        montarLayoutOficio(document, doc, FONT_BOLD, FONT_NORMAL);
       } else {
-        montarLayoutMemorando(document, doc, fontBold, fontNormal);
+        montarLayoutMemorando(document, doc, FONT_BOLD, FONT_NORMAL);
       }
 
-      document.add(new Paragraph(doc.getHonorifico(), fontNormal));
+      document.add(new Paragraph(doc.getHonorifico(), FONT_NORMAL));
       document.add(new Paragraph("\n"));
 
-      Paragraph pBody = new Paragraph(doc.getBody(), fontNormal);
+      Paragraph pBody = new Paragraph(doc.getBody(), FONT_NORMAL);
       pBody.setAlignment(Element.ALIGN_JUSTIFIED);
       pBody.setLeading(14f);
       document.add(pBody);
       document.add(new Paragraph("\n"));
 
-      document.add(new Paragraph("Atenciosamente,", fontNormal));
+      document.add(new Paragraph("Atenciosamente,", FONT_NORMAL));
       document.add(new Paragraph("\n\n\n"));
 
-      adicionarBlocoAssinatura(document, doc, fontBold, fontNormal);
+      adicionarBlocoAssinatura(document, doc, FONT_BOLD, FONT_NORMAL);
 
       if (!DocumentoTipo.OFICIO.equals(doc.getTipo())) {
-        adicionarCampoRecebimento(document, fontNormal);
+        adicionarCampoRecebimento(document, FONT_NORMAL);
       }
 
       document.close();
-    } catch (Exception e) {
-      System.err.println("Erro ao gerar PDF: " + e.getMessage());
+    } catch (DocumentException e) {
+      throw new IOException("Erro ao gerar PDF: " + e.getMessage(), e);
     }
-
-    return out.toByteArray();
   }
 
   private void montarLayoutOficio(Document document, Documento doc,
-      Font fontBold, Font fontNormal) throws Exception {
+      Font fontBold, Font fontNormal) throws DocumentException {
     document.add(new Paragraph("OFÍCIO Nº " + doc.getNumero(), fontBold));
 
-    DateTimeFormatter df = DateTimeFormatter.ofPattern(
-        "'Pau dos Ferros/RN, 'dd 'de' MMMM 'de' yyyy",
-        Locale.of("pt", "BR"));
-    Paragraph pData = new Paragraph(doc.getData().format(df) + ".", fontNormal);
+    Paragraph pData = new Paragraph(doc.getData().format(DATA_OFICIO) + ".", fontNormal);
     pData.setAlignment(Element.ALIGN_RIGHT);
     document.add(pData);
     document.add(new Paragraph("\n"));
@@ -87,13 +112,11 @@ public class DocumentoPdfService {
   }
 
   private void montarLayoutMemorando(Document document, Documento doc,
-      Font fontBold, Font fontNormal) throws Exception {
+      Font fontBold, Font fontNormal) throws DocumentException {
     document.add(new Paragraph("MEMORANDO Nº " + doc.getNumero(), fontBold));
     document.add(new Paragraph("DESTINO: " + doc.getInteressado(), fontBold));
 
-    DateTimeFormatter df = DateTimeFormatter.ofPattern(
-        "dd 'de' MMMM 'de' yyyy", Locale.of("pt", "BR"));
-    Paragraph pData = new Paragraph(doc.getData().format(df) + ".", fontNormal);
+    Paragraph pData = new Paragraph(doc.getData().format(DATA_MEMORANDO) + ".", fontNormal);
     pData.setAlignment(Element.ALIGN_RIGHT);
     document.add(pData);
     document.add(new Paragraph("\n"));
@@ -102,16 +125,27 @@ public class DocumentoPdfService {
     document.add(new Paragraph("\n"));
   }
 
-  private void adicionarBackground(PdfWriter writer) throws Exception {
-    Image background = Image.getInstance(
-        new ClassPathResource("static/images/backgroundimage.jpeg").getURL());
-    background.setAbsolutePosition(0, 0);
-    background.scaleToFit(PageSize.A4.getWidth(), PageSize.A4.getHeight());
-    writer.getDirectContentUnder().addImage(background);
+  /**
+   * Cada documento recebe uma copia rasa da imagem: os bytes ja decodificados sao
+   * compartilhados e o writer grava um unico XObject por documento.
+   */
+  private void adicionarBackground(PdfWriter writer) throws DocumentException {
+    writer.getDirectContentUnder().addImage(Image.getInstance(background));
+  }
+
+  private static Image carregarBackground() {
+    try (InputStream in = new ClassPathResource(BACKGROUND_PATH).getInputStream()) {
+      Image image = Image.getInstance(in.readAllBytes());
+      image.setAbsolutePosition(0, 0);
+      image.scaleToFit(PageSize.A4.getWidth(), PageSize.A4.getHeight());
+      return image;
+    } catch (IOException | DocumentException e) {
+      throw new IllegalStateException("Nao foi possivel carregar a imagem de fundo do PDF", e);
+    }
   }
 
   private void adicionarBlocoAssinatura(Document document, Documento doc,
-      Font fontBold, Font fontNormal) throws Exception {
+      Font fontBold, Font fontNormal) throws DocumentException {
     Paragraph pLinha = new Paragraph("___________________________________________", fontNormal);
     pLinha.setAlignment(Element.ALIGN_CENTER);
     document.add(pLinha);
@@ -132,7 +166,7 @@ public class DocumentoPdfService {
     }
   }
 
-  private void adicionarCampoRecebimento(Document document, Font font) throws Exception {
+  private void adicionarCampoRecebimento(Document document, Font font) throws DocumentException {
     document.add(new Paragraph("\n\n\n\n\n"));
     PdfPTable table = new PdfPTable(2);
     table.setWidthPercentage(100);
@@ -2,13 +2,15 @@ package com.sigesi.sigesi.documentos;
 
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repositorio para Documento.
  */
 @Repository
-public interface DocumentoRepository extends JpaRepository<Documento, Long> {
+public interface DocumentoRepository
+    extends JpaRepository<Documento, Long>, JpaSpecificationExecutor<Documento> {
 
   List<Documento> findAllByOrderByIdAsc();
 
@@ -26,6 +26,9 @@ public class DocumentoService {
   @Autowired
   private ArquivoService arquivoService;
 
+  @Autowired
+  private DocumentoPdfCache documentoPdfCache;
+
   public List<DocumentoResponseDTO> getAll() {
     return documentoRepository.findAllByOrderByIdAsc()
         .stream()
@@ -55,12 +58,14 @@ public class DocumentoService {
     this.resolveAnexos(dto.getAnexoIds(), documento);
 
     Documento updated = documentoRepository.save(documento);
+    documentoPdfCache.evict(id);
     return documentoMapper.toDto(updated);
   }
 
   public void deleteDocumento(Long id) {
     Documento documento = this.getDocumentoEntityById(id);
     documentoRepository.delete(documento);
+    documentoPdfCache.evict(id);
   }
 
   public Documento getDocumentoEntityById(Long id) {
@@ -0,0 +1,48 @@
+package com.sigesi.sigesi.documentos;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.sigesi.sigesi.documentos.dtos.DocumentoFilterDTO;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Specifications para consultas filtradas de Documento.
+ */
+public final class DocumentoSpecifications {
+
+  private DocumentoSpecifications() {
+    // Utility class
+  }
+
+  /**
+   * Aplica os filtros informados e posiciona a consulta apos o cursor (id > afterId).
+   */
+  public static Specification<Documento> filter(DocumentoFilterDTO filter, Long afterId) {
+    return (root, query, cb) -> {
+      Predicate p = cb.conjunction();
+
+      if (afterId != null) {
+        p = cb.and(p, cb.greaterThan(root.get("id"), afterId));
+      }
+      if (filter == null) {
+        return p;
+      }
+      if (filter.getDataDe() != null) {
+        p = cb.and(p, cb.greaterThanOrEqualTo(root.get("data"), filter.getDataDe()));
+      }
+      if (filter.getDataAte() != null) {
+        p = cb.and(p, cb.lessThanOrEqualTo(root.get("data"), filter.getDataAte()));
+      }
+      if (filter.getTipo() != null) {
+        p = cb.and(p, cb.equal(root.get("tipo"), filter.getTipo()));
+      }
+      if (filter.getInteressado() != null && !filter.getInteressado().isBlank()) {
+        String pattern = "%" + filter.getInteressado().trim().toLowerCase() + "%";
+        p = cb.and(p, cb.like(cb.lower(root.get("interessado")), pattern));
+      }
+
+      return p;
+    };
+  }
+}
@@ -0,0 +1,37 @@
+package com.sigesi.sigesi.documentos.dtos;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.sigesi.sigesi.documentos.DocumentoTipo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filtros opcionais para a exportacao em lote de Documento.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DocumentoFilterDTO {
+
+  @Schema(description = "Data inicial (inclusiva)", example = "2025-01-01")
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+  private LocalDate dataDe;
+
+  @Schema(description = "Data final (inclusiva)", example = "2025-12-31")
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+  private LocalDate dataAte;
+
+  @Schema(description = "Tipo do documento", example = "OFICIO")
+  private DocumentoTipo tipo;
+
+  @Schema(description = "Trecho do interessado (sem diferenciar maiusculas)", example = "Secretaria")
+  private String interessado;
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -24,7 +25,8 @@ import lombok.NoArgsConstructor;
 @Audited
 public class Endereco {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "endereco_seq")
+  @SequenceGenerator(name = "endereco_seq", sequenceName = "endereco_seq", allocationSize = 50)
   private Long id;
 
   @NotBlank(message = "Logradouro é obrigatório")
@@ -1,12 +1,15 @@
 package com.sigesi.sigesi.enderecos;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.sigesi.sigesi.config.NotFoundException;
+import com.sigesi.sigesi.consumo.MaterialConsumoService;
 import com.sigesi.sigesi.enderecos.dtos.EnderecoCreateDTO;
 import com.sigesi.sigesi.enderecos.dtos.EnderecoResponseDTO;
 import com.sigesi.sigesi.enderecos.dtos.EnderecoUpdateDTO;
@@ -20,6 +23,9 @@ public class EnderecoService {
   @Autowired
   private EnderecoMapper enderecoMapper;
 
+  @Autowired
+  private MaterialConsumoService materialConsumoService;
+
   public List<EnderecoResponseDTO> getAll() {
     return enderecoRepository.findAllByOrderByIdAsc()
         .stream()
@@ -39,11 +45,16 @@ public class EnderecoService {
     return enderecoMapper.toDto(enderecoSalvo);
   }
 
+  @Transactional
   public EnderecoResponseDTO updateEndereco(Long id, EnderecoUpdateDTO enderecoDTO) {
     Endereco endereco = this.getEnderecoEntityById(id);
+    String bairroAnterior = endereco.getBairro();
 
     enderecoMapper.updateFromDto(enderecoDTO, endereco);
     Endereco enderecoAtualizado = enderecoRepository.save(endereco);
+    if (!Objects.equals(bairroAnterior, enderecoAtualizado.getBairro())) {
+      materialConsumoService.marcarEndereco(id);
+    }
     return enderecoMapper.toDto(enderecoAtualizado);
   }
 
@@ -9,6 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,7 +26,8 @@ import lombok.NoArgsConstructor;
 @Builder
 public class Gaveta {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gaveta_seq")
+  @SequenceGenerator(name = "gaveta_seq", sequenceName = "gaveta_seq", allocationSize = 50)
   private Long id;
 
   @NotNull(message = "Jazigo é obrigatório")
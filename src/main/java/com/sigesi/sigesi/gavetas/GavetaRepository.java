@@ -3,16 +3,21 @@ package com.sigesi.sigesi.gavetas;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface GavetaRepository extends JpaRepository<Gaveta, Long> {
   List<Gaveta> findAllByOrderByIdAsc();
 
-  List<Gaveta> findByJazigoId(Long jazigoId);
+  @Query("select g from Gaveta g where g.jazigo.id = :jazigoId")
+  List<Gaveta> findByJazigoId(@Param("jazigoId") Long jazigoId);
 
-  List<Gaveta> findByOcupanteId(Long ocupanteId);
+  @Query("select g from Gaveta g where g.ocupante.id = :ocupanteId")
+  List<Gaveta> findByOcupanteId(@Param("ocupanteId") Long ocupanteId);
 
-  List<Gaveta> findByJazigoIdAndOcupanteId(Long jazigoId, Long ocupanteId);
+  @Query("select g from Gaveta g where g.jazigo.id = :jazigoId and g.ocupante.id = :ocupanteId")
+  List<Gaveta> findByJazigoIdAndOcupanteId(@Param("jazigoId") Long jazigoId, @Param("ocupanteId") Long ocupanteId);
 
 }
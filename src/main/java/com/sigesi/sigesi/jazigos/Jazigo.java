@@ -9,6 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -26,7 +27,8 @@ import lombok.NoArgsConstructor;
 @Builder
 public class Jazigo {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "jazigo_seq")
+  @SequenceGenerator(name = "jazigo_seq", sequenceName = "jazigo_seq", allocationSize = 50)
   private Long id;
 
   @NotNull(message = "Cemitério é obrigatório")
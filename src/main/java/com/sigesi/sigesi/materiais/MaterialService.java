@@ -1,13 +1,16 @@
 package com.sigesi.sigesi.materiais;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.sigesi.sigesi.config.NotFoundException;
+import com.sigesi.sigesi.consumo.MaterialConsumoService;
 import com.sigesi.sigesi.materiais.dtos.MaterialCreateDTO;
 import com.sigesi.sigesi.materiais.dtos.MaterialResponseDTO;
 import com.sigesi.sigesi.materiais.dtos.MaterialUpdateDTO;
@@ -24,6 +27,9 @@ public class MaterialService {
   @Autowired
   private MaterialMapper materialMapper;
 
+  @Autowired
+  private MaterialConsumoService materialConsumoService;
+
   /**
    * Lista todos os materiais ordenados por ID.
    */
@@ -52,12 +58,17 @@ public class MaterialService {
   }
 
   /**
-   * Atualiza material existente.
+   * Atualiza material existente. Mudanca de preco recalcula o custo em todos os meses de uso.
    */
+  @Transactional
   public MaterialResponseDTO updateMaterial(Long id, MaterialUpdateDTO dto) {
     Material material = this.getMaterialEntityById(id);
+    Double precoAnterior = material.getPreco();
     materialMapper.updateFromDto(dto, material);
     Material updated = materialRepository.save(material);
+    if (!Objects.equals(precoAnterior, updated.getPreco())) {
+      materialConsumoService.marcarMaterial(id);
+    }
     return materialMapper.toDto(updated);
   }
 
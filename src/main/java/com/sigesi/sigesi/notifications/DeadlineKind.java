@@ -0,0 +1,28 @@
+package com.sigesi.sigesi.notifications;
+
+import com.sigesi.sigesi.config.RabbitMQConfig;
+
+/**
+ * Deadline notifications sent by {@link DeadlineScanner}.
+ */
+public enum DeadlineKind {
+
+    DUE_SOON("due_soon", RabbitMQConfig.ROUTING_KEY_DUE_SOON),
+    OVERDUE("overdue", RabbitMQConfig.ROUTING_KEY_OVERDUE);
+
+    private final String eventType;
+    private final String routingKey;
+
+    DeadlineKind(String eventType, String routingKey) {
+        this.eventType = eventType;
+        this.routingKey = routingKey;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+}
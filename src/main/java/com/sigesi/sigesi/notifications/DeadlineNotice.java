@@ -0,0 +1,62 @@
+package com.sigesi.sigesi.notifications;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Records that a deadline notification was queued for a demand, so it is sent once
+ * per deadline. A new prazo gets new notifications.
+ */
+@Entity
+@Table(name = "deadline_notice", uniqueConstraints = @UniqueConstraint(
+    name = "uk_deadline_notice", columnNames = {"demanda_id", "kind", "prazo"}))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DeadlineNotice {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deadline_notice_seq")
+    @SequenceGenerator(name = "deadline_notice_seq", sequenceName = "deadline_notice_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "demanda_id", nullable = false)
+    private Long demandaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DeadlineKind kind;
+
+    @Column(nullable = false)
+    private LocalDate prazo;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Sets the creation time.
+     */
+    @PrePersist
+    protected void onCreate() {
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+    }
+}
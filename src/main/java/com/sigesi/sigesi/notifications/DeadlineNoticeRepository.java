@@ -0,0 +1,46 @@
+package com.sigesi.sigesi.notifications;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sigesi.sigesi.demandas.Demanda;
+
+/**
+ * Repository for DeadlineNotice. Also finds the demands still to be notified.
+ */
+@Repository
+public interface DeadlineNoticeRepository extends JpaRepository<DeadlineNotice, Long> {
+
+    /**
+     * Open (PENDENTE or EM_ANDAMENTO), assigned demands with prazo before {@code to} and after the
+     * (afterPrazo, afterId) cursor, that have no notice of this kind for their current prazo.
+     * Range scan on idx_demanda_prazo_id (matches the order and the cursor) plus an anti-join on uk_deadline_notice.
+     */
+    @Query("select d from Demanda d join fetch d.solicitacao join fetch d.responsavel"
+        + " where d.status in (com.sigesi.sigesi.demandas.DemandaStatus.PENDENTE,"
+        + "   com.sigesi.sigesi.demandas.DemandaStatus.EM_ANDAMENTO)"
+        + " and d.prazo >= :afterPrazo and d.prazo < :to"
+        + " and (d.prazo > :afterPrazo or d.id > :afterId)"
+        + " and not exists (select 1 from DeadlineNotice n"
+        + "   where n.demandaId = d.id and n.kind = :kind and n.prazo = d.prazo)"
+        + " order by d.prazo, d.id")
+    List<Demanda> findDemandasToNotify(@Param("afterPrazo") LocalDate afterPrazo, @Param("afterId") long afterId,
+        @Param("to") LocalDate to, @Param("kind") DeadlineKind kind, Limit limit);
+
+    @Modifying
+    @Query("delete from DeadlineNotice n where n.prazo < :before")
+    int deleteByPrazoBefore(@Param("before") LocalDate before);
+
+    /**
+     * Takes the scanner leader lock until the end of the transaction (PostgreSQL only).
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+}
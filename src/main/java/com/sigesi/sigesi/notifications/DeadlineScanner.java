@@ -0,0 +1,161 @@
+package com.sigesi.sigesi.notifications;
+
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sigesi.sigesi.demandas.Demanda;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Background job that queues due-soon and overdue events for open, assigned demands.
+ *
+ * <p>Each run reads the demands whose prazo falls in the notification window and that
+ * have no {@link DeadlineNotice} yet, in chunks ordered by prazo, and queues one outbox
+ * event and one notice per demand in the chunk's transaction. The outbox relay then
+ * publishes them to RabbitMQ in batches. Already notified demands are filtered out in
+ * the query, so a run with nothing new is a single indexed scan.
+ *
+ * <p>On PostgreSQL every chunk first takes a transaction-scoped advisory lock; an instance
+ * that finds it taken skips the run, so only one instance scans at a time. The unique key
+ * on deadline_notice keeps a notification from being queued twice even without the lock.
+ */
+@Component
+@ConditionalOnProperty(name = "app.notifications.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineScanner {
+
+    static final long LOCK_KEY = 0x5349474553490001L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeadlineScanner.class);
+
+    @Autowired
+    private DeadlineNoticeRepository deadlineNoticeRepository;
+
+    @Autowired
+    private NotificationPublisher notificationPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.notifications.deadline.due-soon-days:2}")
+    private int dueSoonDays;
+
+    @Value("${app.notifications.deadline.overdue-lookback-days:30}")
+    private int overdueLookbackDays;
+
+    @Value("${app.notifications.deadline.batch-size:500}")
+    private int batchSize;
+
+    private boolean advisoryLock;
+
+    @PostConstruct
+    void detectDatabase() {
+        advisoryLock = isPostgres();
+        if (!advisoryLock) {
+            LOGGER.info("Deadline scanner running without leader lock (not PostgreSQL)");
+        }
+    }
+
+    /**
+     * Queues the pending deadline events and removes notices that fell out of the window.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.deadline.scan-interval-ms:300000}",
+        initialDelayString = "${app.notifications.deadline.initial-delay-ms:60000}")
+    public void scan() {
+        LocalDate today = LocalDate.now();
+        LocalDate oldest = today.minusDays(overdueLookbackDays);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try {
+            Integer purged = tx.execute(status -> lock() ? deadlineNoticeRepository.deleteByPrazoBefore(oldest) : null);
+            if (purged == null) {
+                LOGGER.debug("Deadline scan skipped: another instance holds the lock");
+                return;
+            }
+            int overdue = scan(tx, DeadlineKind.OVERDUE, oldest, today);
+            int dueSoon = scan(tx, DeadlineKind.DUE_SOON, today, today.plusDays(dueSoonDays + 1L));
+            if (overdue + dueSoon > 0) {
+                LOGGER.info("Queued {} overdue and {} due soon demand events", overdue, dueSoon);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Deadline scan failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Notifies demands with prazo in [from, to), one chunk per transaction, walking
+     * (prazo, id) so each chunk starts where the previous one stopped.
+     */
+    private int scan(TransactionTemplate tx, DeadlineKind kind, LocalDate from, LocalDate to) {
+        int total = 0;
+        Cursor cursor = new Cursor(from, 0L);
+        List<Demanda> chunk;
+        do {
+            Cursor after = cursor;
+            chunk = tx.execute(status -> lock() ? notifyChunk(kind, after, to) : List.of());
+            if (!chunk.isEmpty()) {
+                Demanda last = chunk.get(chunk.size() - 1);
+                cursor = new Cursor(last.getPrazo(), last.getId());
+                total += chunk.size();
+            }
+        } while (chunk.size() == batchSize);
+        return total;
+    }
+
+    private List<Demanda> notifyChunk(DeadlineKind kind, Cursor after, LocalDate to) {
+        List<Demanda> demandas = deadlineNoticeRepository.findDemandasToNotify(
+            after.prazo(), after.id(), to, kind, Limit.of(batchSize));
+        for (Demanda demanda : demandas) {
+            notificationPublisher.publishDemandDeadline(demanda, kind);
+        }
+        deadlineNoticeRepository.saveAll(demandas.stream()
+            .map(demanda -> DeadlineNotice.builder()
+                .demandaId(demanda.getId())
+                .kind(kind)
+                .prazo(demanda.getPrazo())
+                .build())
+            .toList());
+        return demandas;
+    }
+
+    private boolean lock() {
+        return !advisoryLock || deadlineNoticeRepository.tryAdvisoryXactLock(LOCK_KEY);
+    }
+
+    private boolean isPostgres() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (MetaDataAccessException e) {
+            LOGGER.warn("Could not identify the database: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Last (prazo, id) handled by the previous chunk.
+     *
+     * @param prazo Deadline of the last demand
+     * @param id ID of the last demand
+     */
+    private record Cursor(LocalDate prazo, long id) {
+    }
+}
@@ -2,17 +2,24 @@ package com.sigesi.sigesi.notifications;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sigesi.sigesi.config.RabbitMQConfig;
 import com.sigesi.sigesi.demandas.Demanda;
 import com.sigesi.sigesi.demandas.DemandaStatus;
 import com.sigesi.sigesi.notifications.events.DemandEvent;
 
 /**
- * Service for publishing notification events to RabbitMQ.
+ * Service for publishing notification events.
+ *
+ * <p>Events are written to the outbox table in the caller's transaction and
+ * forwarded to RabbitMQ by {@link OutboxRelay}, so the write path never waits
+ * on the broker and no event is lost if it is unavailable.
  */
 @Service
 public class NotificationPublisher {
@@ -20,36 +27,25 @@ public class NotificationPublisher {
     private static final Logger LOGGER = LoggerFactory.getLogger(NotificationPublisher.class);
 
     @Autowired
-    private RabbitTemplate rabbitTemplate;
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     /**
      * Publish an event when a demand is assigned to an agent.
      *
      * @param demanda The demand that was assigned
      */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishDemandAssigned(Demanda demanda) {
-        try {
-            DemandEvent event = DemandEvent.builder()
-                .eventType("assigned")
-                .demandId(demanda.getId())
-                .solicitacaoId(demanda.getSolicitacao().getId())
-                .assunto(demanda.getSolicitacao().getAssunto().name())
-                .responsavelId(demanda.getResponsavel().getId())
-                .responsavelEmail(demanda.getResponsavel().getEmail())
-                .responsavelNome(demanda.getResponsavel().getName())
-                .prazo(demanda.getPrazo())
-                .build();
-
-            rabbitTemplate.convertAndSend(
-                RabbitMQConfig.EXCHANGE_NAME,
-                RabbitMQConfig.ROUTING_KEY_ASSIGNED,
-                event
-            );
-
-            LOGGER.info("Published demand assigned event for demand ID: {}", demanda.getId());
-        } catch (Exception e) {
-            LOGGER.error("Failed to publish demand assigned event: {}", e.getMessage(), e);
-        }
+        DemandEvent event = baseEvent(demanda)
+            .eventType("assigned")
+            .build();
+
+        enqueue(RabbitMQConfig.ROUTING_KEY_ASSIGNED, event);
+
+        LOGGER.info("Queued demand assigned event for demand ID: {}", demanda.getId());
     }
 
     /**
@@ -58,35 +54,67 @@ public class NotificationPublisher {
      * @param demanda The demand with updated status
      * @param oldStatus The previous status
      */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishDemandStatusChanged(Demanda demanda, DemandaStatus oldStatus) {
+        DemandEvent event = baseEvent(demanda)
+            .eventType("status_changed")
+            .oldStatus(oldStatus.name())
+            .newStatus(demanda.getStatus().name())
+            .build();
+
+        enqueue(RabbitMQConfig.ROUTING_KEY_STATUS_CHANGED, event);
+
+        LOGGER.info(
+            "Queued demand status changed event for demand ID: {} ({}->{})",
+            demanda.getId(),
+            oldStatus.name(),
+            demanda.getStatus().name()
+        );
+    }
+
+    /**
+     * Publish a deadline event (due soon or overdue) for an assigned demand.
+     * Called in bulk by {@link DeadlineScanner}, so it logs at debug level.
+     *
+     * @param demanda The demand whose deadline is near or past
+     * @param kind Which deadline notification to send
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishDemandDeadline(Demanda demanda, DeadlineKind kind) {
+        DemandEvent event = baseEvent(demanda)
+            .eventType(kind.getEventType())
+            .build();
+
+        enqueue(kind.getRoutingKey(), event);
+
+        LOGGER.debug("Queued demand {} event for demand ID: {}", kind.getEventType(), demanda.getId());
+    }
+
+    private DemandEvent.DemandEventBuilder baseEvent(Demanda demanda) {
+        return DemandEvent.builder()
+            .demandId(demanda.getId())
+            .solicitacaoId(demanda.getSolicitacao().getId())
+            .assunto(demanda.getSolicitacao().getAssunto() != null
+                ? demanda.getSolicitacao().getAssunto().name()
+                : null)
+            .responsavelId(demanda.getResponsavel().getId())
+            .responsavelEmail(demanda.getResponsavel().getEmail())
+            .responsavelNome(demanda.getResponsavel().getName())
+            .prazo(demanda.getPrazo());
+    }
+
+    private void enqueue(String routingKey, DemandEvent event) {
+        String payload;
         try {
-            DemandEvent event = DemandEvent.builder()
-                .eventType("status_changed")
-                .demandId(demanda.getId())
-                .solicitacaoId(demanda.getSolicitacao().getId())
-                .assunto(demanda.getSolicitacao().getAssunto().name())
-                .responsavelId(demanda.getResponsavel().getId())
-                .responsavelEmail(demanda.getResponsavel().getEmail())
-                .responsavelNome(demanda.getResponsavel().getName())
-                .oldStatus(oldStatus.name())
-                .newStatus(demanda.getStatus().name())
-                .prazo(demanda.getPrazo())
-                .build();
-
-            rabbitTemplate.convertAndSend(
-                RabbitMQConfig.EXCHANGE_NAME,
-                RabbitMQConfig.ROUTING_KEY_STATUS_CHANGED,
-                event
-            );
-
-            LOGGER.info(
-                "Published demand status changed event for demand ID: {} ({}->{})",
-                demanda.getId(),
-                oldStatus.name(),
-                demanda.getStatus().name()
-            );
-        } catch (Exception e) {
-            LOGGER.error("Failed to publish demand status changed event: {}", e.getMessage(), e);
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize demand event", e);
         }
+
+        outboxEventRepository.save(OutboxEvent.builder()
+            .aggregateId(event.getDemandId())
+            .routingKey(routingKey)
+            .payload(payload)
+            .build());
     }
 }
@@ -0,0 +1,81 @@
+package com.sigesi.sigesi.notifications;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event waiting to be relayed to RabbitMQ.
+ * Written in the same transaction as the business change that produced it.
+ */
+@Entity
+@Table(name = "outbox_event")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * ID of the entity the event refers to; events with the same aggregate are relayed in order.
+     */
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "routing_key", nullable = false, length = 100)
+    private String routingKey;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    /**
+     * Marks new events as pending and ready to be sent.
+     */
+    @PrePersist
+    protected void onCreate() {
+        if (this.status == null) {
+            this.status = OutboxStatus.PENDING;
+        }
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+        if (this.nextAttemptAt == null) {
+            this.nextAttemptAt = this.createdAt;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.sigesi.sigesi.notifications;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for OutboxEvent.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Pending events that are due, in id order, leaving out every event queued after a
+     * pending event of the same aggregate that is still backing off, so a failing event
+     * holds back only its own aggregate and does not take up the batch.
+     */
+    @Query("""
+        select e from OutboxEvent e
+         where e.status = :status and e.nextAttemptAt <= :now
+           and not exists (select 1 from OutboxEvent p
+                            where p.aggregateId = e.aggregateId and p.status = :status
+                              and p.id < e.id and p.nextAttemptAt > :now)
+         order by e.id
+        """)
+    List<OutboxEvent> findDue(@Param("status") OutboxStatus status, @Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.status = :status and e.sentAt < :before")
+    int deleteByStatusAndSentAtBefore(@Param("status") OutboxStatus status,
+        @Param("before") LocalDateTime before);
+
+    /**
+     * Takes the relay leader lock until the end of the transaction (PostgreSQL only).
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+}
@@ -0,0 +1,252 @@
+package com.sigesi.sigesi.notifications;
+
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigesi.sigesi.config.RabbitMQConfig;
+import com.sigesi.sigesi.notifications.events.DemandEvent;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Background relay that forwards pending outbox events to RabbitMQ.
+ *
+ * <p>Events are read in batches ordered by id. Within a batch, only the oldest
+ * pending event of each aggregate is in flight at a time, and a failed or not yet
+ * due event blocks the later events of the same aggregate, so consumers see each
+ * demand's events in order. Blocked events are left out of the query, so an event
+ * backing off holds back only its own demand; after {@code max-attempts} it is marked
+ * failed and stops blocking. Delivery is at-least-once: the outbox id is sent as
+ * message id so consumers can discard duplicates.
+ *
+ * <p>On PostgreSQL each run takes a transaction-scoped advisory lock first and an
+ * instance that finds it taken skips the run, so a single instance relays at a time;
+ * two relays would send the same rows twice and could reorder a demand's events.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    static final long LOCK_KEY = 0x5349474553490003L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final long BASE_BACKOFF_MS = 1_000L;
+    private static final long MAX_BACKOFF_MS = 300_000L;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    @Value("${app.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private boolean advisoryLock;
+
+    @PostConstruct
+    void detectDatabase() {
+        advisoryLock = isPostgres();
+        if (!advisoryLock) {
+            LOGGER.info("Outbox relay running without leader lock (not PostgreSQL)");
+        }
+    }
+
+    /**
+     * Sends one batch of due events and records the outcome of each one, in a transaction
+     * that holds the leader lock until the outcomes are saved.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:1000}")
+    public void relayPending() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (lock()) {
+                relayBatch();
+            } else {
+                LOGGER.debug("Outbox relay skipped: another instance holds the lock");
+            }
+        });
+    }
+
+    private void relayBatch() {
+        List<OutboxEvent> pending = outboxEventRepository
+            .findDue(OutboxStatus.PENDING, LocalDateTime.now(), Limit.of(batchSize));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Deque<OutboxEvent>> queues = groupByAggregate(pending);
+        List<OutboxEvent> processed = new ArrayList<>();
+        while (!queues.isEmpty()) {
+            processed.addAll(sendRound(queues));
+        }
+        outboxEventRepository.saveAll(processed);
+    }
+
+    /**
+     * Removes sent events older than the retention period.
+     */
+    @Scheduled(cron = "${app.outbox.purge-cron:0 0 3 * * *}")
+    @Transactional
+    public void purgeSent() {
+        int removed = outboxEventRepository.deleteByStatusAndSentAtBefore(
+            OutboxStatus.SENT, LocalDateTime.now().minusDays(retentionDays));
+        LOGGER.info("Purged {} sent outbox events", removed);
+    }
+
+    private Map<Long, Deque<OutboxEvent>> groupByAggregate(List<OutboxEvent> pending) {
+        Map<Long, Deque<OutboxEvent>> queues = new LinkedHashMap<>();
+        for (OutboxEvent event : pending) {
+            queues.computeIfAbsent(event.getAggregateId(), id -> new ArrayDeque<>()).add(event);
+        }
+        return queues;
+    }
+
+    /**
+     * Publishes the head event of every aggregate, then waits for all confirms.
+     * An aggregate whose event fails is dropped from this run to preserve ordering.
+     */
+    private List<OutboxEvent> sendRound(Map<Long, Deque<OutboxEvent>> queues) {
+        Map<OutboxEvent, CorrelationData> inFlight = new LinkedHashMap<>();
+        Iterator<Deque<OutboxEvent>> iterator = queues.values().iterator();
+        while (iterator.hasNext()) {
+            Deque<OutboxEvent> queue = iterator.next();
+            OutboxEvent event = queue.poll();
+            if (queue.isEmpty()) {
+                iterator.remove();
+            }
+            inFlight.put(event, send(event));
+        }
+
+        for (Map.Entry<OutboxEvent, CorrelationData> entry : inFlight.entrySet()) {
+            OutboxEvent event = entry.getKey();
+            String error = awaitConfirm(entry.getValue());
+            if (error == null) {
+                event.setStatus(OutboxStatus.SENT);
+                event.setSentAt(LocalDateTime.now());
+                event.setLastError(null);
+            } else {
+                scheduleRetry(event, error);
+                queues.remove(event.getAggregateId());
+            }
+        }
+        return new ArrayList<>(inFlight.keySet());
+    }
+
+    private CorrelationData send(OutboxEvent event) {
+        CorrelationData correlation = new CorrelationData(String.valueOf(event.getId()));
+        try {
+            DemandEvent payload = objectMapper.readValue(event.getPayload(), DemandEvent.class);
+            rabbitTemplate.convertAndSend(
+                RabbitMQConfig.EXCHANGE_NAME,
+                event.getRoutingKey(),
+                payload,
+                message -> {
+                    message.getMessageProperties().setMessageId(String.valueOf(event.getId()));
+                    return message;
+                },
+                correlation
+            );
+        } catch (Exception e) {
+            correlation.getFuture().completeExceptionally(e);
+        }
+        return correlation;
+    }
+
+    private String awaitConfirm(CorrelationData correlation) {
+        String error = null;
+        try {
+            CorrelationData.Confirm confirm = correlation.getFuture().get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+            if (!confirm.isAck()) {
+                error = "Broker nack: " + confirm.getReason();
+            } else if (correlation.getReturned() != null) {
+                error = "Message returned: " + correlation.getReturned().getReplyText();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "Interrupted while waiting for confirm";
+        } catch (ExecutionException e) {
+            error = String.valueOf(e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            error = "Timed out waiting for publisher confirm";
+        }
+        return error;
+    }
+
+    private void scheduleRetry(OutboxEvent event, String error) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxStatus.FAILED);
+            LOGGER.error("Giving up on outbox event {} after {} attempts: {}", event.getId(), attempts, error);
+            return;
+        }
+
+        long backoff = Math.min(BASE_BACKOFF_MS << Math.min(attempts - 1, 20), MAX_BACKOFF_MS);
+        event.setNextAttemptAt(LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(backoff)));
+        LOGGER.warn("Failed to relay outbox event {} (attempt {}): {}", event.getId(), attempts, error);
+    }
+
+    private boolean lock() {
+        return !advisoryLock || outboxEventRepository.tryAdvisoryXactLock(LOCK_KEY);
+    }
+
+    private boolean isPostgres() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (MetaDataAccessException e) {
+            LOGGER.warn("Could not identify the database: {}", e.getMessage());
+            return false;
+        }
+    }
+}
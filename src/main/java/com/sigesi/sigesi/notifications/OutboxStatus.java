@@ -0,0 +1,10 @@
+package com.sigesi.sigesi.notifications;
+
+/**
+ * Delivery state of an outbox event.
+ */
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
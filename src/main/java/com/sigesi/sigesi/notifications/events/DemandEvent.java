@@ -21,7 +21,7 @@ import lombok.NoArgsConstructor;
 public class DemandEvent {
 
     /**
-     * Event type: "assigned", "status_changed".
+     * Event type: "assigned", "status_changed", "due_soon", "overdue".
      */
     private String eventType;
 
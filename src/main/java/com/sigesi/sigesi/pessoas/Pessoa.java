@@ -12,6 +12,9 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -29,9 +32,11 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 @Audited
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_pessoa_cpf", columnNames = "cpf"))
 public class Pessoa {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pessoa_seq")
+  @SequenceGenerator(name = "pessoa_seq", sequenceName = "pessoa_seq", allocationSize = 50)
   private Long id;
 
   @NotNull
@@ -0,0 +1,183 @@
+package com.sigesi.sigesi.pessoas;
+
+import java.sql.DatabaseMetaData;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.sigesi.sigesi.config.CursorCodec;
+import com.sigesi.sigesi.config.CursorPageDTO;
+import com.sigesi.sigesi.pessoas.dtos.PessoaResponseDTO;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Busca de pessoas por nome ou CPF, usada no atendimento.
+ *
+ * <p>No PostgreSQL usa os indices pg_trgm/unaccent de {@code V3__pessoa_search.sql}: o nome
+ * e comparado sem acentos por prefixo, trecho ou semelhanca (tolera erros de digitacao) e
+ * ordenado por relevancia; o CPF e comparado so pelos digitos. O Flyway sempre aplica esse
+ * script no PostgreSQL; no H2 dos testes, que nao tem essas extensoes, usa uma consulta JPA
+ * equivalente, sem a semelhanca.
+ * A pagina seguinte e indicada por um cursor com o deslocamento, ja que a ordem e por relevancia.
+ */
+@Service
+public class PessoaBuscaService {
+
+  static final int DEFAULT_PAGE_SIZE = 20;
+  static final int MAX_PAGE_SIZE = 100;
+  static final int MIN_DIGITOS_CPF = 3;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PessoaBuscaService.class);
+  private static final String ACENTUADAS = "áàâãäéèêëíìîïóòôõöúùûüçñ";
+  private static final String SEM_ACENTO = "aaaaaeeeeiiiiooooouuuucn";
+
+  @Autowired
+  private PessoaRepository pessoaRepository;
+
+  @Autowired
+  private PessoaMapper pessoaMapper;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @PersistenceContext
+  private EntityManager em;
+
+  private boolean trigramas;
+
+  @PostConstruct
+  void detectarBanco() {
+    trigramas = isPostgres();
+  }
+
+  /**
+   * Busca por nome ou, quando o termo tem apenas digitos e pontuacao de CPF, por CPF.
+   */
+  @Transactional(readOnly = true)
+  public CursorPageDTO<PessoaResponseDTO> buscar(String q, String cursor, Integer size) {
+    String termo = normalizar(q);
+    if (termo.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe o nome ou CPF a buscar");
+    }
+    int limite = normalizePageSize(size);
+    Long deslocamento = CursorCodec.decode(cursor);
+    int offset = deslocamento == null ? 0 : deslocamento.intValue();
+
+    List<Pessoa> pessoas = consultar(termo, offset, limite + 1);
+    boolean hasNext = pessoas.size() > limite;
+    List<PessoaResponseDTO> items = (hasNext ? pessoas.subList(0, limite) : pessoas).stream()
+        .map(pessoaMapper::toDto)
+        .toList();
+
+    return CursorPageDTO.<PessoaResponseDTO>builder()
+        .items(items)
+        .nextCursor(hasNext ? CursorCodec.encode((long) offset + limite) : null)
+        .hasNext(hasNext)
+        .build();
+  }
+
+  private List<Pessoa> consultar(String termo, int offset, int limite) {
+    String digitos = digitosCpf(termo);
+    if (!trigramas) {
+      return digitos != null
+          ? buscarCpfJpa(digitos, offset, limite)
+          : buscarNomeJpa(escaparLike(termo), offset, limite);
+    }
+    return digitos != null
+        ? pessoaRepository.buscarPorCpf(digitos, limite, offset)
+        : pessoaRepository.buscarPorNome(termo, escaparLike(termo), limite, offset);
+  }
+
+  private List<Pessoa> buscarNomeJpa(String padrao, int offset, int limite) {
+    CriteriaBuilder cb = em.getCriteriaBuilder();
+    CriteriaQuery<Pessoa> query = cb.createQuery(Pessoa.class);
+    Root<Pessoa> root = query.from(Pessoa.class);
+    Expression<String> nome = cb.function("translate", String.class,
+        cb.lower(root.get("nome")), cb.literal(ACENTUADAS), cb.literal(SEM_ACENTO));
+
+    query.where(cb.like(nome, "%" + padrao + "%", '\\'))
+        .orderBy(
+            cb.asc(cb.<Integer>selectCase().when(cb.like(nome, padrao + "%", '\\'), 0).otherwise(1)),
+            cb.asc(nome),
+            cb.asc(root.get("id")));
+    return em.createQuery(query).setFirstResult(offset).setMaxResults(limite).getResultList();
+  }
+
+  private List<Pessoa> buscarCpfJpa(String digitos, int offset, int limite) {
+    CriteriaBuilder cb = em.getCriteriaBuilder();
+    CriteriaQuery<Pessoa> query = cb.createQuery(Pessoa.class);
+    Root<Pessoa> root = query.from(Pessoa.class);
+    Expression<String> cpf = cb.function("replace", String.class,
+        cb.function("replace", String.class, root.get("cpf"), cb.literal("."), cb.literal("")),
+        cb.literal("-"), cb.literal(""));
+
+    query.where(cb.like(cpf, digitos + "%"))
+        .orderBy(cb.asc(cpf), cb.asc(root.get("id")));
+    return em.createQuery(query).setFirstResult(offset).setMaxResults(limite).getResultList();
+  }
+
+  /**
+   * Minusculas, sem acentos e com espacos simples.
+   */
+  static String normalizar(String texto) {
+    if (texto == null) {
+      return "";
+    }
+    return Normalizer.normalize(texto, Normalizer.Form.NFD)
+        .replaceAll("\\p{M}", "")
+        .toLowerCase(Locale.ROOT)
+        .replaceAll("\\s+", " ")
+        .trim();
+  }
+
+  /**
+   * Digitos do termo quando ele parece um CPF (completo ou o inicio), senao null.
+   */
+  static String digitosCpf(String termo) {
+    if (!termo.matches("[0-9.\\- ]+")) {
+      return null;
+    }
+    String digitos = termo.replaceAll("[^0-9]", "");
+    return digitos.length() >= MIN_DIGITOS_CPF ? digitos : null;
+  }
+
+  private static String escaparLike(String termo) {
+    return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
+  private boolean isPostgres() {
+    try {
+      String produto = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+      return "PostgreSQL".equals(produto);
+    } catch (MetaDataAccessException e) {
+      LOGGER.warn("Nao foi possivel identificar o banco: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  private int normalizePageSize(Integer size) {
+    if (size == null || size < 1) {
+      return DEFAULT_PAGE_SIZE;
+    }
+    return Math.min(size, MAX_PAGE_SIZE);
+  }
+}
@@ -1,9 +1,13 @@
 package com.sigesi.sigesi.pessoas;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,11 +19,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.sigesi.sigesi.config.CursorPageDTO;
 import com.sigesi.sigesi.pessoas.dtos.PessoaCreateDTO;
+import com.sigesi.sigesi.pessoas.dtos.PessoaImportStatusDTO;
 import com.sigesi.sigesi.pessoas.dtos.PessoaResponseDTO;
 import com.sigesi.sigesi.pessoas.dtos.PessoaUpdateDTO;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 /**
@@ -33,6 +40,12 @@ public class PessoaController {
   @Autowired
   private PessoaService pessoaService;
 
+  @Autowired
+  private PessoaBuscaService pessoaBuscaService;
+
+  @Autowired
+  private PessoaImportService pessoaImportService;
+
   @GetMapping("/")
   public ResponseEntity<List<PessoaResponseDTO>> listAll(
       @RequestParam(required = false) String nome,
@@ -43,6 +56,35 @@ public class PessoaController {
     return ResponseEntity.ok(pessoas);
   }
 
+  /**
+   * Busca por nome (sem acentos, por relevancia, tolerando erros de digitacao) ou CPF.
+   */
+  @GetMapping("/busca")
+  public ResponseEntity<CursorPageDTO<PessoaResponseDTO>> buscar(
+      @RequestParam String q,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    return ResponseEntity.ok(pessoaBuscaService.buscar(q, cursor, size));
+  }
+
+  /**
+   * Importa pessoas e enderecos de um CSV (text/csv) ou NDJSON (application/x-ndjson)
+   * enviado como corpo da requisicao. Responde 202; o progresso fica em /import/{id}.
+   */
+  @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+  public ResponseEntity<PessoaImportStatusDTO> importar(HttpServletRequest request) throws IOException {
+    PessoaImportStatusDTO job = pessoaImportService.iniciar(
+        request.getInputStream(), MediaType.parseMediaType(request.getContentType()));
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/pessoas/import/" + job.getId()))
+        .body(job);
+  }
+
+  @GetMapping("/import/{id}")
+  public ResponseEntity<PessoaImportStatusDTO> getImportStatus(@PathVariable UUID id) {
+    return ResponseEntity.ok(pessoaImportService.getStatus(id));
+  }
+
   @GetMapping("/{id}")
   public ResponseEntity<PessoaResponseDTO> getPessoaById(@PathVariable Long id) {
     PessoaResponseDTO pessoa = pessoaService.getPessoaById(id);
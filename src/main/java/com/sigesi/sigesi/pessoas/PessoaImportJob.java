@@ -0,0 +1,96 @@
+package com.sigesi.sigesi.pessoas;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sigesi.sigesi.pessoas.dtos.PessoaImportStatusDTO;
+
+/**
+ * Estado de uma importacao. Atualizado pela thread do job e lido pelas consultas de status.
+ */
+public class PessoaImportJob {
+
+  static final int MAX_ERROS = 1000;
+
+  private final UUID id = UUID.randomUUID();
+  private final LocalDateTime criadoEm = LocalDateTime.now();
+  private final AtomicLong processadas = new AtomicLong();
+  private final AtomicLong inseridas = new AtomicLong();
+  private final AtomicLong duplicadas = new AtomicLong();
+  private final AtomicLong comErro = new AtomicLong();
+  private final List<String> erros = new ArrayList<>();
+  private volatile Situacao situacao = Situacao.PENDENTE;
+  private volatile String mensagem;
+  private volatile LocalDateTime concluidoEm;
+
+  UUID getId() {
+    return id;
+  }
+
+  boolean isFinalizado() {
+    return situacao == Situacao.CONCLUIDA || situacao == Situacao.FALHOU;
+  }
+
+  void iniciar() {
+    situacao = Situacao.EM_ANDAMENTO;
+  }
+
+  void registrar(long inseridasLote, long duplicadasLote) {
+    processadas.addAndGet(inseridasLote + duplicadasLote);
+    inseridas.addAndGet(inseridasLote);
+    duplicadas.addAndGet(duplicadasLote);
+  }
+
+  void erro(long linha, String motivo) {
+    processadas.incrementAndGet();
+    comErro.incrementAndGet();
+    synchronized (erros) {
+      if (erros.size() < MAX_ERROS) {
+        erros.add("Linha " + linha + ": " + motivo);
+      }
+    }
+  }
+
+  void concluir() {
+    concluidoEm = LocalDateTime.now();
+    situacao = Situacao.CONCLUIDA;
+  }
+
+  void falhar(String motivo) {
+    mensagem = motivo;
+    concluidoEm = LocalDateTime.now();
+    situacao = Situacao.FALHOU;
+  }
+
+  PessoaImportStatusDTO toDto() {
+    List<String> copia;
+    synchronized (erros) {
+      copia = List.copyOf(erros);
+    }
+    return PessoaImportStatusDTO.builder()
+        .id(id)
+        .situacao(situacao)
+        .linhasProcessadas(processadas.get())
+        .inseridas(inseridas.get())
+        .duplicadas(duplicadas.get())
+        .comErro(comErro.get())
+        .erros(copia)
+        .mensagem(mensagem)
+        .criadoEm(criadoEm)
+        .concluidoEm(concluidoEm)
+        .build();
+  }
+
+  /**
+   * Etapas de uma importacao.
+   */
+  public enum Situacao {
+    PENDENTE,
+    EM_ANDAMENTO,
+    CONCLUIDA,
+    FALHOU
+  }
+}
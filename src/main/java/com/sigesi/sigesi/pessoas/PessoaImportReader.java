@@ -0,0 +1,194 @@
+package com.sigesi.sigesi.pessoas;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Le um arquivo de importacao de pessoas linha a linha, sem carrega-lo inteiro.
+ *
+ * <p>CSV: a primeira linha e o cabecalho com os nomes das colunas; o separador (virgula ou
+ * ponto e virgula) vem do cabecalho e campos entre aspas podem conter o separador, aspas
+ * duplicadas e quebras de linha. NDJSON: um objeto JSON por linha. Nos dois formatos as
+ * colunas sao identificadas pelo nome, sem diferenciar maiusculas.
+ */
+class PessoaImportReader implements Closeable {
+
+  private static final ObjectMapper JSON = new ObjectMapper();
+
+  private final BufferedReader reader;
+  private final Formato formato;
+  private List<String> cabecalho;
+  private char separador;
+  private long numeroLinha;
+
+  PessoaImportReader(Reader reader, Formato formato) {
+    this.reader = new BufferedReader(reader);
+    this.formato = formato;
+  }
+
+  /**
+   * Le ate {@code tamanho} registros; lista vazia indica o fim do arquivo.
+   */
+  List<Linha> proximoLote(int tamanho) throws IOException {
+    List<Linha> lote = new ArrayList<>(tamanho);
+    Linha linha = proxima();
+    while (linha != null) {
+      lote.add(linha);
+      linha = lote.size() < tamanho ? proxima() : null;
+    }
+    return lote;
+  }
+
+  private Linha proxima() throws IOException {
+    String texto = reader.readLine();
+    numeroLinha++;
+    while (texto != null && texto.isBlank()) {
+      texto = reader.readLine();
+      numeroLinha++;
+    }
+    if (texto != null && formato == Formato.CSV && cabecalho == null) {
+      lerCabecalho(texto);
+      return proxima();
+    }
+    if (texto == null) {
+      return null;
+    }
+    return formato == Formato.NDJSON ? lerJson(texto, numeroLinha) : lerCsv(texto, numeroLinha);
+  }
+
+  private void lerCabecalho(String texto) throws IOException {
+    String semBom = texto.startsWith("\uFEFF") ? texto.substring(1) : texto;
+    separador = semBom.indexOf(';') >= 0 ? ';' : ',';
+    List<String> colunas = separar(semBom);
+    if (colunas == null) {
+      throw new IOException("Cabecalho CSV com aspas sem fechamento");
+    }
+    cabecalho = new ArrayList<>();
+    for (String coluna : colunas) {
+      cabecalho.add(coluna.trim().toLowerCase(Locale.ROOT));
+    }
+  }
+
+  private Linha lerCsv(String texto, long numero) throws IOException {
+    List<String> valores = separar(texto);
+    if (valores == null) {
+      return new Linha(numero, Map.of(), "aspas sem fechamento");
+    }
+    if (valores.size() != cabecalho.size()) {
+      return new Linha(numero, Map.of(),
+          "esperadas " + cabecalho.size() + " colunas, encontradas " + valores.size());
+    }
+    Map<String, String> campos = new HashMap<>();
+    for (int i = 0; i < valores.size(); i++) {
+      campos.put(cabecalho.get(i), valores.get(i));
+    }
+    return new Linha(numero, campos, null);
+  }
+
+  /**
+   * Divide um registro CSV, lendo as linhas seguintes enquanto houver aspas abertas.
+   * Retorna null quando o arquivo termina dentro de aspas.
+   */
+  private List<String> separar(String primeira) throws IOException {
+    List<String> valores = new ArrayList<>();
+    StringBuilder atual = new StringBuilder();
+    boolean aspas = false;
+    String texto = primeira;
+    while (texto != null) {
+      int i = 0;
+      while (i < texto.length()) {
+        char c = texto.charAt(i);
+        boolean aspaDupla = aspas && c == '"' && i + 1 < texto.length() && texto.charAt(i + 1) == '"';
+        if (aspaDupla) {
+          atual.append('"');
+          i++;
+        } else if (c == '"') {
+          aspas = !aspas;
+        } else if (c == separador && !aspas) {
+          valores.add(atual.toString());
+          atual.setLength(0);
+        } else {
+          atual.append(c);
+        }
+        i++;
+      }
+      if (!aspas) {
+        valores.add(atual.toString());
+        return valores;
+      }
+      atual.append('\n');
+      texto = reader.readLine();
+      numeroLinha++;
+    }
+    return null;
+  }
+
+  private static Linha lerJson(String texto, long numero) {
+    try {
+      JsonNode node = JSON.readTree(texto);
+      if (!node.isObject()) {
+        return new Linha(numero, Map.of(), "esperado um objeto JSON");
+      }
+      Map<String, String> campos = new HashMap<>();
+      node.properties().forEach(campo -> campos.put(
+          campo.getKey().toLowerCase(Locale.ROOT),
+          campo.getValue().isNull() ? null : campo.getValue().asText()));
+      return new Linha(numero, campos, null);
+    } catch (JsonProcessingException e) {
+      return new Linha(numero, Map.of(), "JSON invalido");
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  /**
+   * Formatos aceitos, pelo Content-Type da requisicao.
+   */
+  enum Formato {
+    CSV, NDJSON;
+
+    static Formato of(MediaType contentType) {
+      if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+        return NDJSON;
+      }
+      if (contentType != null && contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+        return CSV;
+      }
+      throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+          "Envie o arquivo como text/csv ou application/x-ndjson");
+    }
+  }
+
+  /**
+   * Registro lido do arquivo.
+   *
+   * @param numero linha do arquivo onde o registro comeca
+   * @param campos valores por nome de coluna, em minusculas
+   * @param erro problema de leitura do registro, ou null
+   */
+  record Linha(long numero, Map<String, String> campos, String erro) {
+
+    String campo(String nome) {
+      String valor = campos.get(nome);
+      return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+  }
+}
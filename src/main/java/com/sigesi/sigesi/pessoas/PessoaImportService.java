@@ -0,0 +1,249 @@
+package com.sigesi.sigesi.pessoas;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sigesi.sigesi.config.NotFoundException;
+import com.sigesi.sigesi.config.ValidationLimits;
+import com.sigesi.sigesi.enderecos.Endereco;
+import com.sigesi.sigesi.pessoas.PessoaImportReader.Formato;
+import com.sigesi.sigesi.pessoas.PessoaImportReader.Linha;
+import com.sigesi.sigesi.pessoas.dtos.PessoaImportStatusDTO;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Importacao em massa de pessoas (e seus enderecos) a partir de CSV ou NDJSON.
+ *
+ * <p>O corpo da requisicao e copiado para um arquivo temporario e processado em segundo
+ * plano, um job por vez. Cada lote de {@code chunk-size} linhas roda em uma transacao:
+ * os CPFs do lote sao conferidos com uma unica consulta e as novas pessoas sao gravadas
+ * com insert em batch (ids por sequence). Linhas invalidas ou repetidas nao interrompem
+ * o job e aparecem no status. O status fica apenas na instancia que recebeu o arquivo.
+ */
+@Service
+public class PessoaImportService {
+
+  static final int MAX_JOBS_RETIDOS = 100;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PessoaImportService.class);
+  private static final Map<String, SexoEnum> SEXO_ABREVIADO =
+      Map.of("M", SexoEnum.MASCULINO, "F", SexoEnum.FEMININO, "O", SexoEnum.OUTRO);
+
+  @Autowired
+  private PessoaRepository pessoaRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @PersistenceContext
+  private EntityManager em;
+
+  @Value("${app.pessoas.import.chunk-size:1000}")
+  private int chunkSize;
+
+  private final Map<UUID, PessoaImportJob> jobs = new ConcurrentHashMap<>();
+  private ExecutorService executor;
+
+  @PostConstruct
+  void startExecutor() {
+    executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "pessoa-import");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  void stopExecutor() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Recebe o arquivo e agenda a importacao. O job roda com o usuario da requisicao,
+   * que fica registrado nas revisoes de auditoria.
+   */
+  public PessoaImportStatusDTO iniciar(InputStream body, MediaType contentType) throws IOException {
+    Formato formato = Formato.of(contentType);
+    Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+
+    Path arquivo = Files.createTempFile("pessoas-import-", ".tmp");
+    try {
+      Files.copy(body, arquivo, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      Files.deleteIfExists(arquivo);
+      throw e;
+    }
+
+    descartarFinalizados();
+    PessoaImportJob job = new PessoaImportJob();
+    jobs.put(job.getId(), job);
+    executor.execute(new DelegatingSecurityContextRunnable(() -> executar(job, arquivo, formato, charset)));
+    return job.toDto();
+  }
+
+  public PessoaImportStatusDTO getStatus(UUID id) {
+    PessoaImportJob job = jobs.get(id);
+    if (job == null) {
+      throw new NotFoundException("Importação não encontrada com ID " + id);
+    }
+    return job.toDto();
+  }
+
+  void executar(PessoaImportJob job, Path arquivo, Formato formato, Charset charset) {
+    job.iniciar();
+    try (PessoaImportReader reader = new PessoaImportReader(
+        new InputStreamReader(Files.newInputStream(arquivo), charset), formato)) {
+      List<Linha> lote = reader.proximoLote(chunkSize);
+      while (!lote.isEmpty()) {
+        importarLote(job, lote);
+        lote = reader.proximoLote(chunkSize);
+      }
+      job.concluir();
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Importacao de pessoas {} interrompida: {}", job.getId(), e.getMessage());
+      job.falhar(e.getMessage());
+    } finally {
+      try {
+        Files.deleteIfExists(arquivo);
+      } catch (IOException e) {
+        LOGGER.warn("Nao foi possivel remover {}: {}", arquivo, e.getMessage());
+      }
+    }
+  }
+
+  private void importarLote(PessoaImportJob job, List<Linha> lote) {
+    List<Linha> validas = new ArrayList<>(lote.size());
+    for (Linha linha : lote) {
+      String erro = linha.erro() != null ? linha.erro() : validar(linha);
+      if (erro != null) {
+        job.erro(linha.numero(), erro);
+      } else {
+        validas.add(linha);
+      }
+    }
+
+    try {
+      TransactionTemplate tx = new TransactionTemplate(transactionManager);
+      long inseridas = validas.isEmpty() ? 0 : tx.execute(status -> gravar(validas));
+      job.registrar(inseridas, validas.size() - inseridas);
+    } catch (RuntimeException e) {
+      LOGGER.warn("Falha ao gravar lote da importacao {}: {}", job.getId(), e.getMessage());
+      validas.forEach(linha -> job.erro(linha.numero(), "lote nao gravado: " + e.getMessage()));
+    }
+  }
+
+  /**
+   * Grava as linhas cujo CPF ainda nao existe (no banco ou antes no mesmo lote).
+   * Retorna quantas foram inseridas.
+   */
+  private long gravar(List<Linha> validas) {
+    Set<String> cpfs = validas.stream().map(linha -> linha.campo("cpf")).collect(Collectors.toSet());
+    Set<String> vistos = new HashSet<>(pessoaRepository.findCpfsExistentes(cpfs));
+
+    long inseridas = 0;
+    for (Linha linha : validas) {
+      if (vistos.add(linha.campo("cpf"))) {
+        Endereco endereco = endereco(linha);
+        if (endereco != null) {
+          em.persist(endereco);
+        }
+        em.persist(Pessoa.builder()
+            .nome(linha.campo("nome"))
+            .cpf(linha.campo("cpf"))
+            .sexo(sexo(linha.campo("sexo")))
+            .endereco(endereco)
+            .build());
+        inseridas++;
+      }
+    }
+    return inseridas;
+  }
+
+  private static Endereco endereco(Linha linha) {
+    if (linha.campo("logradouro") == null && linha.campo("numero") == null && linha.campo("bairro") == null) {
+      return null;
+    }
+    return Endereco.builder()
+        .logradouro(linha.campo("logradouro"))
+        .numero(linha.campo("numero"))
+        .bairro(linha.campo("bairro"))
+        .referencia(linha.campo("referencia"))
+        .build();
+  }
+
+  /**
+   * Mesmas regras do cadastro; retorna os problemas da linha ou null.
+   */
+  static String validar(Linha linha) {
+    List<String> problemas = new ArrayList<>();
+    if (!preenchido(linha.campo("nome"), ValidationLimits.SHORT_TEXT)) {
+      problemas.add("nome obrigatorio, com ate " + ValidationLimits.SHORT_TEXT + " caracteres");
+    }
+    if (!preenchido(linha.campo("cpf"), ValidationLimits.CPF)) {
+      problemas.add("cpf obrigatorio, com ate " + ValidationLimits.CPF + " caracteres");
+    }
+    if (sexo(linha.campo("sexo")) == null) {
+      problemas.add("sexo deve ser MASCULINO, FEMININO ou OUTRO");
+    }
+    boolean enderecoCompleto = preenchido(linha.campo("logradouro"), ValidationLimits.ADDRESS)
+        && preenchido(linha.campo("numero"), ValidationLimits.CODE)
+        && preenchido(linha.campo("bairro"), ValidationLimits.ADDRESS);
+    if (endereco(linha) != null && !enderecoCompleto) {
+      problemas.add("endereco exige logradouro, numero e bairro");
+    }
+    return problemas.isEmpty() ? null : String.join("; ", problemas);
+  }
+
+  private static boolean preenchido(String valor, int maximo) {
+    return valor != null && valor.length() <= maximo;
+  }
+
+  static SexoEnum sexo(String valor) {
+    if (valor == null) {
+      return null;
+    }
+    String normalizado = valor.toUpperCase(Locale.ROOT);
+    return Arrays.stream(SexoEnum.values())
+        .filter(sexo -> sexo.name().equals(normalizado))
+        .findFirst()
+        .orElse(SEXO_ABREVIADO.get(normalizado));
+  }
+
+  private void descartarFinalizados() {
+    if (jobs.size() >= MAX_JOBS_RETIDOS) {
+      jobs.values().removeIf(PessoaImportJob::isFinalizado);
+    }
+  }
+}
@@ -1,10 +1,13 @@
 package com.sigesi.sigesi.pessoas;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -14,4 +17,35 @@ public interface PessoaRepository extends JpaRepository<Pessoa, Long>, JpaSpecif
   boolean existsByCpf(String cpf);
 
   List<Pessoa> findAllByOrderByIdAsc();
+
+  @Query("SELECT p.cpf FROM Pessoa p WHERE p.cpf IN :cpfs")
+  List<String> findCpfsExistentes(@Param("cpfs") Collection<String> cpfs);
+
+  /**
+   * Nome sem acento por trecho ou semelhanca de palavras (indice gin_trgm), com quem comeca
+   * pelo termo primeiro e depois por semelhanca. Apenas PostgreSQL.
+   */
+  @Query(value = """
+      SELECT p.* FROM pessoa p
+       WHERE sigesi_unaccent(lower(p.nome)) LIKE '%' || :padrao || '%'
+          OR :termo <% sigesi_unaccent(lower(p.nome))
+       ORDER BY sigesi_unaccent(lower(p.nome)) LIKE :padrao || '%' DESC,
+                word_similarity(:termo, sigesi_unaccent(lower(p.nome))) DESC,
+                p.id
+       LIMIT :limite OFFSET :offset
+      """, nativeQuery = true)
+  List<Pessoa> buscarPorNome(@Param("termo") String termo, @Param("padrao") String padrao,
+      @Param("limite") int limite, @Param("offset") int offset);
+
+  /**
+   * CPF pelo prefixo dos digitos, ignorando a pontuacao gravada. Apenas PostgreSQL.
+   */
+  @Query(value = """
+      SELECT p.* FROM pessoa p
+       WHERE regexp_replace(p.cpf, '[^0-9]', '', 'g') LIKE :digitos || '%'
+       ORDER BY regexp_replace(p.cpf, '[^0-9]', '', 'g'), p.id
+       LIMIT :limite OFFSET :offset
+      """, nativeQuery = true)
+  List<Pessoa> buscarPorCpf(@Param("digitos") String digitos, @Param("limite") int limite,
+      @Param("offset") int offset);
 }
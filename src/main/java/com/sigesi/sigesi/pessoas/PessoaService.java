@@ -4,9 +4,11 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import com.sigesi.sigesi.config.ConflictException;
+import com.sigesi.sigesi.config.ConstraintViolations;
 import com.sigesi.sigesi.config.NotFoundException;
 import com.sigesi.sigesi.enderecos.Endereco;
 import com.sigesi.sigesi.enderecos.EnderecoService;
@@ -17,6 +19,8 @@ import com.sigesi.sigesi.pessoas.dtos.PessoaUpdateDTO;
 @Service
 public class PessoaService {
 
+  private static final String CPF_UNICO = "uk_pessoa_cpf";
+
   @Autowired
   private PessoaRepository pessoaRepository;
 
@@ -81,7 +85,7 @@ public class PessoaService {
     Pessoa pessoa = pessoaMapper.toEntity(pessoaDTO);
     pessoa.setEndereco(endereco);
 
-    return pessoaRepository.save(pessoa);
+    return salvar(pessoa);
   }
 
   public PessoaResponseDTO updatePessoa(Long id, PessoaUpdateDTO pessoaDTO) {
@@ -94,7 +98,7 @@ public class PessoaService {
       pessoa.setEndereco(endereco);
     }
 
-    pessoaRepository.save(pessoa);
+    salvar(pessoa);
     return pessoaMapper.toDto(pessoa);
   }
 
@@ -108,6 +112,22 @@ public class PessoaService {
     return pessoaRepository.findById(id).orElseThrow(() -> new NotFoundException("pessoa não encontrada com id " + id));
   }
 
+  /**
+   * Grava a pessoa; o indice unico de CPF barra o cadastro concorrente que passou pela
+   * verificacao previa. O flush e imediato porque o id vem de sequence e o insert so iria
+   * ao banco no commit, longe deste tratamento; outras violacoes seguem como estao.
+   */
+  private Pessoa salvar(Pessoa pessoa) {
+    try {
+      return pessoaRepository.saveAndFlush(pessoa);
+    } catch (DataIntegrityViolationException e) {
+      if (ConstraintViolations.isViolationOf(e, CPF_UNICO)) {
+        throw new ConflictException("CPF já cadastrado", e);
+      }
+      throw e;
+    }
+  }
+
   public void checkPessoaConflict(String cpf) {
     if (pessoaRepository.existsByCpf(cpf)) {
       throw new ConflictException("CPF já cadastrado");
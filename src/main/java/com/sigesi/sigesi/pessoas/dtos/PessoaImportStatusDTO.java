@@ -0,0 +1,34 @@
+package com.sigesi.sigesi.pessoas.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import com.sigesi.sigesi.pessoas.PessoaImportJob;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progresso de uma importacao de pessoas.
+ * {@code erros} traz apenas as primeiras falhas; {@code comErro} conta todas.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PessoaImportStatusDTO {
+
+  private UUID id;
+  private PessoaImportJob.Situacao situacao;
+  private long linhasProcessadas;
+  private long inseridas;
+  private long duplicadas;
+  private long comErro;
+  private List<String> erros;
+  private String mensagem;
+  private LocalDateTime criadoEm;
+  private LocalDateTime concluidoEm;
+}
@@ -1,18 +1,44 @@
 package com.sigesi.sigesi.solicitacoes;
 
 import java.util.List;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repositório para Solicitacao.
+ * As listagens carregam autor, solicitante e local no mesmo SELECT; anexos usam batch fetch.
  */
 @Repository
 public interface SolicitacaoRepository extends JpaRepository<Solicitacao, Long> {
 
+  @EntityGraph(attributePaths = {"autor", "solicitante", "local"})
   List<Solicitacao> findAllByOrderByIdAsc();
 
-  List<Solicitacao> findByAutorIdOrderByDataDesc(Long autorId);
+  @EntityGraph(attributePaths = {"autor", "solicitante", "local"})
+  @Query("select s from Solicitacao s where s.autor.id = :autorId order by s.data desc")
+  List<Solicitacao> findByAutorIdOrderByDataDesc(@Param("autorId") Long autorId);
 
+  @EntityGraph(attributePaths = {"autor", "solicitante", "local"})
   List<Solicitacao> findByLocalIdOrderByDataDesc(Long localId);
+
+  /**
+   * Total de solicitacoes por status e assunto, para o dashboard.
+   */
+  @Query("select s.status as status, s.assunto as assunto, count(s) as total"
+      + " from Solicitacao s group by s.status, s.assunto")
+  List<TotalPorStatusAssunto> countGroupByStatusAndAssunto();
+
+  /**
+   * Linha de {@link #countGroupByStatusAndAssunto()}.
+   */
+  interface TotalPorStatusAssunto {
+    SolicitacaoStatus getStatus();
+
+    SolicitacaoAssunto getAssunto();
+
+    long getTotal();
+  }
 }
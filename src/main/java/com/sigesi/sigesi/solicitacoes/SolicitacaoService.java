@@ -3,6 +3,8 @@ package com.sigesi.sigesi.solicitacoes;
 import com.sigesi.sigesi.arquivos.ArquivoService;
 import com.sigesi.sigesi.config.ConflictException;
 import com.sigesi.sigesi.config.NotFoundException;
+import com.sigesi.sigesi.dashboard.DashboardService;
+import com.sigesi.sigesi.dashboard.SolicitacaoResumo;
 import com.sigesi.sigesi.enderecos.Endereco;
 import com.sigesi.sigesi.enderecos.EnderecoService;
 import com.sigesi.sigesi.pessoas.Pessoa;
@@ -18,6 +20,7 @@ import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
@@ -44,6 +47,9 @@ public class SolicitacaoService {
   @Autowired
   private ArquivoService arquivoService;
 
+  @Autowired
+  private DashboardService dashboardService;
+
   public List<SolicitacaoResponseDTO> getAll(Usuario usuario) {
     List<Solicitacao> solicitacoes;
 
@@ -69,6 +75,7 @@ public class SolicitacaoService {
     return createSolicitacao(dto, null);
   }
 
+  @Transactional
   public SolicitacaoResponseDTO createSolicitacao(SolicitacaoCreateDTO dto, Usuario usuarioAutenticado) {
     if (dto.getAutorId() == null && usuarioAutenticado == null) {
       throw new ResponseStatusException(
@@ -106,6 +113,7 @@ public class SolicitacaoService {
     }
 
     Solicitacao saved = solicitacaoRepository.save(entity);
+    dashboardService.solicitacaoAlterada(null, SolicitacaoResumo.of(saved));
     return solicitacaoMapper.toDto(saved);
   }
 
@@ -131,17 +139,22 @@ public class SolicitacaoService {
     return pessoa;
   }
 
+  @Transactional
   public SolicitacaoResponseDTO updateSolicitacao(Long id, SolicitacaoUpdateDTO dto) {
     Solicitacao solicitacao = this.getSolicitacaoEntityById(id);
+    SolicitacaoResumo antes = SolicitacaoResumo.of(solicitacao);
 
     solicitacaoMapper.updateFromDto(dto, solicitacao);
     Solicitacao updated = solicitacaoRepository.save(solicitacao);
+    dashboardService.solicitacaoAlterada(antes, SolicitacaoResumo.of(updated));
     return solicitacaoMapper.toDto(updated);
   }
 
+  @Transactional
   public void deleteSolicitacao(Long id) {
     Solicitacao solicitacao = this.getSolicitacaoEntityById(id);
     solicitacaoRepository.delete(solicitacao);
+    dashboardService.solicitacaoAlterada(SolicitacaoResumo.of(solicitacao), null);
   }
 
   public Solicitacao getSolicitacaoEntityById(Long id) {
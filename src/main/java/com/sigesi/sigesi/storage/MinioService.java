@@ -1,17 +1,34 @@
 package com.sigesi.sigesi.storage;
 
 import io.minio.BucketExistsArgs;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
 import io.minio.GetObjectArgs;
 import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.ListObjectsArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
+import io.minio.ObjectWriteArgs;
+import io.minio.PostPolicy;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
+import io.minio.Result;
 import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
+import io.minio.messages.Item;
 import java.io.InputStream;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -22,14 +39,22 @@ import org.springframework.web.multipart.MultipartFile;
 @Service
 public class MinioService {
 
+  private static final String NO_SUCH_KEY = "NoSuchKey";
+
   private final MinioClient minioClient;
 
+  private final MinioClient presignClient;
+
   @Value("${minio.bucket-name}")
   private String bucketName;
 
+  @Value("${minio.public-endpoint:${minio.endpoint}}")
+  private String publicEndpoint;
+
   @Autowired
-  public MinioService(MinioClient minioClient) {
+  public MinioService(MinioClient minioClient, @Qualifier("presignMinioClient") MinioClient presignClient) {
     this.minioClient = minioClient;
+    this.presignClient = presignClient;
   }
 
   /**
@@ -74,6 +99,48 @@ public class MinioService {
     }
   }
 
+  /**
+   * Upload a stream to MinIO without knowing or buffering the whole content.
+   * The client sends multipart parts of the minimum size, so only one part is held at a time.
+   *
+   * @param size content length, or -1 when unknown
+   */
+  public String uploadStream(InputStream inputStream, long size, String contentType, String objectName) {
+    try {
+      minioClient.putObject(
+          PutObjectArgs.builder()
+              .bucket(bucketName)
+              .object(objectName)
+              .stream(inputStream, size, ObjectWriteArgs.MIN_MULTIPART_SIZE)
+              .contentType(contentType)
+              .build()
+      );
+      return objectName;
+    } catch (Exception e) {
+      throw new StorageException("Não foi possível enviar o arquivo", e);
+    }
+  }
+
+  /**
+   * Copy an object inside the bucket (server side, no data goes through the application).
+   */
+  public void copyFile(String sourceObject, String targetObject) {
+    try {
+      minioClient.copyObject(
+          CopyObjectArgs.builder()
+              .bucket(bucketName)
+              .object(targetObject)
+              .source(CopySource.builder()
+                  .bucket(bucketName)
+                  .object(sourceObject)
+                  .build())
+              .build()
+      );
+    } catch (Exception e) {
+      throw new StorageException("Não foi possível copiar o arquivo", e);
+    }
+  }
+
   /**
    * Download file from MinIO.
    */
@@ -90,12 +157,98 @@ public class MinioService {
     }
   }
 
+  /**
+   * Download {@code length} bytes of the object starting at {@code offset}.
+   */
+  public InputStream downloadFile(String objectName, long offset, long length) {
+    try {
+      return minioClient.getObject(
+          GetObjectArgs.builder()
+              .bucket(bucketName)
+              .object(objectName)
+              .offset(offset)
+              .length(length)
+              .build()
+      );
+    } catch (Exception e) {
+      throw new StorageException("Não foi possível baixar o arquivo", e);
+    }
+  }
+
+  /**
+   * Read the object's ETag, size and content type (HEAD request, no content).
+   */
+  public ObjectStat statFile(String objectName) {
+    try {
+      StatObjectResponse stat = minioClient.statObject(
+          StatObjectArgs.builder()
+              .bucket(bucketName)
+              .object(objectName)
+              .build()
+      );
+      return new ObjectStat(stat.etag(), stat.size(), stat.contentType());
+    } catch (Exception e) {
+      throw new StorageException("Não foi possível consultar o arquivo", e);
+    }
+  }
+
+  /**
+   * Size and modification time of the object, or empty when there is no such object.
+   * Unlike {@link #fileExists}, any other failure is thrown, so an unreachable MinIO is
+   * never taken for a missing object.
+   */
+  public Optional<StoredObject> findObject(String objectName) {
+    try {
+      StatObjectResponse stat = minioClient.statObject(
+          StatObjectArgs.builder()
+              .bucket(bucketName)
+              .object(objectName)
+              .build()
+      );
+      return Optional.of(new StoredObject(objectName, stat.size(), stat.lastModified().toInstant()));
+    } catch (ErrorResponseException e) {
+      if (NO_SUCH_KEY.equals(e.errorResponse().code())) {
+        return Optional.empty();
+      }
+      throw new StorageException("Não foi possível consultar o arquivo", e);
+    } catch (Exception e) {
+      throw new StorageException("Não foi possível consultar o arquivo", e);
+    }
+  }
+
+  /**
+   * One page of the bucket listing: up to {@code maxKeys} objects whose keys come after
+   * {@code startAfter} (null for the first page), in key order (UTF-8 bytes). Costs a
+   * single list request.
+   */
+  public List<StoredObject> listObjects(String startAfter, int maxKeys) {
+    try {
+      Iterator<Result<Item>> results = minioClient.listObjects(
+          ListObjectsArgs.builder()
+              .bucket(bucketName)
+              .recursive(true)
+              .startAfter(startAfter)
+              .maxKeys(maxKeys)
+              .build()
+      ).iterator();
+      // Stop at maxKeys: asking the iterator for more would fetch the next page
+      List<StoredObject> page = new ArrayList<>(maxKeys);
+      while (page.size() < maxKeys && results.hasNext()) {
+        Item item = results.next().get();
+        page.add(new StoredObject(item.objectName(), item.size(), item.lastModified().toInstant()));
+      }
+      return page;
+    } catch (Exception e) {
+      throw new StorageException("Não foi possível listar os arquivos", e);
+    }
+  }
+
   /**
    * Generate presigned URL for temporary access.
    */
   public String getPresignedUrl(String objectName, int expiryMinutes) {
     try {
-      return minioClient.getPresignedObjectUrl(
+      return presignClient.getPresignedObjectUrl(
           GetPresignedObjectUrlArgs.builder()
               .method(Method.GET)
               .bucket(bucketName)
@@ -108,6 +261,29 @@ public class MinioService {
     }
   }
 
+  /**
+   * Signed form for a browser to upload one object straight to MinIO (POST policy).
+   * MinIO refuses the upload unless it uses this key and content type and has exactly
+   * {@code size} bytes.
+   */
+  public PresignedPost presignPost(String objectName, String contentType, long size, int expiryMinutes) {
+    try {
+      PostPolicy policy = new PostPolicy(bucketName, ZonedDateTime.now().plusMinutes(expiryMinutes));
+      policy.addEqualsCondition("key", objectName);
+      policy.addEqualsCondition("Content-Type", contentType);
+      policy.addContentLengthRangeCondition(size, size);
+
+      Map<String, String> fields = new LinkedHashMap<>();
+      fields.put("key", objectName);
+      fields.put("Content-Type", contentType);
+      fields.putAll(presignClient.getPresignedPostFormData(policy));
+      String endpoint = publicEndpoint.endsWith("/") ? publicEndpoint : publicEndpoint + "/";
+      return new PresignedPost(endpoint + bucketName, fields);
+    } catch (Exception e) {
+      throw new StorageException("Não foi possível gerar o endereço para envio", e);
+    }
+  }
+
   /**
    * Delete file from MinIO.
    */
@@ -0,0 +1,11 @@
+package com.sigesi.sigesi.storage;
+
+/**
+ * Stored object metadata read without fetching the content.
+ *
+ * @param etag Object ETag as returned by MinIO, without quotes
+ * @param size Object size in bytes
+ * @param contentType Content type the object was stored with
+ */
+public record ObjectStat(String etag, long size, String contentType) {
+}
@@ -0,0 +1,13 @@
+package com.sigesi.sigesi.storage;
+
+import java.util.Map;
+
+/**
+ * Browser upload form signed for one object: a multipart POST to {@code url} with these
+ * fields followed by the file in a field named "file".
+ *
+ * @param url Bucket address the form is posted to
+ * @param fields Form fields, in the order they must be sent
+ */
+public record PresignedPost(String url, Map<String, String> fields) {
+}
@@ -0,0 +1,17 @@
+package com.sigesi.sigesi.storage;
+
+/**
+ * Presigned download URL and the moment it stops working.
+ *
+ * @param url Signed URL
+ * @param expiresAt Expiry, in epoch milliseconds
+ */
+public record PresignedUrl(String url, long expiresAt) {
+
+  /**
+   * Whole seconds the URL is still valid at {@code now} (epoch milliseconds).
+   */
+  public long expiresInSeconds(long now) {
+    return Math.max(0, (expiresAt - now) / 1000);
+  }
+}
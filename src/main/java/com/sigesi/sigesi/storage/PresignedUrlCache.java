@@ -0,0 +1,74 @@
+package com.sigesi.sigesi.storage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Presigned download URLs, reused until they get close to expiry.
+ *
+ * <p>Besides the signing work, a new URL on every call defeats browser caching: the same
+ * file under a different query string is fetched again. A cached URL is handed out only
+ * while at least {@code min-remaining-minutes} of its validity remain, so callers can
+ * count on that much time.
+ */
+@Component
+public class PresignedUrlCache {
+
+  private final Map<String, PresignedUrl> entries = new ConcurrentHashMap<>();
+
+  @Autowired
+  private MinioService minioService;
+
+  @Value("${minio.presigned-url.expiry-minutes:60}")
+  private int expiryMinutes;
+
+  @Value("${minio.presigned-url.min-remaining-minutes:10}")
+  private int minRemainingMinutes;
+
+  @Value("${minio.presigned-url.max-entries:10000}")
+  private int maxEntries;
+
+  /**
+   * URL for the object, signed now or reused from an earlier call.
+   */
+  public PresignedUrl get(String objectName) {
+    long now = System.currentTimeMillis();
+    PresignedUrl cached = entries.get(objectName);
+    if (cached != null && usable(cached, now)) {
+      return cached;
+    }
+
+    // Counted from before signing, so the real expiry is never earlier than this one
+    PresignedUrl signed = new PresignedUrl(minioService.getPresignedUrl(objectName, expiryMinutes),
+        now + expiryMinutes * 60_000L);
+    if (entries.size() >= maxEntries) {
+      evict(now);
+    }
+    entries.put(objectName, signed);
+    return signed;
+  }
+
+  /**
+   * Forgets the URL of a removed object.
+   */
+  public void invalidate(String objectName) {
+    entries.remove(objectName);
+  }
+
+  private boolean usable(PresignedUrl url, long now) {
+    return url.expiresAt() - now >= minRemainingMinutes * 60_000L;
+  }
+
+  /**
+   * Drops the URLs that can no longer be handed out; when all are still usable, starts over.
+   */
+  private void evict(long now) {
+    entries.values().removeIf(url -> !usable(url, now));
+    if (entries.size() >= maxEntries) {
+      entries.clear();
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package com.sigesi.sigesi.storage;
+
+import java.time.Instant;
+
+/**
+ * Object found in the bucket, as listed or stat'ed.
+ *
+ * @param key Object key
+ * @param size Object size in bytes
+ * @param lastModified When the object was last written
+ */
+public record StoredObject(String key, long size, Instant lastModified) {
+}
@@ -0,0 +1,115 @@
+package com.sigesi.sigesi.usuarios;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache em memoria dos usuarios autenticados, por id.
+ *
+ * <p>A versao de um usuario e derivada do proprio estado relevante para a sessao (role,
+ * ativo, nome, foto e pessoa), entao todas as instancias chegam ao mesmo numero para o
+ * mesmo estado e uma sessao compartilhada nao e regravada so por mudar de instancia. A
+ * sessao guarda a versao que conhece e a compara com a atual a cada requisicao, entao
+ * mudancas de role ou ativo valem na requisicao seguinte sem consultar o banco. Entradas
+ * expiram apos o TTL, o que limita a defasagem quando a alteracao foi feita em outra
+ * instancia.
+ */
+@Component
+public class UsuarioCache {
+
+  private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+
+  @Autowired
+  private UsuarioRepository usuarioRepository;
+
+  @Value("${app.usuarios.cache-ttl-seconds:60}")
+  private long ttlSeconds;
+
+  /**
+   * Retorna o estado atual do usuario, carregando do banco apenas quando ausente ou expirado.
+   */
+  public Optional<Snapshot> get(Long id) {
+    Entrada entrada = entradas.get(id);
+    if (entrada != null && !expirada(entrada)) {
+      return Optional.of(entrada.snapshot());
+    }
+
+    Optional<Usuario> usuario = usuarioRepository.findById(id);
+    if (usuario.isEmpty()) {
+      entradas.remove(id);
+    }
+    return usuario.map(this::put);
+  }
+
+  /**
+   * Registra o estado do usuario. A versao so muda quando algo relevante para a sessao mudou.
+   */
+  public Snapshot put(Usuario usuario) {
+    Snapshot snapshot = new Snapshot(versao(usuario), usuario);
+    entradas.put(usuario.getId(), new Entrada(snapshot, System.currentTimeMillis()));
+    return snapshot;
+  }
+
+  /**
+   * Descarta o usuario agora e, dentro de uma transacao, de novo apos o commit, para que
+   * uma leitura concorrente do estado antigo nao permaneca no cache.
+   */
+  public void invalidate(Long id) {
+    entradas.remove(id);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          entradas.remove(id);
+        }
+      });
+    }
+  }
+
+  private boolean expirada(Entrada entrada) {
+    return System.currentTimeMillis() - entrada.carregadoEm() >= ttlSeconds * 1000;
+  }
+
+  /**
+   * Primeiros 8 bytes do SHA-256 dos campos relevantes para a sessao, separados por um
+   * caractere que nao aparece neles. Nao depende da instancia nem do reinicio.
+   */
+  static long versao(Usuario usuario) {
+    String estado = String.join("\u0000", String.valueOf(usuario.getId()), String.valueOf(usuario.getRole()),
+        String.valueOf(usuario.getAtivo()), String.valueOf(usuario.getName()),
+        String.valueOf(usuario.getPictureUrl()), String.valueOf(pessoaId(usuario)));
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(estado.getBytes(StandardCharsets.UTF_8));
+      return ByteBuffer.wrap(hash).getLong();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 indisponivel", e);
+    }
+  }
+
+  private static Long pessoaId(Usuario usuario) {
+    return usuario.getPessoa() == null ? null : usuario.getPessoa().getId();
+  }
+
+  /**
+   * Estado de um usuario em uma versao.
+   *
+   * @param versao versao do estado, comparada com a guardada na sessao
+   * @param usuario usuario carregado
+   */
+  public record Snapshot(long versao, Usuario usuario) {
+  }
+
+  private record Entrada(Snapshot snapshot, long carregadoEm) {
+  }
+}
@@ -13,6 +13,7 @@ import com.sigesi.sigesi.usuarios.dtos.UsuarioUpdateDTO;
 import com.sigesi.sigesi.usuarios.enums.Role;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +38,9 @@ public class UsuarioService {
   @Autowired
   private EnderecoService enderecoService;
 
+  @Autowired
+  private UsuarioCache usuarioCache;
+
   private void validarUsuarioEditavel(Long id) {
     if (id == 1) {
       throw new ResponseStatusException(
@@ -60,7 +64,9 @@ public class UsuarioService {
 
   public Usuario vincularPessoa(Usuario usuario, Pessoa pessoa) {
     usuario.setPessoa(pessoa);
-    return usuarioRepository.save(usuario);
+    Usuario salvo = usuarioRepository.save(usuario);
+    usuarioCache.invalidate(usuario.getId());
+    return salvo;
   }
 
   /**
@@ -99,7 +105,9 @@ public class UsuarioService {
 
     Usuario usuario = this.getUsuarioById(id);
     usuario.setAtivo(!usuario.getAtivo());
-    return usuarioRepository.save(usuario);
+    Usuario salvo = usuarioRepository.save(usuario);
+    usuarioCache.invalidate(id);
+    return salvo;
   }
 
   public Usuario updateUsuario(Long id, UsuarioUpdateDTO usuarioUpdateDTO) {
@@ -109,15 +117,27 @@ public class UsuarioService {
 
     usuarioMapper.updateFromDto(usuarioUpdateDTO, usuario);
 
-    return usuarioRepository.save(usuario);
+    Usuario salvo = usuarioRepository.save(usuario);
+    usuarioCache.invalidate(id);
+    return salvo;
   }
 
+  /**
+   * Sincroniza o usuario do login OAuth2. So grava quando nome ou foto mudaram.
+   */
   public Usuario processOAuthPostLogin(OAuth2User oAuth2User) {
     String email = oAuth2User.getAttribute("email");
     String name = oAuth2User.getAttribute("name");
     String picture = oAuth2User.getAttribute("picture");
 
-    Usuario user = usuarioRepository.findByEmail(email)
+    Optional<Usuario> existente = usuarioRepository.findByEmail(email);
+    if (existente.isPresent()
+        && Objects.equals(existente.get().getName(), name)
+        && Objects.equals(existente.get().getPictureUrl(), picture)) {
+      return existente.get();
+    }
+
+    Usuario user = existente
         .map(u -> {
           u.setName(name);
           u.setPictureUrl(picture);
@@ -0,0 +1,52 @@
+-- Material consumption summary for GET /api/materiais/consumo: quantity and cost
+-- (quantity x current material price) per material, month of the demanda prazo,
+-- solicitacao assunto and endereco bairro. Cancelled demandas are left out.
+--
+-- Writers record the affected (material, month) pairs in material_consumo_pendente in
+-- the same transaction; MaterialConsumoService recomputes those groups in the background
+-- and deletes the markers. No foreign keys: both tables hold derived data that is
+-- rebuilt from demanda_material.
+
+CREATE SEQUENCE IF NOT EXISTS material_consumo_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS material_consumo_pendente_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS material_consumo (
+  id bigint NOT NULL,
+  material_id bigint NOT NULL,
+  mes date NOT NULL,
+  assunto varchar(30) NOT NULL,
+  bairro varchar(255) NOT NULL,
+  quantidade bigint NOT NULL,
+  custo float(53) NOT NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT uk_material_consumo UNIQUE (material_id, mes, assunto, bairro)
+);
+
+CREATE INDEX IF NOT EXISTS idx_material_consumo_mes ON material_consumo (mes);
+
+CREATE TABLE IF NOT EXISTS material_consumo_pendente (
+  id bigint NOT NULL,
+  material_id bigint NOT NULL,
+  mes date NOT NULL,
+  PRIMARY KEY (id)
+);
+
+-- Initial load from the existing demandas.
+INSERT INTO material_consumo (id, material_id, mes, assunto, bairro, quantidade, custo)
+SELECT row_number() OVER (ORDER BY c.material_id, c.mes, c.assunto, c.bairro), c.*
+  FROM (SELECT dm.material_id,
+               date_trunc('month', d.prazo)::date AS mes,
+               coalesce(s.assunto, 'NAO_INFORMADO') AS assunto,
+               e.bairro,
+               sum(dm.quantidade) AS quantidade,
+               sum(dm.quantidade * m.preco) AS custo
+          FROM demanda_material dm
+          JOIN material m ON m.id = dm.material_id
+          JOIN demanda d ON d.id = dm.demanda_id
+          JOIN solicitacao s ON s.id = d.solicitacao_id
+          JOIN endereco e ON e.id = s.local_id
+         WHERE d.status <> 'CANCELADA'
+         GROUP BY 1, 2, 3, 4) c
+ WHERE NOT EXISTS (SELECT 1 FROM material_consumo);
+
+SELECT setval('material_consumo_seq', COALESCE((SELECT max(id) FROM material_consumo), 0) + 50, false);
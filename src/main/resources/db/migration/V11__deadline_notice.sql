@@ -0,0 +1,19 @@
+-- Deadline notifications already queued by DeadlineScanner, one row per demanda, kind
+-- (DUE_SOON, OVERDUE) and prazo. The unique key keeps a notification from being queued
+-- twice and serves the scanner's NOT EXISTS lookup; the scanner walks demanda through
+-- idx_demanda_prazo_id (V7). Rows whose prazo left the overdue window are deleted by the
+-- scanner (idx_deadline_notice_prazo). No foreign key, so deleting a demanda is not blocked.
+
+CREATE SEQUENCE IF NOT EXISTS deadline_notice_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS deadline_notice (
+  id bigint NOT NULL,
+  demanda_id bigint NOT NULL,
+  kind varchar(20) NOT NULL CHECK (kind IN ('DUE_SOON','OVERDUE')),
+  prazo date NOT NULL,
+  created_at timestamp(6) NOT NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT uk_deadline_notice UNIQUE (demanda_id, kind, prazo)
+);
+
+CREATE INDEX IF NOT EXISTS idx_deadline_notice_prazo ON deadline_notice (prazo);
@@ -0,0 +1,5 @@
+-- ArquivoRepository.existsByStorageKey: confirming a presigned upload checks the key was
+-- not recorded yet. V2 dropped the unique constraint on arquivos.storage_key (blobs are
+-- shared), which also dropped the only index on the column.
+
+CREATE INDEX IF NOT EXISTS idx_arquivos_storage_key ON arquivos (storage_key);
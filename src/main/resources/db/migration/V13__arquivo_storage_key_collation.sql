@@ -0,0 +1,7 @@
+-- StorageReconciler walks arquivos.storage_key next to the MinIO listing, which comes in
+-- byte order. Under the database collation (en_US and the like ignore punctuation at
+-- first) the two orders differ for keys such as "k-320" and "k.pdf", and the merge would
+-- take present objects for missing ones. Keys are ASCII identifiers, so the C collation
+-- loses nothing; changing it rebuilds idx_arquivos_storage_key (V12).
+
+ALTER TABLE arquivos ALTER COLUMN storage_key TYPE varchar(255) COLLATE "C";
@@ -0,0 +1,8 @@
+-- ArquivoService.confirmPresignedUpload: two confirmations of the same presigned upload
+-- can both pass the existsByStorageKey check. Upload keys belong to a single file, unlike
+-- content keys (blobs/) shared through arquivo_blobs, so only they are unique; the
+-- violation is answered with 409 like a repeated confirmation.
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_arquivos_upload_storage_key
+  ON arquivos (storage_key)
+  WHERE storage_key LIKE 'uploads/%';
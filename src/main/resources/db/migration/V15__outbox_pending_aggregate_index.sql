@@ -0,0 +1,6 @@
+-- OutboxRelay.findDue leaves out the events queued after a pending event of the same
+-- aggregate that is still backing off; this index answers that lookup per aggregate.
+
+CREATE INDEX IF NOT EXISTS idx_outbox_pending_aggregate
+  ON outbox_event (aggregate_id, id)
+  WHERE status = 'PENDING';
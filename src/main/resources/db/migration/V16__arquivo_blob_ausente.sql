@@ -0,0 +1,7 @@
+-- StorageReconciler marks the arquivos whose MinIO object is missing. ativo is the soft
+-- delete and says nothing about the content, so the finding gets its own column: when
+-- the object was found missing, NULL while it is there. The reconciler clears it when
+-- the object shows up again (the same content uploaded anew).
+
+ALTER TABLE arquivos ADD COLUMN IF NOT EXISTS blob_ausente_em timestamp(6);
+ALTER TABLE arquivos_aud ADD COLUMN IF NOT EXISTS blob_ausente_em timestamp(6);
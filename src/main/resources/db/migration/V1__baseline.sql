@@ -0,0 +1,318 @@
+-- Baseline schema: tables, foreign keys and Envers audit tables of the JPA entities as
+-- Hibernate ddl-auto=update created them before the migrations were versioned, with
+-- IDENTITY ids and the unique arquivos.storage_key.
+--
+-- Databases created before Flyway are baselined at version 1
+-- (spring.flyway.baseline-on-migrate) and skip this script, so it must stay exactly that
+-- schema. Everything added since (the outbox, content-addressed arquivos, documento
+-- versions, id sequences, search functions, session tables and indexes) comes from V2
+-- onwards, written to be safe both on a database built here and on one that ran the
+-- entities with ddl-auto=update before being baselined.
+
+CREATE TABLE arquivos (
+  ativo boolean,
+  id bigint GENERATED BY DEFAULT AS IDENTITY,
+  tamanho bigint NOT NULL,
+  uploaded_at timestamp(6) NOT NULL,
+  categoria varchar(255),
+  content_type varchar(255) NOT NULL,
+  nome_original varchar(255) NOT NULL,
+  storage_key varchar(255) NOT NULL UNIQUE,
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE cemiterio (
+  endereco_id bigint NOT NULL UNIQUE,
+  id bigint GENERATED BY DEFAULT AS IDENTITY,
+  nome varchar(255) NOT NULL,
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE comentario (
+  autor_id bigint NOT NULL,
+  criado_em timestamp(6) NOT NULL,
+  demanda_id bigint NOT NULL,
+  id bigint GENERATED BY DEFAULT AS IDENTITY,
+  texto text NOT NULL,
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE demanda (
+  prazo date NOT NULL,
+  id bigint GENERATED BY DEFAULT AS IDENTITY,
+  responsavel_id bigint,
+  solicitacao_id bigint NOT NULL,
+  status varchar(255) NOT NULL CHECK (status IN ('PENDENTE','EM_ANDAMENTO','CONCLUIDA','CANCELADA')),
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE demanda_material (
+  quantidade integer NOT NULL,
+  demanda_id bigint NOT NULL,
+  id bigint GENERATED BY DEFAULT AS IDENTITY,
+  material_id bigint NOT NULL,
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE documento (
+  data date NOT NULL,
+  id bigint GENERATED BY DEFAULT AS IDENTITY,
+  assinante varchar(255) NOT NULL,
+  body text NOT NULL,
+  destino varchar(255),
+  honorifico varchar(255),
+  interessado varchar(255) NOT NULL,
+  numero varchar(255),
+  portaria varchar(255),
+  subject varchar(255) NOT NULL,
+  tipo varchar(255) CHECK (tipo IN ('OFICIO','MEMORANDO')),
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE documento_arquivos (
+  arquivo_id bigint NOT NULL,
+  documento_id bigint NOT NULL
+);
+
+CREATE TABLE endereco (
+  id bigint GENERATED BY DEFAULT AS IDENTITY,
+  bairro varchar(255) NOT NULL,
+  logradouro varchar(255) NOT NULL,
+  numero varchar(255) NOT NULL,
+  referencia varchar(255),
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE gaveta (
+  numero integer,
+  id bigint GENERATED BY DEFAULT AS IDENTITY,
+  jazigo_id bigint NOT NULL,
+  ocupante_id bigint,
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE jazigo (
+  comprimento float(53),
+  largura float(53),
+  quadra integer NOT NULL,
+  cemiterio_id bigint NOT NULL,
+  id bigint GENERATED BY DEFAULT AS IDENTITY,
+  lote varchar(255) NOT NULL,
+  rua varchar(255) NOT NULL,
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE material (
+  preco float(53) NOT NULL,
+  id bigint GENERATED BY DEFAULT AS IDENTITY,
+  nome varchar(255) NOT NULL,
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE pessoa (
+  endereco_id bigint,
+  id bigint GENERATED BY DEFAULT AS IDENTITY,
+  cpf varchar(255) NOT NULL,
+  nome varchar(255) NOT NULL,
+  sexo varchar(255) NOT NULL CHECK (sexo IN ('MASCULINO','FEMININO','OUTRO')),
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE solicitacao (
+  data date NOT NULL,
+  autor_id bigint NOT NULL,
+  id bigint GENERATED BY DEFAULT AS IDENTITY,
+  local_id bigint NOT NULL,
+  solicitante_id bigint,
+  assunto varchar(255) CHECK (assunto IN ('BURACO','ESGOTO','ILUMINACAO','LIMPEZA','OUTROS')),
+  body text NOT NULL,
+  status varchar(255) CHECK (status IN ('ABERTA','EM_ANDAMENTO','CONCLUIDA','ENCERRADA','REJEITADA')),
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE solicitacao_arquivos (
+  arquivo_id bigint NOT NULL,
+  solicitacao_id bigint NOT NULL
+);
+
+CREATE TABLE usuario (
+  ativo boolean,
+  id bigint GENERATED BY DEFAULT AS IDENTITY,
+  pessoa_id bigint UNIQUE,
+  email varchar(255),
+  name varchar(255),
+  picture_url varchar(255),
+  provider varchar(255),
+  role varchar(255) NOT NULL CHECK (role IN ('CIDADAO','OPERADOR','AGENTE','ADMIN')),
+  PRIMARY KEY (id)
+);
+
+ALTER TABLE cemiterio ADD CONSTRAINT fk_cemiterio_endereco_id FOREIGN KEY (endereco_id) REFERENCES endereco;
+ALTER TABLE comentario ADD CONSTRAINT fk_comentario_autor_id FOREIGN KEY (autor_id) REFERENCES usuario;
+ALTER TABLE comentario ADD CONSTRAINT fk_comentario_demanda_id FOREIGN KEY (demanda_id) REFERENCES demanda;
+ALTER TABLE demanda ADD CONSTRAINT fk_demanda_responsavel_id FOREIGN KEY (responsavel_id) REFERENCES usuario;
+ALTER TABLE demanda ADD CONSTRAINT fk_demanda_solicitacao_id FOREIGN KEY (solicitacao_id) REFERENCES solicitacao;
+ALTER TABLE demanda_material ADD CONSTRAINT fk_demanda_material_demanda_id FOREIGN KEY (demanda_id) REFERENCES demanda;
+ALTER TABLE demanda_material ADD CONSTRAINT fk_demanda_material_material_id FOREIGN KEY (material_id) REFERENCES material;
+ALTER TABLE documento_arquivos ADD CONSTRAINT fk_documento_arquivos_arquivo_id FOREIGN KEY (arquivo_id) REFERENCES arquivos;
+ALTER TABLE documento_arquivos ADD CONSTRAINT fk_documento_arquivos_documento_id FOREIGN KEY (documento_id) REFERENCES documento;
+ALTER TABLE gaveta ADD CONSTRAINT fk_gaveta_jazigo_id FOREIGN KEY (jazigo_id) REFERENCES jazigo;
+ALTER TABLE gaveta ADD CONSTRAINT fk_gaveta_ocupante_id FOREIGN KEY (ocupante_id) REFERENCES pessoa;
+ALTER TABLE jazigo ADD CONSTRAINT fk_jazigo_cemiterio_id FOREIGN KEY (cemiterio_id) REFERENCES cemiterio;
+ALTER TABLE pessoa ADD CONSTRAINT fk_pessoa_endereco_id FOREIGN KEY (endereco_id) REFERENCES endereco;
+ALTER TABLE solicitacao ADD CONSTRAINT fk_solicitacao_autor_id FOREIGN KEY (autor_id) REFERENCES usuario;
+ALTER TABLE solicitacao ADD CONSTRAINT fk_solicitacao_local_id FOREIGN KEY (local_id) REFERENCES endereco;
+ALTER TABLE solicitacao ADD CONSTRAINT fk_solicitacao_solicitante_id FOREIGN KEY (solicitante_id) REFERENCES pessoa;
+ALTER TABLE solicitacao_arquivos ADD CONSTRAINT fk_solicitacao_arquivos_arquivo_id FOREIGN KEY (arquivo_id) REFERENCES arquivos;
+ALTER TABLE solicitacao_arquivos ADD CONSTRAINT fk_solicitacao_arquivos_solicitacao_id FOREIGN KEY (solicitacao_id) REFERENCES solicitacao;
+ALTER TABLE usuario ADD CONSTRAINT fk_usuario_pessoa_id FOREIGN KEY (pessoa_id) REFERENCES pessoa;
+
+-- Envers audit tables
+
+CREATE TABLE revinfo (
+  id bigint GENERATED BY DEFAULT AS IDENTITY,
+  timestamp bigint,
+  usuario_id bigint,
+  usuario_email varchar(150),
+  usuario_nome varchar(150),
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE arquivos_aud (
+  ativo boolean,
+  revtype smallint,
+  id bigint NOT NULL,
+  rev bigint NOT NULL,
+  tamanho bigint,
+  uploaded_at timestamp(6),
+  categoria varchar(255),
+  content_type varchar(255),
+  nome_original varchar(255),
+  storage_key varchar(255),
+  PRIMARY KEY (rev, id)
+);
+
+CREATE TABLE demanda_aud (
+  prazo date,
+  revtype smallint,
+  id bigint NOT NULL,
+  responsavel_id bigint,
+  rev bigint NOT NULL,
+  solicitacao_id bigint,
+  status varchar(255) CHECK (status IN ('PENDENTE','EM_ANDAMENTO','CONCLUIDA','CANCELADA')),
+  PRIMARY KEY (rev, id)
+);
+
+CREATE TABLE demanda_material_aud (
+  quantidade integer,
+  revtype smallint,
+  demanda_id bigint,
+  id bigint NOT NULL,
+  material_id bigint,
+  rev bigint NOT NULL,
+  PRIMARY KEY (rev, id)
+);
+
+CREATE TABLE documento_arquivos_aud (
+  revtype smallint,
+  arquivo_id bigint NOT NULL,
+  documento_id bigint NOT NULL,
+  rev bigint NOT NULL,
+  PRIMARY KEY (documento_id, rev, arquivo_id)
+);
+
+CREATE TABLE documento_aud (
+  data date,
+  revtype smallint,
+  id bigint NOT NULL,
+  rev bigint NOT NULL,
+  assinante varchar(255),
+  body text,
+  destino varchar(255),
+  honorifico varchar(255),
+  interessado varchar(255),
+  numero varchar(255),
+  portaria varchar(255),
+  subject varchar(255),
+  tipo varchar(255) CHECK (tipo IN ('OFICIO','MEMORANDO')),
+  PRIMARY KEY (rev, id)
+);
+
+CREATE TABLE endereco_aud (
+  revtype smallint,
+  id bigint NOT NULL,
+  rev bigint NOT NULL,
+  bairro varchar(255),
+  logradouro varchar(255),
+  numero varchar(255),
+  referencia varchar(255),
+  PRIMARY KEY (rev, id)
+);
+
+CREATE TABLE material_aud (
+  preco float(53),
+  revtype smallint,
+  id bigint NOT NULL,
+  rev bigint NOT NULL,
+  nome varchar(255),
+  PRIMARY KEY (rev, id)
+);
+
+CREATE TABLE pessoa_aud (
+  revtype smallint,
+  endereco_id bigint,
+  id bigint NOT NULL,
+  rev bigint NOT NULL,
+  cpf varchar(255),
+  nome varchar(255),
+  sexo varchar(255) CHECK (sexo IN ('MASCULINO','FEMININO','OUTRO')),
+  PRIMARY KEY (rev, id)
+);
+
+CREATE TABLE solicitacao_arquivos_aud (
+  revtype smallint,
+  arquivo_id bigint NOT NULL,
+  rev bigint NOT NULL,
+  solicitacao_id bigint NOT NULL,
+  PRIMARY KEY (rev, solicitacao_id, arquivo_id)
+);
+
+CREATE TABLE solicitacao_aud (
+  data date,
+  revtype smallint,
+  autor_id bigint,
+  id bigint NOT NULL,
+  local_id bigint,
+  rev bigint NOT NULL,
+  solicitante_id bigint,
+  assunto varchar(255) CHECK (assunto IN ('BURACO','ESGOTO','ILUMINACAO','LIMPEZA','OUTROS')),
+  body text,
+  status varchar(255) CHECK (status IN ('ABERTA','EM_ANDAMENTO','CONCLUIDA','ENCERRADA','REJEITADA')),
+  PRIMARY KEY (rev, id)
+);
+
+CREATE TABLE usuario_aud (
+  ativo boolean,
+  revtype smallint,
+  id bigint NOT NULL,
+  pessoa_id bigint,
+  rev bigint NOT NULL,
+  email varchar(255),
+  name varchar(255),
+  picture_url varchar(255),
+  provider varchar(255),
+  role varchar(255) CHECK (role IN ('CIDADAO','OPERADOR','AGENTE','ADMIN')),
+  PRIMARY KEY (rev, id)
+);
+
+ALTER TABLE arquivos_aud ADD CONSTRAINT fk_arquivos_aud_rev FOREIGN KEY (rev) REFERENCES revinfo;
+ALTER TABLE demanda_aud ADD CONSTRAINT fk_demanda_aud_rev FOREIGN KEY (rev) REFERENCES revinfo;
+ALTER TABLE demanda_material_aud ADD CONSTRAINT fk_demanda_material_aud_rev FOREIGN KEY (rev) REFERENCES revinfo;
+ALTER TABLE documento_arquivos_aud ADD CONSTRAINT fk_documento_arquivos_aud_rev FOREIGN KEY (rev) REFERENCES revinfo;
+ALTER TABLE documento_aud ADD CONSTRAINT fk_documento_aud_rev FOREIGN KEY (rev) REFERENCES revinfo;
+ALTER TABLE endereco_aud ADD CONSTRAINT fk_endereco_aud_rev FOREIGN KEY (rev) REFERENCES revinfo;
+ALTER TABLE material_aud ADD CONSTRAINT fk_material_aud_rev FOREIGN KEY (rev) REFERENCES revinfo;
+ALTER TABLE pessoa_aud ADD CONSTRAINT fk_pessoa_aud_rev FOREIGN KEY (rev) REFERENCES revinfo;
+ALTER TABLE solicitacao_arquivos_aud ADD CONSTRAINT fk_solicitacao_arquivos_aud_rev FOREIGN KEY (rev) REFERENCES revinfo;
+ALTER TABLE solicitacao_aud ADD CONSTRAINT fk_solicitacao_aud_rev FOREIGN KEY (rev) REFERENCES revinfo;
+ALTER TABLE usuario_aud ADD CONSTRAINT fk_usuario_aud_rev FOREIGN KEY (rev) REFERENCES revinfo;
@@ -0,0 +1,44 @@
+-- Content-addressed storage for Arquivo.
+--
+-- Uploads record the SHA-256 of their content in arquivos.checksum, and arquivo rows
+-- with the same hash share one MinIO object (arquivo_blobs keeps the reference count),
+-- so arquivos.storage_key is no longer unique; with the old unique constraint the second
+-- upload of an identical file would fail. Databases that ran these entities with
+-- Hibernate ddl-auto=update before being baselined already have the column and the
+-- table; they still carry the constraint, as do databases built from V1.
+--
+-- Rows uploaded before this change keep their UUID keys and no blob row; deleting
+-- them removes their own object as before.
+
+ALTER TABLE arquivos ADD COLUMN IF NOT EXISTS checksum varchar(64);
+ALTER TABLE arquivos_aud ADD COLUMN IF NOT EXISTS checksum varchar(64);
+
+CREATE TABLE IF NOT EXISTS arquivo_blobs (
+  referencias integer NOT NULL,
+  created_at timestamp(6) NOT NULL,
+  id bigint NOT NULL,
+  tamanho bigint NOT NULL,
+  sha256 varchar(64) NOT NULL UNIQUE,
+  storage_key varchar(255) NOT NULL UNIQUE,
+  PRIMARY KEY (id)
+);
+
+
+DO $$
+DECLARE
+  constraint_name text;
+BEGIN
+  SELECT con.conname INTO constraint_name
+    FROM pg_constraint con
+    JOIN pg_class rel ON rel.oid = con.conrelid
+    JOIN pg_attribute att ON att.attrelid = rel.oid AND att.attnum = ANY (con.conkey)
+   WHERE rel.relname = 'arquivos'
+     AND att.attname = 'storage_key'
+     AND con.contype = 'u';
+
+  IF constraint_name IS NOT NULL THEN
+    EXECUTE format('ALTER TABLE arquivos DROP CONSTRAINT %I', constraint_name);
+  END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_arquivos_checksum ON arquivos (checksum);
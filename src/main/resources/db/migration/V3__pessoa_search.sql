@@ -0,0 +1,23 @@
+-- Indexed Pessoa search (PessoaBuscaService).
+--
+-- Names are matched accent-insensitively by substring and word similarity through a
+-- pg_trgm GIN index; CPFs are matched by digit prefix whatever punctuation was stored.
+-- The database user needs permission to create the unaccent and pg_trgm extensions
+-- (both are trusted extensions since PostgreSQL 13); without it this migration fails and
+-- the application does not start. PessoaBuscaService always uses these indexes on
+-- PostgreSQL; its unindexed JPA query without fuzzy matching only covers H2 in the tests.
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- unaccent() is STABLE, so it cannot be used in an index expression. Pinning the
+-- dictionary makes this wrapper safe to declare IMMUTABLE.
+CREATE OR REPLACE FUNCTION sigesi_unaccent(text) RETURNS text
+  LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+  AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$;
+
+CREATE INDEX IF NOT EXISTS idx_pessoa_nome_trgm
+  ON pessoa USING gin (sigesi_unaccent(lower(nome)) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_pessoa_cpf_digitos
+  ON pessoa (regexp_replace(cpf, '[^0-9]', '', 'g') text_pattern_ops);
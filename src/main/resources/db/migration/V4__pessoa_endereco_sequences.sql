@@ -0,0 +1,19 @@
+-- Sequence ids for pessoa and endereco, so Hibernate can batch their inserts
+-- (bulk import in PessoaImportService), and the CPF index its duplicate check uses.
+--
+-- Both entities now use pooled sequences (allocationSize 50) instead of IDENTITY.
+-- On databases created by Hibernate ddl-auto=update the ids in use came from IDENTITY
+-- columns, so the identity is dropped and the sequences must start above them; on
+-- databases built from V1 this only positions the new sequences. The pooled optimizer
+-- treats each value as the top of a block of 50 ids, so the sequences restart one
+-- block above the current max(id).
+
+CREATE SEQUENCE IF NOT EXISTS pessoa_seq INCREMENT BY 50;
+SELECT setval('pessoa_seq', COALESCE((SELECT max(id) FROM pessoa), 0) + 50, false);
+ALTER TABLE pessoa ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS endereco_seq INCREMENT BY 50;
+SELECT setval('endereco_seq', COALESCE((SELECT max(id) FROM endereco), 0) + 50, false);
+ALTER TABLE endereco ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE INDEX IF NOT EXISTS idx_pessoa_cpf ON pessoa (cpf);
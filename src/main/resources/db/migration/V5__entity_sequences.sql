@@ -0,0 +1,53 @@
+-- Sequence ids for the remaining entities, so Hibernate can batch their inserts
+-- (for example the materiais of a new demanda). Same procedure as V4.
+--
+-- revinfo and outbox_event keep IDENTITY: Envers and the outbox relay read their ids
+-- as commit order, which pooled blocks handed out per instance would not preserve.
+
+CREATE SEQUENCE IF NOT EXISTS usuario_seq INCREMENT BY 50;
+SELECT setval('usuario_seq', COALESCE((SELECT max(id) FROM usuario), 0) + 50, false);
+ALTER TABLE usuario ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS material_seq INCREMENT BY 50;
+SELECT setval('material_seq', COALESCE((SELECT max(id) FROM material), 0) + 50, false);
+ALTER TABLE material ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS arquivos_seq INCREMENT BY 50;
+SELECT setval('arquivos_seq', COALESCE((SELECT max(id) FROM arquivos), 0) + 50, false);
+ALTER TABLE arquivos ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS arquivo_blobs_seq INCREMENT BY 50;
+SELECT setval('arquivo_blobs_seq', COALESCE((SELECT max(id) FROM arquivo_blobs), 0) + 50, false);
+ALTER TABLE arquivo_blobs ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS solicitacao_seq INCREMENT BY 50;
+SELECT setval('solicitacao_seq', COALESCE((SELECT max(id) FROM solicitacao), 0) + 50, false);
+ALTER TABLE solicitacao ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS demanda_seq INCREMENT BY 50;
+SELECT setval('demanda_seq', COALESCE((SELECT max(id) FROM demanda), 0) + 50, false);
+ALTER TABLE demanda ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS demanda_material_seq INCREMENT BY 50;
+SELECT setval('demanda_material_seq', COALESCE((SELECT max(id) FROM demanda_material), 0) + 50, false);
+ALTER TABLE demanda_material ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS comentario_seq INCREMENT BY 50;
+SELECT setval('comentario_seq', COALESCE((SELECT max(id) FROM comentario), 0) + 50, false);
+ALTER TABLE comentario ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS documento_seq INCREMENT BY 50;
+SELECT setval('documento_seq', COALESCE((SELECT max(id) FROM documento), 0) + 50, false);
+ALTER TABLE documento ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS cemiterio_seq INCREMENT BY 50;
+SELECT setval('cemiterio_seq', COALESCE((SELECT max(id) FROM cemiterio), 0) + 50, false);
+ALTER TABLE cemiterio ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS gaveta_seq INCREMENT BY 50;
+SELECT setval('gaveta_seq', COALESCE((SELECT max(id) FROM gaveta), 0) + 50, false);
+ALTER TABLE gaveta ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS jazigo_seq INCREMENT BY 50;
+SELECT setval('jazigo_seq', COALESCE((SELECT max(id) FROM jazigo), 0) + 50, false);
+ALTER TABLE jazigo ALTER COLUMN id DROP IDENTITY IF EXISTS;
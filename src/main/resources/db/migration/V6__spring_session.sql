@@ -0,0 +1,28 @@
+-- Spring Session JDBC tables (SessionConfig), from spring-session-jdbc's
+-- schema-postgresql.sql. They used to be created at startup by
+-- spring.session.jdbc.initialize-schema=always, so existing databases may already
+-- have them.
+
+CREATE TABLE IF NOT EXISTS spring_session (
+  primary_id CHAR(36) NOT NULL,
+  session_id CHAR(36) NOT NULL,
+  creation_time BIGINT NOT NULL,
+  last_access_time BIGINT NOT NULL,
+  max_inactive_interval INT NOT NULL,
+  expiry_time BIGINT NOT NULL,
+  principal_name VARCHAR(100),
+  CONSTRAINT spring_session_pk PRIMARY KEY (primary_id)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS spring_session_ix1 ON spring_session (session_id);
+CREATE INDEX IF NOT EXISTS spring_session_ix2 ON spring_session (expiry_time);
+CREATE INDEX IF NOT EXISTS spring_session_ix3 ON spring_session (principal_name);
+
+CREATE TABLE IF NOT EXISTS spring_session_attributes (
+  session_primary_id CHAR(36) NOT NULL,
+  attribute_name VARCHAR(200) NOT NULL,
+  attribute_bytes BYTEA NOT NULL,
+  CONSTRAINT spring_session_attributes_pk PRIMARY KEY (session_primary_id, attribute_name),
+  CONSTRAINT spring_session_attributes_fk FOREIGN KEY (session_primary_id)
+    REFERENCES spring_session (primary_id) ON DELETE CASCADE
+);
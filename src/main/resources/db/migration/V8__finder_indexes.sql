@@ -0,0 +1,41 @@
+-- Indexes behind the repository finders: the equality columns first, then the ORDER BY
+-- column, so each finder reads only its rows and already in order. Hibernate
+-- ddl-auto=update only ever created the foreign key constraints, which PostgreSQL does
+-- not index by itself. FinderIndexPlanTest checks the finders against these indexes.
+
+-- DemandaRepository.findBySolicitacaoIdOrderByPrazoAsc / findByResponsavelIdOrderByPrazoAsc
+-- / findByStatusOrderByPrazoAsc
+CREATE INDEX IF NOT EXISTS idx_demanda_solicitacao_prazo ON demanda (solicitacao_id, prazo);
+CREATE INDEX IF NOT EXISTS idx_demanda_responsavel_prazo ON demanda (responsavel_id, prazo);
+CREATE INDEX IF NOT EXISTS idx_demanda_status_prazo ON demanda (status, prazo);
+
+-- ComentarioRepository.findByDemandaIdOrderByCriadoEmAsc
+CREATE INDEX IF NOT EXISTS idx_comentario_demanda_criado_em ON comentario (demanda_id, criado_em);
+
+-- SolicitacaoRepository.findByAutorIdOrderByDataDesc
+CREATE INDEX IF NOT EXISTS idx_solicitacao_autor_data ON solicitacao (autor_id, data DESC);
+
+-- ArquivoRepository.findByAtivoTrueOrderByUploadedAtDesc; inactive files are never listed.
+CREATE INDEX IF NOT EXISTS idx_arquivos_ativos_uploaded_at ON arquivos (uploaded_at DESC) WHERE ativo;
+
+-- GavetaRepository.findByJazigoIdAndOcupanteId / findByJazigoId / findByOcupanteId
+CREATE INDEX IF NOT EXISTS idx_gaveta_jazigo_ocupante ON gaveta (jazigo_id, ocupante_id);
+CREATE INDEX IF NOT EXISTS idx_gaveta_ocupante ON gaveta (ocupante_id);
+
+-- PessoaRepository.findByCpf: the CPF is now unique, which also closes the race between
+-- two concurrent registrations of the same person. Duplicates must be merged by hand
+-- first; the migration stops and lists them instead of picking a survivor.
+DO $$
+DECLARE
+  repetidos text;
+BEGIN
+  SELECT string_agg(cpf, ', ') INTO repetidos
+    FROM (SELECT cpf FROM pessoa GROUP BY cpf HAVING count(*) > 1 ORDER BY cpf LIMIT 20) d;
+
+  IF repetidos IS NOT NULL THEN
+    RAISE EXCEPTION 'pessoa.cpf has duplicates, merge them before migrating: %', repetidos;
+  END IF;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_pessoa_cpf ON pessoa (cpf);
+DROP INDEX IF EXISTS idx_pessoa_cpf;
@@ -0,0 +1,34 @@
+-- When a demanda was created and concluded, for the average resolution time shown by
+-- GET /api/dashboard. DemandaService sets concluida_em when the status changes to
+-- CONCLUIDA and clears it if the demanda is reopened.
+--
+-- Existing rows are backfilled from the audit history: criada_em is the timestamp of
+-- the insert revision, concluida_em the first revision with status CONCLUIDA. Rows
+-- without history keep NULL and are left out of the average.
+
+ALTER TABLE demanda ADD COLUMN IF NOT EXISTS criada_em timestamp(6);
+ALTER TABLE demanda ADD COLUMN IF NOT EXISTS concluida_em timestamp(6);
+ALTER TABLE demanda_aud ADD COLUMN IF NOT EXISTS criada_em timestamp(6);
+ALTER TABLE demanda_aud ADD COLUMN IF NOT EXISTS concluida_em timestamp(6);
+
+UPDATE demanda d
+   SET criada_em = h.criada_em
+  FROM (SELECT a.id, min(to_timestamp(r.timestamp / 1000.0)::timestamp) AS criada_em
+          FROM demanda_aud a
+          JOIN revinfo r ON r.id = a.rev
+         WHERE a.revtype = 0
+         GROUP BY a.id) h
+ WHERE h.id = d.id
+   AND d.criada_em IS NULL;
+
+UPDATE demanda d
+   SET concluida_em = h.concluida_em
+  FROM (SELECT a.id, min(to_timestamp(r.timestamp / 1000.0)::timestamp) AS concluida_em
+          FROM demanda_aud a
+          JOIN revinfo r ON r.id = a.rev
+         WHERE a.status = 'CONCLUIDA'
+         GROUP BY a.id) h
+ WHERE h.id = d.id
+   AND d.status = 'CONCLUIDA'
+   AND d.concluida_em IS NULL;
+
@@ -0,0 +1,277 @@
+package com.sigesi.sigesi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import com.sigesi.sigesi.arquivos.Arquivo;
+import com.sigesi.sigesi.arquivos.ArquivoRepository;
+import com.sigesi.sigesi.authentication.CustomOAuth2User;
+import com.sigesi.sigesi.usuarios.Usuario;
+import com.sigesi.sigesi.usuarios.UsuarioCache;
+import com.sigesi.sigesi.usuarios.UsuarioRepository;
+import com.sigesi.sigesi.usuarios.enums.Role;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Carga de requisicoes simultaneas de download ({@code GET /api/arquivos/{id}/download}) e
+ * de listagem ({@code GET /api/demandas}), para comparar threads de plataforma com threads
+ * virtuais ({@code spring.threads.virtual.enabled}).
+ *
+ * <p>Sobe a aplicacao neste processo contra o PostgreSQL indicado (migrado pelo Flyway) e
+ * um S3 falso no lugar do MinIO, que responde cada objeto depois de um atraso fixo. Cria
+ * um arquivo e sessoes JDBC autenticadas como o admin, aquece e dispara as rodadas com
+ * {@code concorrencia} requisicoes em voo, imprimindo vazao, percentis e erros. Nao roda
+ * com {@code mvn test}; para executar (uma vez com {@code -Dvirtual=false} e outra com
+ * {@code -Dvirtual=true}):
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -Ddb.url=jdbc:postgresql://localhost:5432/sigesi -Ddb.user=postgres -Ddb.password=postgres \
+ *     -Dvirtual=true -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.sigesi.sigesi.ConcorrenciaBenchmark
+ * </pre>
+ *
+ * <p>Outras propriedades: {@code concorrencia} (2000), {@code requisicoes} por rodada
+ * (10000), {@code rodadas} (3), {@code db.pool} (10), {@code s3.latencia-ms} (50) e
+ * {@code arquivo.bytes} (65536). Argumentos da linha de comando vao para a aplicacao
+ * (por exemplo {@code --spring.jpa.open-in-view=false}).
+ */
+public class ConcorrenciaBenchmark {
+
+  private static final int SESSOES = 200;
+
+  public static void main(String[] args) throws Exception {
+    boolean virtual = Boolean.getBoolean("virtual");
+    int concorrencia = Integer.getInteger("concorrencia", 2000);
+    int requisicoes = Integer.getInteger("requisicoes", 10000);
+    int rodadas = Integer.getInteger("rodadas", 3);
+    byte[] conteudo = new byte[Integer.getInteger("arquivo.bytes", 65536)];
+
+    System.setProperty("spring.devtools.restart.enabled", "false");
+    HttpServer s3 = s3Falso(Long.getLong("s3.latencia-ms", 50), conteudo);
+    try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(SigesiApplication.class)
+        .run(argumentos(virtual, s3.getAddress().getPort(), args));
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build()) {
+      String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+      List<String> cookies = sessoes(ctx);
+      Map<String, URI> alvos = Map.of(
+          "download", URI.create(base + "/api/arquivos/" + arquivo(ctx, conteudo.length) + "/download"),
+          "listagem", URI.create(base + "/api/demandas?size=20"));
+
+      System.out.printf("%nthreads %s, %d em voo, pool do banco %s%n", virtual ? "virtuais" : "de plataforma",
+          concorrencia, ctx.getEnvironment().getProperty("spring.datasource.hikari.maximum-pool-size"));
+      for (String nome : List.of("download", "listagem")) {
+        rodada(client, alvos.get(nome), cookies, concorrencia, concorrencia);
+        for (int i = 1; i <= rodadas; i++) {
+          System.out.printf("%-9s %d: %s%n", nome, i,
+              rodada(client, alvos.get(nome), cookies, concorrencia, requisicoes));
+        }
+      }
+    } finally {
+      s3.stop(0);
+    }
+  }
+
+  /**
+   * Configuracao de producao (application.properties de main, que vem antes no classpath)
+   * com os valores que la vem de variaveis de ambiente.
+   */
+  private static String[] argumentos(boolean virtual, int portaS3, String[] extras) {
+    String[] fixos = {
+        "--server.port=0",
+        "--spring.threads.virtual.enabled=" + virtual,
+        "--spring.datasource.url=" + System.getProperty("db.url"),
+        "--spring.datasource.username=" + System.getProperty("db.user", "postgres"),
+        "--spring.datasource.password=" + System.getProperty("db.password", ""),
+        "--spring.datasource.hikari.maximum-pool-size=" + System.getProperty("db.pool", "10"),
+        "--spring.jpa.show-sql=false",
+        "--spring.security.oauth2.client.registration.google.client-id=carga",
+        "--spring.security.oauth2.client.registration.google.client-secret=carga",
+        "--minio.endpoint=http://localhost:" + portaS3,
+        "--minio.access-key=carga",
+        "--minio.secret-key=carga",
+        "--minio.init-on-startup=false",
+        "--app.admin.email=" + System.getProperty("admin.email", "carga@sigesi.local"),
+        "--app.outbox.relay-enabled=false",
+        "--app.notifications.deadline.enabled=false",
+        "--logging.level.root=WARN",
+    };
+    return Stream.concat(Arrays.stream(fixos), Arrays.stream(extras)).toArray(String[]::new);
+  }
+
+  /**
+   * S3 minimo: qualquer GET de objeto devolve o conteudo depois do atraso; consultas de
+   * regiao e de bucket respondem na hora.
+   */
+  private static HttpServer s3Falso(long latenciaMs, byte[] conteudo) throws IOException {
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.createContext("/", exchange -> {
+      try (exchange) {
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null && query.contains("location")) {
+          responder(exchange, "<LocationConstraint xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\"/>"
+              .getBytes(StandardCharsets.UTF_8));
+          return;
+        }
+        Thread.sleep(latenciaMs);
+        responder(exchange, conteudo);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    server.start();
+    return server;
+  }
+
+  private static void responder(HttpExchange exchange, byte[] corpo) throws IOException {
+    exchange.sendResponseHeaders(200, corpo.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(corpo);
+    }
+  }
+
+  private static Long arquivo(ConfigurableApplicationContext ctx, long tamanho) {
+    return ctx.getBean(ArquivoRepository.class).save(Arquivo.builder()
+        .nomeOriginal("carga.bin")
+        .storageKey("carga/carga.bin")
+        .contentType("application/octet-stream")
+        .tamanho(tamanho)
+        .build()).getId();
+  }
+
+  /**
+   * Sessoes JDBC do admin, como as gravadas pelo login OIDC; o cookie leva o id em Base64.
+   */
+  @SuppressWarnings("unchecked")
+  private static List<String> sessoes(ConfigurableApplicationContext ctx) {
+    String email = ctx.getEnvironment().getProperty("app.admin.email");
+    Usuario admin = ctx.getBean(UsuarioRepository.class).findByEmail(email).orElseThrow();
+    UsuarioCache.Snapshot snapshot = ctx.getBean(UsuarioCache.class).put(admin);
+    OidcIdToken idToken = OidcIdToken.withTokenValue("carga")
+        .subject(email).claim("email", email)
+        .issuedAt(Instant.now()).expiresAt(Instant.now().plus(Duration.ofDays(1)))
+        .build();
+    CustomOAuth2User principal = new CustomOAuth2User(
+        new DefaultOidcUser(List.of(), idToken), admin, snapshot.versao());
+    SecurityContext contexto = new SecurityContextImpl(
+        new OAuth2AuthenticationToken(principal, principal.getAuthorities(), "google"));
+
+    SessionRepository<Session> repository = ctx.getBean(SessionRepository.class);
+    List<String> cookies = new ArrayList<>();
+    for (int i = 0; i < SESSOES; i++) {
+      Session session = repository.createSession();
+      session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, contexto);
+      repository.save(session);
+      cookies.add("JSESSIONID=" + Base64.getEncoder().encodeToString(session.getId().getBytes(StandardCharsets.UTF_8)));
+    }
+    if (admin.getRole() != Role.ADMIN) {
+      throw new IllegalStateException("app.admin.email nao e ADMIN");
+    }
+    return cookies;
+  }
+
+  /**
+   * Envia {@code total} GETs mantendo {@code concorrencia} em voo e le cada corpo inteiro.
+   */
+  private static Resultado rodada(HttpClient client, URI uri, List<String> cookies, int concorrencia,
+      int total) throws InterruptedException {
+    long[] latencias = new long[total];
+    AtomicInteger proxima = new AtomicInteger();
+    AtomicInteger erros = new AtomicInteger();
+    long inicio = System.nanoTime();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<CompletableFuture<Void>> trabalhadores = new ArrayList<>();
+      for (int t = 0; t < concorrencia; t++) {
+        trabalhadores.add(CompletableFuture.runAsync(() -> {
+          for (int i = proxima.getAndIncrement(); i < total; i = proxima.getAndIncrement()) {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Cookie", cookies.get(i % cookies.size()))
+                .timeout(Duration.ofMinutes(2))
+                .build();
+            long t0 = System.nanoTime();
+            if (!enviar(client, request)) {
+              erros.incrementAndGet();
+            }
+            latencias[i] = System.nanoTime() - t0;
+          }
+        }, executor));
+      }
+      CompletableFuture.allOf(trabalhadores.toArray(CompletableFuture[]::new)).join();
+    }
+    return new Resultado(total, System.nanoTime() - inicio, latencias, erros.get());
+  }
+
+  private static boolean enviar(HttpClient client, HttpRequest request) {
+    try {
+      HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+      try (InputStream body = response.body()) {
+        body.transferTo(OutputStream.nullOutputStream());
+      }
+      return response.statusCode() == 200;
+    } catch (IOException e) {
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Numeros de uma rodada.
+   *
+   * @param total Requisicoes enviadas
+   * @param duracaoNanos Tempo da rodada inteira
+   * @param latencias Latencia de cada requisicao, em nanossegundos
+   * @param erros Requisicoes sem status 200
+   */
+  private record Resultado(int total, long duracaoNanos, long[] latencias, int erros) {
+
+    @Override
+    public String toString() {
+      long[] ordenadas = latencias.clone();
+      Arrays.sort(ordenadas);
+      return String.format(Locale.ROOT, "%7.0f req/s  p50 %5d ms  p95 %5d ms  p99 %5d ms  erros %d",
+          total / (duracaoNanos / 1e9), ms(ordenadas, 0.50), ms(ordenadas, 0.95), ms(ordenadas, 0.99), erros);
+    }
+
+    private static long ms(long[] ordenadas, double percentil) {
+      return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(percentil * ordenadas.length) - 1)] / 1_000_000;
+    }
+  }
+}
@@ -1,31 +1,51 @@
 package com.sigesi.sigesi.arquivos;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.sigesi.sigesi.arquivos.dtos.ArquivoResponseDTO;
+import com.sigesi.sigesi.arquivos.dtos.PresignedUploadConfirmDTO;
+import com.sigesi.sigesi.arquivos.dtos.PresignedUploadRequestDTO;
+import com.sigesi.sigesi.arquivos.dtos.PresignedUploadResponseDTO;
 import com.sigesi.sigesi.config.NotFoundException;
+import com.sigesi.sigesi.storage.ObjectStat;
 
 /**
  * Testes para ArquivoController.
@@ -35,12 +55,17 @@ import com.sigesi.sigesi.config.NotFoundException;
 @DisplayName("ArquivoController Tests")
 class ArquivoControllerTest {
 
+  private static final String CONTEUDO = "0123456789ab";
+
   @Autowired
   private MockMvc mockMvc;
 
   @MockitoBean
   private ArquivoService arquivoService;
 
+  @MockitoBean
+  private ThumbnailService thumbnailService;
+
   private ArquivoResponseDTO responseDto(Long id, String nome) {
     return ArquivoResponseDTO.builder()
         .id(id)
@@ -70,6 +95,60 @@ class ArquivoControllerTest {
         .andExpect(jsonPath("$.contentType", is("application/pdf")));
   }
 
+  @Test
+  @DisplayName("POST /api/arquivos/upload/stream retorna 201 com corpo bruto")
+  void testUploadStreamRetorna201() throws Exception {
+    given(arquivoService.uploadStream(any(), anyLong(), eq("scan.pdf"), eq("application/pdf"), isNull()))
+        .willReturn(responseDto(2L, "scan.pdf"));
+
+    mockMvc.perform(post("/api/arquivos/upload/stream")
+        .param("filename", "scan.pdf")
+        .contentType("application/pdf;charset=UTF-8")
+        .content("%PDF-1.4".getBytes()))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.nomeOriginal", is("scan.pdf")));
+  }
+
+  @Test
+  @DisplayName("POST /api/arquivos/upload/presigned retorna 200 com o formulario assinado")
+  void testCreatePresignedUploadRetorna200() throws Exception {
+    given(arquivoService.createPresignedUpload(any(PresignedUploadRequestDTO.class)))
+        .willReturn(PresignedUploadResponseDTO.builder()
+            .storageKey("uploads/k.pdf").url("https://files/sigesi-files")
+            .fields(Map.of("key", "uploads/k.pdf")).expiresInSeconds(900L).build());
+
+    mockMvc.perform(post("/api/arquivos/upload/presigned")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"filename\":\"k.pdf\",\"contentType\":\"application/pdf\",\"tamanho\":2048}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.url", is("https://files/sigesi-files")))
+        .andExpect(jsonPath("$.fields.key", is("uploads/k.pdf")));
+  }
+
+  @Test
+  @DisplayName("POST /api/arquivos/upload/presigned retorna 400 sem tamanho")
+  void testCreatePresignedUploadSemTamanhoRetorna400() throws Exception {
+    mockMvc.perform(post("/api/arquivos/upload/presigned")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"filename\":\"k.pdf\",\"contentType\":\"application/pdf\"}"))
+        .andExpect(status().isBadRequest());
+
+    verify(arquivoService, never()).createPresignedUpload(any());
+  }
+
+  @Test
+  @DisplayName("POST /api/arquivos/upload/presigned/confirm retorna 201")
+  void testConfirmPresignedUploadRetorna201() throws Exception {
+    given(arquivoService.confirmPresignedUpload(any(PresignedUploadConfirmDTO.class)))
+        .willReturn(responseDto(3L, "k.pdf"));
+
+    mockMvc.perform(post("/api/arquivos/upload/presigned/confirm")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"storageKey\":\"uploads/k.pdf\",\"filename\":\"k.pdf\"}"))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.id", is(3)));
+  }
+
   @Test
   @DisplayName("GET /api/arquivos/ retorna 200 com lista vazia")
   void testListAllRetorna200ComListaVazia() throws Exception {
@@ -125,6 +204,165 @@ class ArquivoControllerTest {
         .andExpect(status().isNotFound());
   }
 
+  private Arquivo arquivoComConteudo(Long id) throws Exception {
+    Arquivo arquivo = Arquivo.builder()
+        .id(id).nomeOriginal("foto vistoria.jpg").storageKey("blobs/ab/cd/abcd")
+        .contentType("image/jpeg").tamanho(12L)
+        .build();
+    given(arquivoService.getArquivoEntityById(id)).willReturn(arquivo);
+    given(arquivoService.statContent(arquivo)).willReturn(new ObjectStat("abc123", 12L, "image/jpeg"));
+    willAnswer(invocation -> {
+      int offset = (int) invocation.getArgument(1, Long.class).longValue();
+      int length = (int) invocation.getArgument(2, Long.class).longValue();
+      invocation.getArgument(3, OutputStream.class).write(CONTEUDO.getBytes(), offset, length);
+      return null;
+    }).given(arquivoService).writeContent(eq(arquivo), anyLong(), anyLong(), any());
+    return arquivo;
+  }
+
+  @Test
+  @DisplayName("GET /api/arquivos/{id}/download retorna 200 com conteudo inteiro e ETag")
+  void testDownloadRetornaConteudoInteiro() throws Exception {
+    arquivoComConteudo(1L);
+
+    MvcResult result = mockMvc.perform(get("/api/arquivos/1/download"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+        .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+        .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 12L))
+        .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("attachment")))
+        .andExpect(content().contentType("image/jpeg"))
+        .andExpect(content().string(CONTEUDO));
+  }
+
+  @Test
+  @DisplayName("GET /api/arquivos/{id}/download com Range retorna 206 com o trecho")
+  void testDownloadComRangeRetorna206() throws Exception {
+    Arquivo arquivo = arquivoComConteudo(1L);
+
+    MvcResult result = mockMvc.perform(get("/api/arquivos/1/download").header(HttpHeaders.RANGE, "bytes=2-5"))
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isPartialContent())
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/12"))
+        .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4L))
+        .andExpect(content().string("2345"));
+    verify(arquivoService).writeContent(eq(arquivo), eq(2L), eq(4L), any());
+  }
+
+  @Test
+  @DisplayName("GET /api/arquivos/{id}/download com Range do final retorna os ultimos bytes")
+  void testDownloadComRangeSufixo() throws Exception {
+    arquivoComConteudo(1L);
+
+    MvcResult result = mockMvc.perform(get("/api/arquivos/1/download").header(HttpHeaders.RANGE, "bytes=-3"))
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isPartialContent())
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 9-11/12"))
+        .andExpect(content().string("9ab"));
+  }
+
+  @Test
+  @DisplayName("GET /api/arquivos/{id}/download com If-Range de outra versao retorna o arquivo inteiro")
+  void testDownloadComIfRangeDiferente() throws Exception {
+    arquivoComConteudo(1L);
+
+    MvcResult result = mockMvc.perform(get("/api/arquivos/1/download")
+            .header(HttpHeaders.RANGE, "bytes=2-5")
+            .header(HttpHeaders.IF_RANGE, "\"outra\""))
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().string(CONTEUDO));
+  }
+
+  @Test
+  @DisplayName("GET /api/arquivos/{id}/download com Range apos o fim retorna 416")
+  void testDownloadComRangeInvalidoRetorna416() throws Exception {
+    arquivoComConteudo(1L);
+
+    mockMvc.perform(get("/api/arquivos/1/download").header(HttpHeaders.RANGE, "bytes=50-60"))
+        .andExpect(status().isRequestedRangeNotSatisfiable())
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */12"));
+    verify(arquivoService, never()).writeContent(any(), anyLong(), anyLong(), any());
+  }
+
+  @Test
+  @DisplayName("GET /api/arquivos/{id}/download com If-None-Match igual retorna 304")
+  void testDownloadComIfNoneMatchRetorna304() throws Exception {
+    arquivoComConteudo(1L);
+
+    mockMvc.perform(get("/api/arquivos/1/download").header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""));
+    verify(arquivoService, never()).writeContent(any(), anyLong(), anyLong(), any());
+  }
+
+  @Test
+  @DisplayName("GET /api/arquivos/{id}/download retorna 404 quando nao encontrado")
+  void testDownloadRetorna404() throws Exception {
+    given(arquivoService.getArquivoEntityById(999L))
+        .willThrow(new NotFoundException("Arquivo não encontrado com id 999"));
+
+    mockMvc.perform(get("/api/arquivos/999/download"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("GET /api/arquivos/{id}/thumbnail retorna a miniatura com cache privado")
+  void testThumbnailRetorna200() throws Exception {
+    Arquivo arquivo = Arquivo.builder().id(1L).storageKey("blobs/ab/cd/abcd").contentType("image/png").build();
+    given(arquivoService.getArquivoEntityById(1L)).willReturn(arquivo);
+    given(thumbnailService.statVariant(arquivo, "160")).willReturn(new ObjectStat("t1", 3L, "image/jpeg"));
+    given(thumbnailService.variantContentType(arquivo, "160")).willReturn("image/jpeg");
+    willAnswer(invocation -> {
+      invocation.getArgument(2, OutputStream.class).write(new byte[] {1, 2, 3});
+      return null;
+    }).given(thumbnailService).writeVariant(eq(arquivo), eq("160"), any());
+
+    MvcResult result = mockMvc.perform(get("/api/arquivos/1/thumbnail").param("size", "160"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("image/jpeg"))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"t1\""))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=86400, private"))
+        .andExpect(content().bytes(new byte[] {1, 2, 3}));
+  }
+
+  @Test
+  @DisplayName("GET /api/arquivos/{id}/thumbnail com If-None-Match igual retorna 304")
+  void testThumbnailRetorna304() throws Exception {
+    Arquivo arquivo = Arquivo.builder().id(1L).storageKey("blobs/ab/cd/abcd").contentType("image/jpeg").build();
+    given(arquivoService.getArquivoEntityById(1L)).willReturn(arquivo);
+    given(thumbnailService.statVariant(arquivo, "320")).willReturn(new ObjectStat("t1", 3L, "image/jpeg"));
+
+    mockMvc.perform(get("/api/arquivos/1/thumbnail").header(HttpHeaders.IF_NONE_MATCH, "\"t1\""))
+        .andExpect(status().isNotModified());
+    verify(thumbnailService, never()).writeVariant(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("GET /api/arquivos/{id}/thumbnail retorna 404 para arquivo que nao e imagem")
+  void testThumbnailRetorna404() throws Exception {
+    Arquivo arquivo = Arquivo.builder().id(1L).contentType("application/pdf").build();
+    given(arquivoService.getArquivoEntityById(1L)).willReturn(arquivo);
+    given(thumbnailService.statVariant(arquivo, "320")).willThrow(new NotFoundException("Arquivo sem miniatura: 1"));
+
+    mockMvc.perform(get("/api/arquivos/1/thumbnail"))
+        .andExpect(status().isNotFound());
+  }
+
   @Test
   @DisplayName("DELETE /api/arquivos/{id} retorna 204 quando deletado")
   void testDeleteRetorna204QuandoDeletado() throws Exception {
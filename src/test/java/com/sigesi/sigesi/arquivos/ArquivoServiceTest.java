@@ -1,33 +1,58 @@
 package com.sigesi.sigesi.arquivos;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.sigesi.sigesi.arquivos.dtos.ArquivoResponseDTO;
 import com.sigesi.sigesi.arquivos.dtos.FileUrlResponseDTO;
+import com.sigesi.sigesi.arquivos.dtos.PresignedUploadConfirmDTO;
+import com.sigesi.sigesi.arquivos.dtos.PresignedUploadRequestDTO;
+import com.sigesi.sigesi.arquivos.dtos.PresignedUploadResponseDTO;
+import com.sigesi.sigesi.arquivos.validation.InvalidFileException;
+import com.sigesi.sigesi.config.ConflictException;
 import com.sigesi.sigesi.config.NotFoundException;
 import com.sigesi.sigesi.storage.MinioService;
+import com.sigesi.sigesi.storage.ObjectStat;
+import com.sigesi.sigesi.storage.PresignedPost;
+import com.sigesi.sigesi.storage.PresignedUrl;
+import com.sigesi.sigesi.storage.PresignedUrlCache;
+import com.sigesi.sigesi.storage.StorageException;
 
 /**
  * Testes unitarios para ArquivoService.
@@ -36,15 +61,31 @@ import com.sigesi.sigesi.storage.MinioService;
 @DisplayName("ArquivoService Tests")
 class ArquivoServiceTest {
 
+  /** SHA-256 de "Test content". */
+  private static final String SHA_TEST_CONTENT =
+      "9d9595c5d94fb65b824f56e9999527dba9542481580d69feb89056aabaa0aa87";
+
   @Mock
   private ArquivoRepository arquivoRepository;
 
   @Mock
   private ArquivoMapper arquivoMapper;
 
+  @Mock
+  private ArquivoBlobRepository arquivoBlobRepository;
+
   @Mock
   private MinioService minioService;
 
+  @Mock
+  private ThumbnailService thumbnailService;
+
+  @Mock
+  private PresignedUrlCache presignedUrlCache;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
   @InjectMocks
   private ArquivoService arquivoService;
 
@@ -69,6 +110,7 @@ class ArquivoServiceTest {
         "file", "test.pdf", "application/pdf", "Test content".getBytes());
 
     when(minioService.uploadFile(any(), anyString())).thenReturn("storage-key");
+    when(arquivoBlobRepository.insertIfAbsent(anyString(), anyString(), anyLong())).thenReturn(1);
     when(arquivoRepository.save(any(Arquivo.class))).thenReturn(arquivo);
     when(arquivoMapper.toDto(any(Arquivo.class))).thenReturn(responseDTO);
 
@@ -95,18 +137,174 @@ class ArquivoServiceTest {
   }
 
   @Test
-  @DisplayName("Deve fazer rollback no MinIO quando salvamento no DB falha")
+  @DisplayName("Deve fazer upload em stream com tamanho e checksum calculados")
+  void testUploadStreamSuccess() {
+    byte[] pdf = "%PDF-1.4 documento".getBytes();
+    when(minioService.uploadStream(any(), eq(-1L), eq("application/pdf"), anyString()))
+        .thenAnswer(invocation -> {
+          invocation.getArgument(0, InputStream.class).readAllBytes();
+          return invocation.getArgument(3);
+        });
+    when(arquivoBlobRepository.insertIfAbsent(anyString(), anyString(), anyLong())).thenReturn(1);
+    when(arquivoRepository.save(any(Arquivo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    when(arquivoMapper.toDto(any(Arquivo.class))).thenReturn(responseDTO);
+
+    arquivoService.uploadStream(new ByteArrayInputStream(pdf), -1L, "test.pdf", "application/pdf", null);
+
+    ArgumentCaptor<Arquivo> captor = ArgumentCaptor.forClass(Arquivo.class);
+    verify(arquivoRepository).save(captor.capture());
+    assertEquals(pdf.length, captor.getValue().getTamanho());
+    assertEquals(64, captor.getValue().getChecksum().length());
+    // Envio e copia para a chave do conteudo antes de abrir a transacao
+    InOrder ordem = inOrder(minioService, transactionManager);
+    ordem.verify(minioService).uploadStream(any(), eq(-1L), eq("application/pdf"), startsWith("tmp/"));
+    ordem.verify(minioService).copyFile(startsWith("tmp/"), eq(captor.getValue().getStorageKey()));
+    ordem.verify(transactionManager).getTransaction(any());
+    ordem.verify(transactionManager).commit(any());
+    verify(minioService).deleteFile(startsWith("tmp/"));
+  }
+
+  @Test
+  @DisplayName("Deve apagar a chave temporaria e desfazer a transacao quando o salvamento falha")
+  void testUploadStreamDbSaveFails() {
+    when(minioService.uploadStream(any(), eq(-1L), eq("application/pdf"), anyString()))
+        .thenAnswer(invocation -> {
+          invocation.getArgument(0, InputStream.class).readAllBytes();
+          return invocation.getArgument(3);
+        });
+    when(arquivoBlobRepository.insertIfAbsent(anyString(), anyString(), anyLong())).thenReturn(1);
+    when(arquivoRepository.save(any(Arquivo.class))).thenThrow(new RuntimeException("DB error"));
+
+    assertThrows(RuntimeException.class, () -> arquivoService.uploadStream(
+        new ByteArrayInputStream("%PDF-1.4".getBytes()), -1L, "test.pdf", "application/pdf", null));
+
+    verify(transactionManager).rollback(any());
+    verify(minioService).deleteFile(startsWith("tmp/"));
+    // O objeto do conteudo pode ja ser de outro envio; fica para a limpeza do MinIO
+    verify(minioService, never()).deleteFile(startsWith("blobs/"));
+  }
+
+  @Test
+  @DisplayName("Deve propagar erro de validacao detectado durante o stream")
+  void testUploadStreamInvalidSignature() {
+    when(minioService.uploadStream(any(), eq(-1L), eq("image/png"), anyString()))
+        .thenAnswer(invocation -> {
+          try {
+            invocation.getArgument(0, InputStream.class).readAllBytes();
+          } catch (RuntimeException e) {
+            throw new StorageException("Não foi possível enviar o arquivo", e);
+          }
+          return invocation.getArgument(3);
+        });
+
+    assertThrows(InvalidFileException.class,
+        () -> arquivoService.uploadStream(
+            new ByteArrayInputStream("%PDF-1.4".getBytes()), -1L, "foto.png", "image/png", null));
+    verify(arquivoRepository, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("Nao deve remover objeto compartilhado quando salvamento no DB falha")
   void testUploadFileDbSaveFails() {
     MockMultipartFile file = new MockMultipartFile(
         "file", "test.pdf", "application/pdf", "content".getBytes());
 
     when(minioService.uploadFile(any(), anyString())).thenReturn("key");
+    when(arquivoBlobRepository.insertIfAbsent(anyString(), anyString(), anyLong())).thenReturn(1);
     when(arquivoRepository.save(any(Arquivo.class)))
         .thenThrow(new RuntimeException("DB error"));
 
     assertThrows(RuntimeException.class,
         () -> arquivoService.uploadFile(file, "test"));
-    verify(minioService, times(1)).deleteFile(anyString());
+    verify(minioService, never()).deleteFile(anyString());
+  }
+
+  @Test
+  @DisplayName("Deve reaproveitar conteudo ja armazenado sem novo envio ao MinIO")
+  void testUploadFileDeduplicado() {
+    MockMultipartFile file = new MockMultipartFile(
+        "file", "test.pdf", "application/pdf", "Test content".getBytes());
+    ArquivoBlob blob = ArquivoBlob.builder()
+        .sha256(SHA_TEST_CONTENT).storageKey("blobs/ab/cd/hash").tamanho(12L).referencias(1).build();
+
+    when(arquivoBlobRepository.findBySha256ForUpdate(SHA_TEST_CONTENT)).thenReturn(Optional.of(blob));
+    when(arquivoRepository.save(any(Arquivo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    when(arquivoMapper.toDto(any(Arquivo.class))).thenReturn(responseDTO);
+
+    arquivoService.uploadFile(file, "test");
+
+    verify(minioService, never()).uploadFile(any(), anyString());
+    verify(thumbnailService, never()).generateAfterCommit(anyString(), anyString());
+    assertEquals(2, blob.getReferencias());
+    ArgumentCaptor<Arquivo> captor = ArgumentCaptor.forClass(Arquivo.class);
+    verify(arquivoRepository).save(captor.capture());
+    assertEquals("blobs/ab/cd/hash", captor.getValue().getStorageKey());
+    assertEquals(SHA_TEST_CONTENT, captor.getValue().getChecksum());
+  }
+
+  @Test
+  @DisplayName("Deve gravar novo conteudo sob chave derivada do hash")
+  void testUploadFileNovoConteudoUsaChaveDoHash() {
+    MockMultipartFile file = new MockMultipartFile(
+        "file", "test.pdf", "application/pdf", "Test content".getBytes());
+
+    when(arquivoBlobRepository.insertIfAbsent(anyString(), anyString(), anyLong())).thenReturn(1);
+    when(arquivoRepository.save(any(Arquivo.class))).thenReturn(arquivo);
+    when(arquivoMapper.toDto(any(Arquivo.class))).thenReturn(responseDTO);
+
+    arquivoService.uploadFile(file, "test");
+
+    String expectedKey = "blobs/" + SHA_TEST_CONTENT.substring(0, 2) + "/"
+        + SHA_TEST_CONTENT.substring(2, 4) + "/" + SHA_TEST_CONTENT;
+    verify(minioService).uploadFile(file, expectedKey);
+    verify(arquivoBlobRepository).insertIfAbsent(SHA_TEST_CONTENT, expectedKey, 12L);
+    verify(thumbnailService).generateAfterCommit(expectedKey, "application/pdf");
+  }
+
+  @Test
+  @DisplayName("Deve referenciar o blob gravado por envio concorrente do mesmo conteudo")
+  void testUploadFileConcorrenteMesmoConteudo() {
+    MockMultipartFile file = new MockMultipartFile(
+        "file", "test.pdf", "application/pdf", "Test content".getBytes());
+    ArquivoBlob blob = ArquivoBlob.builder()
+        .sha256(SHA_TEST_CONTENT).storageKey("blobs/ab/cd/hash").tamanho(12L).referencias(1).build();
+    // Ausente na primeira leitura; o outro envio insere antes
+    when(arquivoBlobRepository.findBySha256ForUpdate(SHA_TEST_CONTENT))
+        .thenReturn(Optional.empty(), Optional.of(blob));
+    when(arquivoBlobRepository.insertIfAbsent(anyString(), anyString(), anyLong())).thenReturn(0);
+    when(arquivoRepository.save(any(Arquivo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    when(arquivoMapper.toDto(any(Arquivo.class))).thenReturn(responseDTO);
+
+    arquivoService.uploadFile(file, "test");
+
+    assertEquals(2, blob.getReferencias());
+    verify(arquivoBlobRepository).save(blob);
+    verify(thumbnailService, never()).generateAfterCommit(anyString(), anyString());
+    ArgumentCaptor<Arquivo> captor = ArgumentCaptor.forClass(Arquivo.class);
+    verify(arquivoRepository).save(captor.capture());
+    assertEquals("blobs/ab/cd/hash", captor.getValue().getStorageKey());
+  }
+
+  @Test
+  @DisplayName("Deve descartar envio em stream duplicado e apagar a chave temporaria")
+  void testUploadStreamDeduplicado() {
+    ArquivoBlob blob = ArquivoBlob.builder()
+        .sha256("hash").storageKey("blobs/ha/sh/hash").tamanho(8L).referencias(3).build();
+    when(minioService.uploadStream(any(), eq(-1L), eq("application/pdf"), anyString()))
+        .thenAnswer(invocation -> {
+          invocation.getArgument(0, InputStream.class).readAllBytes();
+          return invocation.getArgument(3);
+        });
+    when(arquivoBlobRepository.existsBySha256(anyString())).thenReturn(true);
+    when(arquivoBlobRepository.findBySha256ForUpdate(anyString())).thenReturn(Optional.of(blob));
+    when(arquivoRepository.save(any(Arquivo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+    arquivoService.uploadStream(
+        new ByteArrayInputStream("%PDF-1.4".getBytes()), -1L, "test.pdf", "application/pdf", null);
+
+    verify(minioService, never()).copyFile(anyString(), anyString());
+    verify(minioService).deleteFile(startsWith("tmp/"));
+    assertEquals(4, blob.getReferencias());
   }
 
   @Test
@@ -159,14 +357,16 @@ class ArquivoServiceTest {
   @DisplayName("Deve gerar URL de download com sucesso")
   void testGenerateDownloadUrlComSucesso() {
     when(arquivoRepository.findById(1L)).thenReturn(Optional.of(arquivo));
-    when(minioService.getPresignedUrl("uploads/test.pdf", 60))
-        .thenReturn("https://minio/url");
+    when(presignedUrlCache.get("uploads/test.pdf"))
+        .thenReturn(new PresignedUrl("https://minio/url", System.currentTimeMillis() + 1_800_000L));
 
     FileUrlResponseDTO result = arquivoService.generateDownloadUrl(1L);
 
     assertNotNull(result);
     assertEquals("https://minio/url", result.getUrl());
     assertEquals(1L, result.getFileId());
+    // Validade restante da URL reaproveitada, nao a validade total
+    assertTrue(result.getExpiresInSeconds() > 1790 && result.getExpiresInSeconds() <= 1800);
   }
 
   @Test
@@ -179,25 +379,31 @@ class ArquivoServiceTest {
   }
 
   @Test
-  @DisplayName("Deve fazer download de arquivo com sucesso")
-  void testDownloadFileComSucesso() {
-    InputStream mockStream = InputStream.nullInputStream();
+  @DisplayName("Deve copiar o trecho pedido do conteudo para a saida")
+  void testWriteContentCopiaTrecho() throws Exception {
+    when(minioService.downloadFile("uploads/test.pdf", 2L, 4L))
+        .thenReturn(new ByteArrayInputStream("2345".getBytes()));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-    when(arquivoRepository.findById(1L)).thenReturn(Optional.of(arquivo));
-    when(minioService.downloadFile("uploads/test.pdf")).thenReturn(mockStream);
+    arquivoService.writeContent(arquivo, 2L, 4L, out);
 
-    InputStream result = arquivoService.downloadFile(1L);
+    assertEquals("2345", out.toString());
+  }
 
-    assertNotNull(result);
+  @Test
+  @DisplayName("Nao deve consultar o armazenamento para conteudo vazio")
+  void testWriteContentVazio() throws Exception {
+    arquivoService.writeContent(arquivo, 0L, 0L, new ByteArrayOutputStream());
+
+    verify(minioService, never()).downloadFile(anyString(), anyLong(), anyLong());
   }
 
   @Test
-  @DisplayName("Deve lancar NotFoundException para download inexistente")
-  void testDownloadFileNaoEncontrado() {
-    when(arquivoRepository.findById(999L)).thenReturn(Optional.empty());
+  @DisplayName("Deve ler ETag e tamanho do conteudo no armazenamento")
+  void testStatContent() {
+    when(minioService.statFile("uploads/test.pdf")).thenReturn(new ObjectStat("abc", 1024L, "application/pdf"));
 
-    assertThrows(NotFoundException.class,
-        () -> arquivoService.downloadFile(999L));
+    assertEquals(new ObjectStat("abc", 1024L, "application/pdf"), arquivoService.statContent(arquivo));
   }
 
   @Test
@@ -211,6 +417,57 @@ class ArquivoServiceTest {
     verify(arquivoRepository, times(1)).delete(arquivo);
   }
 
+  @Test
+  @DisplayName("Deve manter objeto no MinIO enquanto houver outras referencias")
+  void testDeleteFileComReferenciasRestantes() {
+    arquivo.setChecksum("hash");
+    arquivo.setStorageKey("blobs/ha/sh/hash");
+    ArquivoBlob blob = ArquivoBlob.builder()
+        .sha256("hash").storageKey("blobs/ha/sh/hash").tamanho(12L).referencias(2).build();
+    when(arquivoRepository.findById(1L)).thenReturn(Optional.of(arquivo));
+    when(arquivoBlobRepository.findBySha256ForUpdate("hash")).thenReturn(Optional.of(blob));
+
+    arquivoService.deleteFile(1L);
+
+    assertEquals(1, blob.getReferencias());
+    verify(minioService, never()).deleteFile(anyString());
+    verify(arquivoBlobRepository, never()).delete(any(ArquivoBlob.class));
+    verify(arquivoRepository).delete(arquivo);
+  }
+
+  @Test
+  @DisplayName("Deve deixar o objeto da ultima referencia para a limpeza do MinIO")
+  void testDeleteFileUltimaReferencia() {
+    arquivo.setChecksum("hash");
+    ArquivoBlob blob = ArquivoBlob.builder()
+        .sha256("hash").storageKey("blobs/ha/sh/hash").tamanho(12L).referencias(1).build();
+    when(arquivoRepository.findById(1L)).thenReturn(Optional.of(arquivo));
+    when(arquivoBlobRepository.findBySha256ForUpdate("hash")).thenReturn(Optional.of(blob));
+
+    arquivoService.deleteFile(1L);
+
+    verify(arquivoBlobRepository).delete(blob);
+    // Um envio do mesmo conteudo pode estar regravando o objeto agora
+    verify(minioService, never()).deleteFile(anyString());
+  }
+
+  @Test
+  @DisplayName("Deve remover as miniaturas junto com a imagem que tem objeto proprio")
+  void testDeleteFileRemoveMiniaturas() {
+    arquivo.setStorageKey("uploads/foto.jpg");
+    arquivo.setContentType("image/jpeg");
+    when(arquivoRepository.findById(1L)).thenReturn(Optional.of(arquivo));
+    when(thumbnailService.supports("image/jpeg")).thenReturn(true);
+    when(thumbnailService.derivativeKeys("uploads/foto.jpg"))
+        .thenReturn(List.of("uploads/foto.jpg-160", "uploads/foto.jpg-original"));
+
+    arquivoService.deleteFile(1L);
+
+    verify(minioService).deleteFile("uploads/foto.jpg");
+    verify(minioService).deleteFile("uploads/foto.jpg-160");
+    verify(minioService).deleteFile("uploads/foto.jpg-original");
+  }
+
   @Test
   @DisplayName("Deve lancar NotFoundException para delecao inexistente")
   void testDeleteFileNaoEncontrado() {
@@ -250,4 +507,129 @@ class ArquivoServiceTest {
     assertThrows(NotFoundException.class,
         () -> arquivoService.getArquivoEntityById(999L));
   }
+
+  private static final String UPLOAD_KEY = "uploads/2026/10/18/0b7f1c2e-4d5a-4e8b-9c3f-2a1b0c9d8e7f.pdf";
+
+  private static PresignedUploadConfirmDTO confirmacao() {
+    return PresignedUploadConfirmDTO.builder()
+        .storageKey(UPLOAD_KEY).filename("relatorio.pdf").categoria("docs")
+        .build();
+  }
+
+  @Test
+  @DisplayName("Deve assinar formulario de envio direto para arquivo valido")
+  void testCreatePresignedUpload() {
+    ReflectionTestUtils.setField(arquivoService, "presignedUploadExpiryMinutes", 15);
+    when(minioService.presignPost(startsWith("uploads/"), eq("application/pdf"), eq(2048L), eq(15)))
+        .thenReturn(new PresignedPost("https://files/sigesi-files", Map.of("policy", "p")));
+
+    PresignedUploadResponseDTO result = arquivoService.createPresignedUpload(PresignedUploadRequestDTO.builder()
+        .filename("relatorio.pdf").contentType("application/pdf").tamanho(2048L).build());
+
+    assertTrue(result.getStorageKey().matches("uploads/\\d{4}/\\d{2}/\\d{2}/[0-9a-f-]{36}\\.pdf"));
+    assertEquals("https://files/sigesi-files", result.getUrl());
+    assertEquals(900L, result.getExpiresInSeconds());
+  }
+
+  @Test
+  @DisplayName("Deve recusar formulario de envio para tipo nao permitido")
+  void testCreatePresignedUploadTipoInvalido() {
+    PresignedUploadRequestDTO request = PresignedUploadRequestDTO.builder()
+        .filename("script.sh").contentType("application/x-sh").tamanho(10L).build();
+
+    assertThrows(InvalidFileException.class, () -> arquivoService.createPresignedUpload(request));
+    verify(minioService, never()).presignPost(anyString(), anyString(), anyLong(), any(Integer.class));
+  }
+
+  @Test
+  @DisplayName("Deve registrar envio direto conferindo o objeto no armazenamento")
+  void testConfirmPresignedUpload() {
+    when(arquivoRepository.existsByStorageKey(UPLOAD_KEY)).thenReturn(false);
+    when(minioService.statFile(UPLOAD_KEY)).thenReturn(new ObjectStat("e1", 2048L, "application/pdf"));
+    when(minioService.downloadFile(UPLOAD_KEY, 0L, 12L))
+        .thenReturn(new ByteArrayInputStream("%PDF-1.7\n%abc".getBytes()));
+    when(arquivoRepository.saveAndFlush(any(Arquivo.class))).thenReturn(arquivo);
+    when(arquivoMapper.toDto(arquivo)).thenReturn(responseDTO);
+
+    assertEquals(responseDTO, arquivoService.confirmPresignedUpload(confirmacao()));
+
+    ArgumentCaptor<Arquivo> salvo = ArgumentCaptor.forClass(Arquivo.class);
+    verify(arquivoRepository).saveAndFlush(salvo.capture());
+    assertEquals(UPLOAD_KEY, salvo.getValue().getStorageKey());
+    assertEquals(2048L, salvo.getValue().getTamanho());
+    assertEquals("application/pdf", salvo.getValue().getContentType());
+    assertNull(salvo.getValue().getChecksum());
+    verify(thumbnailService).generateAfterCommit(UPLOAD_KEY, "application/pdf");
+    // Consulta ao MinIO antes de abrir a transacao
+    InOrder ordem = inOrder(minioService, transactionManager);
+    ordem.verify(minioService).downloadFile(UPLOAD_KEY, 0L, 12L);
+    ordem.verify(transactionManager).getTransaction(any());
+  }
+
+  @Test
+  @DisplayName("Deve responder conflito quando confirmacao concorrente grava a mesma chave")
+  void testConfirmPresignedUploadConcorrente() {
+    when(minioService.statFile(UPLOAD_KEY)).thenReturn(new ObjectStat("e1", 2048L, "application/pdf"));
+    when(minioService.downloadFile(UPLOAD_KEY, 0L, 12L))
+        .thenReturn(new ByteArrayInputStream("%PDF-1.7\n%abc".getBytes()));
+    when(arquivoRepository.saveAndFlush(any(Arquivo.class))).thenThrow(new DataIntegrityViolationException("dup",
+        new ConstraintViolationException("dup", null, "uk_arquivos_upload_storage_key")));
+
+    assertThrows(ConflictException.class, () -> arquivoService.confirmPresignedUpload(confirmacao()));
+    verify(transactionManager).rollback(any());
+    // O objeto e do envio que venceu
+    verify(minioService, never()).deleteFile(anyString());
+  }
+
+  @Test
+  @DisplayName("Deve propagar violacao de outra restricao ao confirmar envio")
+  void testConfirmPresignedUploadOutraRestricao() {
+    when(minioService.statFile(UPLOAD_KEY)).thenReturn(new ObjectStat("e1", 2048L, "application/pdf"));
+    when(minioService.downloadFile(UPLOAD_KEY, 0L, 12L))
+        .thenReturn(new ByteArrayInputStream("%PDF-1.7\n%abc".getBytes()));
+    when(arquivoRepository.saveAndFlush(any(Arquivo.class))).thenThrow(new DataIntegrityViolationException("nulo",
+        new ConstraintViolationException("nulo", null, "arquivos_nome_original_not_null")));
+
+    assertThrows(DataIntegrityViolationException.class,
+        () -> arquivoService.confirmPresignedUpload(confirmacao()));
+  }
+
+  @Test
+  @DisplayName("Deve recusar confirmacao de chave fora da area de envio")
+  void testConfirmPresignedUploadChaveInvalida() {
+    PresignedUploadConfirmDTO confirm = confirmacao();
+    confirm.setStorageKey("blobs/ab/cd/abcd");
+
+    assertThrows(InvalidFileException.class, () -> arquivoService.confirmPresignedUpload(confirm));
+    verify(minioService, never()).statFile(anyString());
+  }
+
+  @Test
+  @DisplayName("Deve recusar confirmacao repetida")
+  void testConfirmPresignedUploadRepetida() {
+    when(arquivoRepository.existsByStorageKey(UPLOAD_KEY)).thenReturn(true);
+
+    assertThrows(ConflictException.class, () -> arquivoService.confirmPresignedUpload(confirmacao()));
+    verify(minioService, never()).deleteFile(anyString());
+  }
+
+  @Test
+  @DisplayName("Deve retornar 404 quando o objeto nao foi enviado")
+  void testConfirmPresignedUploadSemObjeto() {
+    when(minioService.statFile(UPLOAD_KEY)).thenThrow(new StorageException("Não foi possível consultar o arquivo"));
+
+    assertThrows(NotFoundException.class, () -> arquivoService.confirmPresignedUpload(confirmacao()));
+  }
+
+  @Test
+  @DisplayName("Deve remover o objeto cujo conteudo nao corresponde ao tipo")
+  void testConfirmPresignedUploadAssinaturaInvalida() {
+    when(minioService.statFile(UPLOAD_KEY)).thenReturn(new ObjectStat("e1", 2048L, "application/pdf"));
+    when(minioService.downloadFile(UPLOAD_KEY, 0L, 12L))
+        .thenReturn(new ByteArrayInputStream("MZ executavel".getBytes()));
+
+    assertThrows(InvalidFileException.class, () -> arquivoService.confirmPresignedUpload(confirmacao()));
+    verify(minioService).deleteFile(UPLOAD_KEY);
+    verify(arquivoRepository, never()).saveAndFlush(any());
+  }
 }
@@ -0,0 +1,220 @@
+package com.sigesi.sigesi.arquivos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sigesi.sigesi.storage.MinioService;
+import com.sigesi.sigesi.storage.StoredObject;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Testes unitarios para StorageReconciler.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StorageReconciler Tests")
+class StorageReconcilerTest {
+
+  private static final Instant ANTIGO = Instant.now().minus(Duration.ofDays(2));
+  private static final Instant RECENTE = Instant.now().minus(Duration.ofMinutes(5));
+
+  @Mock
+  private MinioService minioService;
+
+  @Mock
+  private ThumbnailService thumbnailService;
+
+  @Mock
+  private ArquivoRepository arquivoRepository;
+
+  @Mock
+  private ArquivoBlobRepository arquivoBlobRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @InjectMocks
+  private StorageReconciler reconciler;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(reconciler, "graceHours", 24L);
+    ReflectionTestUtils.setField(reconciler, "pageSize", 2);
+    ReflectionTestUtils.setField(reconciler, "objectsPerSecond", 1_000_000);
+    ReflectionTestUtils.setField(reconciler, "maxActions", 100);
+    // Variantes de miniatura com os tamanhos padrao
+    lenient().when(thumbnailService.contentKey(anyString())).thenAnswer(invocation -> {
+      String key = invocation.getArgument(0);
+      int dash = key.lastIndexOf('-');
+      return dash > 0 && Set.of("160", "original").contains(key.substring(dash + 1)) ? key.substring(0, dash) : null;
+    });
+  }
+
+  private static StoredObject objeto(String key, Instant lastModified) {
+    return new StoredObject(key, 10L, lastModified);
+  }
+
+  private void linhas(String after, String... keys) {
+    when(arquivoRepository.findStorageKeysAfter(eq(after), any(Limit.class))).thenReturn(List.of(keys));
+  }
+
+  @Test
+  @DisplayName("Deve apagar objeto antigo sem arquivo, com suas miniaturas, e manter os referenciados")
+  void testApagaOrfaos() {
+    when(minioService.listObjects(isNull(), eq(2)))
+        .thenReturn(List.of(objeto("blobs/aa", ANTIGO), objeto("blobs/aa-160", ANTIGO)));
+    when(minioService.listObjects("blobs/aa-160", 2))
+        .thenReturn(List.of(objeto("blobs/bb", ANTIGO), objeto("blobs/bb-160", ANTIGO)));
+    when(minioService.listObjects("blobs/bb-160", 2)).thenReturn(List.of(objeto("tmp/x.pdf", RECENTE)));
+    linhas("", "blobs/aa");
+    when(minioService.findObject("blobs/bb")).thenReturn(Optional.of(objeto("blobs/bb", ANTIGO)));
+    when(minioService.findObject("blobs/bb-160")).thenReturn(Optional.of(objeto("blobs/bb-160", ANTIGO)));
+
+    StorageReconciler.Report report = reconciler.reconcile();
+
+    verify(minioService).deleteFile("blobs/bb");
+    verify(minioService).deleteFile("blobs/bb-160");
+    verify(minioService, never()).deleteFile("blobs/aa");
+    verify(minioService, never()).deleteFile("blobs/aa-160");
+    verify(minioService, never()).deleteFile("tmp/x.pdf");
+    assertEquals(new StorageReconciler.Report(5, 2, 0), report);
+  }
+
+  @Test
+  @DisplayName("Deve marcar arquivos cujo objeto nao existe, conferindo antes no MinIO, sem inativa-los")
+  void testMarcaArquivosSemObjeto() {
+    when(minioService.listObjects(null, 2)).thenReturn(List.of(objeto("blobs/bb", ANTIGO)));
+    linhas("", "blobs/aa", "blobs/bb");
+    linhas("blobs/bb", "blobs/cc");
+    Arquivo semObjeto = Arquivo.builder().id(7L).storageKey("blobs/aa").ativo(true).build();
+    Arquivo recente = Arquivo.builder().id(8L).storageKey("blobs/cc").ativo(true).build();
+    when(arquivoRepository.findByStorageKeyAndBlobAusenteEmIsNull("blobs/aa")).thenReturn(List.of(semObjeto));
+    when(arquivoRepository.findByStorageKeyAndBlobAusenteEmIsNull("blobs/cc")).thenReturn(List.of(recente));
+    when(minioService.findObject("blobs/aa")).thenReturn(Optional.empty());
+    // Enviado depois que a listagem passou por ele
+    when(minioService.findObject("blobs/cc")).thenReturn(Optional.of(objeto("blobs/cc", RECENTE)));
+
+    StorageReconciler.Report report = reconciler.reconcile();
+
+    assertNotNull(semObjeto.getBlobAusenteEm());
+    assertTrue(semObjeto.getAtivo());
+    assertNull(recente.getBlobAusenteEm());
+    verify(arquivoRepository).saveAll(List.of(semObjeto));
+    verify(minioService, never()).deleteFile(anyString());
+    assertEquals(new StorageReconciler.Report(1, 0, 1), report);
+  }
+
+  @Test
+  @DisplayName("Deve limpar a marca de arquivos cujo objeto voltou")
+  void testLimpaMarcaQuandoObjetoVolta() {
+    when(minioService.listObjects(null, 2)).thenReturn(List.of(objeto("blobs/aa", ANTIGO)));
+    linhas("", "blobs/aa");
+    Arquivo marcado = Arquivo.builder().id(7L).storageKey("blobs/aa").ativo(true)
+        .blobAusenteEm(LocalDateTime.now().minusDays(3)).build();
+    when(arquivoRepository.findByStorageKeyInAndBlobAusenteEmIsNotNull(List.of("blobs/aa")))
+        .thenReturn(List.of(marcado));
+
+    StorageReconciler.Report report = reconciler.reconcile();
+
+    assertNull(marcado.getBlobAusenteEm());
+    verify(arquivoRepository).saveAll(List.of(marcado));
+    assertEquals(new StorageReconciler.Report(1, 0, 0), report);
+  }
+
+  @Test
+  @DisplayName("Nao deve apagar objeto que ganhou arquivo durante a varredura")
+  void testNaoApagaObjetoReferenciadoDepois() {
+    when(minioService.listObjects(null, 2)).thenReturn(List.of(objeto("blobs/bb", ANTIGO)));
+    linhas("");
+    when(arquivoRepository.findStorageKeysIn(Set.of("blobs/bb"))).thenReturn(List.of("blobs/bb"));
+
+    reconciler.reconcile();
+
+    verify(minioService, never()).findObject(anyString());
+    verify(minioService, never()).deleteFile(anyString());
+  }
+
+  @Test
+  @DisplayName("Nao deve apagar objeto regravado depois da listagem")
+  void testNaoApagaObjetoRegravado() {
+    when(minioService.listObjects(null, 2)).thenReturn(List.of(objeto("blobs/bb", ANTIGO)));
+    linhas("");
+    when(minioService.findObject("blobs/bb")).thenReturn(Optional.of(objeto("blobs/bb", RECENTE)));
+
+    reconciler.reconcile();
+
+    verify(minioService, never()).deleteFile(anyString());
+  }
+
+  @Test
+  @DisplayName("Nao deve alterar nada em modo de simulacao")
+  void testSimulacao() {
+    ReflectionTestUtils.setField(reconciler, "dryRun", true);
+    when(minioService.listObjects(null, 2)).thenReturn(List.of(objeto("blobs/bb", ANTIGO)));
+    linhas("", "blobs/aa");
+    Arquivo semObjeto = Arquivo.builder().id(7L).storageKey("blobs/aa").ativo(true).build();
+    when(arquivoRepository.findByStorageKeyAndBlobAusenteEmIsNull("blobs/aa")).thenReturn(List.of(semObjeto));
+    when(minioService.findObject("blobs/aa")).thenReturn(Optional.empty());
+    when(minioService.findObject("blobs/bb")).thenReturn(Optional.of(objeto("blobs/bb", ANTIGO)));
+
+    StorageReconciler.Report report = reconciler.reconcile();
+
+    verify(minioService, never()).deleteFile(anyString());
+    verify(arquivoRepository, never()).saveAll(any());
+    assertNull(semObjeto.getBlobAusenteEm());
+    assertEquals(new StorageReconciler.Report(1, 1, 1), report);
+  }
+
+  @Test
+  @DisplayName("Deve parar de agir ao atingir o limite por execucao")
+  void testLimiteDeAcoes() {
+    ReflectionTestUtils.setField(reconciler, "maxActions", 1);
+    when(minioService.listObjects(null, 2))
+        .thenReturn(List.of(objeto("blobs/aa", ANTIGO), objeto("blobs/bb", ANTIGO)));
+    when(minioService.listObjects("blobs/bb", 2)).thenReturn(List.of());
+    linhas("");
+    when(minioService.findObject(anyString()))
+        .thenAnswer(invocation -> Optional.of(objeto(invocation.getArgument(0), ANTIGO)));
+
+    StorageReconciler.Report report = reconciler.reconcile();
+
+    verify(minioService).deleteFile("blobs/aa");
+    verify(minioService, never()).deleteFile("blobs/bb");
+    assertEquals(1, report.deleted());
+  }
+
+  @Test
+  @DisplayName("Nao deve marcar arquivos quando o bucket esta vazio")
+  void testBucketVazio() {
+    when(minioService.listObjects(null, 2)).thenReturn(List.of());
+
+    StorageReconciler.Report report = reconciler.reconcile();
+
+    verify(arquivoRepository, never()).findByStorageKeyAndBlobAusenteEmIsNull(anyString());
+    assertEquals(new StorageReconciler.Report(0, 0, 0), report);
+  }
+}
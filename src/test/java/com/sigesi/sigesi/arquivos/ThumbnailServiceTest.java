@@ -0,0 +1,155 @@
+package com.sigesi.sigesi.arquivos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sigesi.sigesi.config.NotFoundException;
+import com.sigesi.sigesi.storage.MinioService;
+import com.sigesi.sigesi.storage.ObjectStat;
+import com.sigesi.sigesi.storage.StorageException;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Testes unitarios para ThumbnailService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ThumbnailService Tests")
+class ThumbnailServiceTest {
+
+  private static final String KEY = "blobs/ab/cd/abcd";
+
+  @Mock
+  private MinioService minioService;
+
+  @InjectMocks
+  private ThumbnailService thumbnailService;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(thumbnailService, "sizes", new int[] {160, 320});
+    ReflectionTestUtils.setField(thumbnailService, "threads", 1);
+    thumbnailService.startPool();
+  }
+
+  @AfterEach
+  void tearDown() {
+    thumbnailService.stopPool();
+  }
+
+  private static byte[] jpeg() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), "jpg", out);
+    return out.toByteArray();
+  }
+
+  private static Arquivo arquivo(String contentType) {
+    return Arquivo.builder().id(1L).storageKey(KEY).contentType(contentType).build();
+  }
+
+  @Test
+  @DisplayName("Deve gravar uma miniatura por tamanho e a copia sem metadados")
+  void testGenerateGravaVariantes() throws IOException {
+    when(minioService.downloadFile(KEY)).thenReturn(new ByteArrayInputStream(jpeg()));
+
+    thumbnailService.generate(KEY, "image/jpeg");
+
+    verify(minioService).uploadStream(any(), anyLong(), eq("image/jpeg"), eq(KEY + "-160"));
+    verify(minioService).uploadStream(any(), anyLong(), eq("image/jpeg"), eq(KEY + "-320"));
+    verify(minioService).uploadStream(any(), anyLong(), eq("image/jpeg"), eq(KEY + "-original"));
+  }
+
+  @Test
+  @DisplayName("Deve listar as chaves de todas as variantes")
+  void testDerivativeKeys() {
+    assertEquals(List.of(KEY + "-160", KEY + "-320", KEY + "-original"), thumbnailService.derivativeKeys(KEY));
+  }
+
+  @Test
+  @DisplayName("Deve reconhecer a chave do conteudo de cada variante")
+  void testContentKey() {
+    assertEquals(KEY, thumbnailService.contentKey(KEY + "-320"));
+    assertEquals(KEY, thumbnailService.contentKey(KEY + "-original"));
+    assertNull(thumbnailService.contentKey(KEY));
+    assertNull(thumbnailService.contentKey("uploads/2026/10/18/0b7f1c2e-4d5a-4e8b-9c3f-2a1b0c9d8e7f"));
+  }
+
+  @Test
+  @DisplayName("Deve ignorar tipos sem miniatura ao agendar a geracao")
+  void testGenerateAfterCommitIgnoraPdf() {
+    thumbnailService.generateAfterCommit(KEY, "application/pdf");
+
+    verify(minioService, never()).downloadFile(anyString());
+  }
+
+  @Test
+  @DisplayName("Deve retornar a variante existente sem gerar de novo")
+  void testStatVariantExistente() {
+    ObjectStat stat = new ObjectStat("e1", 10L, "image/jpeg");
+    when(minioService.statFile(KEY + "-160")).thenReturn(stat);
+
+    assertEquals(stat, thumbnailService.statVariant(arquivo("image/jpeg"), "160"));
+    verify(minioService, never()).downloadFile(anyString());
+  }
+
+  @Test
+  @DisplayName("Deve gerar a variante que ainda nao existe antes de responder")
+  void testStatVariantGeraQuandoFalta() throws IOException {
+    ObjectStat stat = new ObjectStat("e1", 10L, "image/jpeg");
+    when(minioService.statFile(KEY + "-320"))
+        .thenThrow(new StorageException("Não foi possível consultar o arquivo"))
+        .thenReturn(stat);
+    when(minioService.downloadFile(KEY)).thenReturn(new ByteArrayInputStream(jpeg()));
+
+    assertEquals(stat, thumbnailService.statVariant(arquivo("image/jpeg"), "320"));
+    verify(minioService, times(3)).uploadStream(any(), anyLong(), anyString(), anyString());
+  }
+
+  @Test
+  @DisplayName("Deve retornar 404 quando a imagem nao pode ser lida")
+  void testStatVariantImagemInvalida() {
+    when(minioService.statFile(KEY + "-160")).thenThrow(new StorageException("Não foi possível consultar o arquivo"));
+    when(minioService.downloadFile(KEY)).thenReturn(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+
+    assertThrows(NotFoundException.class, () -> thumbnailService.statVariant(arquivo("image/jpeg"), "160"));
+  }
+
+  @Test
+  @DisplayName("Deve recusar tamanho nao configurado")
+  void testStatVariantTamanhoInvalido() {
+    ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+        () -> thumbnailService.statVariant(arquivo("image/jpeg"), "999"));
+
+    assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+  }
+
+  @Test
+  @DisplayName("Deve retornar 404 para arquivo que nao e imagem")
+  void testStatVariantPdf() {
+    assertThrows(NotFoundException.class, () -> thumbnailService.statVariant(arquivo("application/pdf"), "160"));
+  }
+}
@@ -0,0 +1,187 @@
+package com.sigesi.sigesi.arquivos.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes para ImageDerivatives.
+ */
+@DisplayName("ImageDerivatives Tests")
+class ImageDerivativesTest {
+
+  private static final String SEGREDO = "GPS -7.1195,-34.8450 Pixel 7";
+
+  /** Imagem 400x200: metade esquerda vermelha, metade direita azul. */
+  private static BufferedImage imagem() {
+    BufferedImage image = new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    g.setColor(Color.RED);
+    g.fillRect(0, 0, 200, 200);
+    g.setColor(Color.BLUE);
+    g.fillRect(200, 0, 200, 200);
+    g.dispose();
+    return image;
+  }
+
+  private static byte[] encode(BufferedImage image, String format) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, format, out);
+    return out.toByteArray();
+  }
+
+  /** JPEG com EXIF (orientacao e um texto com a localizacao) e um comentario logo apos o SOI. */
+  private static byte[] jpegComExif(int orientation) throws IOException {
+    byte[] jpeg = encode(imagem(), "jpg");
+    byte[] texto = SEGREDO.getBytes(StandardCharsets.US_ASCII);
+
+    // TIFF little endian: IFD0 com Orientation (SHORT) e ImageDescription (ASCII)
+    ByteBuffer tiff = ByteBuffer.allocate(8 + 2 + 24 + 4 + texto.length)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    tiff.put((byte) 'I').put((byte) 'I').putShort((short) 42).putInt(8);
+    tiff.putShort((short) 2);
+    tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+    tiff.putShort((short) 0x010E).putShort((short) 2).putInt(texto.length).putInt(8 + 2 + 24 + 4);
+    tiff.putInt(0);
+    tiff.put(texto);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(jpeg, 0, 2);
+    byte[] exif = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+    writeSegment(out, 0xE1, concat(exif, tiff.array()));
+    writeSegment(out, 0xFE, SEGREDO.getBytes(StandardCharsets.US_ASCII));
+    out.write(jpeg, 2, jpeg.length - 2);
+    return out.toByteArray();
+  }
+
+  private static void writeSegment(ByteArrayOutputStream out, int marker, byte[] data) {
+    int length = data.length + 2;
+    out.write(0xFF);
+    out.write(marker);
+    out.write(length >> 8);
+    out.write(length & 0xFF);
+    out.write(data, 0, data.length);
+  }
+
+  private static byte[] concat(byte[] a, byte[] b) {
+    byte[] result = new byte[a.length + b.length];
+    System.arraycopy(a, 0, result, 0, a.length);
+    System.arraycopy(b, 0, result, a.length, b.length);
+    return result;
+  }
+
+  private static boolean contains(byte[] data, String text) {
+    return new String(data, StandardCharsets.ISO_8859_1).contains(text);
+  }
+
+  private static BufferedImage decode(byte[] data) throws IOException {
+    return ImageIO.read(new ByteArrayInputStream(data));
+  }
+
+  @Test
+  @DisplayName("Deve remover EXIF e comentarios do JPEG mantendo a orientacao")
+  void testStripJpegMantemOrientacao() throws IOException {
+    byte[] original = jpegComExif(6);
+    assertTrue(contains(original, SEGREDO));
+
+    byte[] limpo = ImageDerivatives.stripMetadata(original, ImageDerivatives.JPEG);
+
+    assertFalse(contains(limpo, SEGREDO));
+    assertEquals(6, ImageDerivatives.exifOrientation(limpo));
+    BufferedImage image = decode(limpo);
+    assertNotNull(image);
+    assertEquals(400, image.getWidth());
+    assertEquals(200, image.getHeight());
+  }
+
+  @Test
+  @DisplayName("Deve remover o EXIF inteiro quando a orientacao e a padrao")
+  void testStripJpegSemOrientacao() throws IOException {
+    byte[] limpo = ImageDerivatives.stripMetadata(jpegComExif(1), ImageDerivatives.JPEG);
+
+    assertFalse(contains(limpo, "Exif"));
+    assertEquals(1, ImageDerivatives.exifOrientation(limpo));
+    assertNotNull(decode(limpo));
+  }
+
+  @Test
+  @DisplayName("Deve remover chunks de texto do PNG")
+  void testStripPng() throws IOException {
+    byte[] png = encode(imagem(), "png");
+    byte[] texto = concat("Comment\0".getBytes(StandardCharsets.US_ASCII), SEGREDO.getBytes(StandardCharsets.US_ASCII));
+    ByteBuffer chunk = ByteBuffer.allocate(12 + texto.length);
+    chunk.putInt(texto.length).put("tEXt".getBytes(StandardCharsets.US_ASCII)).put(texto);
+    CRC32 crc = new CRC32();
+    crc.update(chunk.array(), 4, 4 + texto.length);
+    chunk.putInt((int) crc.getValue());
+    // Logo depois do IHDR (assinatura 8 + IHDR 25)
+    byte[] comTexto = concat(concat(Arrays.copyOf(png, 33), chunk.array()),
+        Arrays.copyOfRange(png, 33, png.length));
+    assertTrue(contains(comTexto, SEGREDO));
+
+    byte[] limpo = ImageDerivatives.stripMetadata(comTexto, ImageDerivatives.PNG);
+
+    assertFalse(contains(limpo, SEGREDO));
+    assertEquals(png.length, limpo.length);
+    assertEquals(400, decode(limpo).getWidth());
+  }
+
+  @Test
+  @DisplayName("Deve recusar conteudo que nao e JPEG")
+  void testStripJpegInvalido() {
+    assertThrows(IOException.class,
+        () -> ImageDerivatives.stripMetadata("%PDF-1.4".getBytes(StandardCharsets.US_ASCII), ImageDerivatives.JPEG));
+  }
+
+  @Test
+  @DisplayName("Deve gerar miniaturas no tamanho pedido sem ampliar imagens pequenas")
+  void testPreviewsTamanhos() throws IOException {
+    byte[][] previews = ImageDerivatives.previews(encode(imagem(), "png"), 1, 160, 800);
+
+    BufferedImage pequena = decode(previews[0]);
+    assertEquals(160, pequena.getWidth());
+    assertEquals(80, pequena.getHeight());
+    BufferedImage grande = decode(previews[1]);
+    assertEquals(400, grande.getWidth());
+    assertEquals(200, grande.getHeight());
+  }
+
+  @Test
+  @DisplayName("Deve girar a miniatura conforme a orientacao EXIF")
+  void testPreviewsOrientacao() throws IOException {
+    byte[] jpeg = jpegComExif(6);
+
+    BufferedImage preview = decode(ImageDerivatives.previews(jpeg, ImageDerivatives.exifOrientation(jpeg), 160)[0]);
+
+    // Girada 90 graus no sentido horario: vermelho (esquerda) passa para cima
+    assertEquals(80, preview.getWidth());
+    assertEquals(160, preview.getHeight());
+    Color topo = new Color(preview.getRGB(40, 20));
+    Color base = new Color(preview.getRGB(40, 140));
+    assertTrue(topo.getRed() > 200 && topo.getBlue() < 80, "topo deveria ser vermelho: " + topo);
+    assertTrue(base.getBlue() > 200 && base.getRed() < 80, "base deveria ser azul: " + base);
+  }
+
+  @Test
+  @DisplayName("Deve retornar orientacao 1 quando nao ha EXIF")
+  void testOrientacaoPadrao() throws IOException {
+    assertEquals(1, ImageDerivatives.exifOrientation(encode(imagem(), "jpg")));
+  }
+}
@@ -1,6 +1,7 @@
 package com.sigesi.sigesi.arquivos.validation;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -168,4 +169,28 @@ class FileValidatorTest {
 
     assertDoesNotThrow(() -> FileValidator.validateFile(file));
   }
+
+  @Test
+  @DisplayName("Deve reconhecer assinatura de PNG")
+  void testMatchesSignaturePng() {
+    byte[] header = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0};
+
+    assertTrue(FileValidator.matchesSignature("image/png", header, header.length));
+    assertFalse(FileValidator.matchesSignature("application/pdf", header, header.length));
+  }
+
+  @Test
+  @DisplayName("Deve rejeitar upload em stream acima do limite declarado")
+  void testValidateStreamMetadataTooLarge() {
+    assertThrows(InvalidFileException.class,
+        () -> FileValidator.validateStreamMetadata(
+            "scan.pdf", "application/pdf", FileValidator.MAX_STREAM_FILE_SIZE + 1));
+  }
+
+  @Test
+  @DisplayName("Deve aceitar upload em stream sem tamanho declarado")
+  void testValidateStreamMetadataUnknownSize() {
+    assertDoesNotThrow(
+        () -> FileValidator.validateStreamMetadata("scan.pdf", "application/pdf", -1));
+  }
 }
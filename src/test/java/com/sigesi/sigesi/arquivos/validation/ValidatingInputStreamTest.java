@@ -0,0 +1,89 @@
+package com.sigesi.sigesi.arquivos.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes unitarios para ValidatingInputStream.
+ */
+@DisplayName("ValidatingInputStream Tests")
+class ValidatingInputStreamTest {
+
+  private static final byte[] PDF = "%PDF-1.7 conteudo do documento".getBytes(StandardCharsets.US_ASCII);
+
+  @Test
+  @DisplayName("Deve repassar o conteudo e calcular tamanho e SHA-256")
+  void testValidContentComputesChecksum() throws Exception {
+    ValidatingInputStream in = stream(PDF, "application/pdf", 1024);
+
+    byte[] read = in.readAllBytes();
+
+    assertEquals(PDF.length, read.length);
+    assertEquals(PDF.length, in.getBytesRead());
+    String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(PDF));
+    assertEquals(expected, in.getChecksum());
+  }
+
+  @Test
+  @DisplayName("Deve rejeitar conteudo que nao corresponde ao tipo declarado")
+  void testSignatureMismatch() {
+    ValidatingInputStream in = stream(PDF, "image/png", 1024);
+
+    InvalidFileException ex = assertThrows(InvalidFileException.class, in::readAllBytes);
+
+    assertTrue(ex.getMessage().contains("image/png"));
+    assertSame(ex, in.getViolation());
+  }
+
+  @Test
+  @DisplayName("Deve validar arquivo menor que o cabecalho ao final do stream")
+  void testShortContentCheckedAtEnd() {
+    ValidatingInputStream in = stream(new byte[] {(byte) 0xFF, (byte) 0xD8}, "image/jpeg", 1024);
+
+    assertThrows(InvalidFileException.class, in::readAllBytes);
+  }
+
+  @Test
+  @DisplayName("Deve interromper a leitura ao exceder o tamanho maximo")
+  void testMaxSizeExceeded() {
+    ValidatingInputStream in = stream(PDF, "application/pdf", 10);
+
+    InvalidFileException ex = assertThrows(InvalidFileException.class, in::readAllBytes);
+
+    assertTrue(ex.getMessage().contains("limite"));
+  }
+
+  @Test
+  @DisplayName("Deve rejeitar stream vazio")
+  void testEmptyStream() {
+    ValidatingInputStream in = stream(new byte[0], "application/pdf", 1024);
+
+    assertThrows(InvalidFileException.class, in::readAllBytes);
+  }
+
+  @Test
+  @DisplayName("Deve aceitar WEBP com cabecalho RIFF valido")
+  void testWebpSignature() throws IOException {
+    byte[] webp = "RIFF\0\0\0\0WEBPVP8 dados".getBytes(StandardCharsets.US_ASCII);
+
+    try (InputStream in = stream(webp, "image/webp", 1024)) {
+      assertEquals(webp.length, in.readAllBytes().length);
+    }
+  }
+
+  private ValidatingInputStream stream(byte[] content, String contentType, long maxSize) {
+    return new ValidatingInputStream(new ByteArrayInputStream(content), contentType, maxSize);
+  }
+}
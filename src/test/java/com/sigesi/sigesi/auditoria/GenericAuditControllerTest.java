@@ -0,0 +1,86 @@
+package com.sigesi.sigesi.auditoria;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sigesi.sigesi.config.CursorPageDTO;
+import com.sigesi.sigesi.materiais.Material;
+
+/**
+ * Testes para GenericAuditController.
+ */
+@WebMvcTest(controllers = GenericAuditController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@DisplayName("GenericAuditController Tests")
+class GenericAuditControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private GenericAuditController controller;
+
+  @MockitoBean
+  private GenericAuditService service;
+
+  private static AuditLogDTO revisao(long numero) {
+    return new AuditLogDTO(numero, Map.of("id", 1), "Ana", "ana@test.com", 1_700_000_000_000L, "UPDATE");
+  }
+
+  @Test
+  @DisplayName("GET /api/audit/revisions sem paged mantem a lista do formato antigo")
+  void testRevisionsFormatoAntigo() throws Exception {
+    given(service.getAllRevisions(eq(Material.class), any(AuditFilterDTO.class)))
+        .willReturn(List.of(revisao(2L), revisao(1L)));
+
+    mockMvc.perform(get("/api/audit/revisions").param("entity", "MATERIAL").param("id", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andExpect(jsonPath("$[0].revision", is(2)));
+  }
+
+  @Test
+  @DisplayName("GET /api/audit/revisions?paged=true retorna pagina com cursor")
+  void testRevisionsPaginadas() throws Exception {
+    given(service.getRevisions(eq(Material.class), any(AuditFilterDTO.class), isNull(), eq(1)))
+        .willReturn(CursorPageDTO.<AuditLogDTO>builder()
+            .items(List.of(revisao(2L))).nextCursor("abc").hasNext(true).build());
+
+    mockMvc.perform(get("/api/audit/revisions").param("entity", "MATERIAL").param("paged", "true").param("size", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items", hasSize(1)))
+        .andExpect(jsonPath("$.nextCursor", is("abc")))
+        .andExpect(jsonPath("$.hasNext", is(true)));
+  }
+
+  @Test
+  @DisplayName("GET /api/audit/revisions sem paged retorna 410 com a listagem antiga desativada")
+  void testRevisionsFormatoAntigoDesativado() throws Exception {
+    ReflectionTestUtils.setField(controller, "legacyListEnabled", false);
+    try {
+      mockMvc.perform(get("/api/audit/revisions").param("entity", "MATERIAL"))
+          .andExpect(status().isGone());
+    } finally {
+      ReflectionTestUtils.setField(controller, "legacyListEnabled", true);
+    }
+  }
+}
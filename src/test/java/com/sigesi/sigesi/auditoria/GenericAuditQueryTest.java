@@ -0,0 +1,175 @@
+package com.sigesi.sigesi.auditoria;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sigesi.sigesi.config.CursorPageDTO;
+import com.sigesi.sigesi.materiais.Material;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Executa as consultas de revisao contra o Envers real, com revisoes confirmadas.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(GenericAuditService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("GenericAuditService Query Tests")
+class GenericAuditQueryTest {
+
+  @Autowired
+  private GenericAuditService auditService;
+
+  @Autowired
+  private EntityManager em;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate tx;
+  private List<Long> ids;
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    jdbc.update("delete from material_aud");
+    jdbc.update("delete from revinfo");
+    jdbc.update("delete from material");
+    tx = new TransactionTemplate(transactionManager);
+    statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+    ids = new ArrayList<>();
+    tx.executeWithoutResult(status -> {
+      for (int i = 1; i <= 3; i++) {
+        Material material = Material.builder().nome("Material " + i).preco((double) i).build();
+        em.persist(material);
+        ids.add(material.getId());
+      }
+    });
+    tx.executeWithoutResult(status -> em.find(Material.class, ids.get(0)).setPreco(10.0));
+  }
+
+  @Test
+  @DisplayName("Deve percorrer revisoes que compartilham o numero de revisao sem perder linhas")
+  void testCursorComRevisaoCompartilhada() {
+    CursorPageDTO<AuditLogDTO> first = auditService.getRevisions(Material.class, null, null, 2);
+    CursorPageDTO<AuditLogDTO> second = auditService.getRevisions(
+        Material.class, null, first.getNextCursor(), 2);
+
+    assertTrue(first.isHasNext());
+    assertEquals(List.of("UPDATE", "INSERT"), first.getItems().stream().map(AuditLogDTO::action).toList());
+    assertFalse(second.isHasNext());
+    assertEquals(2, second.getItems().size());
+    assertEquals(List.of(ids.get(0), ids.get(2), ids.get(1), ids.get(0)),
+        List.of(idDe(first, 0), idDe(first, 1), idDe(second, 0), idDe(second, 1)));
+  }
+
+  @Test
+  @DisplayName("Deve listar todas as revisoes sem paginacao no formato antigo")
+  void testListaSemPaginacao() {
+    List<AuditLogDTO> revisoes = auditService.getAllRevisions(
+        Material.class, AuditFilterDTO.builder().id(ids.get(0)).build());
+
+    assertEquals(List.of("UPDATE", "INSERT"), revisoes.stream().map(AuditLogDTO::action).toList());
+  }
+
+  @Test
+  @DisplayName("Deve filtrar por usuario da revisao")
+  void testFiltroUsuario() {
+    Long revisaoUpdate = jdbc.queryForObject("select max(id) from revinfo", Long.class);
+    jdbc.update("update revinfo set usuario_id = 99 where id = ?", revisaoUpdate);
+
+    CursorPageDTO<AuditLogDTO> page = auditService.getRevisions(
+        Material.class, AuditFilterDTO.builder().usuarioId(99L).build(), null, null);
+
+    assertEquals(1, page.getItems().size());
+    assertEquals(revisaoUpdate, page.getItems().get(0).revision());
+  }
+
+  @Test
+  @DisplayName("Deve exportar todas as revisoes em NDJSON")
+  void testExportNdjson() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    auditService.exportRevisions(Material.class, null, false, out);
+
+    String[] linhas = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(4, linhas.length);
+    assertTrue(linhas[0].startsWith("{\"revision\":"));
+  }
+
+  @Test
+  @DisplayName("Deve retornar apenas os campos alterados no modo diff")
+  void testDiffMode() {
+    CursorPageDTO<AuditDiffDTO> page = auditService.getRevisionDiffs(
+        Material.class, AuditFilterDTO.builder().id(ids.get(0)).build(), null, 1);
+
+    AuditDiffDTO update = page.getItems().get(0);
+    assertEquals("UPDATE", update.action());
+    assertEquals(List.of(new AuditChangeDTO("preco", 1.0, 10.0)), update.changes());
+    assertTrue(page.isHasNext());
+
+    CursorPageDTO<AuditDiffDTO> next = auditService.getRevisionDiffs(
+        Material.class, AuditFilterDTO.builder().id(ids.get(0)).build(), page.getNextCursor(), 1);
+    AuditDiffDTO insert = next.getItems().get(0);
+    assertEquals("INSERT", insert.action());
+    assertTrue(insert.changes().contains(new AuditChangeDTO("nome", null, "Material 1")));
+  }
+
+  @Test
+  @DisplayName("Deve buscar numa so consulta as revisoes anteriores que ficaram fora da pagina")
+  void testDiffBuscaAnterioresEmLote() {
+    tx.executeWithoutResult(status -> em.find(Material.class, ids.get(1)).setPreco(20.0));
+    tx.executeWithoutResult(status -> em.find(Material.class, ids.get(2)).setPreco(30.0));
+    tx.executeWithoutResult(status -> em.find(Material.class, ids.get(2)).setPreco(31.0));
+    List<Long> revisoes = jdbc.queryForList("select id from revinfo order by id", Long.class);
+    // A revisao do meio do material 3 fica fora do filtro, mas e a anterior da ultima
+    jdbc.update("update revinfo set usuario_id = 99 where id in (?, ?)", revisoes.get(2), revisoes.get(4));
+    statistics.clear();
+
+    CursorPageDTO<AuditDiffDTO> page = auditService.getRevisionDiffs(
+        Material.class, AuditFilterDTO.builder().usuarioId(99L).build(), null, null);
+
+    assertEquals(List.of(List.of(new AuditChangeDTO("preco", 30.0, 31.0)), List.of(new AuditChangeDTO("preco", 2.0, 20.0))),
+        page.getItems().stream().map(AuditDiffDTO::changes).toList());
+    assertEquals(2, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  @DisplayName("Deve exportar diffs em NDJSON com campos old e new")
+  void testExportDiffNdjson() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    auditService.exportRevisions(Material.class, null, true, out);
+
+    String primeira = out.toString(StandardCharsets.UTF_8).split("\n")[0];
+    assertTrue(primeira.contains("\"changes\":[{\"field\":\"preco\",\"old\":1.0,\"new\":10.0}]"));
+  }
+
+  private Long idDe(CursorPageDTO<AuditLogDTO> page, int index) {
+    return ((Number) page.getItems().get(index).entity().get("id")).longValue();
+  }
+}
@@ -1,16 +1,23 @@
 package com.sigesi.sigesi.auditoria;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.AuditReaderFactory;
@@ -26,9 +33,13 @@ import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.sigesi.sigesi.config.CursorCodec;
+import com.sigesi.sigesi.config.CursorPageDTO;
 import com.sigesi.sigesi.config.UsuarioRevisionEntity;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
 
 /**
  * Testes unitarios para GenericAuditService.
@@ -64,6 +75,7 @@ class GenericAuditServiceTest {
     when(queryCreator.forRevisionsOfEntity(any(), anyBoolean(), anyBoolean()))
         .thenReturn(auditQuery);
     when(auditQuery.addOrder(any())).thenReturn(auditQuery);
+    when(auditQuery.setMaxResults(anyInt())).thenReturn(auditQuery);
   }
 
   private List<?> createResultList(RevisionType revType) {
@@ -84,7 +96,7 @@ class GenericAuditServiceTest {
       setupAuditMocks(mockedFactory, auditReader, auditQuery);
       when(auditQuery.getResultList()).thenReturn(createResultList(RevisionType.ADD));
 
-      List<AuditLogDTO> result = genericAuditService.getRevisions(Object.class, null);
+      List<AuditLogDTO> result = genericAuditService.getRevisions(Object.class, null, null, null).getItems();
 
       assertNotNull(result);
       assertEquals(1, result.size());
@@ -104,7 +116,7 @@ class GenericAuditServiceTest {
       setupAuditMocks(mockedFactory, auditReader, auditQuery);
       when(auditQuery.getResultList()).thenReturn(Collections.emptyList());
 
-      List<AuditLogDTO> result = genericAuditService.getRevisions(Object.class, null);
+      List<AuditLogDTO> result = genericAuditService.getRevisions(Object.class, null, null, null).getItems();
 
       assertNotNull(result);
       assertTrue(result.isEmpty());
@@ -123,7 +135,8 @@ class GenericAuditServiceTest {
       when(auditQuery.add(any())).thenReturn(auditQuery);
       when(auditQuery.getResultList()).thenReturn(createResultList(RevisionType.MOD));
 
-      List<AuditLogDTO> result = genericAuditService.getRevisions(Object.class, 1L);
+      List<AuditLogDTO> result = genericAuditService.getRevisions(
+          Object.class, AuditFilterDTO.builder().id(1L).build(), null, null).getItems();
 
       assertNotNull(result);
       assertEquals(1, result.size());
@@ -142,9 +155,90 @@ class GenericAuditServiceTest {
       setupAuditMocks(mockedFactory, auditReader, auditQuery);
       when(auditQuery.getResultList()).thenReturn(createResultList(RevisionType.DEL));
 
-      List<AuditLogDTO> result = genericAuditService.getRevisions(Object.class, null);
+      List<AuditLogDTO> result = genericAuditService.getRevisions(Object.class, null, null, null).getItems();
 
       assertEquals("DELETE", result.get(0).action());
     }
   }
+
+  @Test
+  @DisplayName("Deve aplicar limite de pagina e retornar cursor quando ha mais revisoes")
+  void testGetRevisionsPaginaComCursor() {
+    try (MockedStatic<AuditReaderFactory> mockedFactory =
+        Mockito.mockStatic(AuditReaderFactory.class)) {
+
+      AuditReader auditReader = mock(AuditReader.class);
+      AuditQuery auditQuery = mock(AuditQuery.class);
+      setupAuditMocks(mockedFactory, auditReader, auditQuery);
+      List<Object[]> rows = new ArrayList<>();
+      Object entidade = new Object();
+      rows.add(new Object[]{entidade, createRevisionEntity(), RevisionType.ADD});
+      rows.add(new Object[]{new Object(), createRevisionEntity(), RevisionType.ADD});
+      when(auditQuery.getResultList()).thenReturn(rows);
+      EntityManagerFactory emf = mock(EntityManagerFactory.class);
+      PersistenceUnitUtil util = mock(PersistenceUnitUtil.class);
+      when(entityManager.getEntityManagerFactory()).thenReturn(emf);
+      when(emf.getPersistenceUnitUtil()).thenReturn(util);
+      when(util.getIdentifier(entidade)).thenReturn(9L);
+
+      CursorPageDTO<AuditLogDTO> page = genericAuditService.getRevisions(Object.class, null, null, 1);
+
+      assertEquals(1, page.getItems().size());
+      assertTrue(page.isHasNext());
+      long[] key = CursorCodec.decodePair(page.getNextCursor());
+      assertEquals(1L, key[0]);
+      assertEquals(9L, key[1]);
+      verify(auditQuery).setMaxResults(2);
+    }
+  }
+
+  @Test
+  @DisplayName("Deve aplicar cursor e filtros de usuario e periodo na consulta")
+  void testGetRevisionsAplicaFiltros() {
+    try (MockedStatic<AuditReaderFactory> mockedFactory =
+        Mockito.mockStatic(AuditReaderFactory.class)) {
+
+      AuditReader auditReader = mock(AuditReader.class);
+      AuditQuery auditQuery = mock(AuditQuery.class);
+      setupAuditMocks(mockedFactory, auditReader, auditQuery);
+      when(auditQuery.add(any())).thenReturn(auditQuery);
+      when(auditQuery.getResultList()).thenReturn(Collections.emptyList());
+      AuditFilterDTO filter = AuditFilterDTO.builder()
+          .usuarioId(3L)
+          .de(LocalDateTime.of(2025, 1, 1, 0, 0))
+          .ate(LocalDateTime.of(2025, 12, 31, 23, 59))
+          .build();
+
+      CursorPageDTO<AuditLogDTO> page = genericAuditService.getRevisions(
+          Object.class, filter, CursorCodec.encodePair(10L, 2L), 500);
+
+      assertFalse(page.isHasNext());
+      assertNull(page.getNextCursor());
+      verify(auditQuery, times(4)).add(any());
+      verify(auditQuery).setMaxResults(GenericAuditService.MAX_PAGE_SIZE + 1);
+    }
+  }
+
+  @Test
+  @DisplayName("Deve listar apenas campos alterados e reduzir referencias ao id")
+  void testDiffCamposAlterados() {
+    Map<String, Object> antes = Map.of("status", "PENDENTE", "responsavel", Map.of("id", 1, "nome", "A"),
+        "body", "texto longo");
+    Map<String, Object> depois = Map.of("status", "CONCLUIDA", "responsavel", Map.of("id", 2, "nome", "B"),
+        "body", "texto longo");
+
+    List<AuditChangeDTO> changes = GenericAuditService.diff(antes, depois);
+
+    assertEquals(2, changes.size());
+    assertTrue(changes.contains(new AuditChangeDTO("status", "PENDENTE", "CONCLUIDA")));
+    assertTrue(changes.contains(new AuditChangeDTO("responsavel", 1, 2)));
+  }
+
+  @Test
+  @DisplayName("Deve tratar campos ausentes na revisao anterior como nulos")
+  void testDiffSemRevisaoAnterior() {
+    List<AuditChangeDTO> changes = GenericAuditService.diff(Map.of(), Map.of("nome", "Cimento"));
+
+    assertEquals(List.of(new AuditChangeDTO("nome", null, "Cimento")), changes);
+  }
 }
@@ -0,0 +1,165 @@
+package com.sigesi.sigesi.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sigesi.sigesi.pessoas.Pessoa;
+import com.sigesi.sigesi.usuarios.Usuario;
+import com.sigesi.sigesi.usuarios.enums.Role;
+
+/**
+ * Duas instancias da aplicacao, cada uma com seu JdbcIndexedSessionRepository, sobre o
+ * mesmo banco: qualquer uma atende qualquer requisicao da sessao, sem sticky session.
+ */
+@DisplayName("Sessao JDBC compartilhada entre instancias")
+class SessaoJdbcCompartilhadaTest {
+
+  private static final String CONTEXT_KEY =
+      HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY;
+
+  private static EmbeddedDatabase database;
+
+  private SessionRepository<Session> instanciaA;
+  private SessionRepository<Session> instanciaB;
+
+  @BeforeAll
+  static void iniciarBanco() {
+    database = new EmbeddedDatabaseBuilder()
+        .setType(EmbeddedDatabaseType.H2)
+        .generateUniqueName(true)
+        .addScript("org/springframework/session/jdbc/schema-h2.sql")
+        .build();
+  }
+
+  @AfterAll
+  static void encerrarBanco() {
+    database.shutdown();
+  }
+
+  @BeforeEach
+  void setUp() {
+    instanciaA = novaInstancia();
+    instanciaB = novaInstancia();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static SessionRepository<Session> novaInstancia() {
+    JdbcIndexedSessionRepository repository = new JdbcIndexedSessionRepository(
+        new JdbcTemplate(database), new TransactionTemplate(new DataSourceTransactionManager(database)));
+    return (SessionRepository<Session>) (SessionRepository<?>) repository;
+  }
+
+  static CustomOAuth2User principal() {
+    OidcIdToken idToken = OidcIdToken.withTokenValue("id-token")
+        .subject("google-123")
+        .claim("email", "agente@example.com")
+        .issuedAt(Instant.now())
+        .expiresAt(Instant.now().plusSeconds(3600))
+        .build();
+    Pessoa pessoa = Pessoa.builder().id(4L).nome("Fulana Pessoa").cpf("52998224725").build();
+    Usuario usuario = Usuario.builder()
+        .id(7L).name("Agente").email("agente@example.com")
+        .role(Role.AGENTE).ativo(true).pessoa(pessoa)
+        .build();
+    return new CustomOAuth2User(new DefaultOidcUser(List.of(), idToken), usuario, 3L);
+  }
+
+  private static SecurityContext contexto(CustomOAuth2User principal) {
+    SecurityContext context = SecurityContextHolder.createEmptyContext();
+    context.setAuthentication(
+        new OAuth2AuthenticationToken(principal, principal.getAuthorities(), "google"));
+    return context;
+  }
+
+  @Test
+  @DisplayName("Sessao criada em uma instancia deve ser lida pela outra")
+  void testSessaoLidaEmOutraInstancia() {
+    Session session = instanciaA.createSession();
+    session.setAttribute(CONTEXT_KEY, contexto(principal()));
+    instanciaA.save(session);
+
+    Session lida = instanciaB.findById(session.getId());
+
+    assertNotNull(lida);
+    SecurityContext context = lida.getAttribute(CONTEXT_KEY);
+    CustomOAuth2User principal = (CustomOAuth2User) context.getAuthentication().getPrincipal();
+    assertEquals(7L, principal.getUsuarioId());
+    assertEquals(3L, principal.getVersao());
+    assertEquals("ROLE_AGENTE", context.getAuthentication().getAuthorities().iterator().next().getAuthority());
+    assertEquals("google-123", principal.getIdToken().getSubject());
+    assertNull(principal.getUser());
+  }
+
+  @Test
+  @DisplayName("Requisicoes alternadas entre instancias devem ver o mesmo estado")
+  void testRequisicoesAlternadas() {
+    Session session = instanciaA.createSession();
+    session.setAttribute("contador", 0);
+    instanciaA.save(session);
+
+    for (int i = 0; i < 20; i++) {
+      SessionRepository<Session> instancia = i % 2 == 0 ? instanciaB : instanciaA;
+      Session atual = instancia.findById(session.getId());
+      int contador = atual.getAttribute("contador");
+      atual.setAttribute("contador", contador + 1);
+      instancia.save(atual);
+    }
+
+    assertEquals(20, (int) instanciaA.findById(session.getId()).getAttribute("contador"));
+  }
+
+  @Test
+  @DisplayName("Logout em uma instancia deve encerrar a sessao nas demais")
+  void testLogoutEmOutraInstancia() {
+    Session session = instanciaA.createSession();
+    session.setAttribute(CONTEXT_KEY, contexto(principal()));
+    instanciaA.save(session);
+
+    instanciaB.deleteById(session.getId());
+
+    assertNull(instanciaA.findById(session.getId()));
+  }
+
+  @Test
+  @DisplayName("Principal serializado nao deve carregar Usuario nem Pessoa")
+  void testSerializacaoCompacta() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(principal());
+    }
+
+    String conteudo = bytes.toString(StandardCharsets.ISO_8859_1);
+    assertFalse(conteudo.contains(Usuario.class.getName()));
+    assertFalse(conteudo.contains(Pessoa.class.getName()));
+    assertFalse(conteudo.contains("52998224725"));
+  }
+}
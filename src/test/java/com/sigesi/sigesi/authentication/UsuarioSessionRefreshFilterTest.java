@@ -0,0 +1,152 @@
+package com.sigesi.sigesi.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import com.sigesi.sigesi.usuarios.Usuario;
+import com.sigesi.sigesi.usuarios.UsuarioCache;
+import com.sigesi.sigesi.usuarios.enums.Role;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UsuarioSessionRefreshFilter Tests")
+class UsuarioSessionRefreshFilterTest {
+
+  @Mock
+  private UsuarioCache usuarioCache;
+
+  private UsuarioSessionRefreshFilter filter;
+  private MockHttpServletRequest request;
+  private MockHttpSession session;
+  private OAuth2AuthenticationToken token;
+
+  @BeforeEach
+  void setUp() {
+    filter = new UsuarioSessionRefreshFilter(usuarioCache);
+    session = new MockHttpSession();
+    request = new MockHttpServletRequest();
+    request.setSession(session);
+
+    Usuario usuario = Usuario.builder().id(2L).role(Role.ADMIN).ativo(true).build();
+    CustomOAuth2User principal = new CustomOAuth2User(mock(OidcUser.class), usuario, 10L);
+    token = new OAuth2AuthenticationToken(principal, principal.getAuthorities(), "google");
+    SecurityContextHolder.getContext().setAuthentication(token);
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  private void executar() throws Exception {
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+  }
+
+  @Test
+  @DisplayName("Deve manter a autenticacao quando a versao nao mudou")
+  void testMesmaVersao() throws Exception {
+    Usuario usuario = ((CustomOAuth2User) token.getPrincipal()).getUser();
+    when(usuarioCache.get(2L)).thenReturn(Optional.of(new UsuarioCache.Snapshot(10L, usuario)));
+
+    executar();
+
+    assertSame(token, SecurityContextHolder.getContext().getAuthentication());
+  }
+
+  @Test
+  @DisplayName("Deve aplicar a nova role na mesma requisicao e salvar na sessao")
+  void testRoleAlterada() throws Exception {
+    Usuario rebaixado = Usuario.builder().id(2L).role(Role.CIDADAO).ativo(true).build();
+    when(usuarioCache.get(2L)).thenReturn(Optional.of(new UsuarioCache.Snapshot(11L, rebaixado)));
+
+    executar();
+
+    Authentication atual = SecurityContextHolder.getContext().getAuthentication();
+    assertEquals("ROLE_CIDADAO", atual.getAuthorities().iterator().next().getAuthority());
+    assertEquals(11L, ((CustomOAuth2User) atual.getPrincipal()).getVersao());
+    SecurityContext salvo = (SecurityContext) session.getAttribute(
+        HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+    assertNotNull(salvo);
+    assertSame(atual, salvo.getAuthentication());
+  }
+
+  @Test
+  @DisplayName("Deve encerrar a sessao de usuario desativado")
+  void testUsuarioInativo() throws Exception {
+    Usuario inativo = Usuario.builder().id(2L).role(Role.ADMIN).ativo(false).build();
+    when(usuarioCache.get(2L)).thenReturn(Optional.of(new UsuarioCache.Snapshot(11L, inativo)));
+
+    executar();
+
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
+    assertTrue(session.isInvalid());
+  }
+
+  @Test
+  @DisplayName("Deve religar o usuario de principal lido da sessao sem regravar a sessao")
+  void testPrincipalDesserializado() throws Exception {
+    Usuario usuario = Usuario.builder().id(2L).role(Role.ADMIN).ativo(true).build();
+    CustomOAuth2User lido = serializarELer(new CustomOAuth2User(oidcUser(), usuario, 10L));
+    SecurityContextHolder.getContext().setAuthentication(
+        new OAuth2AuthenticationToken(lido, lido.getAuthorities(), "google"));
+    when(usuarioCache.get(2L)).thenReturn(Optional.of(new UsuarioCache.Snapshot(10L, usuario)));
+
+    executar();
+
+    CustomOAuth2User atual = (CustomOAuth2User) SecurityContextHolder.getContext()
+        .getAuthentication().getPrincipal();
+    assertSame(usuario, atual.getUser());
+    assertEquals(10L, atual.getVersao());
+    assertNull(session.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY));
+  }
+
+  private static OidcUser oidcUser() {
+    return new DefaultOidcUser(List.of(), OidcIdToken.withTokenValue("id-token")
+        .subject("google-2")
+        .issuedAt(Instant.now())
+        .expiresAt(Instant.now().plusSeconds(3600))
+        .build());
+  }
+
+  private static CustomOAuth2User serializarELer(CustomOAuth2User principal) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(principal);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return (CustomOAuth2User) in.readObject();
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.sigesi.sigesi.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+@DisplayName("CursorCodec Tests")
+class CursorCodecTest {
+
+  @Test
+  @DisplayName("Deve codificar e decodificar o ultimo ID")
+  void testIdaEVolta() {
+    String cursor = CursorCodec.encode(42L);
+
+    assertEquals(42L, CursorCodec.decode(cursor));
+  }
+
+  @Test
+  @DisplayName("Deve tratar cursor ausente como primeira pagina")
+  void testCursorAusente() {
+    assertNull(CursorCodec.decode(null));
+    assertNull(CursorCodec.decode(" "));
+    assertNull(CursorCodec.encode(null));
+  }
+
+  @Test
+  @DisplayName("Deve rejeitar cursor adulterado")
+  void testCursorAdulterado() {
+    assertThrows(ResponseStatusException.class, () -> CursorCodec.decode("bm9wZQ"));
+    assertThrows(ResponseStatusException.class, () -> CursorCodec.decode("%%%"));
+  }
+
+  @Test
+  @DisplayName("Deve codificar e decodificar chave composta")
+  void testIdaEVoltaPar() {
+    long[] key = CursorCodec.decodePair(CursorCodec.encodePair(120L, 7L));
+
+    assertEquals(120L, key[0]);
+    assertEquals(7L, key[1]);
+    assertNull(CursorCodec.decodePair(null));
+  }
+
+  @Test
+  @DisplayName("Deve rejeitar cursor simples onde se espera chave composta")
+  void testParComCursorSimples() {
+    String simples = CursorCodec.encode(42L);
+
+    assertThrows(ResponseStatusException.class, () -> CursorCodec.decodePair(simples));
+  }
+}
@@ -0,0 +1,179 @@
+package com.sigesi.sigesi.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sigesi.sigesi.arquivos.ArquivoRepository;
+import com.sigesi.sigesi.comentarios.ComentarioRepository;
+import com.sigesi.sigesi.demandas.DemandaRepository;
+import com.sigesi.sigesi.demandas.DemandaStatus;
+import com.sigesi.sigesi.gavetas.GavetaRepository;
+import com.sigesi.sigesi.pessoas.PessoaRepository;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoRepository;
+
+/**
+ * Confere pelo plano do H2 (EXPLAIN do SQL que o Hibernate gera) que cada finder le pelo
+ * indice criado para ele na V8.
+ *
+ * <p>Os CREATE INDEX sao lidos do proprio arquivo de migracao. O schema e criado sem
+ * chaves estrangeiras para que o H2 nao escolha os indices que cria para elas, e como o
+ * H2 nao tem indice parcial, {@code (colunas) WHERE coluna} vira {@code (coluna, colunas)},
+ * que atende a mesma consulta.
+ */
+@DataJpaTest(showSql = false, properties = {
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.sigesi.sigesi.config.FinderIndexPlanTest$SqlCapturado",
+    "spring.jpa.properties.hibernate.hbm2ddl.default_constraint_mode=NO_CONSTRAINT"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Finder Index Plan Tests")
+class FinderIndexPlanTest {
+
+  private static final String MIGRACAO = "db/migration/V8__finder_indexes.sql";
+  private static final Pattern CREATE_INDEX = Pattern.compile(
+      "CREATE (UNIQUE )?INDEX IF NOT EXISTS (\\w+) ON (\\w+) \\(([^)]*)\\)(?: WHERE (\\w+))?;");
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private DemandaRepository demandaRepository;
+
+  @Autowired
+  private ComentarioRepository comentarioRepository;
+
+  @Autowired
+  private SolicitacaoRepository solicitacaoRepository;
+
+  @Autowired
+  private ArquivoRepository arquivoRepository;
+
+  @Autowired
+  private GavetaRepository gavetaRepository;
+
+  @Autowired
+  private PessoaRepository pessoaRepository;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    String sql = new ClassPathResource(MIGRACAO).getContentAsString(StandardCharsets.UTF_8);
+    Matcher matcher = CREATE_INDEX.matcher(sql);
+    while (matcher.find()) {
+      String unico = matcher.group(1) == null ? "" : matcher.group(1);
+      String colunas = matcher.group(5) == null ? matcher.group(4) : matcher.group(5) + ", " + matcher.group(4);
+      jdbcTemplate.execute("CREATE " + unico + "INDEX IF NOT EXISTS " + matcher.group(2)
+          + " ON " + matcher.group(3) + " (" + colunas + ")");
+    }
+    jdbcTemplate.update("DELETE FROM pessoa");
+    SqlCapturado.SQL.clear();
+  }
+
+  @Test
+  @DisplayName("findBySolicitacaoIdOrderByPrazoAsc usa idx_demanda_solicitacao_prazo")
+  void demandasPorSolicitacao() {
+    demandaRepository.findBySolicitacaoIdOrderByPrazoAsc(1L);
+    assertUsaIndice("idx_demanda_solicitacao_prazo", 1L);
+  }
+
+  @Test
+  @DisplayName("findByResponsavelIdOrderByPrazoAsc usa idx_demanda_responsavel_prazo")
+  void demandasPorResponsavel() {
+    demandaRepository.findByResponsavelIdOrderByPrazoAsc(1L);
+    assertUsaIndice("idx_demanda_responsavel_prazo", 1L);
+  }
+
+  @Test
+  @DisplayName("findByStatusOrderByPrazoAsc usa idx_demanda_status_prazo")
+  void demandasPorStatus() {
+    demandaRepository.findByStatusOrderByPrazoAsc(DemandaStatus.PENDENTE);
+    assertUsaIndice("idx_demanda_status_prazo", DemandaStatus.PENDENTE.name());
+  }
+
+  @Test
+  @DisplayName("findByDemandaIdOrderByCriadoEmAsc usa idx_comentario_demanda_criado_em")
+  void comentariosPorDemanda() {
+    comentarioRepository.findByDemandaIdOrderByCriadoEmAsc(1L);
+    assertUsaIndice("idx_comentario_demanda_criado_em", 1L);
+  }
+
+  @Test
+  @DisplayName("findByAutorIdOrderByDataDesc usa idx_solicitacao_autor_data")
+  void solicitacoesPorAutor() {
+    solicitacaoRepository.findByAutorIdOrderByDataDesc(1L);
+    assertUsaIndice("idx_solicitacao_autor_data", 1L);
+  }
+
+  @Test
+  @DisplayName("findByAtivoTrueOrderByUploadedAtDesc usa idx_arquivos_ativos_uploaded_at")
+  void arquivosAtivos() {
+    arquivoRepository.findByAtivoTrueOrderByUploadedAtDesc();
+    assertUsaIndice("idx_arquivos_ativos_uploaded_at");
+  }
+
+  @Test
+  @DisplayName("findByJazigoIdAndOcupanteId usa idx_gaveta_jazigo_ocupante")
+  void gavetasPorJazigoEOcupante() {
+    gavetaRepository.findByJazigoIdAndOcupanteId(1L, 2L);
+    assertUsaIndice("idx_gaveta_jazigo_ocupante", 1L, 2L);
+  }
+
+  @Test
+  @DisplayName("findByCpf usa uk_pessoa_cpf")
+  void pessoaPorCpf() {
+    pessoaRepository.findByCpf("123.456.789-00");
+    assertUsaIndice("uk_pessoa_cpf", "123.456.789-00");
+  }
+
+  @Test
+  @DisplayName("uk_pessoa_cpf recusa CPF repetido")
+  void cpfUnico() {
+    String insert = "INSERT INTO pessoa (id, nome, cpf, sexo) VALUES (?, ?, ?, 'OUTRO')";
+    jdbcTemplate.update(insert, 1L, "Ana", "123.456.789-00");
+
+    assertThrows(DataIntegrityViolationException.class,
+        () -> jdbcTemplate.update(insert, 2L, "Outra Ana", "123.456.789-00"));
+  }
+
+  /**
+   * Roda EXPLAIN sobre a consulta do finder, com os mesmos parametros.
+   */
+  private void assertUsaIndice(String indice, Object... parametros) {
+    assertEquals(1, SqlCapturado.SQL.size(), "Esperada uma unica consulta: " + SqlCapturado.SQL);
+    String plano = jdbcTemplate.queryForObject("EXPLAIN " + SqlCapturado.SQL.get(0), String.class, parametros);
+
+    assertTrue(plano.toUpperCase().contains("PUBLIC." + indice.toUpperCase()), "Plano sem " + indice + ":\n" + plano);
+  }
+
+  /**
+   * Guarda o SQL executado pelo Hibernate.
+   */
+  public static class SqlCapturado implements StatementInspector {
+
+    static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+      SQL.add(sql);
+      return sql;
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.sigesi.sigesi.consumo;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.OutputStream;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.sigesi.sigesi.consumo.dtos.MaterialConsumoDTO;
+
+/**
+ * Testes para MaterialConsumoController.
+ */
+@WebMvcTest(controllers = MaterialConsumoController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@DisplayName("MaterialConsumoController Tests")
+class MaterialConsumoControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private MaterialConsumoRelatorioService relatorioService;
+
+  @Test
+  @DisplayName("GET /api/materiais/consumo retorna 200 com o agrupamento pedido")
+  void testConsultarRetorna200() throws Exception {
+    given(relatorioService.consultar(any())).willReturn(List.of(
+        MaterialConsumoDTO.builder().mes(YearMonth.of(2025, 3)).quantidade(12).custo(600.0).build()));
+
+    mockMvc.perform(get("/api/materiais/consumo")
+        .param("mesDe", "2025-01")
+        .param("agrupar", "MES")
+        .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].mes").value("2025-03"))
+        .andExpect(jsonPath("$[0].quantidade").value(12))
+        .andExpect(jsonPath("$[0].custo").value(600.0));
+
+    verify(relatorioService).consultar(argThat(f -> YearMonth.of(2025, 1).equals(f.getMesDe())
+        && List.of(MaterialConsumoDimensao.MES).equals(f.getAgrupar())));
+  }
+
+  @Test
+  @DisplayName("GET /api/materiais/consumo/export retorna CSV")
+  void testExportarCsv() throws Exception {
+    willAnswer(invocation -> {
+      invocation.getArgument(1, OutputStream.class).write("quantidade,custo\n".getBytes());
+      return null;
+    }).given(relatorioService).exportarCsv(any(), any(OutputStream.class));
+
+    MvcResult result = mockMvc.perform(get("/api/materiais/consumo/export").param("bairro", "Centro"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("text/csv"))
+        .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("consumo_materiais.csv")))
+        .andExpect(content().string("quantidade,custo\n"));
+
+    verify(relatorioService).exportarCsv(argThat(f -> "Centro".equals(f.getBairro())), any(OutputStream.class));
+  }
+
+  @Test
+  @DisplayName("GET /api/materiais/consumo/export retorna 400 para periodo invalido")
+  void testExportarPeriodoInvalido() throws Exception {
+    doThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "periodo invalido"))
+        .when(relatorioService).validarFiltro(any());
+
+    mockMvc.perform(get("/api/materiais/consumo/export")
+        .param("mesDe", "2025-06")
+        .param("mesAte", "2025-01"))
+        .andExpect(status().isBadRequest());
+
+    verify(relatorioService, never()).exportarCsv(any(), any());
+  }
+}
@@ -0,0 +1,213 @@
+package com.sigesi.sigesi.consumo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sigesi.sigesi.consumo.dtos.MaterialConsumoDTO;
+import com.sigesi.sigesi.consumo.dtos.MaterialConsumoFilterDTO;
+import com.sigesi.sigesi.demandas.Demanda;
+import com.sigesi.sigesi.demandas.DemandaMaterial;
+import com.sigesi.sigesi.demandas.DemandaRepository;
+import com.sigesi.sigesi.demandas.DemandaStatus;
+import com.sigesi.sigesi.enderecos.Endereco;
+import com.sigesi.sigesi.enderecos.EnderecoRepository;
+import com.sigesi.sigesi.materiais.Material;
+import com.sigesi.sigesi.materiais.MaterialRepository;
+import com.sigesi.sigesi.solicitacoes.Solicitacao;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoAssunto;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoRepository;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoStatus;
+import com.sigesi.sigesi.usuarios.Usuario;
+import com.sigesi.sigesi.usuarios.UsuarioRepository;
+import com.sigesi.sigesi.usuarios.enums.Role;
+
+/**
+ * Recalcula o resumo de consumo e executa o relatorio contra o H2. Roda fora de
+ * transacao, como o recalculo agendado, que abre as proprias transacoes.
+ */
+@DataJpaTest
+@Import({MaterialConsumoService.class, MaterialConsumoRelatorioService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("MaterialConsumo Query Tests")
+class MaterialConsumoQueryTest {
+
+  private static final LocalDate MARCO = LocalDate.of(2025, 3, 1);
+  private static final LocalDate ABRIL = LocalDate.of(2025, 4, 1);
+
+  @Autowired
+  private MaterialConsumoService consumoService;
+
+  @Autowired
+  private MaterialConsumoRelatorioService relatorioService;
+
+  @Autowired
+  private MaterialConsumoRepository consumoRepository;
+
+  @Autowired
+  private MaterialConsumoPendenteRepository pendenteRepository;
+
+  @Autowired
+  private DemandaRepository demandaRepository;
+
+  @Autowired
+  private SolicitacaoRepository solicitacaoRepository;
+
+  @Autowired
+  private MaterialRepository materialRepository;
+
+  @Autowired
+  private EnderecoRepository enderecoRepository;
+
+  @Autowired
+  private UsuarioRepository usuarioRepository;
+
+  private Material cimento;
+  private Material areia;
+
+  @BeforeEach
+  void setUp() {
+    consumoRepository.deleteAll();
+    pendenteRepository.deleteAll();
+    demandaRepository.deleteAll();
+    solicitacaoRepository.deleteAll();
+    materialRepository.deleteAll();
+    enderecoRepository.deleteAll();
+    usuarioRepository.deleteAll();
+
+    cimento = materialRepository.save(Material.builder().nome("Cimento, saco 50kg").preco(10.0).build());
+    areia = materialRepository.save(Material.builder().nome("Areia").preco(2.0).build());
+    Usuario autor = usuarioRepository.save(
+        Usuario.builder().email("ana@test.com").name("Ana").role(Role.AGENTE).ativo(true).build());
+    Endereco centro = enderecoRepository.save(
+        Endereco.builder().logradouro("Rua A").numero("1").bairro("Centro").build());
+    Endereco norte = enderecoRepository.save(
+        Endereco.builder().logradouro("Rua B").numero("2").bairro("Norte").build());
+    Solicitacao buraco = solicitacaoRepository.save(solicitacao(autor, centro, SolicitacaoAssunto.BURACO));
+    Solicitacao semAssunto = solicitacaoRepository.save(solicitacao(autor, norte, null));
+
+    List<Demanda> demandas = demandaRepository.saveAll(List.of(
+        demanda(buraco, DemandaStatus.PENDENTE, MARCO.withDayOfMonth(5), Map.of(cimento, 3, areia, 5)),
+        demanda(semAssunto, DemandaStatus.CONCLUIDA, MARCO.withDayOfMonth(20), Map.of(cimento, 2)),
+        demanda(buraco, DemandaStatus.CANCELADA, MARCO.withDayOfMonth(9), Map.of(cimento, 100)),
+        demanda(buraco, DemandaStatus.EM_ANDAMENTO, ABRIL.withDayOfMonth(2), Map.of(cimento, 1))));
+    demandas.forEach(d -> consumoService.marcar(consumoService.grupos(d)));
+    consumoService.atualizarPendentes();
+  }
+
+  private static Solicitacao solicitacao(Usuario autor, Endereco local, SolicitacaoAssunto assunto) {
+    return Solicitacao.builder().body("Corpo").autor(autor).local(local)
+        .status(SolicitacaoStatus.EM_ANDAMENTO).assunto(assunto).build();
+  }
+
+  private static Demanda demanda(Solicitacao solicitacao, DemandaStatus status, LocalDate prazo,
+      Map<Material, Integer> materiais) {
+    Demanda demanda = Demanda.builder().solicitacao(solicitacao).status(status).prazo(prazo).build();
+    materiais.forEach((material, quantidade) -> demanda.addDemandaMaterial(
+        DemandaMaterial.builder().material(material).quantidade(quantidade).build()));
+    return demanda;
+  }
+
+  private static MaterialConsumoFilterDTO agrupar(MaterialConsumoDimensao... dimensoes) {
+    return MaterialConsumoFilterDTO.builder().agrupar(List.of(dimensoes)).build();
+  }
+
+  @Test
+  @DisplayName("Deve recalcular os grupos marcados sem demandas canceladas")
+  void testAtualizarPendentes() {
+    List<MaterialConsumo> linhas = consumoRepository.findAll().stream()
+        .sorted(Comparator.comparing(MaterialConsumo::getMes).thenComparing(MaterialConsumo::getCusto))
+        .toList();
+
+    assertEquals(4, linhas.size());
+    assertEquals(0, pendenteRepository.count());
+    MaterialConsumo cimentoCentro = linhas.get(2);
+    assertEquals(cimento.getId(), cimentoCentro.getMaterial().getId());
+    assertEquals(MARCO, cimentoCentro.getMes());
+    assertEquals("BURACO", cimentoCentro.getAssunto());
+    assertEquals("Centro", cimentoCentro.getBairro());
+    assertEquals(3L, cimentoCentro.getQuantidade());
+    assertEquals(30.0, cimentoCentro.getCusto(), 0.001);
+    assertEquals(MaterialConsumoService.NAO_INFORMADO, linhas.get(1).getAssunto());
+    assertEquals("Norte", linhas.get(1).getBairro());
+  }
+
+  @Test
+  @DisplayName("Deve somar quantidade e custo pelas dimensoes pedidas")
+  void testConsultarAgrupado() {
+    List<MaterialConsumoDTO> resultado = relatorioService.consultar(
+        agrupar(MaterialConsumoDimensao.MES, MaterialConsumoDimensao.MATERIAL));
+
+    assertEquals(3, resultado.size());
+    MaterialConsumoDTO primeiro = resultado.get(0);
+    assertEquals(cimento.getId(), primeiro.getMaterialId());
+    assertEquals(YearMonth.of(2025, 3), primeiro.getMes());
+    assertEquals(5L, primeiro.getQuantidade());
+    assertEquals(50.0, primeiro.getCusto(), 0.001);
+    assertEquals(null, primeiro.getBairro());
+    assertEquals(YearMonth.of(2025, 4), resultado.get(1).getMes());
+    assertEquals(areia.getId(), resultado.get(2).getMaterialId());
+    assertEquals(10.0, resultado.get(2).getCusto(), 0.001);
+  }
+
+  @Test
+  @DisplayName("Deve recalcular todos os meses do material quando o preco muda")
+  void testMarcarMaterial() {
+    cimento.setPreco(20.0);
+    materialRepository.save(cimento);
+    consumoService.marcarMaterial(cimento.getId());
+    consumoService.atualizarPendentes();
+
+    MaterialConsumoFilterDTO filter = agrupar(MaterialConsumoDimensao.MATERIAL);
+    filter.setMaterialId(cimento.getId());
+    List<MaterialConsumoDTO> resultado = relatorioService.consultar(filter);
+
+    assertEquals(1, resultado.size());
+    assertEquals(6L, resultado.get(0).getQuantidade());
+    assertEquals(120.0, resultado.get(0).getCusto(), 0.001);
+  }
+
+  @Test
+  @DisplayName("Deve exportar CSV com as colunas agrupadas e os filtros")
+  void testExportarCsv() throws Exception {
+    MaterialConsumoFilterDTO filter = agrupar(MaterialConsumoDimensao.BAIRRO);
+    filter.setMesDe(YearMonth.of(2025, 3));
+    filter.setMesAte(YearMonth.of(2025, 3));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    relatorioService.exportarCsv(filter, out);
+
+    assertEquals("bairro,quantidade,custo\nCentro,8,40.00\nNorte,2,20.00\n",
+        out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  @DisplayName("Deve colocar entre aspas os valores com virgula no CSV")
+  void testExportarCsvComVirgula() throws Exception {
+    MaterialConsumoFilterDTO filter = agrupar(MaterialConsumoDimensao.MATERIAL);
+    filter.setMaterialId(cimento.getId());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    relatorioService.exportarCsv(filter, out);
+
+    String csv = out.toString(StandardCharsets.UTF_8);
+    assertTrue(csv.startsWith("material_id,material,quantidade,custo\n"));
+    assertTrue(csv.contains(cimento.getId() + ",\"Cimento, saco 50kg\",6,60.00\n"));
+  }
+}
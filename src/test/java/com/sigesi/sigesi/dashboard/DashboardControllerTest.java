@@ -0,0 +1,54 @@
+package com.sigesi.sigesi.dashboard;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sigesi.sigesi.dashboard.dtos.CargaResponsavelDTO;
+import com.sigesi.sigesi.dashboard.dtos.DashboardDTO;
+
+/**
+ * Testes para DashboardController.
+ */
+@WebMvcTest(controllers = DashboardController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@DisplayName("DashboardController Tests")
+class DashboardControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private DashboardService service;
+
+  @Test
+  @DisplayName("GET /api/dashboard retorna 200 com os totais")
+  void testGetDashboardRetorna200() throws Exception {
+    given(service.getDashboard()).willReturn(DashboardDTO.builder()
+        .demandasPorStatus(Map.of("PENDENTE", 3L))
+        .demandasAtrasadas(2L)
+        .cargaPorResponsavel(List.of(new CargaResponsavelDTO(7L, "Ana", 3L, 2L)))
+        .tempoMedioResolucaoHoras(12.5)
+        .build());
+
+    mockMvc.perform(get("/api/dashboard").accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.demandasPorStatus.PENDENTE").value(3))
+        .andExpect(jsonPath("$.demandasAtrasadas").value(2))
+        .andExpect(jsonPath("$.cargaPorResponsavel[0].nome").value("Ana"))
+        .andExpect(jsonPath("$.tempoMedioResolucaoHoras").value(12.5));
+  }
+}
@@ -0,0 +1,145 @@
+package com.sigesi.sigesi.dashboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sigesi.sigesi.dashboard.dtos.CargaResponsavelDTO;
+import com.sigesi.sigesi.dashboard.dtos.DashboardDTO;
+import com.sigesi.sigesi.demandas.Demanda;
+import com.sigesi.sigesi.demandas.DemandaRepository;
+import com.sigesi.sigesi.demandas.DemandaStatus;
+import com.sigesi.sigesi.enderecos.Endereco;
+import com.sigesi.sigesi.enderecos.EnderecoRepository;
+import com.sigesi.sigesi.solicitacoes.Solicitacao;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoAssunto;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoRepository;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoStatus;
+import com.sigesi.sigesi.usuarios.Usuario;
+import com.sigesi.sigesi.usuarios.UsuarioRepository;
+import com.sigesi.sigesi.usuarios.enums.Role;
+
+/**
+ * Executa as consultas agregadas do dashboard contra o H2. Roda fora de transacao para
+ * que as escritas informadas ao DashboardService sejam aplicadas na hora.
+ */
+@DataJpaTest
+@Import(DashboardService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("DashboardService Query Tests")
+class DashboardQueryTest {
+
+  private static final LocalDate HOJE = LocalDate.now();
+
+  @Autowired
+  private DashboardService dashboardService;
+
+  @Autowired
+  private DemandaRepository demandaRepository;
+
+  @Autowired
+  private SolicitacaoRepository solicitacaoRepository;
+
+  @Autowired
+  private UsuarioRepository usuarioRepository;
+
+  @Autowired
+  private EnderecoRepository enderecoRepository;
+
+  private Usuario ana;
+  private Solicitacao solicitacao;
+
+  @BeforeEach
+  void setUp() {
+    demandaRepository.deleteAll();
+    solicitacaoRepository.deleteAll();
+    usuarioRepository.deleteAll();
+    enderecoRepository.deleteAll();
+    ReflectionTestUtils.setField(dashboardService, "contadores", null);
+
+    ana = usuarioRepository.save(usuario("ana@test.com", "Ana"));
+    Usuario bruno = usuarioRepository.save(usuario("bruno@test.com", "Bruno"));
+    Endereco local = enderecoRepository.save(
+        Endereco.builder().logradouro("Rua A").numero("1").bairro("Centro").build());
+
+    solicitacao = solicitacaoRepository.save(solicitacao(ana, local, SolicitacaoStatus.EM_ANDAMENTO, SolicitacaoAssunto.BURACO));
+    solicitacaoRepository.save(solicitacao(ana, local, SolicitacaoStatus.ABERTA, SolicitacaoAssunto.BURACO));
+    solicitacaoRepository.save(solicitacao(ana, local, SolicitacaoStatus.ABERTA, SolicitacaoAssunto.ESGOTO));
+    solicitacaoRepository.save(solicitacao(ana, local, SolicitacaoStatus.ABERTA, null));
+
+    LocalDateTime agora = LocalDateTime.now();
+    demandaRepository.saveAll(List.of(
+        demanda(ana, DemandaStatus.PENDENTE, HOJE.minusDays(1)),
+        demanda(ana, DemandaStatus.EM_ANDAMENTO, HOJE.plusDays(1)),
+        demanda(null, DemandaStatus.PENDENTE, HOJE.minusDays(2)),
+        demanda(bruno, DemandaStatus.CANCELADA, HOJE.minusDays(1)),
+        concluida(bruno, agora.minusHours(10), agora),
+        concluida(bruno, agora.minusHours(30), agora)));
+  }
+
+  private static Usuario usuario(String email, String nome) {
+    return Usuario.builder().email(email).name(nome).role(Role.AGENTE).ativo(true).build();
+  }
+
+  private static Solicitacao solicitacao(Usuario autor, Endereco local, SolicitacaoStatus status,
+      SolicitacaoAssunto assunto) {
+    return Solicitacao.builder().body("Corpo").autor(autor).local(local).status(status).assunto(assunto).build();
+  }
+
+  private Demanda demanda(Usuario responsavel, DemandaStatus status, LocalDate prazo) {
+    return Demanda.builder().solicitacao(solicitacao).responsavel(responsavel).status(status).prazo(prazo).build();
+  }
+
+  private Demanda concluida(Usuario responsavel, LocalDateTime criadaEm, LocalDateTime concluidaEm) {
+    Demanda demanda = demanda(responsavel, DemandaStatus.CONCLUIDA, HOJE);
+    demanda.setCriadaEm(criadaEm);
+    demanda.setConcluidaEm(concluidaEm);
+    return demanda;
+  }
+
+  @Test
+  @DisplayName("Deve agregar demandas e solicitacoes com GROUP BY")
+  void testAgregados() {
+    DashboardDTO dashboard = dashboardService.getDashboard();
+
+    assertEquals(Map.of("PENDENTE", 2L, "EM_ANDAMENTO", 1L, "CONCLUIDA", 2L, "CANCELADA", 1L),
+        dashboard.getDemandasPorStatus());
+    assertEquals(2L, dashboard.getDemandasAtrasadas());
+    assertEquals(1L, dashboard.getDemandasSemResponsavel());
+    assertEquals(List.of(new CargaResponsavelDTO(ana.getId(), "Ana", 2L, 1L)), dashboard.getCargaPorResponsavel());
+    assertEquals(20.0, dashboard.getTempoMedioResolucaoHoras(), 0.01);
+    assertEquals(3L, dashboard.getSolicitacoesPorStatus().get("ABERTA"));
+    assertEquals(0L, dashboard.getSolicitacoesPorStatus().get("CONCLUIDA"));
+    assertEquals(2L, dashboard.getSolicitacoesPorAssunto().get("BURACO"));
+    assertEquals(1L, dashboard.getSolicitacoesPorAssunto().get(DashboardContadores.NAO_INFORMADO));
+  }
+
+  @Test
+  @DisplayName("Deve aplicar as escritas informadas sem consultar o banco de novo")
+  void testEscritaAtualizaSemConsulta() {
+    dashboardService.getDashboard();
+
+    Demanda nova = demandaRepository.save(demanda(ana, DemandaStatus.PENDENTE, HOJE.minusDays(3)));
+    dashboardService.demandaAlterada(null, DemandaResumo.of(nova));
+    demandaRepository.save(demanda(ana, DemandaStatus.PENDENTE, HOJE.minusDays(3)));
+
+    DashboardDTO dashboard = dashboardService.getDashboard();
+
+    assertEquals(3L, dashboard.getDemandasPorStatus().get("PENDENTE"));
+    assertEquals(3L, dashboard.getDemandasAtrasadas());
+    assertEquals(3L, dashboard.getCargaPorResponsavel().get(0).getAbertas());
+  }
+}
@@ -0,0 +1,145 @@
+package com.sigesi.sigesi.dashboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sigesi.sigesi.dashboard.dtos.DashboardDTO;
+import com.sigesi.sigesi.demandas.DemandaRepository;
+import com.sigesi.sigesi.demandas.DemandaStatus;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardService Tests")
+class DashboardServiceTest {
+
+  @Mock
+  private DemandaRepository demandaRepository;
+
+  @Mock
+  private SolicitacaoRepository solicitacaoRepository;
+
+  @InjectMocks
+  private DashboardService dashboardService;
+
+  private final DemandaResumo pendente = new DemandaResumo(
+      DemandaStatus.PENDENTE, LocalDate.now().minusDays(1), 7L, "Ana", null, null);
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(dashboardService, "ttlSeconds", 60L);
+    when(demandaRepository.countGroupByStatus()).thenReturn(List.of());
+    when(demandaRepository.countCargaPorResponsavel(any(), any())).thenReturn(List.of());
+    when(solicitacaoRepository.countGroupByStatusAndAssunto()).thenReturn(List.of());
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  @DisplayName("Deve consultar o banco apenas na primeira leitura dentro do TTL")
+  void testGetDashboardUsaCache() {
+    dashboardService.getDashboard();
+    dashboardService.getDashboard();
+
+    verify(demandaRepository, times(1)).countGroupByStatus();
+    verify(solicitacaoRepository, times(1)).countGroupByStatusAndAssunto();
+  }
+
+  @Test
+  @DisplayName("Deve consultar o banco de novo apos o TTL")
+  void testGetDashboardExpira() {
+    ReflectionTestUtils.setField(dashboardService, "ttlSeconds", 0L);
+
+    dashboardService.getDashboard();
+    dashboardService.getDashboard();
+
+    verify(demandaRepository, times(2)).countGroupByStatus();
+  }
+
+  @Test
+  @DisplayName("Deve aplicar a escrita apenas apos o commit")
+  void testEscritaAplicadaAposCommit() {
+    dashboardService.getDashboard();
+    TransactionSynchronizationManager.initSynchronization();
+
+    dashboardService.demandaAlterada(null, pendente);
+    assertEquals(0L, dashboardService.getDashboard().getDemandasPorStatus().get("PENDENTE"));
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    DashboardDTO dashboard = dashboardService.getDashboard();
+
+    assertEquals(1L, dashboard.getDemandasPorStatus().get("PENDENTE"));
+    assertEquals(1L, dashboard.getDemandasAtrasadas());
+    assertEquals(1L, dashboard.getCargaPorResponsavel().get(0).getAtrasadas());
+    verify(demandaRepository, times(1)).countGroupByStatus();
+  }
+
+  @Test
+  @DisplayName("Deve ignorar a escrita de transacao desfeita")
+  void testEscritaDesfeitaIgnorada() {
+    dashboardService.getDashboard();
+    TransactionSynchronizationManager.initSynchronization();
+
+    dashboardService.demandaAlterada(null, pendente);
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+    assertEquals(0L, dashboardService.getDashboard().getDemandasPorStatus().get("PENDENTE"));
+  }
+
+  @Test
+  @DisplayName("Nao deve guardar contadores carregados com escrita pendente")
+  void testCargaComEscritaPendenteNaoEGuardada() {
+    TransactionSynchronizationManager.initSynchronization();
+    dashboardService.demandaAlterada(null, pendente);
+
+    dashboardService.getDashboard();
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    dashboardService.getDashboard();
+
+    verify(demandaRepository, times(2)).countGroupByStatus();
+  }
+
+  @Test
+  @DisplayName("Deve mover a demanda entre status e retirar da carga ao concluir")
+  void testDemandaConcluida() {
+    dashboardService.getDashboard();
+    DemandaResumo concluida = new DemandaResumo(DemandaStatus.CONCLUIDA, pendente.prazo(), 7L, "Ana",
+        LocalDateTime.now().minusHours(4), LocalDateTime.now());
+
+    dashboardService.demandaAlterada(null, pendente);
+    dashboardService.demandaAlterada(pendente, concluida);
+    DashboardDTO dashboard = dashboardService.getDashboard();
+
+    assertEquals(0L, dashboard.getDemandasPorStatus().get("PENDENTE"));
+    assertEquals(1L, dashboard.getDemandasPorStatus().get("CONCLUIDA"));
+    assertEquals(0L, dashboard.getDemandasAtrasadas());
+    assertEquals(List.of(), dashboard.getCargaPorResponsavel());
+    assertEquals(4.0, dashboard.getTempoMedioResolucaoHoras(), 0.01);
+  }
+}
@@ -28,8 +28,10 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigesi.sigesi.config.CursorPageDTO;
 import com.sigesi.sigesi.config.NotFoundException;
 import com.sigesi.sigesi.demandas.dtos.DemandaCreateDTO;
+import com.sigesi.sigesi.demandas.dtos.DemandaFilterDTO;
 import com.sigesi.sigesi.demandas.dtos.DemandaMaterialCreateDTO;
 import com.sigesi.sigesi.demandas.dtos.DemandaMaterialResponseDTO;
 import com.sigesi.sigesi.demandas.dtos.DemandaResponseDTO;
@@ -93,6 +95,29 @@ class DemandaControllerTest {
         .andExpect(jsonPath("$[1].id", is(2)));
   }
 
+  @Test
+  @DisplayName("GET /api/demandas retorna pagina com cursor")
+  void testListPageRetornaPaginaComCursor() throws Exception {
+    CursorPageDTO<DemandaResponseDTO> page = CursorPageDTO.<DemandaResponseDTO>builder()
+        .items(List.of(responseDto(1L, DemandaStatus.PENDENTE)))
+        .nextCursor("abc")
+        .hasNext(true)
+        .build();
+
+    given(service.listPage(any(DemandaFilterDTO.class), eq("xyz"), eq(1))).willReturn(page);
+
+    mockMvc.perform(get("/api/demandas")
+        .param("status", "PENDENTE")
+        .param("prazoDe", "2025-01-01")
+        .param("cursor", "xyz")
+        .param("size", "1")
+        .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items", hasSize(1)))
+        .andExpect(jsonPath("$.nextCursor", is("abc")))
+        .andExpect(jsonPath("$.hasNext", is(true)));
+  }
+
   @Test
   @DisplayName("GET /api/demandas/{id} retorna 200 quando encontrada")
   void testGetByIdRetorna200QuandoEncontrada() throws Exception {
@@ -0,0 +1,143 @@
+package com.sigesi.sigesi.demandas;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.sigesi.sigesi.arquivos.Arquivo;
+import com.sigesi.sigesi.config.UsuarioRevisionEntity;
+import com.sigesi.sigesi.enderecos.Endereco;
+import com.sigesi.sigesi.materiais.Material;
+import com.sigesi.sigesi.pessoas.Pessoa;
+import com.sigesi.sigesi.pessoas.SexoEnum;
+import com.sigesi.sigesi.solicitacoes.Solicitacao;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoAssunto;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoStatus;
+import com.sigesi.sigesi.usuarios.Usuario;
+import com.sigesi.sigesi.usuarios.enums.Role;
+
+/**
+ * Benchmark JMH do tempo para criar uma demanda com 50 materiais (com auditoria Envers).
+ *
+ * <p>{@code batchSize=1} equivale ao comportamento com ids IDENTITY, um insert por linha;
+ * {@code batchSize=50} usa as sequences com insert em batch. Roda em H2 em memoria, que
+ * nao tem o custo de rede de cada ida ao banco; para medir contra um PostgreSQL vazio,
+ * passe {@code -Dbench.jdbc.url=... -Dbench.jdbc.user=... -Dbench.jdbc.password=...}.
+ * Nao roda com {@code mvn test}; para executar:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.sigesi.sigesi.demandas.DemandaMateriaisBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DemandaMateriaisBenchmark {
+
+  private static final int MATERIAIS = 50;
+
+  @Param({"1", "50"})
+  private int batchSize;
+
+  private SessionFactory sessionFactory;
+  private Solicitacao solicitacao;
+  private List<Material> materiais;
+
+  @Setup
+  public void setUp() {
+    sessionFactory = new Configuration()
+        .addAnnotatedClass(Demanda.class)
+        .addAnnotatedClass(DemandaMaterial.class)
+        .addAnnotatedClass(Material.class)
+        .addAnnotatedClass(Solicitacao.class)
+        .addAnnotatedClass(Arquivo.class)
+        .addAnnotatedClass(Usuario.class)
+        .addAnnotatedClass(Pessoa.class)
+        .addAnnotatedClass(Endereco.class)
+        .addAnnotatedClass(UsuarioRevisionEntity.class)
+        .setProperty(AvailableSettings.JAKARTA_JDBC_URL,
+            System.getProperty("bench.jdbc.url", "jdbc:h2:mem:bench-" + batchSize + ";DB_CLOSE_DELAY=-1"))
+        .setProperty(AvailableSettings.JAKARTA_JDBC_USER, System.getProperty("bench.jdbc.user", "sa"))
+        .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, System.getProperty("bench.jdbc.password", ""))
+        .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+        .setProperty(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+        .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(batchSize))
+        .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+        .setProperty(AvailableSettings.ORDER_UPDATES, "true")
+        .buildSessionFactory();
+
+    sessionFactory.inTransaction(session -> {
+      Endereco endereco = Endereco.builder().logradouro("Rua A").numero("1").bairro("Centro").build();
+      Pessoa pessoa = Pessoa.builder().nome("Pessoa").cpf("00000000000").sexo(SexoEnum.OUTRO)
+          .endereco(endereco).build();
+      Usuario autor = Usuario.builder().email("autor@test.com").role(Role.ADMIN).ativo(true).build();
+      solicitacao = Solicitacao.builder().data(LocalDate.now()).body("Corpo")
+          .assunto(SolicitacaoAssunto.values()[0]).status(SolicitacaoStatus.EM_ANDAMENTO)
+          .autor(autor).solicitante(pessoa).local(endereco).build();
+      materiais = new ArrayList<>();
+      for (int i = 0; i < MATERIAIS; i++) {
+        materiais.add(Material.builder().nome("Material " + i).preco(1.0 + i).build());
+      }
+      List.of(endereco, pessoa, autor, solicitacao).forEach(session::persist);
+      materiais.forEach(session::persist);
+    });
+  }
+
+  @TearDown
+  public void tearDown() {
+    sessionFactory.close();
+  }
+
+  @Benchmark
+  public Long criarDemandaComMateriais() {
+    try (Session session = sessionFactory.openSession()) {
+      session.beginTransaction();
+      Demanda demanda = Demanda.builder()
+          .solicitacao(session.getReference(Solicitacao.class, solicitacao.getId()))
+          .prazo(LocalDate.now().plusDays(7))
+          .build();
+      for (Material material : materiais) {
+        demanda.addDemandaMaterial(DemandaMaterial.builder()
+            .material(session.getReference(Material.class, material.getId()))
+            .quantidade(2)
+            .build());
+      }
+      session.persist(demanda);
+      session.getTransaction().commit();
+      return demanda.getId();
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(DemandaMateriaisBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
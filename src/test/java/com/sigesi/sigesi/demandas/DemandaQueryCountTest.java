@@ -0,0 +1,202 @@
+package com.sigesi.sigesi.demandas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.sigesi.sigesi.arquivos.Arquivo;
+import com.sigesi.sigesi.arquivos.ArquivoMapperImpl;
+import com.sigesi.sigesi.arquivos.ArquivoService;
+import com.sigesi.sigesi.consumo.MaterialConsumoService;
+import com.sigesi.sigesi.dashboard.DashboardService;
+import com.sigesi.sigesi.demandas.dtos.DemandaCreateDTO;
+import com.sigesi.sigesi.demandas.dtos.DemandaMaterialCreateDTO;
+import com.sigesi.sigesi.enderecos.Endereco;
+import com.sigesi.sigesi.enderecos.EnderecoService;
+import com.sigesi.sigesi.materiais.Material;
+import com.sigesi.sigesi.materiais.MaterialMapperImpl;
+import com.sigesi.sigesi.materiais.MaterialService;
+import com.sigesi.sigesi.notifications.NotificationPublisher;
+import com.sigesi.sigesi.pessoas.Pessoa;
+import com.sigesi.sigesi.pessoas.PessoaService;
+import com.sigesi.sigesi.pessoas.SexoEnum;
+import com.sigesi.sigesi.solicitacoes.Solicitacao;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoAssunto;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoMapperImpl;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoService;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoStatus;
+import com.sigesi.sigesi.usuarios.Usuario;
+import com.sigesi.sigesi.usuarios.UsuarioService;
+import com.sigesi.sigesi.usuarios.enums.Role;
+
+/**
+ * Garante que as listagens de Demanda e Solicitacao executam um numero fixo
+ * de consultas, independente da quantidade de linhas retornadas, e que os
+ * materiais de uma demanda nova sao gravados em batch.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({DemandaService.class, SolicitacaoService.class,
+    DemandaMapperImpl.class, DemandaMaterialMapperImpl.class, SolicitacaoMapperImpl.class,
+    MaterialMapperImpl.class, ArquivoMapperImpl.class})
+@DisplayName("Demanda/Solicitacao Query Count Tests")
+class DemandaQueryCountTest {
+
+  private static final int FEW = 2;
+  private static final int MANY = 12;
+  private static final int MATERIAIS = 50;
+
+  @Autowired
+  private TestEntityManager em;
+
+  @Autowired
+  private DemandaService demandaService;
+
+  @Autowired
+  private SolicitacaoService solicitacaoService;
+
+  @MockitoBean
+  private UsuarioService usuarioService;
+
+  @MockitoBean
+  private MaterialService materialService;
+
+  @MockitoBean
+  private NotificationPublisher notificationPublisher;
+
+  @MockitoBean
+  private DashboardService dashboardService;
+
+  @MockitoBean
+  private MaterialConsumoService materialConsumoService;
+
+  @MockitoBean
+  private PessoaService pessoaService;
+
+  @MockitoBean
+  private EnderecoService enderecoService;
+
+  @MockitoBean
+  private ArquivoService arquivoService;
+
+  private Statistics statistics;
+  private Usuario admin;
+  private int sequence;
+
+  @BeforeEach
+  void setUp() {
+    statistics = em.getEntityManager().getEntityManagerFactory()
+        .unwrap(SessionFactory.class).getStatistics();
+    admin = em.persist(Usuario.builder().email("admin@test.com").role(Role.ADMIN).ativo(true).build());
+  }
+
+  @Test
+  @DisplayName("getAll de demandas nao cresce com o numero de linhas")
+  void getAllDemandasHasConstantQueryCount() {
+    assertConstantQueryCount(() -> demandaService.getAll());
+  }
+
+  @Test
+  @DisplayName("listPage de demandas nao cresce com o numero de linhas")
+  void listPageHasConstantQueryCount() {
+    assertConstantQueryCount(() -> demandaService.listPage(null, null, MANY * 2).getItems());
+  }
+
+  @Test
+  @DisplayName("getAll de solicitacoes nao cresce com o numero de linhas")
+  void getAllSolicitacoesHasConstantQueryCount() {
+    assertConstantQueryCount(() -> solicitacaoService.getAll(admin));
+  }
+
+  @Test
+  @DisplayName("createDemanda grava os materiais em batch")
+  void createDemandaBatchesMaterialInserts() {
+    createDemandas(1);
+    Long solicitacaoId = em.getEntityManager()
+        .createQuery("select s.id from Solicitacao s", Long.class).getSingleResult();
+    when(materialService.getMaterialEntityById(anyLong()))
+        .thenAnswer(invocation -> em.find(Material.class, invocation.getArgument(0)));
+
+    long fewStatements = countCreateStatements(solicitacaoId, FEW);
+    long manyStatements = countCreateStatements(solicitacaoId, MATERIAIS);
+
+    // a demanda maior pode buscar um bloco a mais da sequence, nada alem disso
+    assertEquals(fewStatements, manyStatements, 1,
+        "Inserts de demanda_material nao estao sendo agrupados em batch");
+  }
+
+  private long countCreateStatements(Long solicitacaoId, int materiais) {
+    List<DemandaMaterialCreateDTO> itens = new ArrayList<>();
+    for (int i = 0; i < materiais; i++) {
+      Material material = em.persist(Material.builder().nome("Item " + ++sequence).preco(1.0).build());
+      itens.add(new DemandaMaterialCreateDTO(material.getId(), 1));
+    }
+    // sem clear: os materiais ja estao no contexto e so os inserts sao contados
+    em.flush();
+    statistics.clear();
+
+    demandaService.createDemanda(new DemandaCreateDTO(solicitacaoId, null, LocalDate.now(), itens));
+    em.flush();
+    return statistics.getPrepareStatementCount();
+  }
+
+  private void assertConstantQueryCount(Supplier<List<?>> listing) {
+    createDemandas(FEW);
+    long fewQueries = countQueries(listing, FEW);
+
+    createDemandas(MANY - FEW);
+    long manyQueries = countQueries(listing, MANY);
+
+    assertEquals(fewQueries, manyQueries,
+        "Quantidade de consultas cresceu com o numero de linhas (N+1)");
+  }
+
+  private long countQueries(Supplier<List<?>> listing, int expectedRows) {
+    em.flush();
+    em.clear();
+    statistics.clear();
+
+    assertEquals(expectedRows, listing.get().size());
+    return statistics.getPrepareStatementCount();
+  }
+
+  private void createDemandas(int count) {
+    for (int i = 0; i < count; i++) {
+      int n = ++sequence;
+      Endereco endereco = em.persist(Endereco.builder()
+          .logradouro("Rua " + n).numero(String.valueOf(n)).bairro("Centro").build());
+      Pessoa pessoa = em.persist(Pessoa.builder()
+          .nome("Pessoa " + n).cpf("0000000000" + n).sexo(SexoEnum.MASCULINO).endereco(endereco).build());
+      Usuario usuario = em.persist(Usuario.builder()
+          .email("user" + n + "@test.com").role(Role.AGENTE).ativo(true).pessoa(pessoa).build());
+      Arquivo anexo = em.persist(Arquivo.builder()
+          .nomeOriginal("foto" + n + ".png").storageKey("key-" + n).contentType("image/png")
+          .tamanho(10L).uploadedAt(java.time.LocalDateTime.now()).build());
+      Material material = em.persist(Material.builder().nome("Material " + n).preco(1.0).build());
+
+      Solicitacao solicitacao = em.persist(Solicitacao.builder()
+          .body("Corpo " + n).assunto(SolicitacaoAssunto.values()[0]).status(SolicitacaoStatus.EM_ANDAMENTO)
+          .autor(usuario).solicitante(pessoa).local(endereco).anexos(List.of(anexo)).build());
+
+      Demanda demanda = Demanda.builder()
+          .solicitacao(solicitacao).responsavel(usuario).prazo(LocalDate.now().plusDays(n)).build();
+      demanda.addDemandaMaterial(DemandaMaterial.builder().material(material).quantidade(1).build());
+      em.persist(demanda);
+    }
+  }
+}
@@ -1,11 +1,15 @@
 package com.sigesi.sigesi.demandas;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -13,9 +17,11 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -24,10 +30,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.sigesi.sigesi.config.CursorCodec;
+import com.sigesi.sigesi.config.CursorPageDTO;
 import com.sigesi.sigesi.config.NotFoundException;
+import com.sigesi.sigesi.consumo.MaterialConsumoGrupo;
+import com.sigesi.sigesi.consumo.MaterialConsumoService;
+import com.sigesi.sigesi.dashboard.DashboardService;
+import com.sigesi.sigesi.dashboard.DemandaResumo;
+import com.sigesi.sigesi.dashboard.SolicitacaoResumo;
 import com.sigesi.sigesi.demandas.dtos.DemandaCreateDTO;
+import com.sigesi.sigesi.demandas.dtos.DemandaFilterDTO;
 import com.sigesi.sigesi.demandas.dtos.DemandaMaterialCreateDTO;
 import com.sigesi.sigesi.demandas.dtos.DemandaResponseDTO;
 import com.sigesi.sigesi.demandas.dtos.DemandaUpdateDTO;
@@ -68,6 +83,12 @@ class DemandaServiceTest {
   @Mock
   private NotificationPublisher notificationPublisher;
 
+  @Mock
+  private DashboardService dashboardService;
+
+  @Mock
+  private MaterialConsumoService materialConsumoService;
+
   @InjectMocks
   private DemandaService demandaService;
 
@@ -117,6 +138,48 @@ class DemandaServiceTest {
     assertEquals(2, resultado.size());
   }
 
+  @Test
+  @DisplayName("Deve retornar pagina com cursor quando ha mais registros")
+  void testListPageComProximaPagina() {
+    List<Demanda> rows = List.of(
+        Demanda.builder().id(1L).build(),
+        Demanda.builder().id(2L).build(),
+        Demanda.builder().id(3L).build());
+    doReturn(rows).when(demandaRepository).findBy(any(Specification.class), any());
+    when(demandaMapper.toDto(any())).thenReturn(responseDTO);
+
+    CursorPageDTO<DemandaResponseDTO> page =
+        demandaService.listPage(new DemandaFilterDTO(), null, 2);
+
+    assertEquals(2, page.getItems().size());
+    assertTrue(page.isHasNext());
+    assertEquals(2L, CursorCodec.decode(page.getNextCursor()));
+  }
+
+  @Test
+  @DisplayName("Deve retornar ultima pagina sem cursor")
+  void testListPageUltimaPagina() {
+    List<Demanda> rows = List.of(Demanda.builder().id(3L).build());
+    doReturn(rows).when(demandaRepository).findBy(any(Specification.class), any());
+    when(demandaMapper.toDto(any())).thenReturn(responseDTO);
+
+    CursorPageDTO<DemandaResponseDTO> page = demandaService.listPage(
+        DemandaFilterDTO.builder().status(DemandaStatus.PENDENTE).build(),
+        CursorCodec.encode(2L), 2);
+
+    assertEquals(1, page.getItems().size());
+    assertFalse(page.isHasNext());
+    assertEquals(null, page.getNextCursor());
+  }
+
+  @Test
+  @DisplayName("Deve rejeitar cursor invalido")
+  void testListPageCursorInvalido() {
+    assertThrows(ResponseStatusException.class,
+        () -> demandaService.listPage(new DemandaFilterDTO(), "nao-e-um-cursor", 10));
+    verify(demandaRepository, never()).findBy(any(Specification.class), any());
+  }
+
   @Test
   @DisplayName("Deve retornar demanda por ID")
   void testGetDemandaByIdComSucesso() {
@@ -398,6 +461,55 @@ class DemandaServiceTest {
 
     assertNotNull(resultado);
     assertEquals(SolicitacaoStatus.ENCERRADA, solicitacao.getStatus());
+    assertNotNull(demanda.getConcluidaEm());
+  }
+
+  @Test
+  @DisplayName("Deve informar o dashboard com o estado anterior e o novo")
+  void testUpdateDemandaInformaDashboard() {
+    demanda.setStatus(DemandaStatus.EM_ANDAMENTO);
+    solicitacao.setStatus(SolicitacaoStatus.EM_ANDAMENTO);
+    DemandaUpdateDTO updateDTO = new DemandaUpdateDTO();
+    updateDTO.setStatus(DemandaStatus.CONCLUIDA);
+
+    doAnswer(invocation -> {
+      demanda.setStatus(DemandaStatus.CONCLUIDA);
+      return null;
+    }).when(demandaMapper).updateFromDto(updateDTO, demanda);
+    when(demandaRepository.findById(1L)).thenReturn(Optional.of(demanda));
+    when(demandaRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    when(demandaMapper.toDto(any())).thenReturn(responseDTO);
+
+    demandaService.updateDemanda(1L, updateDTO);
+
+    verify(dashboardService).demandaAlterada(
+        argThat((DemandaResumo antes) -> antes.status() == DemandaStatus.EM_ANDAMENTO),
+        argThat((DemandaResumo depois) -> depois.status() == DemandaStatus.CONCLUIDA
+            && depois.concluidaEm() != null));
+    verify(dashboardService).solicitacaoAlterada(
+        new SolicitacaoResumo(SolicitacaoStatus.EM_ANDAMENTO, SolicitacaoAssunto.BURACO),
+        new SolicitacaoResumo(SolicitacaoStatus.ENCERRADA, SolicitacaoAssunto.BURACO));
+  }
+
+  @Test
+  @DisplayName("Deve limpar a data de conclusao ao reabrir a demanda")
+  void testUpdateDemandaReabertaLimpaConclusao() {
+    demanda.setStatus(DemandaStatus.CONCLUIDA);
+    demanda.setConcluidaEm(LocalDateTime.now());
+    DemandaUpdateDTO updateDTO = new DemandaUpdateDTO();
+    updateDTO.setStatus(DemandaStatus.EM_ANDAMENTO);
+
+    doAnswer(invocation -> {
+      demanda.setStatus(DemandaStatus.EM_ANDAMENTO);
+      return null;
+    }).when(demandaMapper).updateFromDto(updateDTO, demanda);
+    when(demandaRepository.findById(1L)).thenReturn(Optional.of(demanda));
+    when(demandaRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    when(demandaMapper.toDto(any())).thenReturn(responseDTO);
+
+    demandaService.updateDemanda(1L, updateDTO);
+
+    assertNull(demanda.getConcluidaEm());
   }
 
   @Test
@@ -439,6 +551,26 @@ class DemandaServiceTest {
     assertEquals(3, demandaMaterial.getQuantidade());
   }
 
+  @Test
+  @DisplayName("Deve marcar para recalculo o consumo de antes e depois da alteracao")
+  void testUpdateDemandaMarcaConsumoDeMateriais() {
+    MaterialConsumoGrupo antes = MaterialConsumoGrupo.of(10L, LocalDate.of(2025, 3, 10));
+    MaterialConsumoGrupo depois = MaterialConsumoGrupo.of(20L, LocalDate.of(2025, 3, 10));
+    DemandaUpdateDTO updateDTO = new DemandaUpdateDTO();
+    updateDTO.setMateriais(List.of(new DemandaMaterialCreateDTO(20L, 1)));
+
+    when(demandaRepository.findById(1L)).thenReturn(Optional.of(demanda));
+    when(materialService.getMaterialEntityById(20L))
+        .thenReturn(Material.builder().id(20L).nome("Areia").preco(10.0).build());
+    when(demandaRepository.save(any())).thenReturn(demanda);
+    when(demandaMapper.toDto(any())).thenReturn(responseDTO);
+    when(materialConsumoService.grupos(demanda)).thenReturn(Set.of(antes), Set.of(depois));
+
+    demandaService.updateDemanda(1L, updateDTO);
+
+    verify(materialConsumoService).marcar(Set.of(antes, depois));
+  }
+
   @Test
   @DisplayName("Deve rejeitar materiais duplicados na demanda")
   void testCreateDemandaRejeitaMateriaisDuplicados() {
@@ -479,6 +611,7 @@ class DemandaServiceTest {
     demandaService.deleteDemanda(1L);
 
     verify(demandaRepository, times(1)).delete(demanda);
+    verify(dashboardService).demandaAlterada(DemandaResumo.of(demanda), null);
   }
 
   @Test
@@ -488,7 +621,7 @@ class DemandaServiceTest {
 
     assertThrows(NotFoundException.class,
         () -> demandaService.deleteDemanda(999L));
-    verify(demandaRepository, never()).delete(any());
+    verify(demandaRepository, never()).delete(any(Demanda.class));
   }
 
   @Test
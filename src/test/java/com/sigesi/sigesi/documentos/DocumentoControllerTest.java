@@ -2,10 +2,15 @@ package com.sigesi.sigesi.documentos;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -14,18 +19,27 @@ import com.sigesi.sigesi.config.NotFoundException;
 import com.sigesi.sigesi.documentos.dtos.DocumentoCreateDTO;
 import com.sigesi.sigesi.documentos.dtos.DocumentoResponseDTO;
 import com.sigesi.sigesi.documentos.dtos.DocumentoUpdateDTO;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
 
 @WebMvcTest(controllers = DocumentoController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(DocumentoPdfCache.class)
 @DisplayName("DocumentoController Tests")
 class DocumentoControllerTest {
 
@@ -41,6 +55,9 @@ class DocumentoControllerTest {
   @MockitoBean
   private DocumentoPdfService documentoPdfService;
 
+  @MockitoBean
+  private DocumentoExportService documentoExportService;
+
   private DocumentoResponseDTO documentoDTO(Long id, String subject, String body) {
     return DocumentoResponseDTO.builder()
         .id(id)
@@ -192,4 +209,138 @@ class DocumentoControllerTest {
         .andExpect(status().isNotFound());
   }
 
+
+  private Documento documentoComVersao() {
+    return Documento.builder()
+        .id(1L)
+        .numero("001-2025")
+        .versao(3L)
+        .atualizadoEm(LocalDateTime.of(2025, 6, 15, 10, 0))
+        .build();
+  }
+
+  @Test
+  @DisplayName("GET /api/documentos/{id}/pdf retorna PDF com ETag e Last-Modified")
+  void testBaixarPdfRetornaEtag() throws Exception {
+    Documento doc = documentoComVersao();
+    given(documentoService.getDocumentoEntityById(1L)).willReturn(doc);
+    renderizarComo(doc, "%PDF-1.4");
+
+    mockMvc.perform(get("/api/documentos/1/pdf"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+        .andExpect(content().bytes("%PDF-1.4".getBytes()))
+        .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 8))
+        .andExpect(header().string(HttpHeaders.ETAG, "W/\"doc-1-v3-l1\""))
+        .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+  }
+
+  @Test
+  @DisplayName("GET /api/documentos/{id}/pdf reutiliza o PDF em cache na segunda requisicao")
+  void testBaixarPdfUsaCache() throws Exception {
+    Documento doc = documentoComVersao();
+    doc.setId(2L);
+    given(documentoService.getDocumentoEntityById(2L)).willReturn(doc);
+    renderizarComo(doc, "%PDF-1.4");
+
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(get("/api/documentos/2/pdf"))
+          .andExpect(content().bytes("%PDF-1.4".getBytes()));
+    }
+
+    verify(documentoPdfService, times(1)).gerarPdfDocumento(eq(doc), any(OutputStream.class));
+  }
+
+  @Test
+  @DisplayName("GET /api/documentos/{id}/pdf retorna 500 sem PDF parcial quando a renderizacao falha")
+  void testBaixarPdfFalhaNaRenderizacao() throws Exception {
+    Documento doc = documentoComVersao();
+    doc.setId(3L);
+    given(documentoService.getDocumentoEntityById(3L)).willReturn(doc);
+    willAnswer(invocation -> {
+      invocation.getArgument(1, OutputStream.class).write("%PDF-1.4".getBytes());
+      throw new IOException("fonte ausente");
+    }).given(documentoPdfService).gerarPdfDocumento(eq(doc), any(OutputStream.class));
+
+    mockMvc.perform(get("/api/documentos/3/pdf"))
+        .andExpect(status().isInternalServerError())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+    // Nada foi para o cache: a proxima requisicao renderiza de novo
+    renderizarComo(doc, "%PDF-1.4");
+    mockMvc.perform(get("/api/documentos/3/pdf"))
+        .andExpect(status().isOk())
+        .andExpect(content().bytes("%PDF-1.4".getBytes()));
+  }
+
+  private void renderizarComo(Documento doc, String conteudo) throws Exception {
+    willAnswer(invocation -> {
+      invocation.getArgument(1, OutputStream.class).write(conteudo.getBytes());
+      return null;
+    }).given(documentoPdfService).gerarPdfDocumento(eq(doc), any(OutputStream.class));
+  }
+
+  @Test
+  @DisplayName("GET /api/documentos/{id}/pdf retorna 304 sem renderizar quando ETag confere")
+  void testBaixarPdfRetorna304() throws Exception {
+    given(documentoService.getDocumentoEntityById(1L)).willReturn(documentoComVersao());
+
+    mockMvc.perform(get("/api/documentos/1/pdf")
+        .header(HttpHeaders.IF_NONE_MATCH, "W/\"doc-1-v3-l1\""))
+        .andExpect(status().isNotModified());
+
+    verify(documentoPdfService, never()).gerarPdfDocumento(any(), any());
+  }
+
+  @Test
+  @DisplayName("GET /api/documentos/{id}/pdf renderiza novamente quando a versao mudou")
+  void testBaixarPdfVersaoAntigaRetorna200() throws Exception {
+    Documento doc = documentoComVersao();
+    given(documentoService.getDocumentoEntityById(1L)).willReturn(doc);
+    renderizarComo(doc, "%PDF-1.4");
+
+    mockMvc.perform(get("/api/documentos/1/pdf")
+        .header(HttpHeaders.IF_NONE_MATCH, "W/\"doc-1-v2-l1\""))
+        .andExpect(status().isOk())
+        .andExpect(content().bytes("%PDF-1.4".getBytes()));
+  }
+
+  @Test
+  @DisplayName("GET /api/documentos/export retorna ZIP com os filtros informados")
+  void testExportarZip() throws Exception {
+    willAnswer(invocation -> {
+      invocation.getArgument(1, OutputStream.class).write("PK".getBytes());
+      return null;
+    }).given(documentoExportService).exportar(any(), any(OutputStream.class));
+
+    MvcResult result = mockMvc.perform(get("/api/documentos/export")
+        .param("dataDe", "2025-01-01")
+        .param("tipo", "OFICIO"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/zip"))
+        .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("documentos.zip")))
+        .andExpect(content().bytes("PK".getBytes()));
+
+    verify(documentoExportService).exportar(
+        argThat(f -> DocumentoTipo.OFICIO.equals(f.getTipo()) && f.getDataDe() != null),
+        any(OutputStream.class));
+  }
+
+  @Test
+  @DisplayName("GET /api/documentos/export retorna 400 para periodo invalido")
+  void testExportarPeriodoInvalido() throws Exception {
+    doThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "periodo invalido"))
+        .when(documentoExportService).validarFiltro(any());
+
+    mockMvc.perform(get("/api/documentos/export")
+        .param("dataDe", "2025-06-01")
+        .param("dataAte", "2025-01-01"))
+        .andExpect(status().isBadRequest());
+
+    verify(documentoExportService, never()).exportar(any(), any());
+  }
 }
@@ -0,0 +1,159 @@
+package com.sigesi.sigesi.documentos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.sigesi.sigesi.documentos.dtos.DocumentoFilterDTO;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Testes unitarios para DocumentoExportService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DocumentoExportService Tests")
+class DocumentoExportServiceTest {
+
+  @Mock
+  private DocumentoRepository documentoRepository;
+
+  @Mock
+  private DocumentoPdfService documentoPdfService;
+
+  @InjectMocks
+  private DocumentoExportService documentoExportService;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(documentoExportService, "threads", 2);
+    ReflectionTestUtils.setField(documentoExportService, "batchSize", 2);
+    documentoExportService.startPool();
+  }
+
+  @AfterEach
+  void tearDown() {
+    documentoExportService.stopPool();
+  }
+
+  private Documento documento(Long id) {
+    return Documento.builder()
+        .id(id)
+        .numero("00" + id + "/2025")
+        .tipo(DocumentoTipo.OFICIO)
+        .build();
+  }
+
+  private void renderizarPdfs() throws IOException {
+    doAnswer(invocation -> {
+      Documento doc = invocation.getArgument(0);
+      invocation.getArgument(1, OutputStream.class)
+          .write(("%PDF-" + doc.getId()).getBytes(StandardCharsets.US_ASCII));
+      return null;
+    }).when(documentoPdfService).gerarPdfDocumento(any(Documento.class), any(OutputStream.class));
+  }
+
+  private Map<String, String> lerZip(byte[] zip) throws IOException {
+    Map<String, String> entradas = new HashMap<>();
+    try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+      ZipEntry entry;
+      while ((entry = in.getNextEntry()) != null) {
+        entradas.put(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+      }
+    }
+    return entradas;
+  }
+
+  @Test
+  @DisplayName("Deve exportar todos os documentos lendo em lotes")
+  void testExportarEmLotes() throws Exception {
+    renderizarPdfs();
+    doReturn(List.of(documento(1L), documento(2L)), List.of(documento(3L)))
+        .when(documentoRepository).findBy(any(Specification.class), any());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    documentoExportService.exportar(new DocumentoFilterDTO(), out);
+
+    Map<String, String> entradas = lerZip(out.toByteArray());
+    assertEquals(3, entradas.size());
+    assertEquals("%PDF-1", entradas.get("oficio_001-2025_1.pdf"));
+    assertEquals("%PDF-3", entradas.get("oficio_003-2025_3.pdf"));
+    verify(documentoRepository, times(2)).findBy(any(Specification.class), any());
+  }
+
+  @Test
+  @DisplayName("Deve listar falhas em erros.txt sem interromper a exportacao")
+  void testExportarComFalha() throws Exception {
+    renderizarPdfs();
+    Documento falho = documento(2L);
+    doReturn(List.of(documento(1L), falho), List.of())
+        .when(documentoRepository).findBy(any(Specification.class), any());
+    doThrow(new IOException("fonte ausente"))
+        .when(documentoPdfService).gerarPdfDocumento(eq(falho), any(OutputStream.class));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    documentoExportService.exportar(null, out);
+
+    Map<String, String> entradas = lerZip(out.toByteArray());
+    assertEquals(2, entradas.size());
+    assertTrue(entradas.containsKey("oficio_001-2025_1.pdf"));
+    assertTrue(entradas.get(DocumentoExportService.ERROS_ENTRY).contains("Documento 2"));
+  }
+
+  @Test
+  @DisplayName("Deve gerar ZIP vazio quando nenhum documento atende ao filtro")
+  void testExportarSemDocumentos() throws Exception {
+    doReturn(List.of()).when(documentoRepository).findBy(any(Specification.class), any());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    documentoExportService.exportar(new DocumentoFilterDTO(), out);
+
+    assertTrue(lerZip(out.toByteArray()).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Deve rejeitar periodo com data inicial apos a final")
+  void testValidarFiltroPeriodoInvertido() {
+    DocumentoFilterDTO filter = DocumentoFilterDTO.builder()
+        .dataDe(LocalDate.of(2025, 6, 1))
+        .dataAte(LocalDate.of(2025, 1, 1))
+        .build();
+
+    assertThrows(ResponseStatusException.class, () -> documentoExportService.validarFiltro(filter));
+  }
+
+  @Test
+  @DisplayName("Deve gerar nome de entrada sem barras")
+  void testNomeEntrada() {
+    Documento doc = Documento.builder().id(7L).numero("012/2025").tipo(DocumentoTipo.MEMORANDO).build();
+
+    assertEquals("memorando_012-2025_7.pdf", DocumentoExportService.nomeEntrada(doc));
+  }
+}
@@ -0,0 +1,110 @@
+package com.sigesi.sigesi.documentos;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark JMH de documentos renderizados por segundo.
+ *
+ * <p>{@code recarregandoRecursos} reproduz o comportamento anterior, que decodificava a
+ * imagem de fundo a cada PDF; os demais usam os recursos compartilhados, em memoria e
+ * direto no stream. Nao roda com {@code mvn test}; para executar:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.sigesi.sigesi.documentos.DocumentoPdfBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentoPdfBenchmark {
+
+  private DocumentoPdfService service;
+  private Documento documento;
+
+  @Setup
+  public void setUp() {
+    service = new DocumentoPdfService();
+    documento = Documento.builder()
+        .id(1L)
+        .numero("001/2025")
+        .data(LocalDate.of(2025, 6, 15))
+        .subject("Assunto de teste")
+        .honorifico("Senhor Secretario")
+        .body("Corpo do documento de teste. ".repeat(40))
+        .tipo(DocumentoTipo.OFICIO)
+        .assinante("Joao da Silva")
+        .interessado("Maria dos Santos")
+        .portaria("Portaria 123/2025")
+        .build();
+  }
+
+  @Benchmark
+  public byte[] recarregandoRecursos() throws Exception {
+    return emMemoria(new DocumentoPdfService());
+  }
+
+  @Benchmark
+  public byte[] recursosCompartilhados() throws Exception {
+    return emMemoria(service);
+  }
+
+  @Benchmark
+  public void recursosCompartilhadosNoStream(Blackhole blackhole) throws Exception {
+    service.gerarPdfDocumento(documento, new BlackholeOutputStream(blackhole));
+  }
+
+  private byte[] emMemoria(DocumentoPdfService renderizador) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    renderizador.gerarPdfDocumento(documento, out);
+    return out.toByteArray();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(DocumentoPdfBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+
+  private static final class BlackholeOutputStream extends OutputStream {
+
+    private final Blackhole blackhole;
+
+    BlackholeOutputStream(Blackhole blackhole) {
+      this.blackhole = blackhole;
+    }
+
+    @Override
+    public void write(int b) {
+      blackhole.consume(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      blackhole.consume(b);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.sigesi.sigesi.documentos;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Testes unitarios para DocumentoPdfCache.
+ */
+@DisplayName("DocumentoPdfCache Tests")
+class DocumentoPdfCacheTest {
+
+  private DocumentoPdfCache cache;
+  private AtomicInteger renders;
+  private DocumentoPdfCache.Renderizador renderer;
+
+  @BeforeEach
+  void setUp() {
+    cache = new DocumentoPdfCache();
+    ReflectionTestUtils.setField(cache, "maxBytes", 10L);
+    renders = new AtomicInteger();
+    renderer = (doc, out) -> {
+      renders.incrementAndGet();
+      out.write(new byte[] {doc.getId().byteValue(), doc.getVersao().byteValue(), 0, 0});
+    };
+  }
+
+  private Documento documento(Long id, Long versao) {
+    return Documento.builder().id(id).versao(versao).build();
+  }
+
+  @Test
+  @DisplayName("Deve reutilizar PDF da mesma versao")
+  void testHitMesmaVersao() throws Exception {
+    byte[] first = cache.render(documento(1L, 0L), renderer);
+    byte[] second = cache.render(documento(1L, 0L), renderer);
+
+    assertEquals(1, renders.get());
+    assertArrayEquals(first, second);
+  }
+
+  @Test
+  @DisplayName("Deve renderizar novamente quando a versao muda")
+  void testMissNovaVersao() throws Exception {
+    cache.render(documento(1L, 0L), renderer);
+    byte[] updated = cache.render(documento(1L, 1L), renderer);
+
+    assertEquals(2, renders.get());
+    assertEquals(1, updated[1]);
+    assertEquals(4, cache.getTotalBytes());
+  }
+
+  @Test
+  @DisplayName("Deve renderizar novamente apos invalidacao")
+  void testEvict() throws Exception {
+    cache.render(documento(1L, 0L), renderer);
+
+    cache.evict(1L);
+    cache.render(documento(1L, 0L), renderer);
+
+    assertEquals(2, renders.get());
+  }
+
+  @Test
+  @DisplayName("Deve descartar o menos usado ao exceder o limite de bytes")
+  void testLimiteDeBytes() throws Exception {
+    cache.render(documento(1L, 0L), renderer);
+    cache.render(documento(2L, 0L), renderer);
+    cache.render(documento(1L, 0L), renderer);
+    cache.render(documento(3L, 0L), renderer);
+
+    assertEquals(8, cache.getTotalBytes());
+    cache.render(documento(1L, 0L), renderer);
+    assertEquals(3, renders.get());
+    cache.render(documento(2L, 0L), renderer);
+    assertEquals(4, renders.get());
+  }
+
+  @Test
+  @DisplayName("Nao deve guardar PDF vazio")
+  void testNaoGuardaVazio() throws Exception {
+    cache.render(documento(1L, 0L), (doc, out) -> { });
+
+    assertEquals(0, cache.getTotalBytes());
+  }
+
+  @Test
+  @DisplayName("Deve propagar falha na renderizacao sem guardar PDF parcial")
+  void testRenderFalhaNaoGuarda() throws Exception {
+    DocumentoPdfCache.Renderizador falha = (doc, out) -> {
+      out.write(new byte[] {1, 2, 3});
+      throw new IOException("falha");
+    };
+
+    assertThrows(IOException.class, () -> cache.render(documento(1L, 0L), falha));
+    assertEquals(0, cache.getTotalBytes());
+
+    cache.render(documento(1L, 0L), renderer);
+    assertEquals(1, renders.get());
+  }
+
+  @Test
+  @DisplayName("Nao deve guardar PDF maior que o limite")
+  void testRenderAcimaDoLimite() throws Exception {
+    DocumentoPdfCache.Renderizador grande = (doc, out) -> out.write(new byte[12]);
+
+    byte[] pdf = cache.render(documento(1L, 0L), grande);
+
+    assertEquals(12, pdf.length);
+    assertEquals(0, cache.getTotalBytes());
+  }
+}
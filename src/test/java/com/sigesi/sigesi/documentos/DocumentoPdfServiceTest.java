@@ -1,8 +1,13 @@
 package com.sigesi.sigesi.documentos;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -36,12 +41,18 @@ class DocumentoPdfServiceTest {
         .build();
   }
 
+  private byte[] gerar(Documento doc) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    documentoPdfService.gerarPdfDocumento(doc, out);
+    return out.toByteArray();
+  }
+
   @Test
   @DisplayName("Deve gerar PDF tipo OFICIO com sucesso")
-  void testGerarPdfOficio() {
+  void testGerarPdfOficio() throws Exception {
     Documento doc = criarDocumentoBase(DocumentoTipo.OFICIO);
 
-    byte[] result = documentoPdfService.gerarPdfDocumento(doc);
+    byte[] result = gerar(doc);
 
     assertNotNull(result);
     assertTrue(result.length > 0);
@@ -49,10 +60,10 @@ class DocumentoPdfServiceTest {
 
   @Test
   @DisplayName("Deve gerar PDF tipo MEMORANDO com sucesso")
-  void testGerarPdfMemorando() {
+  void testGerarPdfMemorando() throws Exception {
     Documento doc = criarDocumentoBase(DocumentoTipo.MEMORANDO);
 
-    byte[] result = documentoPdfService.gerarPdfDocumento(doc);
+    byte[] result = gerar(doc);
 
     assertNotNull(result);
     assertTrue(result.length > 0);
@@ -60,7 +71,7 @@ class DocumentoPdfServiceTest {
 
   @Test
   @DisplayName("Deve gerar PDF com campos opcionais nulos")
-  void testGerarPdfComCamposNulos() {
+  void testGerarPdfComCamposNulos() throws Exception {
     Documento doc = Documento.builder()
         .numero("002/2025")
         .data(LocalDate.of(2025, 6, 15))
@@ -72,9 +83,45 @@ class DocumentoPdfServiceTest {
         .interessado("Interessado")
         .build();
 
-    byte[] result = documentoPdfService.gerarPdfDocumento(doc);
+    byte[] result = gerar(doc);
 
     assertNotNull(result);
     assertTrue(result.length > 0);
   }
+
+  @Test
+  @DisplayName("Deve escrever o PDF no stream sem fecha-lo")
+  void testGerarPdfNoStream() throws Exception {
+    Documento doc = criarDocumentoBase(DocumentoTipo.MEMORANDO);
+    ByteArrayOutputStream out = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        throw new AssertionError("stream nao deve ser fechado");
+      }
+    };
+
+    documentoPdfService.gerarPdfDocumento(doc, out);
+
+    assertEquals("%PDF", new String(out.toByteArray(), 0, 4, StandardCharsets.US_ASCII));
+  }
+
+  @Test
+  @DisplayName("Deve propagar falha na renderizacao em vez de devolver PDF parcial")
+  void testGerarPdfFalhaPropaga() {
+    Documento doc = criarDocumentoBase(DocumentoTipo.OFICIO);
+    doc.setData(null);
+
+    assertThrows(NullPointerException.class, () -> gerar(doc));
+  }
+
+  @Test
+  @DisplayName("Deve gerar o mesmo tamanho em renderizacoes seguidas com recursos compartilhados")
+  void testRecursosCompartilhados() throws Exception {
+    Documento doc = criarDocumentoBase(DocumentoTipo.OFICIO);
+
+    byte[] first = gerar(doc);
+    byte[] second = gerar(doc);
+
+    assertEquals(first.length, second.length);
+  }
 }
@@ -36,6 +36,9 @@ class DocumentoServiceTest {
   @Mock
   private ArquivoService arquivoService;
 
+  @Mock
+  private DocumentoPdfCache documentoPdfCache;
+
   @InjectMocks
   private DocumentoService documentoService;
 
@@ -164,6 +167,27 @@ class DocumentoServiceTest {
     verify(documentoRepository, times(1)).delete(documento);
   }
 
+  @Test
+  @DisplayName("Deve invalidar PDF em cache ao atualizar documento")
+  void testUpdateDocumentoInvalidaCachePdf() {
+    when(documentoRepository.findById(1L)).thenReturn(Optional.of(documento));
+    when(documentoRepository.save(any(Documento.class))).thenReturn(documento);
+
+    documentoService.updateDocumento(1L, new DocumentoUpdateDTO());
+
+    verify(documentoPdfCache, times(1)).evict(1L);
+  }
+
+  @Test
+  @DisplayName("Deve invalidar PDF em cache ao deletar documento")
+  void testDeleteDocumentoInvalidaCachePdf() {
+    when(documentoRepository.findById(1L)).thenReturn(Optional.of(documento));
+
+    documentoService.deleteDocumento(1L);
+
+    verify(documentoPdfCache, times(1)).evict(1L);
+  }
+
   @Test
   @DisplayName("Deve lancar excecao ao deletar documento inexistente")
   void testDeleteDocumentoLancaExcecaoQuandoNaoEncontrado() {
@@ -17,6 +17,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.sigesi.sigesi.config.NotFoundException;
+import com.sigesi.sigesi.consumo.MaterialConsumoService;
 import com.sigesi.sigesi.enderecos.dtos.EnderecoCreateDTO;
 import com.sigesi.sigesi.enderecos.dtos.EnderecoResponseDTO;
 import com.sigesi.sigesi.enderecos.dtos.EnderecoUpdateDTO;
@@ -31,6 +32,9 @@ class EnderecoServiceTest {
   @Mock
   private EnderecoMapper enderecoMapper;
 
+  @Mock
+  private MaterialConsumoService materialConsumoService;
+
   @InjectMocks
   private EnderecoService enderecoService;
 
@@ -133,6 +137,24 @@ class EnderecoServiceTest {
     verify(enderecoRepository, times(1)).save(endereco);
   }
 
+  @Test
+  @DisplayName("Deve marcar o consumo de materiais do endereço quando o bairro muda")
+  void testUpdateEnderecoMarcaConsumoQuandoBairroMuda() {
+    Endereco endereco = Endereco.builder().id(1L).logradouro("Rua A").numero("1").bairro("Centro").build();
+    EnderecoUpdateDTO updateDTO = new EnderecoUpdateDTO(null, null, "Bairro Novo", null);
+
+    when(enderecoRepository.findById(1L)).thenReturn(Optional.of(endereco));
+    doAnswer(invocation -> {
+      endereco.setBairro("Bairro Novo");
+      return null;
+    }).when(enderecoMapper).updateFromDto(updateDTO, endereco);
+    when(enderecoRepository.save(endereco)).thenReturn(endereco);
+
+    enderecoService.updateEndereco(1L, updateDTO);
+
+    verify(materialConsumoService, times(1)).marcarEndereco(1L);
+  }
+
   @Test
   @DisplayName("Deve deletar endereço com sucesso")
   void testDeleteEnderecoComSucesso() {
@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -25,6 +27,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.sigesi.sigesi.config.NotFoundException;
+import com.sigesi.sigesi.consumo.MaterialConsumoService;
 import com.sigesi.sigesi.materiais.dtos.MaterialCreateDTO;
 import com.sigesi.sigesi.materiais.dtos.MaterialResponseDTO;
 import com.sigesi.sigesi.materiais.dtos.MaterialUpdateDTO;
@@ -42,6 +45,9 @@ class MaterialServiceTest {
   @Mock
   private MaterialMapper materialMapper;
 
+  @Mock
+  private MaterialConsumoService materialConsumoService;
+
   @InjectMocks
   private MaterialService materialService;
 
@@ -131,6 +137,25 @@ class MaterialServiceTest {
     assertNotNull(resultado);
     verify(materialMapper, times(1)).updateFromDto(updateDTO, material);
     verify(materialRepository, times(1)).save(material);
+    verify(materialConsumoService, never()).marcarMaterial(anyLong());
+  }
+
+  @Test
+  @DisplayName("Deve marcar o consumo do material para recalculo quando o preco muda")
+  void testUpdateMaterialMarcaConsumoQuandoPrecoMuda() {
+    MaterialUpdateDTO updateDTO = new MaterialUpdateDTO(null, 55.0);
+
+    when(materialRepository.findById(1L)).thenReturn(Optional.of(material));
+    doAnswer(invocation -> {
+      material.setPreco(55.0);
+      return null;
+    }).when(materialMapper).updateFromDto(updateDTO, material);
+    when(materialRepository.save(material)).thenReturn(material);
+    when(materialMapper.toDto(material)).thenReturn(responseDTO);
+
+    materialService.updateMaterial(1L, updateDTO);
+
+    verify(materialConsumoService, times(1)).marcarMaterial(1L);
   }
 
   @Test
@@ -0,0 +1,157 @@
+package com.sigesi.sigesi.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sigesi.sigesi.config.RabbitMQConfig;
+import com.sigesi.sigesi.demandas.Demanda;
+import com.sigesi.sigesi.demandas.DemandaRepository;
+import com.sigesi.sigesi.demandas.DemandaStatus;
+import com.sigesi.sigesi.enderecos.Endereco;
+import com.sigesi.sigesi.enderecos.EnderecoRepository;
+import com.sigesi.sigesi.solicitacoes.Solicitacao;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoRepository;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoStatus;
+import com.sigesi.sigesi.usuarios.Usuario;
+import com.sigesi.sigesi.usuarios.UsuarioRepository;
+import com.sigesi.sigesi.usuarios.enums.Role;
+
+/**
+ * Executa a varredura de prazos contra o H2 (sem o lock do PostgreSQL), com lotes de 2
+ * demandas para passar por mais de uma transacao.
+ */
+@DataJpaTest
+@Import({DeadlineScanner.class, NotificationPublisher.class, JacksonAutoConfiguration.class})
+@TestPropertySource(properties = {
+    "app.notifications.deadline.enabled=true",
+    "app.notifications.deadline.batch-size=2"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("DeadlineScanner Query Tests")
+class DeadlineScannerQueryTest {
+
+  private static final LocalDate HOJE = LocalDate.now();
+
+  @Autowired
+  private DeadlineScanner scanner;
+
+  @Autowired
+  private DeadlineNoticeRepository noticeRepository;
+
+  @Autowired
+  private OutboxEventRepository outboxEventRepository;
+
+  @Autowired
+  private DemandaRepository demandaRepository;
+
+  @Autowired
+  private SolicitacaoRepository solicitacaoRepository;
+
+  @Autowired
+  private UsuarioRepository usuarioRepository;
+
+  @Autowired
+  private EnderecoRepository enderecoRepository;
+
+  private Usuario ana;
+  private Solicitacao solicitacao;
+  private Demanda atrasada;
+
+  @BeforeEach
+  void setUp() {
+    noticeRepository.deleteAll();
+    outboxEventRepository.deleteAll();
+    demandaRepository.deleteAll();
+    solicitacaoRepository.deleteAll();
+    usuarioRepository.deleteAll();
+    enderecoRepository.deleteAll();
+
+    ana = usuarioRepository.save(
+        Usuario.builder().email("ana@test.com").name("Ana").role(Role.AGENTE).ativo(true).build());
+    Endereco local = enderecoRepository.save(
+        Endereco.builder().logradouro("Rua A").numero("1").bairro("Centro").build());
+    solicitacao = solicitacaoRepository.save(Solicitacao.builder()
+        .body("Corpo").autor(ana).local(local).status(SolicitacaoStatus.EM_ANDAMENTO).build());
+
+    atrasada = demandaRepository.save(demanda(ana, DemandaStatus.PENDENTE, HOJE.minusDays(1)));
+    demandaRepository.saveAll(List.of(
+        demanda(ana, DemandaStatus.EM_ANDAMENTO, HOJE.plusDays(1)),
+        demanda(ana, DemandaStatus.PENDENTE, HOJE.plusDays(2)),
+        demanda(ana, DemandaStatus.PENDENTE, HOJE.plusDays(3)),
+        demanda(null, DemandaStatus.PENDENTE, HOJE.minusDays(1)),
+        demanda(ana, DemandaStatus.CONCLUIDA, HOJE.minusDays(1)),
+        demanda(ana, DemandaStatus.PENDENTE, HOJE.minusDays(40))));
+  }
+
+  private Demanda demanda(Usuario responsavel, DemandaStatus status, LocalDate prazo) {
+    return Demanda.builder().solicitacao(solicitacao).responsavel(responsavel).status(status).prazo(prazo).build();
+  }
+
+  private Map<String, Long> eventosPorRoutingKey() {
+    return outboxEventRepository.findAll().stream()
+        .collect(Collectors.groupingBy(OutboxEvent::getRoutingKey, Collectors.counting()));
+  }
+
+  @Test
+  @DisplayName("Deve gravar eventos de prazo so para demandas abertas e atribuidas na janela")
+  void testScanGravaEventos() {
+    scanner.scan();
+
+    assertEquals(Map.of(RabbitMQConfig.ROUTING_KEY_OVERDUE, 1L, RabbitMQConfig.ROUTING_KEY_DUE_SOON, 2L),
+        eventosPorRoutingKey());
+    Map<Long, DeadlineNotice> avisos = noticeRepository.findAll().stream()
+        .filter(aviso -> aviso.getKind() == DeadlineKind.OVERDUE)
+        .collect(Collectors.toMap(DeadlineNotice::getDemandaId, Function.identity()));
+    assertEquals(HOJE.minusDays(1), avisos.get(atrasada.getId()).getPrazo());
+  }
+
+  @Test
+  @DisplayName("Nao deve repetir eventos ja gravados")
+  void testScanNaoDuplica() {
+    scanner.scan();
+    scanner.scan();
+
+    assertEquals(3, outboxEventRepository.count());
+    assertEquals(3, noticeRepository.count());
+  }
+
+  @Test
+  @DisplayName("Deve avisar de novo quando o prazo muda")
+  void testScanAvisaNovoPrazo() {
+    scanner.scan();
+    atrasada.setPrazo(HOJE.minusDays(2));
+    demandaRepository.save(atrasada);
+
+    scanner.scan();
+
+    assertEquals(2L, eventosPorRoutingKey().get(RabbitMQConfig.ROUTING_KEY_OVERDUE));
+  }
+
+  @Test
+  @DisplayName("Deve apagar avisos com prazo fora da janela de atraso")
+  void testScanApagaAvisosAntigos() {
+    noticeRepository.save(DeadlineNotice.builder()
+        .demandaId(atrasada.getId()).kind(DeadlineKind.OVERDUE).prazo(HOJE.minusDays(60)).build());
+
+    scanner.scan();
+
+    assertFalse(noticeRepository.findAll().stream().anyMatch(aviso -> aviso.getPrazo().isBefore(HOJE.minusDays(30))));
+  }
+}
@@ -0,0 +1,117 @@
+package com.sigesi.sigesi.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigesi.sigesi.config.RabbitMQConfig;
+import com.sigesi.sigesi.demandas.Demanda;
+import com.sigesi.sigesi.demandas.DemandaStatus;
+import com.sigesi.sigesi.notifications.events.DemandEvent;
+import com.sigesi.sigesi.solicitacoes.Solicitacao;
+import com.sigesi.sigesi.solicitacoes.SolicitacaoAssunto;
+import com.sigesi.sigesi.usuarios.Usuario;
+
+/**
+ * Testes unitarios para NotificationPublisher.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationPublisher Tests")
+class NotificationPublisherTest {
+
+  @Mock
+  private OutboxEventRepository outboxEventRepository;
+
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  @InjectMocks
+  private NotificationPublisher notificationPublisher;
+
+  private Demanda demanda;
+
+  @BeforeEach
+  void setUp() {
+    Solicitacao solicitacao = Solicitacao.builder()
+        .id(5L).assunto(SolicitacaoAssunto.BURACO).body("Corpo").build();
+    Usuario responsavel = Usuario.builder().id(7L).email("agente@test.com").name("Agente").build();
+    demanda = Demanda.builder()
+        .id(10L).solicitacao(solicitacao).responsavel(responsavel)
+        .prazo(LocalDate.of(2026, 1, 15)).status(DemandaStatus.EM_ANDAMENTO).build();
+  }
+
+  @Test
+  @DisplayName("Deve gravar evento de atribuicao no outbox")
+  void testPublishDemandAssignedWritesOutbox() throws Exception {
+    notificationPublisher.publishDemandAssigned(demanda);
+
+    OutboxEvent saved = captureSaved();
+    assertEquals(10L, saved.getAggregateId());
+    assertEquals(RabbitMQConfig.ROUTING_KEY_ASSIGNED, saved.getRoutingKey());
+
+    DemandEvent event = objectMapper.readValue(saved.getPayload(), DemandEvent.class);
+    assertEquals("assigned", event.getEventType());
+    assertEquals("BURACO", event.getAssunto());
+    assertEquals(7L, event.getResponsavelId());
+    assertEquals(LocalDate.of(2026, 1, 15), event.getPrazo());
+  }
+
+  @Test
+  @DisplayName("Deve gravar evento de mudanca de status no outbox")
+  void testPublishDemandStatusChangedWritesOutbox() throws Exception {
+    notificationPublisher.publishDemandStatusChanged(demanda, DemandaStatus.PENDENTE);
+
+    OutboxEvent saved = captureSaved();
+    assertEquals(RabbitMQConfig.ROUTING_KEY_STATUS_CHANGED, saved.getRoutingKey());
+
+    DemandEvent event = objectMapper.readValue(saved.getPayload(), DemandEvent.class);
+    assertEquals("status_changed", event.getEventType());
+    assertEquals("PENDENTE", event.getOldStatus());
+    assertEquals("EM_ANDAMENTO", event.getNewStatus());
+  }
+
+  @Test
+  @DisplayName("Deve gravar evento de prazo atrasado no outbox")
+  void testPublishDemandDeadlineWritesOutbox() throws Exception {
+    notificationPublisher.publishDemandDeadline(demanda, DeadlineKind.OVERDUE);
+
+    OutboxEvent saved = captureSaved();
+    assertEquals(10L, saved.getAggregateId());
+    assertEquals(RabbitMQConfig.ROUTING_KEY_OVERDUE, saved.getRoutingKey());
+
+    DemandEvent event = objectMapper.readValue(saved.getPayload(), DemandEvent.class);
+    assertEquals("overdue", event.getEventType());
+    assertEquals(LocalDate.of(2026, 1, 15), event.getPrazo());
+    assertNull(event.getNewStatus());
+  }
+
+  @Test
+  @DisplayName("Deve aceitar solicitacao sem assunto")
+  void testPublishWithoutAssunto() throws Exception {
+    demanda.getSolicitacao().setAssunto(null);
+
+    notificationPublisher.publishDemandAssigned(demanda);
+
+    DemandEvent event = objectMapper.readValue(captureSaved().getPayload(), DemandEvent.class);
+    assertNull(event.getAssunto());
+  }
+
+  private OutboxEvent captureSaved() {
+    ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+    verify(outboxEventRepository).save(captor.capture());
+    return captor.getValue();
+  }
+}
@@ -0,0 +1,67 @@
+package com.sigesi.sigesi.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import com.sigesi.sigesi.config.RabbitMQConfig;
+
+/**
+ * Executa a consulta de eventos do relay contra o H2.
+ */
+@DataJpaTest
+@DisplayName("OutboxEventRepository Query Tests")
+class OutboxEventRepositoryTest {
+
+  private static final LocalDateTime AGORA = LocalDateTime.now();
+
+  @Autowired
+  private OutboxEventRepository outboxEventRepository;
+
+  private OutboxEvent evento(long demandaId, LocalDateTime proximaTentativa, OutboxStatus status) {
+    return outboxEventRepository.save(OutboxEvent.builder()
+        .aggregateId(demandaId)
+        .routingKey(RabbitMQConfig.ROUTING_KEY_ASSIGNED)
+        .payload("{}")
+        .status(status)
+        .createdAt(AGORA.minusMinutes(1))
+        .nextAttemptAt(proximaTentativa)
+        .build());
+  }
+
+  @Test
+  @DisplayName("Deve deixar de fora os eventos atras de um evento em espera da mesma demanda")
+  void testFindDueIgnoraDemandaBloqueada() {
+    evento(10L, AGORA.plusMinutes(5), OutboxStatus.PENDING);
+    evento(10L, AGORA.minusMinutes(1), OutboxStatus.PENDING);
+    OutboxEvent outra = evento(20L, AGORA.minusMinutes(1), OutboxStatus.PENDING);
+    evento(30L, AGORA.minusMinutes(1), OutboxStatus.SENT);
+    // Falho nao segura mais os seguintes
+    evento(40L, AGORA.minusMinutes(1), OutboxStatus.FAILED);
+    OutboxEvent depoisDoFalho = evento(40L, AGORA.minusMinutes(1), OutboxStatus.PENDING);
+
+    List<OutboxEvent> devidos = outboxEventRepository.findDue(OutboxStatus.PENDING, AGORA, Limit.of(10));
+
+    assertEquals(List.of(outra.getId(), depoisDoFalho.getId()), devidos.stream().map(OutboxEvent::getId).toList());
+  }
+
+  @Test
+  @DisplayName("Deve preencher o lote com outras demandas quando uma esta em espera")
+  void testFindDueNaoGastaLoteComDemandaBloqueada() {
+    evento(10L, AGORA.plusMinutes(5), OutboxStatus.PENDING);
+    evento(10L, AGORA.minusMinutes(1), OutboxStatus.PENDING);
+    evento(10L, AGORA.minusMinutes(1), OutboxStatus.PENDING);
+    OutboxEvent outra = evento(20L, AGORA.minusMinutes(1), OutboxStatus.PENDING);
+
+    List<OutboxEvent> devidos = outboxEventRepository.findDue(OutboxStatus.PENDING, AGORA, Limit.of(1));
+
+    assertEquals(List.of(outra.getId()), devidos.stream().map(OutboxEvent::getId).toList());
+  }
+}
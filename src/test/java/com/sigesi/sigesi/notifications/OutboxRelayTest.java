@@ -0,0 +1,198 @@
+package com.sigesi.sigesi.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigesi.sigesi.config.RabbitMQConfig;
+
+/**
+ * Testes unitarios para OutboxRelay.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay Tests")
+class OutboxRelayTest {
+
+  @Mock
+  private OutboxEventRepository outboxEventRepository;
+
+  @Mock
+  private RabbitTemplate rabbitTemplate;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  @InjectMocks
+  private OutboxRelay outboxRelay;
+
+  private final List<String> sentIds = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(outboxRelay, "batchSize", 100);
+    ReflectionTestUtils.setField(outboxRelay, "maxAttempts", 3);
+    ReflectionTestUtils.setField(outboxRelay, "confirmTimeoutMs", 1000L);
+  }
+
+  @Test
+  @DisplayName("Deve enviar eventos pendentes e marcar como enviados")
+  void testRelaySendsAndMarksSent() {
+    OutboxEvent first = event(1L, 10L);
+    OutboxEvent second = event(2L, 10L);
+    OutboxEvent other = event(3L, 20L);
+    givenPending(first, second, other);
+    brokerNacks(Set.of());
+
+    outboxRelay.relayPending();
+
+    assertEquals(List.of("1", "3", "2"), sentIds);
+    assertEquals(OutboxStatus.SENT, first.getStatus());
+    assertEquals(OutboxStatus.SENT, second.getStatus());
+    assertEquals(OutboxStatus.SENT, other.getStatus());
+    assertNotNull(first.getSentAt());
+    verify(outboxEventRepository).saveAll(List.of(first, other, second));
+  }
+
+  @Test
+  @DisplayName("Deve reagendar evento com nack e segurar os seguintes da mesma demanda")
+  void testNackBlocksLaterEventsOfSameAggregate() {
+    OutboxEvent first = event(1L, 10L);
+    OutboxEvent second = event(2L, 10L);
+    OutboxEvent other = event(3L, 20L);
+    givenPending(first, second, other);
+    brokerNacks(Set.of("1"));
+
+    outboxRelay.relayPending();
+
+    assertEquals(List.of("1", "3"), sentIds);
+    assertEquals(OutboxStatus.PENDING, first.getStatus());
+    assertEquals(1, first.getAttempts());
+    assertTrue(first.getNextAttemptAt().isAfter(LocalDateTime.now()));
+    assertTrue(first.getLastError().contains("nack"));
+    assertEquals(OutboxStatus.PENDING, second.getStatus());
+    assertEquals(0, second.getAttempts());
+    assertEquals(OutboxStatus.SENT, other.getStatus());
+  }
+
+  @Test
+  @DisplayName("Nao deve enviar nada quando outra instancia tem o lock do relay")
+  void testSkipsWhenAnotherInstanceHoldsLock() {
+    ReflectionTestUtils.setField(outboxRelay, "advisoryLock", true);
+    when(outboxEventRepository.tryAdvisoryXactLock(OutboxRelay.LOCK_KEY)).thenReturn(false);
+
+    outboxRelay.relayPending();
+
+    verify(outboxEventRepository, never()).findDue(any(), any(), any());
+    verify(rabbitTemplate, never()).convertAndSend(
+        anyString(), anyString(), any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+  }
+
+  @Test
+  @DisplayName("Deve enviar e salvar dentro da transacao que segura o lock")
+  void testRelaysInsideLockTransaction() {
+    ReflectionTestUtils.setField(outboxRelay, "advisoryLock", true);
+    when(outboxEventRepository.tryAdvisoryXactLock(OutboxRelay.LOCK_KEY)).thenReturn(true);
+    OutboxEvent event = event(1L, 10L);
+    givenPending(event);
+    brokerNacks(Set.of());
+
+    outboxRelay.relayPending();
+
+    InOrder ordem = inOrder(transactionManager, outboxEventRepository);
+    ordem.verify(transactionManager).getTransaction(any());
+    ordem.verify(outboxEventRepository).tryAdvisoryXactLock(OutboxRelay.LOCK_KEY);
+    ordem.verify(outboxEventRepository).saveAll(List.of(event));
+    ordem.verify(transactionManager).commit(any());
+  }
+
+  @Test
+  @DisplayName("Deve marcar como falho ao atingir o maximo de tentativas")
+  void testMaxAttemptsMarksFailed() {
+    OutboxEvent event = event(1L, 10L);
+    event.setAttempts(2);
+    givenPending(event);
+    doThrow(new AmqpConnectException(new RuntimeException("Connection refused")))
+        .when(rabbitTemplate).convertAndSend(
+            anyString(), anyString(), any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+
+    outboxRelay.relayPending();
+
+    assertEquals(OutboxStatus.FAILED, event.getStatus());
+    assertEquals(3, event.getAttempts());
+    assertTrue(event.getLastError().contains("Connection refused"));
+  }
+
+  @Test
+  @DisplayName("Nao deve salvar nada quando nao ha eventos pendentes")
+  void testNoPendingEvents() {
+    givenPending();
+
+    outboxRelay.relayPending();
+
+    verify(outboxEventRepository, never()).saveAll(any());
+  }
+
+  private OutboxEvent event(Long id, Long aggregateId) {
+    return OutboxEvent.builder()
+        .id(id)
+        .aggregateId(aggregateId)
+        .routingKey(RabbitMQConfig.ROUTING_KEY_ASSIGNED)
+        .payload("{\"eventType\":\"assigned\",\"demandId\":" + aggregateId + "}")
+        .status(OutboxStatus.PENDING)
+        .createdAt(LocalDateTime.now().minusSeconds(5))
+        .nextAttemptAt(LocalDateTime.now().minusSeconds(5))
+        .build();
+  }
+
+  private void givenPending(OutboxEvent... events) {
+    when(outboxEventRepository.findDue(eq(OutboxStatus.PENDING), any(LocalDateTime.class), any(Limit.class)))
+        .thenReturn(List.of(events));
+  }
+
+  private void brokerNacks(Set<String> nackIds) {
+    doAnswer(invocation -> {
+      CorrelationData correlation = invocation.getArgument(4);
+      sentIds.add(correlation.getId());
+      boolean ack = !nackIds.contains(correlation.getId());
+      correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+      return null;
+    }).when(rabbitTemplate).convertAndSend(
+        eq(RabbitMQConfig.EXCHANGE_NAME), anyString(), any(Object.class),
+        any(MessagePostProcessor.class), any(CorrelationData.class));
+  }
+}
@@ -0,0 +1,86 @@
+package com.sigesi.sigesi.pessoas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.sigesi.sigesi.config.CursorPageDTO;
+import com.sigesi.sigesi.pessoas.dtos.PessoaResponseDTO;
+
+/**
+ * Executa a busca de fallback (JPA) contra o H2.
+ */
+@DataJpaTest
+@Import({PessoaBuscaService.class, PessoaMapperImpl.class})
+@DisplayName("PessoaBuscaService Query Tests")
+class PessoaBuscaQueryTest {
+
+  @Autowired
+  private PessoaBuscaService buscaService;
+
+  @Autowired
+  private PessoaRepository pessoaRepository;
+
+  @BeforeEach
+  void setUp() {
+    pessoaRepository.deleteAll();
+    pessoaRepository.saveAll(List.of(
+        pessoa("Maria José da Silva", "529.982.247-25"),
+        pessoa("José Antônio Souza", "111.444.777-35"),
+        pessoa("Antonia Pereira", "52998000000"),
+        pessoa("Carlos 100% Lima", "987.654.321-00")));
+  }
+
+  private static Pessoa pessoa(String nome, String cpf) {
+    return Pessoa.builder().nome(nome).cpf(cpf).sexo(SexoEnum.FEMININO).build();
+  }
+
+  private static List<String> nomes(CursorPageDTO<PessoaResponseDTO> page) {
+    return page.getItems().stream().map(PessoaResponseDTO::getNome).toList();
+  }
+
+  @Test
+  @DisplayName("Deve ignorar acentos e listar primeiro quem comeca pelo termo")
+  void testNomeSemAcentoComPrefixoPrimeiro() {
+    CursorPageDTO<PessoaResponseDTO> page = buscaService.buscar("ANTÓNI", null, null);
+
+    assertEquals(List.of("Antonia Pereira", "José Antônio Souza"), nomes(page));
+    assertFalse(page.isHasNext());
+  }
+
+  @Test
+  @DisplayName("Deve buscar CPF pelos digitos, com ou sem pontuacao")
+  void testCpfPorDigitos() {
+    assertEquals(List.of("Antonia Pereira", "Maria José da Silva"),
+        nomes(buscaService.buscar("529.98", null, null)));
+    assertEquals(List.of("José Antônio Souza"),
+        nomes(buscaService.buscar("11144477735", null, null)));
+  }
+
+  @Test
+  @DisplayName("Deve paginar pelo cursor sem repetir resultados")
+  void testPaginacao() {
+    CursorPageDTO<PessoaResponseDTO> primeira = buscaService.buscar("a", null, 2);
+    CursorPageDTO<PessoaResponseDTO> segunda = buscaService.buscar("a", primeira.getNextCursor(), 2);
+
+    assertTrue(primeira.isHasNext());
+    assertEquals(List.of("Antonia Pereira", "Carlos 100% Lima"), nomes(primeira));
+    assertEquals(List.of("José Antônio Souza", "Maria José da Silva"), nomes(segunda));
+    assertFalse(segunda.isHasNext());
+  }
+
+  @Test
+  @DisplayName("Deve tratar curingas do LIKE como texto")
+  void testCuringaLiteral() {
+    assertEquals(List.of("Carlos 100% Lima"), nomes(buscaService.buscar("100%", null, null)));
+  }
+}
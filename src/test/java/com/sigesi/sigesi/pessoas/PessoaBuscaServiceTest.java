@@ -0,0 +1,88 @@
+package com.sigesi.sigesi.pessoas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.sigesi.sigesi.config.CursorCodec;
+import com.sigesi.sigesi.config.CursorPageDTO;
+import com.sigesi.sigesi.pessoas.dtos.PessoaResponseDTO;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PessoaBuscaService Tests")
+class PessoaBuscaServiceTest {
+
+  @Mock
+  private PessoaRepository pessoaRepository;
+
+  @Mock
+  private PessoaMapper pessoaMapper;
+
+  @InjectMocks
+  private PessoaBuscaService buscaService;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(buscaService, "trigramas", true);
+  }
+
+  @Test
+  @DisplayName("Deve usar a busca por trigramas com o termo normalizado e o padrao escapado")
+  void testBuscaPorNome() {
+    Pessoa pessoa = Pessoa.builder().id(1L).nome("João").build();
+    when(pessoaRepository.buscarPorNome("joao_1", "joao\\_1", 3, 0)).thenReturn(List.of(pessoa));
+    when(pessoaMapper.toDto(pessoa)).thenReturn(new PessoaResponseDTO());
+
+    CursorPageDTO<PessoaResponseDTO> page = buscaService.buscar("  JOÃO_1 ", null, 2);
+
+    assertEquals(1, page.getItems().size());
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  @DisplayName("Deve buscar por CPF quando o termo tem apenas digitos e pontuacao")
+  void testBuscaPorCpf() {
+    Pessoa a = Pessoa.builder().id(1L).build();
+    Pessoa b = Pessoa.builder().id(2L).build();
+    when(pessoaRepository.buscarPorCpf("529982", 2, 10)).thenReturn(List.of(a, b));
+    when(pessoaMapper.toDto(a)).thenReturn(new PessoaResponseDTO());
+
+    CursorPageDTO<PessoaResponseDTO> page = buscaService.buscar("529.982", CursorCodec.encode(10L), 1);
+
+    verify(pessoaRepository).buscarPorCpf("529982", 2, 10);
+    assertEquals(1, page.getItems().size());
+    assertEquals(11L, CursorCodec.decode(page.getNextCursor()));
+  }
+
+  @Test
+  @DisplayName("Deve rejeitar termo vazio com 400")
+  void testTermoVazio() {
+    ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+        () -> buscaService.buscar("   ", null, null));
+
+    assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+  }
+
+  @Test
+  @DisplayName("Deve tratar poucos digitos como nome")
+  void testPoucosDigitos() {
+    assertNull(PessoaBuscaService.digitosCpf("12"));
+    assertEquals("123", PessoaBuscaService.digitosCpf("1.23"));
+    assertNull(PessoaBuscaService.digitosCpf("ana 123"));
+  }
+}
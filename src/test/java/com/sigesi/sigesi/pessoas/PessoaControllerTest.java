@@ -10,6 +10,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.util.List;
+import java.util.UUID;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,7 +22,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigesi.sigesi.config.CursorPageDTO;
 import com.sigesi.sigesi.pessoas.dtos.PessoaCreateDTO;
+import com.sigesi.sigesi.pessoas.dtos.PessoaImportStatusDTO;
 import com.sigesi.sigesi.pessoas.dtos.PessoaResponseDTO;
 import com.sigesi.sigesi.pessoas.dtos.PessoaUpdateDTO;
 
@@ -39,6 +42,12 @@ class PessoaControllerTest {
   @MockitoBean
   private PessoaService pessoaService;
 
+  @MockitoBean
+  private PessoaBuscaService pessoaBuscaService;
+
+  @MockitoBean
+  private PessoaImportService pessoaImportService;
+
   // ===== Métodos auxiliares =====
   private PessoaResponseDTO pessoaDTO(Long id, String nome, String cpf, SexoEnum sexo) {
     PessoaResponseDTO dto = new PessoaResponseDTO();
@@ -89,6 +98,45 @@ class PessoaControllerTest {
         .andExpect(jsonPath("$[1].nome", is("Maria Santos")));
   }
 
+  @Test
+  @DisplayName("GET /api/pessoas/busca retorna 200 com pagina e cursor")
+  void testBuscarRetorna200ComPagina() throws Exception {
+    var p1 = pessoaDTO(1L, "João Silva", "123.456.789-00", SexoEnum.MASCULINO);
+    given(pessoaBuscaService.buscar("joao", null, 1)).willReturn(CursorPageDTO.<PessoaResponseDTO>builder()
+        .items(List.of(p1)).nextCursor("abc").hasNext(true).build());
+
+    mockMvc.perform(get("/api/pessoas/busca").param("q", "joao").param("size", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items", hasSize(1)))
+        .andExpect(jsonPath("$.items[0].nome", is("João Silva")))
+        .andExpect(jsonPath("$.nextCursor", is("abc")))
+        .andExpect(jsonPath("$.hasNext", is(true)));
+  }
+
+  @Test
+  @DisplayName("POST /api/pessoas/import retorna 202 com o job e o endereco do status")
+  void testImportarRetorna202() throws Exception {
+    UUID id = UUID.randomUUID();
+    given(pessoaImportService.iniciar(any(), eq(MediaType.parseMediaType("text/csv"))))
+        .willReturn(PessoaImportStatusDTO.builder().id(id).situacao(PessoaImportJob.Situacao.PENDENTE).build());
+
+    mockMvc.perform(post("/api/pessoas/import").contentType("text/csv").content("nome;cpf;sexo\n"))
+        .andExpect(status().isAccepted())
+        .andExpect(header().string("Location", "/api/pessoas/import/" + id))
+        .andExpect(jsonPath("$.situacao", is("PENDENTE")));
+  }
+
+  @Test
+  @DisplayName("GET /api/pessoas/import/{id} retorna 404 para job desconhecido")
+  void testImportStatusRetorna404() throws Exception {
+    UUID id = UUID.randomUUID();
+    given(pessoaImportService.getStatus(id))
+        .willThrow(new com.sigesi.sigesi.config.NotFoundException("Importação não encontrada com ID " + id));
+
+    mockMvc.perform(get("/api/pessoas/import/{id}", id))
+        .andExpect(status().isNotFound());
+  }
+
   @Test
   @DisplayName("GET /api/pessoas/{id} retorna 200 com pessoa encontrada")
   void testGetByIdRetorna200ComPessoa() throws Exception {
@@ -0,0 +1,88 @@
+package com.sigesi.sigesi.pessoas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.sigesi.sigesi.config.ConflictException;
+import com.sigesi.sigesi.enderecos.Endereco;
+import com.sigesi.sigesi.enderecos.EnderecoRepository;
+import com.sigesi.sigesi.enderecos.EnderecoService;
+import com.sigesi.sigesi.pessoas.dtos.PessoaCreateDTO;
+import com.sigesi.sigesi.pessoas.dtos.PessoaUpdateDTO;
+
+/**
+ * Grava CPF repetido contra o H2 dentro da transacao do teste: o conflito tem de aparecer
+ * no salvamento, e nao so no commit.
+ */
+@DataJpaTest
+@Import({PessoaService.class, PessoaMapperImpl.class})
+@DisplayName("PessoaService CPF Unico Tests")
+class PessoaCpfUnicoTest {
+
+  private static final String CPF = "529.982.247-25";
+
+  @Autowired
+  private PessoaService pessoaService;
+
+  @MockitoSpyBean
+  private PessoaRepository pessoaRepository;
+
+  @Autowired
+  private EnderecoRepository enderecoRepository;
+
+  @MockitoBean
+  private EnderecoService enderecoService;
+
+  private Endereco endereco;
+
+  @BeforeEach
+  void setUp() {
+    endereco = enderecoRepository.save(Endereco.builder().logradouro("Rua A").numero("1").bairro("Centro").build());
+    when(enderecoService.getEnderecoEntityById(endereco.getId())).thenReturn(endereco);
+    pessoaRepository.save(Pessoa.builder().nome("Maria").cpf(CPF).sexo(SexoEnum.FEMININO).endereco(endereco).build());
+  }
+
+  private PessoaCreateDTO cadastro(String cpf) {
+    PessoaCreateDTO dto = new PessoaCreateDTO();
+    dto.setNome("Outra Maria");
+    dto.setCpf(cpf);
+    dto.setSexo(SexoEnum.FEMININO);
+    dto.setEnderecoId(endereco.getId());
+    return dto;
+  }
+
+  @Test
+  @DisplayName("Deve responder conflito quando cadastro concorrente grava o mesmo CPF")
+  void testCadastroConcorrenteMesmoCpf() {
+    // O outro cadastro gravou depois da consulta por CPF deste
+    doReturn(Optional.empty()).when(pessoaRepository).findByCpf(CPF);
+
+    ConflictException exception = assertThrows(ConflictException.class,
+        () -> pessoaService.getOrCreatePessoaEntityByCpf(cadastro(CPF)));
+
+    assertEquals("CPF já cadastrado", exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Deve responder conflito ao trocar o CPF por um ja cadastrado")
+  void testAtualizacaoParaCpfExistente() {
+    Pessoa outra = pessoaService.getOrCreatePessoaEntityByCpf(cadastro("111.444.777-35"));
+    PessoaUpdateDTO update = new PessoaUpdateDTO();
+    update.setCpf(CPF);
+
+    assertThrows(ConflictException.class, () -> pessoaService.updatePessoa(outra.getId(), update));
+  }
+}
@@ -0,0 +1,83 @@
+package com.sigesi.sigesi.pessoas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.sigesi.sigesi.pessoas.PessoaImportReader.Formato;
+import com.sigesi.sigesi.pessoas.PessoaImportReader.Linha;
+
+@DisplayName("PessoaImportReader Tests")
+class PessoaImportReaderTest {
+
+  private static List<Linha> ler(String conteudo, Formato formato, int lote) throws IOException {
+    try (PessoaImportReader reader = new PessoaImportReader(new StringReader(conteudo), formato)) {
+      return reader.proximoLote(lote);
+    }
+  }
+
+  @Test
+  @DisplayName("Deve ler CSV com ponto e virgula, aspas e quebra de linha dentro do campo")
+  void testCsvComAspas() throws IOException {
+    String csv = "\uFEFFNome;CPF;Sexo;Referencia\n"
+        + "\"Silva; Ana\";123;F;\"perto da \"\"praca\"\"\n2o andar\"\n"
+        + "\n"
+        + "Joao;456;M;\n";
+
+    List<Linha> linhas = ler(csv, Formato.CSV, 10);
+
+    assertEquals(2, linhas.size());
+    assertEquals("Silva; Ana", linhas.get(0).campo("nome"));
+    assertEquals("perto da \"praca\"\n2o andar", linhas.get(0).campo("referencia"));
+    assertEquals(2, linhas.get(0).numero());
+    assertEquals("456", linhas.get(1).campo("cpf"));
+    assertNull(linhas.get(1).campo("referencia"));
+    assertEquals(5, linhas.get(1).numero());
+  }
+
+  @Test
+  @DisplayName("Deve apontar erro na linha com numero de colunas diferente do cabecalho")
+  void testCsvColunasFaltando() throws IOException {
+    List<Linha> linhas = ler("nome,cpf,sexo\nAna,123\n", Formato.CSV, 10);
+
+    assertEquals("esperadas 3 colunas, encontradas 2", linhas.get(0).erro());
+  }
+
+  @Test
+  @DisplayName("Deve ler NDJSON em lotes e marcar linhas invalidas")
+  void testNdjsonEmLotes() throws IOException {
+    String ndjson = "{\"nome\":\"Ana\",\"CPF\":\"123\"}\n[1]\n{quebrado\n{\"nome\":null}\n";
+
+    try (PessoaImportReader reader = new PessoaImportReader(new StringReader(ndjson), Formato.NDJSON)) {
+      List<Linha> primeiro = reader.proximoLote(2);
+      List<Linha> segundo = reader.proximoLote(2);
+
+      assertEquals("123", primeiro.get(0).campo("cpf"));
+      assertEquals("esperado um objeto JSON", primeiro.get(1).erro());
+      assertEquals("JSON invalido", segundo.get(0).erro());
+      assertNull(segundo.get(1).campo("nome"));
+      assertTrue(reader.proximoLote(2).isEmpty());
+    }
+  }
+
+  @Test
+  @DisplayName("Deve rejeitar Content-Type diferente de CSV ou NDJSON com 415")
+  void testFormatoNaoSuportado() {
+    assertEquals(Formato.CSV, Formato.of(MediaType.parseMediaType("text/csv;charset=ISO-8859-1")));
+    ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+        () -> Formato.of(MediaType.APPLICATION_JSON));
+
+    assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, ex.getStatusCode());
+  }
+}
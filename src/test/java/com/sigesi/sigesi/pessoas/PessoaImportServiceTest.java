@@ -0,0 +1,104 @@
+package com.sigesi.sigesi.pessoas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sigesi.sigesi.pessoas.PessoaImportReader.Formato;
+import com.sigesi.sigesi.pessoas.dtos.PessoaImportStatusDTO;
+
+/**
+ * Executa o job de importacao contra o H2, com lotes pequenos para cruzar limites de lote.
+ */
+@DataJpaTest
+@Import(PessoaImportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("PessoaImportService Tests")
+class PessoaImportServiceTest {
+
+  @Autowired
+  private PessoaImportService importService;
+
+  @Autowired
+  private PessoaRepository pessoaRepository;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  @BeforeEach
+  void setUp() {
+    jdbc.update("delete from pessoa_aud");
+    jdbc.update("delete from endereco_aud");
+    jdbc.update("delete from pessoa");
+    jdbc.update("delete from endereco");
+    ReflectionTestUtils.setField(importService, "chunkSize", 2);
+  }
+
+  private PessoaImportStatusDTO importar(String conteudo, Formato formato) throws Exception {
+    Path arquivo = Files.createTempFile("pessoas-import-test-", ".tmp");
+    Files.writeString(arquivo, conteudo, StandardCharsets.UTF_8);
+    PessoaImportJob job = new PessoaImportJob();
+
+    importService.executar(job, arquivo, formato, StandardCharsets.UTF_8);
+
+    assertFalse(Files.exists(arquivo));
+    return job.toDto();
+  }
+
+  @Test
+  @DisplayName("Deve inserir pessoas com endereco e ignorar CPFs repetidos entre lotes e ja cadastrados")
+  void testImportaComDeduplicacao() throws Exception {
+    pessoaRepository.save(Pessoa.builder().nome("Existente").cpf("999").sexo(SexoEnum.OUTRO).build());
+    String csv = "nome;cpf;sexo;logradouro;numero;bairro\n"
+        + "Ana;111;F;Rua A;10;Centro\n"
+        + "Bruno;222;m;;;\n"
+        + "Ana de novo;111;F;;;\n"
+        + "Existente;999;O;;;\n"
+        + "Carla;333;FEMININO;;;\n";
+
+    PessoaImportStatusDTO status = importar(csv, Formato.CSV);
+
+    assertEquals(PessoaImportJob.Situacao.CONCLUIDA, status.getSituacao());
+    assertEquals(5, status.getLinhasProcessadas());
+    assertEquals(3, status.getInseridas());
+    assertEquals(2, status.getDuplicadas());
+    assertEquals(4, pessoaRepository.count());
+    assertEquals("Rua A", pessoaRepository.findByCpf("111").orElseThrow().getEndereco().getLogradouro());
+    assertEquals(SexoEnum.MASCULINO, pessoaRepository.findByCpf("222").orElseThrow().getSexo());
+  }
+
+  @Test
+  @DisplayName("Deve reportar erros por linha sem interromper a importacao")
+  void testErrosPorLinha() throws Exception {
+    String ndjson = "{\"nome\":\"Ana\",\"cpf\":\"111\",\"sexo\":\"X\"}\n"
+        + "{\"nome\":\"Bia\",\"cpf\":\"222\",\"sexo\":\"F\",\"logradouro\":\"Rua B\"}\n"
+        + "nao e json\n"
+        + "{\"nome\":\"Caio\",\"cpf\":\"333\",\"sexo\":\"M\"}\n";
+
+    PessoaImportStatusDTO status = importar(ndjson, Formato.NDJSON);
+
+    assertEquals(1, status.getInseridas());
+    assertEquals(3, status.getComErro());
+    assertEquals(List.of(
+        "Linha 1: sexo deve ser MASCULINO, FEMININO ou OUTRO",
+        "Linha 2: endereco exige logradouro, numero e bairro",
+        "Linha 3: JSON invalido"), status.getErros());
+    assertTrue(pessoaRepository.findByCpf("333").isPresent());
+  }
+}
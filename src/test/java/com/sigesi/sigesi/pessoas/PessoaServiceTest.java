@@ -10,6 +10,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import com.sigesi.sigesi.config.ConflictException;
 import com.sigesi.sigesi.config.NotFoundException;
@@ -156,7 +158,7 @@ class PessoaServiceTest {
     when(pessoaRepository.existsByCpf(anyString())).thenReturn(false);
     when(enderecoService.getEnderecoEntityById(1L)).thenReturn(enderecoEntity);
     when(pessoaMapper.toEntity(pessoaCreateDTO)).thenReturn(pessoaEntity);
-    when(pessoaRepository.save(pessoaEntity)).thenReturn(pessoaEntity);
+    when(pessoaRepository.saveAndFlush(pessoaEntity)).thenReturn(pessoaEntity);
     when(pessoaMapper.toDto(pessoaEntity)).thenReturn(dto);
 
     PessoaResponseDTO resultado = pessoaService.createPessoa(pessoaCreateDTO);
@@ -164,7 +166,7 @@ class PessoaServiceTest {
     assertNotNull(resultado);
     verify(pessoaRepository, times(1)).existsByCpf("123.456.789-00");
     verify(enderecoService, times(1)).getEnderecoEntityById(1L);
-    verify(pessoaRepository, times(1)).save(pessoaEntity);
+    verify(pessoaRepository, times(1)).saveAndFlush(pessoaEntity);
   }
 
   @Test
@@ -177,7 +179,41 @@ class PessoaServiceTest {
     });
 
     assertTrue(exception.getMessage().contains("CPF já cadastrado"));
-    verify(pessoaRepository, never()).save(any());
+    verify(pessoaRepository, never()).saveAndFlush(any());
+  }
+
+  @Test
+  @DisplayName("Deve lançar conflito quando outro cadastro grava o mesmo CPF antes")
+  void testCreatePessoaLancaConflitoNoIndiceUnico() {
+    Pessoa pessoaEntity = mock(Pessoa.class);
+
+    when(pessoaRepository.existsByCpf(anyString())).thenReturn(false);
+    when(enderecoService.getEnderecoEntityById(1L)).thenReturn(enderecoEntity);
+    when(pessoaMapper.toEntity(pessoaCreateDTO)).thenReturn(pessoaEntity);
+    when(pessoaRepository.saveAndFlush(pessoaEntity)).thenThrow(new DataIntegrityViolationException("duplicado",
+        new ConstraintViolationException("duplicado", null, "uk_pessoa_cpf")));
+
+    ConflictException exception = assertThrows(ConflictException.class, () -> {
+      pessoaService.createPessoa(pessoaCreateDTO);
+    });
+
+    assertTrue(exception.getMessage().contains("CPF já cadastrado"));
+  }
+
+  @Test
+  @DisplayName("Deve propagar violacao de outra restricao sem tratar como CPF duplicado")
+  void testCreatePessoaPropagaOutraViolacao() {
+    Pessoa pessoaEntity = mock(Pessoa.class);
+    DataIntegrityViolationException violacao = new DataIntegrityViolationException("fk",
+        new ConstraintViolationException("fk", null, "fk_pessoa_endereco"));
+
+    when(pessoaRepository.existsByCpf(anyString())).thenReturn(false);
+    when(enderecoService.getEnderecoEntityById(1L)).thenReturn(enderecoEntity);
+    when(pessoaMapper.toEntity(pessoaCreateDTO)).thenReturn(pessoaEntity);
+    when(pessoaRepository.saveAndFlush(pessoaEntity)).thenThrow(violacao);
+
+    assertEquals(violacao, assertThrows(DataIntegrityViolationException.class,
+        () -> pessoaService.createPessoa(pessoaCreateDTO)));
   }
 
   @Test
@@ -195,7 +231,7 @@ class PessoaServiceTest {
     Pessoa resultado = pessoaService.getOrCreatePessoaEntityByCpf(pessoaCreateDTO);
 
     assertEquals(pessoa, resultado);
-    verify(pessoaRepository, never()).save(any());
+    verify(pessoaRepository, never()).saveAndFlush(any());
   }
 
   @Test
@@ -206,12 +242,12 @@ class PessoaServiceTest {
     when(pessoaRepository.findByCpf("123.456.789-00")).thenReturn(Optional.empty());
     when(enderecoService.getEnderecoEntityById(1L)).thenReturn(enderecoEntity);
     when(pessoaMapper.toEntity(pessoaCreateDTO)).thenReturn(pessoaEntity);
-    when(pessoaRepository.save(pessoaEntity)).thenReturn(pessoaEntity);
+    when(pessoaRepository.saveAndFlush(pessoaEntity)).thenReturn(pessoaEntity);
 
     Pessoa resultado = pessoaService.getOrCreatePessoaEntityByCpf(pessoaCreateDTO);
 
     assertEquals(pessoaEntity, resultado);
-    verify(pessoaRepository, times(1)).save(pessoaEntity);
+    verify(pessoaRepository, times(1)).saveAndFlush(pessoaEntity);
   }
 
   @Test
@@ -225,7 +261,7 @@ class PessoaServiceTest {
 
     when(pessoaRepository.findById(1L)).thenReturn(Optional.of(pessoa));
     when(enderecoService.getEnderecoEntityById(anyLong())).thenReturn(enderecoEntity);
-    when(pessoaRepository.save(pessoa)).thenReturn(pessoa);
+    when(pessoaRepository.saveAndFlush(pessoa)).thenReturn(pessoa);
     when(pessoaMapper.toDto(pessoa)).thenReturn(dto);
 
     PessoaResponseDTO resultado = pessoaService.updatePessoa(1L, updateDTO);
@@ -233,7 +269,7 @@ class PessoaServiceTest {
     assertNotNull(resultado);
     verify(pessoaMapper, times(1)).updateFromDto(updateDTO, pessoa);
     verify(enderecoService, times(1)).getEnderecoEntityById(1L);
-    verify(pessoaRepository, times(1)).save(pessoa);
+    verify(pessoaRepository, times(1)).saveAndFlush(pessoa);
   }
 
   @Test
@@ -246,7 +282,7 @@ class PessoaServiceTest {
 
     when(pessoaRepository.findById(1L)).thenReturn(Optional.of(pessoa));
     when(enderecoService.getEnderecoEntityById(99L)).thenReturn(enderecoEntity);
-    when(pessoaRepository.save(pessoa)).thenReturn(pessoa);
+    when(pessoaRepository.saveAndFlush(pessoa)).thenReturn(pessoa);
     when(pessoaMapper.toDto(pessoa)).thenReturn(dto);
 
     PessoaResponseDTO resultado = pessoaService.updatePessoa(1L, updateDTO);
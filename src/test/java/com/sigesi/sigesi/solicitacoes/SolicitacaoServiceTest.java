@@ -27,6 +27,8 @@ import com.sigesi.sigesi.arquivos.Arquivo;
 import com.sigesi.sigesi.arquivos.ArquivoService;
 import com.sigesi.sigesi.config.ConflictException;
 import com.sigesi.sigesi.config.NotFoundException;
+import com.sigesi.sigesi.dashboard.DashboardService;
+import com.sigesi.sigesi.dashboard.SolicitacaoResumo;
 import com.sigesi.sigesi.enderecos.Endereco;
 import com.sigesi.sigesi.enderecos.EnderecoService;
 import com.sigesi.sigesi.pessoas.Pessoa;
@@ -65,6 +67,9 @@ class SolicitacaoServiceTest {
   @Mock
   private ArquivoService arquivoService;
 
+  @Mock
+  private DashboardService dashboardService;
+
   @InjectMocks
   private SolicitacaoService solicitacaoService;
 
@@ -372,6 +377,7 @@ class SolicitacaoServiceTest {
     solicitacaoService.deleteSolicitacao(1L);
 
     verify(solicitacaoRepository, times(1)).delete(solicitacao);
+    verify(dashboardService).solicitacaoAlterada(SolicitacaoResumo.of(solicitacao), null);
   }
 
   @Test
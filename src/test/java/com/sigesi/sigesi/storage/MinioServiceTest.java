@@ -7,23 +7,37 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import io.minio.GetObjectArgs;
 import io.minio.GetObjectResponse;
 import io.minio.MinioClient;
+import io.minio.PostPolicy;
+import io.minio.Result;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
+import io.minio.messages.Item;
 
 /**
  * Testes unitarios para MinioService.
@@ -42,8 +56,9 @@ class MinioServiceTest {
 
   @BeforeEach
   void setUp() {
-    minioService = new MinioService(minioClient);
+    minioService = new MinioService(minioClient, minioClient);
     ReflectionTestUtils.setField(minioService, "bucketName", "test-bucket");
+    ReflectionTestUtils.setField(minioService, "publicEndpoint", "https://files.example.org");
   }
 
   @Test
@@ -98,6 +113,33 @@ class MinioServiceTest {
         () -> minioService.uploadFile(file, "test-key"));
   }
 
+  @Test
+  @DisplayName("Deve enviar stream sem tamanho conhecido")
+  void testUploadStreamComSucesso() throws Exception {
+    String result = minioService.uploadStream(
+        new ByteArrayInputStream("data".getBytes()), -1L, "application/pdf", "test-key");
+
+    assertEquals("test-key", result);
+    verify(minioClient, times(1)).putObject(any());
+  }
+
+  @Test
+  @DisplayName("Deve copiar objeto dentro do bucket")
+  void testCopyFileComSucesso() throws Exception {
+    minioService.copyFile("tmp/a.pdf", "blobs/ab/cd/abcd");
+
+    verify(minioClient, times(1)).copyObject(any());
+  }
+
+  @Test
+  @DisplayName("Deve lancar StorageException quando copia falha")
+  void testCopyFileThrowsStorageException() throws Exception {
+    when(minioClient.copyObject(any())).thenThrow(new RuntimeException("Copy failed"));
+
+    assertThrows(StorageException.class,
+        () -> minioService.copyFile("tmp/a.pdf", "blobs/ab/cd/abcd"));
+  }
+
   @Test
   @DisplayName("Deve fazer download de arquivo com sucesso")
   void testDownloadFileComSucesso() throws Exception {
@@ -117,6 +159,77 @@ class MinioServiceTest {
         () -> minioService.downloadFile("test-key"));
   }
 
+  @Test
+  @DisplayName("Deve baixar apenas o trecho pedido do objeto")
+  void testDownloadFileTrecho() throws Exception {
+    when(minioClient.getObject(any())).thenReturn(getObjectResponse);
+
+    minioService.downloadFile("test-key", 100L, 50L);
+
+    ArgumentCaptor<GetObjectArgs> args = ArgumentCaptor.forClass(GetObjectArgs.class);
+    verify(minioClient).getObject(args.capture());
+    assertEquals(100L, args.getValue().offset());
+    assertEquals(50L, args.getValue().length());
+  }
+
+  @Test
+  @DisplayName("Deve ler ETag, tamanho e tipo do objeto")
+  void testStatFile() throws Exception {
+    StatObjectResponse stat = mock(StatObjectResponse.class);
+    when(stat.etag()).thenReturn("abc");
+    when(stat.size()).thenReturn(1024L);
+    when(stat.contentType()).thenReturn("application/pdf");
+    when(minioClient.statObject(any())).thenReturn(stat);
+
+    assertEquals(new ObjectStat("abc", 1024L, "application/pdf"), minioService.statFile("test-key"));
+  }
+
+  @Test
+  @DisplayName("Deve lancar StorageException quando consulta do objeto falha")
+  void testStatFileThrowsStorageException() throws Exception {
+    when(minioClient.statObject(any())).thenThrow(new RuntimeException("Stat failed"));
+
+    assertThrows(StorageException.class, () -> minioService.statFile("test-key"));
+  }
+
+  @Test
+  @DisplayName("Deve retornar vazio quando o objeto nao existe")
+  void testFindObjectInexistente() throws Exception {
+    ErrorResponse error = new ErrorResponse("NoSuchKey", "Object does not exist", "test-bucket", "test-key", null, null, null);
+    when(minioClient.statObject(any())).thenThrow(new ErrorResponseException(error, null, null));
+
+    assertEquals(Optional.empty(), minioService.findObject("test-key"));
+  }
+
+  @Test
+  @DisplayName("Deve lancar StorageException em vez de dar o objeto como inexistente quando o MinIO falha")
+  void testFindObjectFalhaDeAcesso() throws Exception {
+    ErrorResponse error = new ErrorResponse("AccessDenied", "Access denied", "test-bucket", "test-key", null, null, null);
+    when(minioClient.statObject(any())).thenThrow(new ErrorResponseException(error, null, null));
+
+    assertThrows(StorageException.class, () -> minioService.findObject("test-key"));
+  }
+
+  @Test
+  @DisplayName("Deve listar no maximo uma pagina de objetos")
+  void testListObjectsUmaPagina() throws Exception {
+    ZonedDateTime modificado = ZonedDateTime.parse("2026-10-01T12:00:00Z");
+    Item a = mock(Item.class);
+    when(a.objectName()).thenReturn("blobs/aa");
+    when(a.size()).thenReturn(10L);
+    when(a.lastModified()).thenReturn(modificado);
+    Item b = mock(Item.class);
+    when(b.objectName()).thenReturn("blobs/bb");
+    when(b.lastModified()).thenReturn(modificado);
+    Item c = mock(Item.class);
+    when(minioClient.listObjects(any())).thenReturn(List.of(new Result<>(a), new Result<>(b), new Result<>(c)));
+
+    List<StoredObject> page = minioService.listObjects(null, 2);
+
+    assertEquals(List.of(new StoredObject("blobs/aa", 10L, modificado.toInstant()),
+        new StoredObject("blobs/bb", 0L, modificado.toInstant())), page);
+  }
+
   @Test
   @DisplayName("Deve gerar presigned URL com sucesso")
   void testGetPresignedUrlComSucesso() throws Exception {
@@ -136,6 +249,22 @@ class MinioServiceTest {
         () -> minioService.getPresignedUrl("test-key", 60));
   }
 
+  @Test
+  @DisplayName("Deve assinar formulario de envio com chave, tipo e tamanho fixos")
+  void testPresignPost() throws Exception {
+    ArgumentCaptor<PostPolicy> policy = ArgumentCaptor.forClass(PostPolicy.class);
+    when(minioClient.getPresignedPostFormData(policy.capture()))
+        .thenReturn(Map.of("policy", "p", "x-amz-signature", "s"));
+
+    PresignedPost post = minioService.presignPost("uploads/2026/10/18/a.pdf", "application/pdf", 1234L, 15);
+
+    assertEquals("https://files.example.org/test-bucket", post.url());
+    assertEquals("uploads/2026/10/18/a.pdf", post.fields().get("key"));
+    assertEquals("application/pdf", post.fields().get("Content-Type"));
+    assertEquals("s", post.fields().get("x-amz-signature"));
+    assertEquals("test-bucket", policy.getValue().bucket());
+  }
+
   @Test
   @DisplayName("Deve deletar arquivo com sucesso")
   void testDeleteFileComSucesso() throws Exception {
@@ -0,0 +1,86 @@
+package com.sigesi.sigesi.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Testes unitarios para PresignedUrlCache.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PresignedUrlCache Tests")
+class PresignedUrlCacheTest {
+
+  @Mock
+  private MinioService minioService;
+
+  @InjectMocks
+  private PresignedUrlCache cache;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(cache, "expiryMinutes", 60);
+    ReflectionTestUtils.setField(cache, "minRemainingMinutes", 10);
+    ReflectionTestUtils.setField(cache, "maxEntries", 2);
+  }
+
+  @Test
+  @DisplayName("Deve reutilizar a URL enquanto resta validade suficiente")
+  void testReutilizaUrl() {
+    when(minioService.getPresignedUrl("a", 60)).thenReturn("https://minio/a?sig=1");
+
+    PresignedUrl primeira = cache.get("a");
+    PresignedUrl segunda = cache.get("a");
+
+    assertEquals(primeira, segunda);
+    verify(minioService, times(1)).getPresignedUrl("a", 60);
+    long restante = segunda.expiresInSeconds(System.currentTimeMillis());
+    assertTrue(restante > 3500 && restante <= 3600, "restante: " + restante);
+  }
+
+  @Test
+  @DisplayName("Deve assinar de novo quando a URL esta perto de expirar")
+  void testAssinaPertoDeExpirar() {
+    when(minioService.getPresignedUrl("a", 60)).thenReturn("https://minio/a?sig=1", "https://minio/a?sig=2");
+    cache.get("a");
+    ReflectionTestUtils.setField(cache, "minRemainingMinutes", 61);
+
+    assertEquals("https://minio/a?sig=2", cache.get("a").url());
+  }
+
+  @Test
+  @DisplayName("Deve assinar de novo apos invalidar")
+  void testInvalidate() {
+    when(minioService.getPresignedUrl("a", 60)).thenReturn("https://minio/a?sig=1", "https://minio/a?sig=2");
+    cache.get("a");
+
+    cache.invalidate("a");
+
+    assertEquals("https://minio/a?sig=2", cache.get("a").url());
+  }
+
+  @Test
+  @DisplayName("Deve limitar o numero de URLs guardadas")
+  void testLimiteDeEntradas() {
+    when(minioService.getPresignedUrl("a", 60)).thenReturn("https://minio/a?sig=1", "https://minio/a?sig=2");
+    when(minioService.getPresignedUrl("b", 60)).thenReturn("https://minio/b");
+    when(minioService.getPresignedUrl("c", 60)).thenReturn("https://minio/c");
+    cache.get("a");
+    cache.get("b");
+
+    cache.get("c");
+
+    assertEquals("https://minio/a?sig=2", cache.get("a").url());
+  }
+}
@@ -0,0 +1,113 @@
+package com.sigesi.sigesi.usuarios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sigesi.sigesi.usuarios.enums.Role;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UsuarioCache Tests")
+class UsuarioCacheTest {
+
+  @Mock
+  private UsuarioRepository usuarioRepository;
+
+  @InjectMocks
+  private UsuarioCache usuarioCache;
+
+  private Usuario usuario;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(usuarioCache, "ttlSeconds", 60L);
+    usuario = Usuario.builder().id(2L).email("agente@test.com").role(Role.AGENTE).ativo(true).build();
+  }
+
+  @Test
+  @DisplayName("Deve consultar o banco apenas na primeira leitura")
+  void testGetUsaCache() {
+    when(usuarioRepository.findById(2L)).thenReturn(Optional.of(usuario));
+
+    long primeira = usuarioCache.get(2L).orElseThrow().versao();
+    long segunda = usuarioCache.get(2L).orElseThrow().versao();
+
+    assertEquals(primeira, segunda);
+    verify(usuarioRepository, times(1)).findById(2L);
+  }
+
+  @Test
+  @DisplayName("Deve gerar nova versao apos invalidacao com role alterada")
+  void testInvalidateGeraNovaVersao() {
+    long antes = usuarioCache.put(usuario).versao();
+    Usuario alterado = Usuario.builder().id(2L).role(Role.CIDADAO).ativo(true).build();
+    when(usuarioRepository.findById(2L)).thenReturn(Optional.of(alterado));
+
+    usuarioCache.invalidate(2L);
+    UsuarioCache.Snapshot depois = usuarioCache.get(2L).orElseThrow();
+
+    assertNotEquals(antes, depois.versao());
+    assertEquals(Role.CIDADAO, depois.usuario().getRole());
+  }
+
+  @Test
+  @DisplayName("Deve manter a versao quando o estado nao mudou")
+  void testPutMesmoEstadoMantemVersao() {
+    long antes = usuarioCache.put(usuario).versao();
+    Usuario igual = Usuario.builder().id(2L).email("agente@test.com").role(Role.AGENTE).ativo(true).build();
+
+    assertEquals(antes, usuarioCache.put(igual).versao());
+  }
+
+  @Test
+  @DisplayName("Deve recarregar do banco apos o TTL")
+  void testExpiraAposTtl() {
+    ReflectionTestUtils.setField(usuarioCache, "ttlSeconds", 0L);
+    long antes = usuarioCache.put(usuario).versao();
+    when(usuarioRepository.findById(2L)).thenReturn(Optional.of(usuario));
+
+    assertEquals(antes, usuarioCache.get(2L).orElseThrow().versao());
+    verify(usuarioRepository).findById(2L);
+  }
+
+  @Test
+  @DisplayName("Deve retornar vazio para usuario removido")
+  void testUsuarioRemovido() {
+    when(usuarioRepository.findById(2L)).thenReturn(Optional.empty());
+
+    assertTrue(usuarioCache.get(2L).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Deve dar a mesma versao ao mesmo usuario em instancias diferentes")
+  void testMesmaVersaoEntreInstancias() {
+    UsuarioCache outraInstancia = new UsuarioCache();
+    ReflectionTestUtils.setField(outraInstancia, "usuarioRepository", usuarioRepository);
+    ReflectionTestUtils.setField(outraInstancia, "ttlSeconds", 60L);
+    Usuario mesmoUsuario = Usuario.builder().id(2L).email("agente@test.com").role(Role.AGENTE).ativo(true).build();
+
+    assertEquals(usuarioCache.put(usuario).versao(), outraInstancia.put(mesmoUsuario).versao());
+  }
+
+  @Test
+  @DisplayName("Deve mudar a versao quando o usuario e desativado")
+  void testVersaoMudaComAtivo() {
+    Usuario inativo = Usuario.builder().id(2L).email("agente@test.com").role(Role.AGENTE).ativo(false).build();
+
+    assertNotEquals(UsuarioCache.versao(usuario), UsuarioCache.versao(inativo));
+  }
+}
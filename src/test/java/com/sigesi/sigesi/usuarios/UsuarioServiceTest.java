@@ -27,6 +27,7 @@ import com.sigesi.sigesi.pessoas.PessoaService;
 import com.sigesi.sigesi.pessoas.SexoEnum;
 import com.sigesi.sigesi.pessoas.dtos.PessoaResponseDTO;
 import com.sigesi.sigesi.usuarios.dtos.CadastroCidadaoDTO;
+import com.sigesi.sigesi.usuarios.dtos.UsuarioUpdateDTO;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("UsuarioService Tests")
@@ -44,6 +45,9 @@ class UsuarioServiceTest {
   @Mock
   private EnderecoService enderecoService;
 
+  @Mock
+  private UsuarioCache usuarioCache;
+
   @InjectMocks
   private UsuarioService usuarioService;
 
@@ -126,6 +130,7 @@ class UsuarioServiceTest {
 
     assertNotNull(resultado);
     verify(usuarioRepository, times(1)).save(usuarioMock);
+    verify(usuarioCache).invalidate(2L);
   }
 
   @Test
@@ -177,6 +182,32 @@ class UsuarioServiceTest {
     verify(usuarioRepository, times(1)).save(any(Usuario.class));
   }
 
+  @Test
+  @DisplayName("Não deve gravar usuário no login OAuth2 quando nome e foto não mudaram")
+  void testProcessOAuthPostLoginSemAlteracaoNaoGrava() {
+    OAuth2User oAuth2User = mock(OAuth2User.class);
+    when(oAuth2User.getAttribute("email")).thenReturn("usuario@example.com");
+    when(oAuth2User.getAttribute("name")).thenReturn("João Silva");
+    when(oAuth2User.getAttribute("picture")).thenReturn("https://example.com/pic.jpg");
+    when(usuarioRepository.findByEmail("usuario@example.com")).thenReturn(Optional.of(usuarioMock));
+
+    Usuario resultado = usuarioService.processOAuthPostLogin(oAuth2User);
+
+    assertSame(usuarioMock, resultado);
+    verify(usuarioRepository, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("Deve invalidar o cache ao atualizar usuário")
+  void testUpdateUsuarioInvalidaCache() {
+    when(usuarioRepository.findById(2L)).thenReturn(Optional.of(usuarioMock));
+    when(usuarioRepository.save(usuarioMock)).thenReturn(usuarioMock);
+
+    usuarioService.updateUsuario(2L, new UsuarioUpdateDTO());
+
+    verify(usuarioCache).invalidate(2L);
+  }
+
   @Test
   @DisplayName("Deve criar novo usuário no processamento OAuth2 quando não existe")
   void testProcessOAuthPostLoginCriaNovoUsuario() {